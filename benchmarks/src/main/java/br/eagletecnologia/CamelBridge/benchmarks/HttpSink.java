@@ -0,0 +1,67 @@
+package br.eagletecnologia.CamelBridge.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * API de destino falsa, no mesmo processo: lê e descarta o corpo de cada requisição e
+ * responde 200 imediatamente, de modo que o benchmark mede o custo do lado do
+ * CamelBridge (produtor HTTP, conexão, serialização) e não o de uma API real.
+ */
+final class HttpSink implements AutoCloseable {
+
+    static {
+        // Sem TCP_NODELAY, o cabeçalho e o corpo da resposta em escritas separadas
+        // esperam o ACK atrasado do cliente (~40 ms por requisição)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private static final byte[] RESPONSE = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    HttpSink(int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "http-sink");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = exchange.getRequestBody()) {
+                while (in.read(buffer) >= 0) {
+                    // descarta o corpo
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(RESPONSE);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * URL base do servidor (ex: http://127.0.0.1:41234).
+     */
+    String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
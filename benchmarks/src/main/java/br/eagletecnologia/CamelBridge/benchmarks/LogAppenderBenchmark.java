@@ -0,0 +1,85 @@
+package br.eagletecnologia.CamelBridge.benchmarks;
+
+import br.eagletecnologia.CamelBridge.gui.LogAppender;
+import br.eagletecnologia.CamelBridge.gui.LogMessage;
+import br.eagletecnologia.CamelBridge.gui.LogRingBuffer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Custo de um log para as threads das rotas com o appender da interface gráfica ativo,
+ * com várias threads registrando logs ao mesmo tempo (padrão: 4, altere com -t).
+ *
+ * Uma thread consome o buffer em segundo plano, no lugar do painel de logs, de modo
+ * que o buffer não fica cheio. Os logs passam somente pelo {@link LogAppender}
+ * (log4j2-benchmarks.properties não tem appender de console).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dlog4j.configurationFile=log4j2-benchmarks.properties"})
+@Threads(4)
+@State(Scope.Benchmark)
+public class LogAppenderBenchmark {
+
+    private static final Logger LOG = LogManager.getLogger("br.eagletecnologia.CamelBridge.benchmarks.rota");
+
+    private LogRingBuffer<LogMessage> buffer;
+    private Thread consumer;
+    private volatile boolean running;
+
+    @Setup
+    public void setup() {
+        LogAppender.register();
+        buffer = LogAppender.getBuffer();
+        running = true;
+        consumer = new Thread(() -> {
+            while (running) {
+                if (buffer.drain(message -> { }, 2000) == 0) {
+                    LockSupport.parkNanos(100_000);
+                }
+            }
+        }, "log-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        consumer.join();
+        System.out.println("Logs descartados pelo buffer: " + buffer.getDropped());
+    }
+
+    /**
+     * Log de uma rota com parâmetros, pelo Log4j2 até o buffer da GUI.
+     */
+    @Benchmark
+    public void logInfo() {
+        LOG.info("Enviando lote {} com {} usuário(s) para API: {}", 42, 500, "https://rbaskets.in/usuarios");
+    }
+
+    /**
+     * Apenas a publicação de uma mensagem já formatada no buffer.
+     */
+    @Benchmark
+    public void offer() {
+        buffer.offer(new LogMessage(System.currentTimeMillis(), "INFO", "rota", "Lote 42 enviado com sucesso"));
+    }
+}
@@ -0,0 +1,180 @@
+package br.eagletecnologia.CamelBridge.benchmarks;
+
+import br.eagletecnologia.CamelBridge.metrics.MetricsRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.CamelContext;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo das etapas das rotas de usuarios.yaml por registro, dentro de um CamelContext.
+ *
+ * Cada benchmark envia os usuários por uma rota com uma única etapa, de modo que a
+ * diferença para {@link #exchangeBaseline} é o custo da etapa: cabeçalhos, split,
+ * marshal Jackson e o produtor HTTP contra a {@link HttpSink} local (um POST por
+ * registro ou um lote de {@value #ROWS} registros por POST). O parâmetro {@code metrics}
+ * mede as rotas com e sem o {@link MetricsRegistry} instalado.
+ *
+ * Tempos e alocações ({@code -prof gc}, gc.alloc.rate.norm) são por registro.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dlog4j.configurationFile=log4j2-benchmarks.properties"})
+@State(Scope.Benchmark)
+public class RoutePathBenchmark {
+
+    /** Registros por página ou lote (usuarios.pageSize e usuarios.batch.size). */
+    static final int ROWS = 500;
+
+    /** Registros enviados um a um ao servidor HTTP por invocação. */
+    static final int HTTP_ROWS = 50;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private HttpSink sink;
+    private CamelContext context;
+    private ProducerTemplate template;
+    private List<Map<String, Object>> page;
+    private byte[][] records;
+    private byte[] batch;
+
+    @Setup
+    public void setup() throws Exception {
+        sink = new HttpSink(4);
+        page = UsuariosRows.maps(ROWS);
+        ObjectMapper mapper = new ObjectMapper();
+        records = new byte[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            records[i] = mapper.writeValueAsBytes(page.get(i));
+        }
+        batch = mapper.writeValueAsBytes(page);
+
+        context = new DefaultCamelContext();
+        Properties properties = new Properties();
+        properties.setProperty("lastSearch", "2025-12-25 16:34:00");
+        properties.setProperty("usuarios.targetUrl", sink.getUrl() + "/usuarios");
+        context.getPropertiesComponent().setInitialProperties(properties);
+        if (metrics) {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.install(context);
+            context.getRegistry().bind("metrics", registry);
+        }
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:baseline").routeId("baseline")
+                    .setProperty("noop", constant(true));
+
+                from("direct:headers").routeId("headers")
+                    .setHeader("ULTIMA_SINCRONIZACAO", simple("{{lastSearch}}"))
+                    .setHeader("Content-Type", constant("application/json"))
+                    .setHeader("USUARIOS_ID", simple("${body[USUARIOS_ID]}"));
+
+                from("direct:split").routeId("split")
+                    .split(body())
+                        .setProperty("noop", constant(true))
+                    .end();
+
+                from("direct:marshal").routeId("marshal")
+                    .marshal().json();
+
+                from("direct:http").routeId("http")
+                    .setHeader("Content-Type", constant("application/json"))
+                    .to("{{usuarios.targetUrl}}?httpMethod=POST");
+            }
+        });
+        context.start();
+        template = context.createProducerTemplate();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        template.stop();
+        context.stop();
+        sink.close();
+    }
+
+    /**
+     * Uma mensagem por registro passando por uma rota sem etapas relevantes.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void exchangeBaseline(Blackhole blackhole) {
+        for (Map<String, Object> row : page) {
+            blackhole.consume(template.requestBody("direct:baseline", row));
+        }
+    }
+
+    /**
+     * Uma mensagem por registro com os cabeçalhos definidos por set-header (constante,
+     * propriedade e expressão simple).
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void setHeaders(Blackhole blackhole) {
+        for (Map<String, Object> row : page) {
+            blackhole.consume(template.requestBody("direct:headers", row));
+        }
+    }
+
+    /**
+     * Split de uma página de usuários em uma mensagem por registro.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void splitPage(Blackhole blackhole) {
+        blackhole.consume(template.requestBody("direct:split", page));
+    }
+
+    /**
+     * Marshal Jackson de uma página inteira pela DSL (marshal: json).
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void marshalPage(Blackhole blackhole) {
+        blackhole.consume(template.requestBody("direct:marshal", page));
+    }
+
+    /**
+     * Um POST por registro (rotas que enviam cada usuário separadamente).
+     */
+    @Benchmark
+    @OperationsPerInvocation(HTTP_ROWS)
+    public void httpPostPerRecord(Blackhole blackhole) {
+        for (int i = 0; i < HTTP_ROWS; i++) {
+            blackhole.consume(template.requestBody("direct:http", records[i]));
+        }
+    }
+
+    /**
+     * Um POST com um lote de {@value #ROWS} registros já em JSON (bulk).
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void httpPostBatch(Blackhole blackhole) {
+        blackhole.consume(template.requestBody("direct:http", batch));
+    }
+}
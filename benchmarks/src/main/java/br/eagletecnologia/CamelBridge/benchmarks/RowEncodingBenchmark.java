@@ -0,0 +1,104 @@
+package br.eagletecnologia.CamelBridge.benchmarks;
+
+import br.eagletecnologia.CamelBridge.codec.RowJsonCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import java.sql.ResultSetMetaData;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão das linhas lidas do banco em JSON, por registro.
+ *
+ * Compara o caminho com mapas (componente sql + marshal Jackson) com a codificação
+ * direta do {@link java.sql.ResultSet} usada pelo keyset com outputType=json. Cada
+ * invocação processa uma página de {@value #ROWS} usuários; os tempos e as alocações
+ * ({@code -prof gc}, gc.alloc.rate.norm) são divididos por registro.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class RowEncodingBenchmark {
+
+    /** Registros por invocação (usuarios.pageSize). */
+    static final int ROWS = 500;
+
+    private CachedRowSet rows;
+    private ResultSetMetaData metaData;
+    private List<Map<String, Object>> maps;
+    private ObjectMapper mapper;
+    private RowJsonCodec codec;
+
+    @Setup
+    public void setup() throws Exception {
+        rows = UsuariosRows.resultSet(ROWS);
+        metaData = rows.getMetaData();
+        maps = UsuariosRows.maps(ROWS);
+        mapper = new ObjectMapper();
+        codec = RowJsonCodec.of(metaData, List.of("MODIFICADO", "USUARIOS_ID"));
+    }
+
+    /**
+     * Criação do mapa de cada linha (getObject de todas as colunas).
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void rowMap(Blackhole blackhole) throws Exception {
+        rows.beforeFirst();
+        while (rows.next()) {
+            blackhole.consume(UsuariosRows.toMap(rows, metaData));
+        }
+    }
+
+    /**
+     * Marshal Jackson de mapas já criados.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void jacksonMarshal(Blackhole blackhole) throws Exception {
+        for (Map<String, Object> row : maps) {
+            blackhole.consume(mapper.writeValueAsBytes(row));
+        }
+    }
+
+    /**
+     * Caminho completo com mapas: linha → mapa → JSON.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void rowMapThenJackson(Blackhole blackhole) throws Exception {
+        rows.beforeFirst();
+        while (rows.next()) {
+            blackhole.consume(mapper.writeValueAsBytes(UsuariosRows.toMap(rows, metaData)));
+        }
+    }
+
+    /**
+     * Codificação direta da linha em JSON (keyset com outputType=json).
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void rowJsonCodec(Blackhole blackhole) throws Exception {
+        rows.beforeFirst();
+        while (rows.next()) {
+            blackhole.consume(codec.encode(rows));
+        }
+    }
+}
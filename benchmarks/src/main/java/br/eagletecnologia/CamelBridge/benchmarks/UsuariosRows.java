@@ -0,0 +1,93 @@
+package br.eagletecnologia.CamelBridge.benchmarks;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registros de teste com as colunas lidas pela rota sincronizar-usuarios
+ * (routes/usuarios.yaml), em memória e sem banco de dados.
+ *
+ * O {@link ResultSet} é um {@link CachedRowSet} do JDK, de modo que os benchmarks medem
+ * a conversão das linhas e não a rede ou o driver JDBC.
+ */
+final class UsuariosRows {
+
+    static final String[] COLUMNS = {
+        "USUARIOS_ID", "FUNCIONARIOS_ID", "USUARIO_LOGIN", "USUARIO_SENHA", "PERFIS_ID", "USUARIO_INATIVO", "MODIFICADO"
+    };
+
+    static final int[] TYPES = {
+        Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.CHAR, Types.TIMESTAMP
+    };
+
+    private static final long BASE_MODIFICADO = Timestamp.valueOf("2025-12-25 16:34:00").getTime();
+
+    private UsuariosRows() {
+    }
+
+    /**
+     * Resultado de consulta com {@code count} usuários, posicionado antes da primeira linha.
+     */
+    static CachedRowSet resultSet(int count) throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            metaData.setColumnName(i + 1, COLUMNS[i]);
+            metaData.setColumnLabel(i + 1, COLUMNS[i]);
+            metaData.setColumnType(i + 1, TYPES[i]);
+            metaData.setNullable(i + 1, ResultSetMetaData.columnNullable);
+        }
+
+        CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+        rows.setMetaData(metaData);
+        for (int id = 1; id <= count; id++) {
+            rows.moveToInsertRow();
+            rows.updateInt(1, id);
+            rows.updateInt(2, 1000 + id);
+            rows.updateString(3, "usuario" + id);
+            rows.updateString(4, "5f4dcc3b5aa765d61d8327deb882cf99");
+            rows.updateInt(5, id % 7);
+            rows.updateString(6, id % 10 == 0 ? "S" : "N");
+            rows.updateTimestamp(7, new Timestamp(BASE_MODIFICADO + id * 1000L));
+            rows.insertRow();
+            rows.moveToCurrentRow();
+        }
+        rows.beforeFirst();
+        return rows;
+    }
+
+    /**
+     * Os mesmos usuários já convertidos em mapas, como entregues pelo componente sql.
+     */
+    static List<Map<String, Object>> maps(int count) throws SQLException {
+        ResultSet rows = resultSet(count);
+        List<Map<String, Object>> maps = new ArrayList<>(count);
+        while (rows.next()) {
+            maps.add(toMap(rows, rows.getMetaData()));
+        }
+        return maps;
+    }
+
+    /**
+     * Converte a linha atual em um mapa coluna → valor, como o componente sql faz para
+     * cada linha (getObject de cada coluna, na ordem da consulta).
+     */
+    static Map<String, Object> toMap(ResultSet rows, ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        Map<String, Object> row = new LinkedHashMap<>(columnCount * 2);
+        for (int i = 1; i <= columnCount; i++) {
+            row.put(metaData.getColumnLabel(i), rows.getObject(i));
+        }
+        return row;
+    }
+}
@@ -1,13 +1,51 @@
 package br.eagletecnologia.CamelBridge;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
 import javax.sql.DataSource;
 
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import br.eagletecnologia.CamelBridge.cluster.ClusterCoordinator;
+import br.eagletecnologia.CamelBridge.cluster.ClusterRoutePolicy;
+import br.eagletecnologia.CamelBridge.cluster.LeaseTable;
+import br.eagletecnologia.CamelBridge.codec.RowJsonDataFormat;
+import br.eagletecnologia.CamelBridge.delivery.BulkComponent;
+import br.eagletecnologia.CamelBridge.delivery.DeadLetterStore;
+import br.eagletecnologia.CamelBridge.delivery.DeliveryExecutor;
+import br.eagletecnologia.CamelBridge.execution.ExecutionGuard;
+import br.eagletecnologia.CamelBridge.execution.ExecutionPolicy;
+import br.eagletecnologia.CamelBridge.http.DeliveryHttpComponent;
+import br.eagletecnologia.CamelBridge.http.HttpTransportOptions;
+import br.eagletecnologia.CamelBridge.http.HttpTransportRegistry;
+import br.eagletecnologia.CamelBridge.index.RowHashIndexStore;
+import br.eagletecnologia.CamelBridge.journal.JournalComponent;
+import br.eagletecnologia.CamelBridge.metrics.MetricsHttpServer;
+import br.eagletecnologia.CamelBridge.metrics.MetricsRegistry;
+import br.eagletecnologia.CamelBridge.metrics.PoolMetrics;
+import br.eagletecnologia.CamelBridge.extraction.KeysetComponent;
+import br.eagletecnologia.CamelBridge.reconcile.ReconcileComponent;
+import br.eagletecnologia.CamelBridge.reload.HotReloadWatcher;
+import br.eagletecnologia.CamelBridge.startup.JdbcDriverDataSource;
+import br.eagletecnologia.CamelBridge.startup.PoolWarmup;
+import br.eagletecnologia.CamelBridge.sync.TableSyncRoutes;
+import br.eagletecnologia.CamelBridge.sync.TableSyncScheduler;
+import br.eagletecnologia.CamelBridge.trigger.TriggerComponent;
+
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
 import org.apache.camel.BindToRegistry;
+import org.apache.camel.CamelConfiguration;
+import org.apache.camel.CamelContext;
 import org.apache.camel.Configuration;
 import org.apache.camel.PropertyInject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Classe de configuração da aplicação Camel.
@@ -18,9 +56,15 @@ import org.apache.camel.PropertyInject;
  * 
  * As regras de negócio e lógica das rotas estão definidas nos arquivos YAML
  * na pasta routes/, mantendo 100% das regras de negócio nas rotas.
+ * 
+ * A classe é registrada explicitamente no Camel Main ({@link Main#newCamelMain()}), sem
+ * varredura de pacotes, para que as classes da interface gráfica não sejam carregadas
+ * no modo sem interface.
  */
 @Configuration
-public class AppConfiguration {
+public class AppConfiguration implements CamelConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AppConfiguration.class);
 
     /**
      * Configura e registra o DataSource para conexão com o banco de dados.
@@ -32,10 +76,18 @@ public class AppConfiguration {
      * O DataSource será registrado com o nome "dataSource" e pode ser referenciado
      * nas rotas através de #dataSource (ex: sql:SELECT * FROM tabela?dataSource=#dataSource)
      * 
+     * As conexões são abertas diretamente pelo driver de db.driver
+     * ({@link JdbcDriverDataSource}): somente ele é carregado, e não todos os drivers JDBC
+     * do classpath. Com db.pool.warmup = BACKGROUND (padrão) a inicialização não espera
+     * nenhuma conexão: as db.pool.minimumIdle conexões são abertas em segundo plano
+     * enquanto as rotas iniciam; EAGER espera a primeira conexão e LAZY só cria o pool no
+     * primeiro uso ({@link PoolWarmup}).
+     * 
      * @param url URL de conexão JDBC (ex: jdbc:postgresql://localhost:5432/banco)
      * @param username Usuário do banco de dados
      * @param password Senha do banco de dados
      * @param driverClassName Nome da classe do driver JDBC
+     * @param warmup Quando o pool abre as primeiras conexões (EAGER, BACKGROUND ou LAZY)
      * @param minimumIdle Tamanho mínimo do pool de conexões
      * @param maximumPoolSize Tamanho máximo do pool de conexões
      * @param connectionTimeout Tempo máximo de espera para obter uma conexão (ms)
@@ -50,6 +102,7 @@ public class AppConfiguration {
             @PropertyInject("db.username") String username,
             @PropertyInject("db.password") String password,
             @PropertyInject("db.driver") String driverClassName,
+            @PropertyInject(value = "db.pool.warmup", defaultValue = "BACKGROUND") String warmup,
             @PropertyInject(value = "db.pool.minimumIdle", defaultValue = "5") int minimumIdle,
             @PropertyInject(value = "db.pool.maximumPoolSize", defaultValue = "20") int maximumPoolSize,
             @PropertyInject(value = "db.pool.connectionTimeout", defaultValue = "30000") long connectionTimeout,
@@ -58,11 +111,11 @@ public class AppConfiguration {
             @PropertyInject(value = "db.pool.connectionTestQuery", defaultValue = "SELECT 1") String connectionTestQuery) {
         
         // Configura o HikariCP com as propriedades fornecidas
+        PoolWarmup poolWarmup = PoolWarmup.valueOf(warmup.trim().toUpperCase());
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(url);
+        config.setDataSource(new JdbcDriverDataSource(driverClassName, url));
         config.setUsername(username);
         config.setPassword(password);
-        config.setDriverClassName(driverClassName);
         config.setMinimumIdle(minimumIdle);
         config.setMaximumPoolSize(maximumPoolSize);
         config.setConnectionTimeout(connectionTimeout);
@@ -73,10 +126,600 @@ public class AppConfiguration {
         // Configurações adicionais recomendadas
         config.setPoolName("CamelBridgeHikariPool");
         config.setLeakDetectionThreshold(60000); // Detecta vazamentos de conexão após 60 segundos
+        config.setMetricsTrackerFactory(new PoolMetrics()); // Tempo de espera e de uso das conexões (/metrics)
         
-        // Cria e retorna o DataSource configurado
+        if (poolWarmup == PoolWarmup.EAGER) {
+            return new HikariDataSource(config);
+        }
+        // Sem a conexão de teste síncrona: o banco inacessível não impede a inicialização
+        config.setInitializationFailTimeout(-1);
+        if (poolWarmup == PoolWarmup.LAZY) {
+            HikariDataSource dataSource = new HikariDataSource();
+            config.copyStateTo(dataSource);
+            return dataSource;
+        }
         return new HikariDataSource(config);
     }
 
-}
+    /**
+     * Configura e registra o armazenamento de checkpoints (watermarks) das rotas.
+     * 
+     * Cada rota lê o seu watermark no início da execução e o avança para o maior
+     * MODIFICADO entregue com sucesso. O valor de lastSearch é usado apenas como
+     * watermark inicial das rotas que ainda não possuem checkpoint gravado.
+     * 
+     * Referenciado nas rotas através de bean:checkpointStore
+     * (ex: bean:checkpointStore?method=begin)
+     * 
+     * @param file Arquivo local onde os checkpoints são gravados
+     * @param lastSearch Watermark inicial (yyyy-MM-dd HH:mm:ss)
+     * @return CheckpointStore carregado a partir do arquivo
+     */
+    @BindToRegistry("checkpointStore")
+    public CheckpointStore checkpointStore(
+            @PropertyInject(value = "sync.checkpoint.file", defaultValue = "data/checkpoints.properties") String file,
+            @PropertyInject("lastSearch") String lastSearch) {
+        return new CheckpointStore(Paths.get(file), lastSearch);
+    }
+
+    /**
+     * Configura e registra a política que impede execuções sobrepostas das rotas agendadas.
+     * 
+     * O cron dispara a rota no horário configurado mesmo que a execução anterior ainda
+     * não tenha terminado (ex: durante um grande volume de alterações). Nas rotas que
+     * usam esta política, o disparo que chega nesse momento é ignorado (SKIP), aguarda o
+     * fim da execução atual, no máximo um por vez (QUEUE), ou é agrupado com os demais em
+     * uma única nova execução (COALESCE), conforme sync.execution.policy. A duração das
+     * execuções e os disparos ignorados de cada rota aparecem na barra de status.
+     * 
+     * A rota sincronizar-usuarios é disparada pelo componente trigger, que já agrupa os
+     * disparos e nunca sobrepõe execuções: nela a política não ignora nem atrasa nenhum
+     * disparo, e fica apenas para a duração das execuções na barra de status e para o
+     * caso de o from voltar ao cron.
+     * 
+     * Referenciado nas rotas através de route-policy
+     * (ex: route: id: sincronizar-usuarios, route-policy: executionGuard)
+     * 
+     * @param policy Política para os disparos recebidos durante uma execução
+     * @return ExecutionGuard
+     */
+    @BindToRegistry("executionGuard")
+    public ExecutionGuard executionGuard(
+            @PropertyInject(value = "sync.execution.policy", defaultValue = "SKIP") String policy) {
+        return new ExecutionGuard(ExecutionPolicy.valueOf(policy.trim().toUpperCase()));
+    }
+
+    /**
+     * Configura e registra as métricas de vazão e latência das rotas.
+     * 
+     * Mede cada execução de todas as rotas e cada etapa (SQL, marshal, HTTP etc.) dentro
+     * delas: mensagens e registros por segundo, registros por execução, percentis de
+     * latência (p50/p95/p99), execuções em andamento e taxa de erros. A medição usa
+     * contadores sem locks e histogramas de buckets fixos, com custo desprezível por
+     * mensagem. Os valores aparecem na aba Métricas da interface gráfica.
+     * 
+     * Não é referenciado nas rotas: a política e o interceptador são instalados no
+     * contexto e se aplicam a todas as rotas automaticamente.
+     * 
+     * @param camelContext Contexto Camel onde as métricas são instaladas
+     * @return MetricsRegistry com as métricas de todas as rotas
+     */
+    @BindToRegistry("metrics")
+    public MetricsRegistry metrics(CamelContext camelContext) {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.install(camelContext);
+        return metrics;
+    }
+
+    /**
+     * Configura e registra o servidor HTTP de métricas no formato OpenMetrics (Prometheus).
+     * 
+     * Expõe em http://host:porta/metrics as métricas das rotas e etapas, do pool de
+     * conexões (conexões ativas, ociosas, threads aguardando e tempo de espera por
+     * conexão) e o atraso do watermark de cada rota (agora menos o último MODIFICADO
+     * sincronizado). Destinado ao modo sem interface, em que a aba Métricas não existe.
+     * 
+     * O servidor só é iniciado quando metrics.http.enabled=true.
+     * 
+     * @param camelContext Contexto Camel de onde as métricas são lidas
+     * @param enabled Inicia o servidor de métricas
+     * @param host Endereço em que o servidor escuta
+     * @param port Porta do servidor
+     * @return MetricsHttpServer, registrado como serviço do CamelContext quando habilitado
+     * @throws Exception se o servidor não puder ser registrado no contexto
+     */
+    @BindToRegistry("metricsServer")
+    public MetricsHttpServer metricsServer(
+            CamelContext camelContext,
+            @PropertyInject(value = "metrics.http.enabled", defaultValue = "false") boolean enabled,
+            @PropertyInject(value = "metrics.http.host", defaultValue = "0.0.0.0") String host,
+            @PropertyInject(value = "metrics.http.port", defaultValue = "9464") int port) throws Exception {
+        MetricsHttpServer server = new MetricsHttpServer(camelContext, host, port);
+        if (enabled) {
+            camelContext.addService(server);
+        }
+        return server;
+    }
+
+    /**
+     * Registra o componente de extração paginada por keyset.
+     * 
+     * Permite que as rotas leiam grandes volumes de registros em páginas de tamanho
+     * fixo, com a próxima página buscada em segundo plano, mantendo a memória limitada
+     * independentemente de quantos registros foram alterados.
+     * 
+     * Referenciado nas rotas através do esquema keyset:
+     * (ex: keyset:USUARIOS?keyColumns=MODIFICADO,USUARIOS_ID&pageSize=500)
+     * 
+     * @return KeysetComponent
+     */
+    @BindToRegistry("keyset")
+    public KeysetComponent keysetComponent() {
+        return new KeysetComponent();
+    }
+
+    /**
+     * Registra o data format de conversão de registros para JSON.
+     * 
+     * Converte um ResultSet, uma página do keyset ou uma lista de registros em um array
+     * JSON, escrevendo as linhas direto do ResultSet (ou copiando o JSON já codificado
+     * pelo keyset com outputType=json) sem montar um Map por registro. Mapas avulsos
+     * continuam sendo convertidos pelo Jackson.
+     * 
+     * Referenciado nas rotas através de marshal com o data format customizado:
+     * (ex: marshal: custom: rowJson)
+     * 
+     * @return RowJsonDataFormat
+     */
+    @BindToRegistry("rowJson")
+    public RowJsonDataFormat rowJsonDataFormat() {
+        return new RowJsonDataFormat();
+    }
+
+    /**
+     * Registra o componente de entrega em lote.
+     * 
+     * Agrupa os registros de cada mensagem em lotes (por quantidade ou tamanho em
+     * bytes) e envia cada lote como um único payload JSON ou NDJSON para uma
+     * rota de entrega. Lotes recusados pelo destino são divididos e reenviados.
+     * 
+     * Referenciado nas rotas através do esquema bulk:
+     * (ex: bulk:usuarios?deliverTo=direct:enviar-lote-usuarios&batchSize=500)
+     * 
+     * @return BulkComponent
+     */
+    @BindToRegistry("bulk")
+    public BulkComponent bulkComponent() {
+        return new BulkComponent();
+    }
+
+    /**
+     * Configura e registra o executor compartilhado de entrega às APIs externas.
+     * 
+     * Em JDK 21 ou superior (e delivery.virtualThreads = true) cada envio roda em uma
+     * virtual thread; caso contrário, é usado um pool fixo de delivery.threads threads.
+     * Independentemente do pool, no máximo delivery.maxInFlightPerHost requisições
+     * ficam em andamento ao mesmo tempo para um mesmo host de destino.
+     * 
+     * Com delivery.limiter.adaptive = true, o limite de cada host começa em
+     * delivery.limiter.initialLimit e se ajusta (AIMD) conforme a latência e os códigos
+     * HTTP das respostas: cresce aos poucos enquanto a API responde bem e é reduzido pela
+     * metade diante de HTTP 429, 5xx ou latência acima de delivery.limiter.latencyThresholdMs.
+     * O cabeçalho Retry-After suspende os envios ao host pelo tempo pedido.
+     * 
+     * O executor é iniciado e finalizado junto com o CamelContext.
+     * 
+     * Referenciado nas rotas através de #deliveryExecutor
+     * (ex: bulk:usuarios?executor=#deliveryExecutor&keyColumn=USUARIOS_ID)
+     * ou executor-service: deliveryExecutor em um split
+     * 
+     * @param camelContext Contexto Camel que controla o ciclo de vida do executor
+     * @param virtualThreads Usa virtual threads quando a JVM suportar
+     * @param threads Tamanho do pool de threads de plataforma
+     * @param maxInFlightPerHost Máximo de requisições simultâneas por host de destino
+     * @param adaptive Ajusta o limite de cada host conforme latência e erros
+     * @param initialLimit Limite inicial de requisições simultâneas por host
+     * @param minLimit Limite mínimo de requisições simultâneas por host
+     * @param latencyThresholdMs Latência (ms) considerada sinal de sobrecarga
+     * @param backoffRatio Fator de redução do limite sob sobrecarga
+     * @return DeliveryExecutor registrado como serviço do CamelContext
+     * @throws Exception se o executor não puder ser registrado no contexto
+     */
+    @BindToRegistry("deliveryExecutor")
+    public DeliveryExecutor deliveryExecutor(
+            CamelContext camelContext,
+            @PropertyInject(value = "delivery.virtualThreads", defaultValue = "true") boolean virtualThreads,
+            @PropertyInject(value = "delivery.threads", defaultValue = "16") int threads,
+            @PropertyInject(value = "delivery.maxInFlightPerHost", defaultValue = "8") int maxInFlightPerHost,
+            @PropertyInject(value = "delivery.limiter.adaptive", defaultValue = "true") boolean adaptive,
+            @PropertyInject(value = "delivery.limiter.initialLimit", defaultValue = "2") int initialLimit,
+            @PropertyInject(value = "delivery.limiter.minLimit", defaultValue = "1") int minLimit,
+            @PropertyInject(value = "delivery.limiter.latencyThresholdMs", defaultValue = "5000") long latencyThresholdMs,
+            @PropertyInject(value = "delivery.limiter.backoffRatio", defaultValue = "0.5") double backoffRatio) throws Exception {
+        DeliveryExecutor executor = new DeliveryExecutor(camelContext, virtualThreads, threads, maxInFlightPerHost);
+        executor.setAdaptive(adaptive);
+        executor.setInitialLimit(initialLimit);
+        executor.setMinLimit(minLimit);
+        executor.setLatencyThresholdMs(latencyThresholdMs);
+        executor.setBackoffRatio(backoffRatio);
+        camelContext.addService(executor);
+        return executor;
+    }
 
+    /**
+     * Configura e registra os transportes HTTP de entrega, um por host de destino.
+     * 
+     * Todas as rotas que enviam para um mesmo host pelo componente delivery: (rotas YAML e
+     * rotas geradas de sync.table.*) compartilham o transporte dele: um pool de até
+     * delivery.http.maxConnections conexões persistentes (HTTP/1.1), reaproveitadas
+     * enquanto ficam ociosas por menos de delivery.http.idleTimeout ms, ou, com
+     * delivery.http.http2 = true, uma única conexão HTTP/2 com as requisições
+     * multiplexadas. Os corpos a partir de delivery.http.gzipThreshold bytes são enviados
+     * comprimidos (Content-Encoding: gzip).
+     * 
+     * Cada opção pode ser definida para um host com delivery.http.host.&lt;host&gt;.&lt;opção&gt;
+     * (ex: delivery.http.host.api.exemplo.com.http2 = true). As conexões abertas e
+     * reaproveitadas de cada host aparecem nas métricas (/metrics).
+     * 
+     * Os transportes são criados no primeiro envio para cada host e fechados junto com o
+     * CamelContext.
+     * 
+     * Referenciado nas rotas através do componente delivery: (ex:
+     * delivery:https://api.exemplo.com/usuarios?httpMethod=POST)
+     * 
+     * @param camelContext Contexto Camel que controla o ciclo de vida dos transportes
+     * @param maxConnections Conexões por host (HTTP/1.1) ou requisições simultâneas na conexão HTTP/2
+     * @param keepAlive Reaproveita as conexões entre requisições
+     * @param idleTimeout Tempo (ms) que uma conexão pode ficar ociosa antes de ser fechada
+     * @param http2 Usa HTTP/2 com as requisições multiplexadas em uma conexão
+     * @param gzip Comprime os corpos das requisições com gzip
+     * @param gzipThreshold Tamanho mínimo (bytes) do corpo comprimido
+     * @param connectTimeout Tempo máximo (ms) para conectar ou obter uma conexão do pool
+     * @param readTimeout Tempo máximo (ms) de espera pela resposta
+     * @return HttpTransportRegistry registrado como serviço do CamelContext
+     * @throws Exception se uma opção for inválida ou o serviço não puder ser registrado
+     */
+    @BindToRegistry("httpTransports")
+    public HttpTransportRegistry httpTransports(
+            CamelContext camelContext,
+            @PropertyInject(value = "delivery.http.maxConnections", defaultValue = "8") int maxConnections,
+            @PropertyInject(value = "delivery.http.keepAlive", defaultValue = "true") boolean keepAlive,
+            @PropertyInject(value = "delivery.http.idleTimeout", defaultValue = "30000") long idleTimeout,
+            @PropertyInject(value = "delivery.http.http2", defaultValue = "false") boolean http2,
+            @PropertyInject(value = "delivery.http.gzip", defaultValue = "false") boolean gzip,
+            @PropertyInject(value = "delivery.http.gzipThreshold", defaultValue = "16384") int gzipThreshold,
+            @PropertyInject(value = "delivery.http.connectTimeout", defaultValue = "10000") long connectTimeout,
+            @PropertyInject(value = "delivery.http.readTimeout", defaultValue = "60000") long readTimeout) throws Exception {
+        HttpTransportOptions defaults = new HttpTransportOptions(maxConnections, keepAlive, idleTimeout, http2,
+            gzip, gzipThreshold, connectTimeout, readTimeout);
+        HttpTransportRegistry transports = new HttpTransportRegistry(defaults, HttpTransportOptions.parseHosts(
+            camelContext.getPropertiesComponent().loadProperties(key -> key.startsWith(HttpTransportOptions.HOST_PREFIX))));
+        camelContext.addService(transports);
+        return transports;
+    }
+
+    /**
+     * Registra o componente de envio HTTP pelos transportes compartilhados por host.
+     * 
+     * Substitui a URL http(s) do componente http do Camel nas rotas de envio, com o mesmo
+     * contrato (cabeçalhos, CamelHttpResponseCode, HttpOperationFailedException nas
+     * respostas fora da faixa 2xx), mas com as conexões do httpTransports.
+     * 
+     * Referenciado nas rotas através do esquema delivery:
+     * (ex: delivery:{{usuarios.targetUrl}}?httpMethod=POST)
+     * 
+     * @return DeliveryHttpComponent
+     */
+    @BindToRegistry("delivery")
+    public DeliveryHttpComponent deliveryHttpComponent() {
+        return new DeliveryHttpComponent();
+    }
+
+    /**
+     * Configura e registra os índices de hash de conteúdo das tabelas sincronizadas.
+     * 
+     * Para cada tabela, o índice guarda a chave do registro (ex: USUARIOS_ID) e um hash
+     * de 64 bits das colunas enviadas na última entrega bem-sucedida. Registros cujo
+     * MODIFICADO mudou sem alterar as colunas sincronizadas são descartados pelo bulk
+     * antes do envio. Os índices são arquivos mapeados em memória (fora do heap) em
+     * sync.hashIndex.dir, fechados junto com o CamelContext.
+     * 
+     * Para reconstruir os índices do zero, execute a aplicação com
+     * --rebuild-hash-index [TABELA].
+     * 
+     * Referenciado nas rotas através de #rowHashIndex
+     * (ex: bulk:usuarios?hashIndex=#rowHashIndex&keyColumn=USUARIOS_ID)
+     * 
+     * @param camelContext Contexto Camel que controla o ciclo de vida dos índices
+     * @param directory Diretório onde os índices são gravados
+     * @return RowHashIndexStore registrado como serviço do CamelContext
+     * @throws Exception se o serviço não puder ser registrado no contexto
+     */
+    @BindToRegistry("rowHashIndex")
+    public RowHashIndexStore rowHashIndex(
+            CamelContext camelContext,
+            @PropertyInject(value = "sync.hashIndex.dir", defaultValue = "data/hash-index") String directory) throws Exception {
+        RowHashIndexStore store = new RowHashIndexStore(Paths.get(directory));
+        camelContext.addService(store);
+        return store;
+    }
+
+    /**
+     * Configura e registra o componente de journal local entre extração e entrega.
+     * 
+     * A rota de extração grava os registros lidos do banco no journal (segmentos
+     * append-only em disco) e libera a conexão assim que a leitura termina; uma rota de
+     * entrega independente lê o journal no ritmo da API e confirma o offset de cada grupo
+     * entregue. Após uma queda ou indisponibilidade da API, a entrega recomeça exatamente
+     * do último registro confirmado, sem consultar o banco novamente.
+     * 
+     * Referenciado nas rotas através do esquema journal:
+     * (ex: to journal:usuarios e from journal:usuarios?maxRecords=1000)
+     * 
+     * @param directory Diretório onde os journals são gravados (um subdiretório por journal)
+     * @param segmentSize Tamanho máximo de cada segmento do journal em bytes
+     * @return JournalComponent
+     */
+    @BindToRegistry("journal")
+    public JournalComponent journalComponent(
+            @PropertyInject(value = "sync.journal.dir", defaultValue = "data/journal") String directory,
+            @PropertyInject(value = "sync.journal.segmentSize", defaultValue = "67108864") long segmentSize) {
+        JournalComponent component = new JournalComponent();
+        component.setDirectory(directory);
+        component.setSegmentSize(segmentSize);
+        return component;
+    }
+
+    /**
+     * Configura e registra o componente de reconciliação por faixas de chave.
+     * 
+     * Compara a tabela da origem com o destino sem reenviar a tabela inteira: os
+     * checksums (quantidade e soma dos fingerprints) de faixas de USUARIOS_ID são
+     * calculados no banco por agregação e comparados com os do destino (modo target) ou
+     * com os das faixas já verificadas contra o índice de hash das entregas (modo local).
+     * Apenas as faixas divergentes são divididas e consultadas de novo, até faixas
+     * pequenas comparadas registro a registro, e só os registros diferentes são
+     * devolvidos para reenvio.
+     * 
+     * No modo local, as faixas verificadas de cada endpoint ficam em sync.reconcile.dir.
+     * 
+     * Referenciado nas rotas através do esquema reconcile:
+     * (ex: reconcile:USUARIOS?keyColumn=USUARIOS_ID&mode=local&hashIndex=#rowHashIndex)
+     * 
+     * @param directory Diretório das faixas verificadas no modo local
+     * @return ReconcileComponent
+     */
+    @BindToRegistry("reconcile")
+    public ReconcileComponent reconcileComponent(
+            @PropertyInject(value = "sync.reconcile.dir", defaultValue = "data/reconcile") String directory) {
+        ReconcileComponent component = new ReconcileComponent();
+        component.setDirectory(directory);
+        return component;
+    }
+
+    /**
+     * Registra o componente de disparo das rotas por alteração no banco.
+     * 
+     * Substitui o cron no from das rotas de extração: em vez de consultar a tabela em
+     * horários fixos, a rota é executada quando uma consulta barata de alteração muda de
+     * resultado (ex: SELECT MAX(MODIFICADO) a cada poucos segundos) ou quando o Firebird
+     * avisa um evento POST_EVENT postado por trigger da tabela. Os disparos são agrupados
+     * em no máximo uma execução pendente, de modo que uma rajada de alterações não
+     * enfileira extrações.
+     * 
+     * Referenciado nas rotas através do esquema trigger:
+     * (ex: trigger:usuarios?source=event&events=USUARIOS_ALTERADO)
+     * 
+     * @return TriggerComponent
+     */
+    @BindToRegistry("trigger")
+    public TriggerComponent triggerComponent() {
+        return new TriggerComponent();
+    }
+
+    /**
+     * Configura e registra o armazenamento local de dead letters da entrega.
+     * 
+     * Os registros que o bulk não consegue entregar mesmo depois de dividir os lotes
+     * (ex: HTTP 400 por um dado inválido) são gravados em um journal próprio em
+     * sync.deadLetter.dir, com o JSON do registro, os cabeçalhos, o erro e a quantidade
+     * de tentativas, e a entrega segue com os demais registros. O reenvio lê os dead
+     * letters em grupos de sync.deadLetter.replay.batchSize registros e os envia de novo
+     * pelo mesmo endpoint bulk, sem consultar o banco; é disparado pelo menu Entrega da
+     * interface gráfica e, com sync.deadLetter.replay.interval &gt; 0, periodicamente.
+     * 
+     * O armazenamento é aberto e fechado junto com o CamelContext.
+     * 
+     * Referenciado nas rotas através de #deadLetterStore
+     * (ex: bulk:usuarios?deadLetter=#deadLetterStore&deadLetterOn=rejected)
+     * 
+     * @param camelContext Contexto Camel usado no reenvio
+     * @param directory Diretório do journal de dead letters
+     * @param segmentSize Tamanho máximo de cada segmento do journal em bytes
+     * @param replayBatchSize Registros enviados ao bulk por vez no reenvio
+     * @param replayInterval Intervalo (ms) entre reenvios automáticos (0 = apenas manual)
+     * @return DeadLetterStore registrado como serviço do CamelContext
+     * @throws Exception se o serviço não puder ser registrado no contexto
+     */
+    @BindToRegistry("deadLetterStore")
+    public DeadLetterStore deadLetterStore(
+            CamelContext camelContext,
+            @PropertyInject(value = "sync.deadLetter.dir", defaultValue = "data/dead-letter") String directory,
+            @PropertyInject(value = "sync.journal.segmentSize", defaultValue = "67108864") long segmentSize,
+            @PropertyInject(value = "sync.deadLetter.replay.batchSize", defaultValue = "500") int replayBatchSize,
+            @PropertyInject(value = "sync.deadLetter.replay.interval", defaultValue = "0") long replayInterval) throws Exception {
+        DeadLetterStore store = new DeadLetterStore(camelContext, Paths.get(directory), segmentSize,
+            replayBatchSize, replayInterval);
+        camelContext.addService(store);
+        return store;
+    }
+
+    /**
+     * Configura e registra o agendador único das tabelas descritas em sync.table.*.
+     * 
+     * Em vez de um cron por tabela, uma única thread dispara a extração de cada tabela a
+     * cada sync.scheduler.interval ms (ou o interval da tabela), contado a partir do fim
+     * da extração anterior. As extrações dividem um orçamento de
+     * sync.scheduler.dbConnections conexões do pool (uma por partição), limitado a
+     * db.pool.maximumPoolSize para que o pool nunca seja disputado além do tamanho; as
+     * entregas dividem um orçamento de sync.scheduler.httpConcurrency requisições HTTP
+     * (uma por fila paralela), somado ao limite por host do deliveryExecutor. Quando uma
+     * tabela grande e várias pequenas disputam o orçamento, a vez é da que menos usou o
+     * recurso recentemente, de modo que as pequenas não ficam esperando a grande terminar.
+     * 
+     * Sem tabelas descritas, o agendador não cria threads. As rotas YAML (ex: usuarios)
+     * continuam com o próprio disparo (trigger em sincronizar-usuarios, cron em
+     * reconciliar-usuarios) e não entram nos orçamentos.
+     * 
+     * @param camelContext Contexto Camel onde as rotas das tabelas são executadas
+     * @param dbConnections Conexões do pool que as extrações podem ocupar ao mesmo tempo
+     * @param httpConcurrency Requisições HTTP simultâneas somando as entregas de todas as tabelas
+     * @param tick Intervalo (ms) entre as verificações de tabelas na hora de extrair
+     * @param maximumPoolSize Tamanho máximo do pool de conexões
+     * @return TableSyncScheduler registrado como serviço do CamelContext
+     * @throws Exception se o serviço não puder ser registrado no contexto
+     */
+    @BindToRegistry("tableSyncScheduler")
+    public TableSyncScheduler tableSyncScheduler(
+            CamelContext camelContext,
+            @PropertyInject(value = "sync.scheduler.dbConnections", defaultValue = "8") int dbConnections,
+            @PropertyInject(value = "sync.scheduler.httpConcurrency", defaultValue = "16") int httpConcurrency,
+            @PropertyInject(value = "sync.scheduler.tick", defaultValue = "1000") long tick,
+            @PropertyInject(value = "db.pool.maximumPoolSize", defaultValue = "20") int maximumPoolSize) throws Exception {
+        if (dbConnections > maximumPoolSize) {
+            LOG.warn("sync.scheduler.dbConnections ({}) maior que db.pool.maximumPoolSize; usando {}",
+                dbConnections, maximumPoolSize);
+            dbConnections = maximumPoolSize;
+        }
+        TableSyncScheduler scheduler = new TableSyncScheduler(camelContext, dbConnections, httpConcurrency, tick);
+        camelContext.addService(scheduler);
+        return scheduler;
+    }
+
+    /**
+     * Registra o gerador das rotas das tabelas descritas em sync.table.*.
+     * 
+     * Cada tabela é descrita em poucas linhas do application.properties (tabela, colunas
+     * de chave, coluna de watermark, colunas enviadas, URL de destino, tamanho do lote) e
+     * vira, na inicialização, as mesmas rotas de extração, entrega e envio escritas à mão
+     * em routes/usuarios.yaml: sincronizar-&lt;nome&gt;, entregar-&lt;nome&gt; e
+     * enviar-lote-&lt;nome&gt;, todas registradas no tableSyncScheduler. A de extração
+     * usa também o clusterPolicy, como sincronizar-usuarios.
+     * 
+     * Não é referenciado nas rotas: o Camel Main adiciona as rotas geradas ao contexto.
+     * 
+     * @param interval Intervalo (ms) entre extrações das tabelas sem a opção interval
+     * @return TableSyncRoutes
+     */
+    @BindToRegistry("tableSyncRoutes")
+    public TableSyncRoutes tableSyncRoutes(
+            @PropertyInject(value = "sync.scheduler.interval", defaultValue = "50000") long interval) {
+        return new TableSyncRoutes(interval);
+    }
+
+    /**
+     * Configura e registra a recarga automática de rotas e propriedades.
+     * 
+     * Observa os arquivos YAML em reload.routes.dir e o arquivo de propriedades externo
+     * (config/application.properties, ou -Dapp.config) e aplica as alterações sem
+     * reiniciar a JVM: um arquivo de rotas alterado substitui apenas as rotas que vieram
+     * dele, depois de validado; uma propriedade alterada reinicia apenas as rotas que a
+     * usam como {{chave}}. Antes da substituição, cada rota deixa de consumir e espera as
+     * mensagens em andamento por até reload.drainTimeout segundos. O pool de conexões, o
+     * executor de entrega, os journals e os demais beans não são recriados.
+     * 
+     * Propriedades lidas apenas na inicialização (db.*, delivery.*, sync.* dos beans desta
+     * classe) continuam exigindo reinício; as alteradas são listadas no log.
+     * 
+     * @param camelContext Contexto Camel cujas rotas são recarregadas
+     * @param enabled Observa os arquivos e aplica as alterações automaticamente
+     * @param routesDirectory Diretório dos arquivos YAML de rotas
+     * @param debounce Tempo (ms) sem novas alterações antes de aplicá-las
+     * @param drainTimeout Tempo máximo (s) de espera pelas mensagens em andamento de cada rota
+     * @return HotReloadWatcher, registrado como serviço do CamelContext quando habilitado
+     * @throws Exception se o serviço não puder ser registrado no contexto
+     */
+    @BindToRegistry("hotReload")
+    public HotReloadWatcher hotReload(
+            CamelContext camelContext,
+            @PropertyInject(value = "reload.enabled", defaultValue = "true") boolean enabled,
+            @PropertyInject(value = "reload.routes.dir", defaultValue = "routes") String routesDirectory,
+            @PropertyInject(value = "reload.debounce", defaultValue = "500") long debounce,
+            @PropertyInject(value = "reload.drainTimeout", defaultValue = "30") long drainTimeout) throws Exception {
+        HotReloadWatcher watcher = new HotReloadWatcher(camelContext, Paths.get(routesDirectory), debounce, drainTimeout);
+        if (enabled) {
+            camelContext.addService(watcher);
+        }
+        return watcher;
+    }
+
+    /**
+     * Configura e registra a política que divide o trabalho das rotas entre várias
+     * instâncias ligadas ao mesmo banco.
+     * 
+     * Com cluster.enabled=true, os nós disputam leases gravados em uma tabela do próprio
+     * banco (cluster.table, criada na primeira execução), renovados a cada
+     * cluster.heartbeatInterval ms. Cada rota com esta política é executada apenas pelo
+     * nó que detém o seu lease, e as rotas são divididas igualmente entre os nós vivos;
+     * com cluster.route.&lt;id&gt;.partitions = N, as linhas da rota são divididas em N
+     * partições de chave, executadas ao mesmo tempo pelos nós que as detêm. Um nó que
+     * para de renovar os seus leases por cluster.leaseDuration ms tem o trabalho assumido
+     * pelos demais, a partir do watermark gravado no lease (o de registros já entregues,
+     * e não apenas gravados no journal local); um nó encerrado normalmente libera os
+     * leases na hora. A expiração é medida pelo relógio de cada nó, sem exigir relógios
+     * sincronizados. Com cluster.route.&lt;id&gt;.hashTable, as chaves das partições que
+     * outro nó pode ter entregue são removidas do índice de hash local ao assumi-las.
+     * 
+     * Com cluster.enabled=false (padrão), a política não interfere nas execuções.
+     * 
+     * Referenciado nas rotas através de route-policy, junto com o executionGuard
+     * (ex: route-policy: "executionGuard,clusterPolicy")
+     * 
+     * @param camelContext Contexto Camel que executa o heartbeat
+     * @param dataSource Banco compartilhado pelos nós, onde fica a tabela de leases
+     * @param checkpointStore Watermarks das rotas, gravados também nos leases
+     * @param rowHashIndex Índices de hash locais, limpos nas partições assumidas de outro nó
+     * @param enabled Divide o trabalho entre os nós
+     * @param nodeId Identificação única do nó; auto usa o nome do host com um sufixo aleatório
+     * @param table Nome da tabela de leases
+     * @param leaseDuration Tempo (ms) sem renovação para um lease ser assumido por outro nó
+     * @param heartbeatInterval Intervalo (ms) entre as renovações dos leases
+     * @return ClusterRoutePolicy, com o coordenador registrado como serviço do CamelContext quando habilitado
+     * @throws Exception se uma opção for inválida ou o serviço não puder ser registrado
+     */
+    @BindToRegistry("clusterPolicy")
+    public ClusterRoutePolicy clusterPolicy(
+            CamelContext camelContext,
+            DataSource dataSource,
+            CheckpointStore checkpointStore,
+            RowHashIndexStore rowHashIndex,
+            @PropertyInject(value = "cluster.enabled", defaultValue = "false") boolean enabled,
+            @PropertyInject(value = "cluster.nodeId", defaultValue = "auto") String nodeId,
+            @PropertyInject(value = "cluster.table", defaultValue = "CB_LEASES") String table,
+            @PropertyInject(value = "cluster.leaseDuration", defaultValue = "10000") long leaseDuration,
+            @PropertyInject(value = "cluster.heartbeatInterval", defaultValue = "2000") long heartbeatInterval) throws Exception {
+        Properties routes = camelContext.getPropertiesComponent()
+            .loadProperties(key -> key.startsWith(ClusterRoutePolicy.ROUTE_PREFIX));
+        Map<String, Integer> partitions = ClusterRoutePolicy.parsePartitions(routes);
+        Map<String, String> hashTables = ClusterRoutePolicy.parseHashTables(routes);
+        if (!enabled) {
+            return new ClusterRoutePolicy(null, partitions, hashTables, checkpointStore, rowHashIndex);
+        }
+        if (nodeId.isBlank() || nodeId.trim().equalsIgnoreCase("auto")) {
+            nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        ClusterCoordinator coordinator = new ClusterCoordinator(camelContext, new LeaseTable(dataSource, table.trim()),
+            nodeId.trim(), leaseDuration, heartbeatInterval);
+        camelContext.addService(coordinator);
+        return new ClusterRoutePolicy(coordinator, partitions, hashTables, checkpointStore, rowHashIndex);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+
+}
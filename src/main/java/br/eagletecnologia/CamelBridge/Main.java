@@ -1,83 +1,125 @@
 package br.eagletecnologia.CamelBridge;
 
-import br.eagletecnologia.CamelBridge.gui.CamelBridgeFrame;
+import br.eagletecnologia.CamelBridge.gui.GuiLauncher;
+import br.eagletecnologia.CamelBridge.index.RowHashIndexStore;
 import br.eagletecnologia.CamelBridge.service.ApplicationService;
+import br.eagletecnologia.CamelBridge.startup.StartupReport;
 
-import javax.swing.*;
+import java.awt.GraphicsEnvironment;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * Classe principal que inicia a aplicação Camel com interface gráfica.
+ * Classe principal que inicia a aplicação Camel.
+ * 
+ * Por padrão a aplicação abre a interface gráfica ({@code GuiLauncher}). Com o argumento
+ * --headless (ou app.headless = true) o Camel é iniciado diretamente, sem Swing, para
+ * servidores sem display; --gui força a interface gráfica.
+ * 
+ * Com o argumento --rebuild-hash-index [TABELA], apaga os índices de hash de conteúdo
+ * (de uma tabela ou de todas) e termina, sem iniciar o Camel.
  */
 public final class Main {
 
+    private static final String REBUILD_HASH_INDEX = "--rebuild-hash-index";
+    private static final String HEADLESS = "--headless";
+    private static final String GUI = "--gui";
+    private static final String HEADLESS_PROPERTY = "app.headless";
+
     private Main() {
     }
 
     public static void main(String[] args) throws Exception {
-        // Registrar o appender do Log4j2 ANTES de qualquer coisa
-        // Isso garante que os logs sejam capturados desde o início
-        br.eagletecnologia.CamelBridge.gui.LogAppender.register();
+        List<String> arguments = Arrays.asList(args);
+        int rebuild = arguments.indexOf(REBUILD_HASH_INDEX);
+        if (rebuild >= 0) {
+            String table = rebuild + 1 < args.length && !args[rebuild + 1].startsWith("-") ? args[rebuild + 1] : null;
+            rebuildHashIndex(table);
+            return;
+        }
         
-        // Iniciar GUI na Event Dispatch Thread
-        SwingUtilities.invokeLater(() -> {
-            try {
-                // Criar serviço da aplicação
-                ApplicationService applicationService = new ApplicationService();
-                
-                // Criar e exibir janela principal
-                CamelBridgeFrame frame = new CamelBridgeFrame(applicationService);
-                frame.setVisible(true);
-                
-                // Pequeno delay para garantir que a GUI esteja totalmente inicializada
-                Timer initTimer = new Timer(100, e -> {
-                    // Iniciar Camel em thread separada para não bloquear a GUI
-                    Thread camelThread = new Thread(() -> {
-                        try {
-                            org.apache.camel.main.Main camelMain = new org.apache.camel.main.Main(Main.class);
-                            applicationService.setCamelMain(camelMain);
-                            
-                            // Atualizar status na GUI
-                            SwingUtilities.invokeLater(() -> {
-                                frame.getStatusBar().updateStatus("Iniciando...");
-                            });
-                            
-                            // Executar Camel (bloqueia até ser parado)
-                            camelMain.run(args);
-                        } catch (Exception ex) {
-                            ex.printStackTrace();
-                            SwingUtilities.invokeLater(() -> {
-                                frame.getStatusBar().updateStatus("Erro: " + ex.getMessage());
-                                JOptionPane.showMessageDialog(
-                                    frame,
-                                    "Erro ao iniciar Camel: " + ex.getMessage(),
-                                    "Erro",
-                                    JOptionPane.ERROR_MESSAGE
-                                );
-                            });
-                        }
-                    });
-                    
-                    camelThread.setDaemon(true);
-                    camelThread.setName("Camel-Main-Thread");
-                    camelThread.start();
-                    
-                    ((Timer) e.getSource()).stop();
-                });
-                initTimer.setRepeats(false);
-                initTimer.start();
-                
-            } catch (Exception e) {
-                e.printStackTrace();
-                JOptionPane.showMessageDialog(
-                    null,
-                    "Erro ao iniciar aplicação: " + e.getMessage(),
-                    "Erro Fatal",
-                    JOptionPane.ERROR_MESSAGE
-                );
-                System.exit(1);
-            }
-        });
+        ApplicationService applicationService = new ApplicationService();
+        String[] camelArgs = arguments.stream()
+            .filter(argument -> !argument.equals(HEADLESS) && !argument.equals(GUI))
+            .toArray(String[]::new);
+
+        if (isHeadless(arguments, applicationService)) {
+            runHeadless(camelArgs);
+        } else {
+            // As classes do pacote gui só são carregadas neste modo
+            GuiLauncher.launch(applicationService, camelArgs);
+        }
     }
 
-}
+    /**
+     * Decide o modo de execução: os argumentos --headless/--gui têm prioridade, depois a
+     * propriedade de sistema e a propriedade app.headless do application.properties. Sem
+     * nenhuma delas, o modo sem interface é usado quando não há display disponível.
+     */
+    private static boolean isHeadless(List<String> arguments, ApplicationService applicationService) {
+        if (arguments.contains(HEADLESS)) {
+            return true;
+        }
+        if (arguments.contains(GUI)) {
+            return false;
+        }
+        String property = System.getProperty(HEADLESS_PROPERTY,
+            applicationService.getProperty(HEADLESS_PROPERTY, ""));
+        if (!property.isBlank()) {
+            return Boolean.parseBoolean(property.trim());
+        }
+        return GraphicsEnvironment.isHeadless();
+    }
+
+    /**
+     * Executa o Camel Main diretamente na thread principal, sem Swing e sem o appender de
+     * logs da GUI (os logs vão apenas para o console). Bloqueia até a aplicação ser
+     * encerrada: um SIGTERM (ou Ctrl+C) aciona o hook de desligamento do Camel Main, que
+     * para as rotas e os serviços (executor de entrega, journal, índices) antes de sair.
+     */
+    private static void runHeadless(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        newCamelMain().run(args);
+    }
 
+    /**
+     * Cria o Camel Main da aplicação com a configuração {@link AppConfiguration}.
+     * 
+     * A configuração é registrada diretamente em vez de localizada por varredura do
+     * pacote, que carregaria todas as classes da aplicação (inclusive as do Swing) e
+     * atrasaria a inicialização. É registrada como instância: registrada pela classe, o
+     * Camel Main a processa duas vezes e cria cada bean (pool de conexões, executores,
+     * journals) em dobro.
+     * 
+     * As propriedades do arquivo externo ({@link ApplicationService#EXTERNAL_PROPERTIES_FILE},
+     * opcional) têm prioridade sobre as do application.properties do classpath; alterações
+     * nele são aplicadas sem reiniciar (hotReload, AppConfiguration).
+     * 
+     * Ao terminar de iniciar, o tempo de cada fase da inicialização vai para o log
+     * ({@link StartupReport}, app.startup.report).
+     */
+    public static org.apache.camel.main.Main newCamelMain() {
+        org.apache.camel.main.Main camelMain = new org.apache.camel.main.Main();
+        camelMain.setPropertyPlaceholderLocations("file:" + ApplicationService.EXTERNAL_PROPERTIES_FILE
+            + ";optional=true,classpath:application.properties;optional=true");
+        camelMain.configure().addConfiguration(new AppConfiguration());
+        camelMain.addMainListener(new StartupReport());
+        return camelMain;
+    }
+
+    /**
+     * Apaga os índices de hash de conteúdo, para que sejam reconstruídos do zero nas
+     * próximas sincronizações.
+     */
+    private static void rebuildHashIndex(String table) throws Exception {
+        ApplicationService applicationService = new ApplicationService();
+        String directory = applicationService.getProperty("sync.hashIndex.dir", "data/hash-index");
+        RowHashIndexStore store = new RowHashIndexStore(Paths.get(directory));
+        int removed = store.rebuild(table);
+        System.out.println("Índice de hash " + (table != null ? "da tabela " + table : "de todas as tabelas")
+            + " apagado (" + removed + " arquivo(s) em " + directory + ")."
+            + " Será reconstruído nas próximas sincronizações.");
+    }
+
+}
@@ -0,0 +1,297 @@
+package br.eagletecnologia.CamelBridge.checkpoint;
+
+import org.apache.camel.Exchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Armazena a marca d'água (watermark) de sincronização de cada rota.
+ *
+ * Cada rota lê o seu watermark no início da execução ({@link #begin(Exchange)}),
+ * registra o maior valor de MODIFICADO entregue com sucesso ({@link #track(Exchange)})
+ * e, ao final de uma execução bem-sucedida, avança o watermark ({@link #commit(Exchange)}).
+ *
+ * Os valores são persistidos em um arquivo local no formato de propriedades,
+ * indexado pelo id da rota. A gravação é atômica: o conteúdo é escrito em um arquivo
+ * temporário no mesmo diretório e depois movido sobre o arquivo definitivo, de modo que
+ * uma queda do processo nunca deixa o arquivo corrompido.
+ *
+ * Durante uma extração particionada (keyset com partitions &gt; 1), o mesmo arquivo
+ * guarda também o plano de partições e a posição de cada partição
+ * ({@code id#plano} e {@code id#<partição>}), para que uma extração interrompida
+ * continue de onde parou. Essas entradas são removidas no {@link #commit(Exchange)}.
+ */
+public class CheckpointStore {
+
+    /**
+     * Cabeçalho com o watermark usado na consulta SQL da rota.
+     */
+    public static final String WATERMARK_HEADER = "ULTIMA_SINCRONIZACAO";
+
+    /**
+     * Cabeçalho com o valor de MODIFICADO do registro sendo entregue.
+     */
+    public static final String RECORD_WATERMARK_HEADER = "MODIFICADO_REGISTRO";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckpointStore.class);
+
+    private static final char PARTITION_SEPARATOR = '#';
+    private static final String PLAN_SUFFIX = "plano";
+
+    private final Path file;
+    private final String initialWatermark;
+    private final Map<String, String> watermarks = new ConcurrentHashMap<>();
+    private final Map<String, Comparable<Object>> pending = new ConcurrentHashMap<>();
+    private final Map<String, String> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * @param file Arquivo onde os watermarks são persistidos
+     * @param initialWatermark Watermark usado pelas rotas que ainda não possuem checkpoint
+     */
+    public CheckpointStore(Path file, String initialWatermark) {
+        this.file = file;
+        this.initialWatermark = initialWatermark;
+        load();
+    }
+
+    /**
+     * Carrega os watermarks gravados anteriormente, se existirem.
+     */
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(file)) {
+            properties.load(is);
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao ler checkpoints de " + file, e);
+        }
+
+        for (String key : properties.stringPropertyNames()) {
+            (key.indexOf(PARTITION_SEPARATOR) >= 0 ? partitions : watermarks).put(key, properties.getProperty(key));
+        }
+        LOG.info("Checkpoints carregados de {}: {}", file, watermarks);
+    }
+
+    /**
+     * Retorna o watermark atual da rota, ou o watermark inicial se a rota
+     * ainda não foi sincronizada.
+     */
+    public String getWatermark(String routeId) {
+        return watermarks.getOrDefault(routeId, initialWatermark);
+    }
+
+    /**
+     * Watermark usado pelas rotas que ainda não possuem checkpoint (lastSearch).
+     */
+    public String getInitialWatermark() {
+        return initialWatermark;
+    }
+
+    /**
+     * Retorna uma cópia ordenada dos watermarks de todas as rotas já sincronizadas.
+     */
+    public Map<String, String> getWatermarks() {
+        return Collections.unmodifiableMap(new TreeMap<>(watermarks));
+    }
+
+    /**
+     * Retorna o menor watermark entre as rotas, que é o ponto mais atrasado da
+     * sincronização. Sem checkpoints gravados, retorna o watermark inicial.
+     */
+    public String getOldestWatermark() {
+        return watermarks.values().stream()
+            .min(String::compareTo)
+            .orElse(initialWatermark);
+    }
+
+    /**
+     * Início da execução: descarta registros pendentes de execuções anteriores e
+     * define o cabeçalho {@value #WATERMARK_HEADER} com o watermark da rota.
+     */
+    public void begin(Exchange exchange) {
+        String routeId = exchange.getFromRouteId();
+        pending.remove(routeId);
+        exchange.getIn().setHeader(WATERMARK_HEADER, getWatermark(routeId));
+    }
+
+    /**
+     * Registra o valor de {@value #RECORD_WATERMARK_HEADER} de um registro entregue
+     * com sucesso. Apenas o maior valor é mantido até o {@link #commit(Exchange)}.
+     */
+    public void track(Exchange exchange) {
+        Object value = exchange.getIn().getHeader(RECORD_WATERMARK_HEADER);
+        if (value != null) {
+            track(exchange.getFromRouteId(), value);
+        }
+    }
+
+    /**
+     * Registra um valor de watermark entregue com sucesso pela rota.
+     */
+    @SuppressWarnings("unchecked")
+    public void track(String routeId, Object value) {
+        if (!(value instanceof Comparable)) {
+            value = String.valueOf(value);
+        }
+        Comparable<Object> candidate = (Comparable<Object>) value;
+        pending.merge(routeId, candidate, (current, next) -> current.compareTo(next) >= 0 ? current : next);
+    }
+
+    /**
+     * Final de uma execução bem-sucedida: move o watermark da rota para o maior
+     * valor registrado e persiste o arquivo. Sem registros entregues, nada muda.
+     */
+    public void commit(Exchange exchange) {
+        String routeId = exchange.getFromRouteId();
+        Comparable<Object> max = pending.remove(routeId);
+        if (max != null) {
+            advance(routeId, format(max));
+        }
+        clearPartitions(routeId);
+    }
+
+    /**
+     * Define o watermark da rota e persiste o arquivo de checkpoints.
+     */
+    public synchronized void advance(String routeId, String watermark) {
+        String previous = watermarks.put(routeId, watermark);
+        try {
+            save();
+        } catch (IOException e) {
+            if (previous != null) {
+                watermarks.put(routeId, previous);
+            } else {
+                watermarks.remove(routeId);
+            }
+            throw new IllegalStateException("Erro ao gravar checkpoint em " + file, e);
+        }
+        LOG.info("Watermark da rota {} avançado para {}", routeId, watermark);
+    }
+
+    /**
+     * Plano de partições gravado para a extração particionada da rota, ou null se não
+     * houver extração particionada em andamento.
+     */
+    public String getPartitionPlan(String routeId) {
+        return partitions.get(routeId + PARTITION_SEPARATOR + PLAN_SUFFIX);
+    }
+
+    /**
+     * Posição gravada de cada partição da extração particionada em andamento na rota.
+     */
+    public Map<Integer, String> getPartitionPositions(String routeId) {
+        String prefix = routeId + PARTITION_SEPARATOR;
+        Map<Integer, String> positions = new TreeMap<>();
+        partitions.forEach((key, value) -> {
+            String suffix = key.startsWith(prefix) ? key.substring(prefix.length()) : null;
+            if (suffix != null && !suffix.equals(PLAN_SUFFIX)) {
+                positions.put(Integer.valueOf(suffix), value);
+            }
+        });
+        return positions;
+    }
+
+    /**
+     * Grava o plano de partições da rota e a posição das partições informadas. As
+     * posições das demais partições são mantidas, exceto quando o plano muda.
+     */
+    public synchronized void savePartitions(String routeId, String plan, Map<Integer, String> positions) {
+        if (!plan.equals(getPartitionPlan(routeId))) {
+            removePartitions(routeId);
+            partitions.put(routeId + PARTITION_SEPARATOR + PLAN_SUFFIX, plan);
+        }
+        positions.forEach((partition, position) ->
+            partitions.put(routeId + PARTITION_SEPARATOR + partition, position));
+        try {
+            save();
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao gravar checkpoint em " + file, e);
+        }
+        LOG.debug("Progresso das partições da rota {}: {}", routeId, positions);
+    }
+
+    /**
+     * Remove o plano e as posições das partições da rota (extração concluída ou plano
+     * descartado).
+     */
+    public synchronized void clearPartitions(String routeId) {
+        if (!removePartitions(routeId)) {
+            return;
+        }
+        try {
+            save();
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao gravar checkpoint em " + file, e);
+        }
+    }
+
+    private boolean removePartitions(String routeId) {
+        String prefix = routeId + PARTITION_SEPARATOR;
+        return partitions.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Grava todos os watermarks de forma atômica (arquivo temporário + move).
+     */
+    private void save() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+
+        Properties properties = new Properties();
+        properties.putAll(watermarks);
+        properties.putAll(partitions);
+
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 OutputStream os = Channels.newOutputStream(channel)) {
+                properties.store(os, "Checkpoints de sincronização do CamelBridge (id da rota = watermark)");
+                os.flush();
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Converte o valor de MODIFICADO para o formato aceito na consulta SQL,
+     * preservando a fração de segundos para não reenviar o último registro.
+     */
+    public static String format(Object value) {
+        if (value instanceof Timestamp) {
+            return value.toString();
+        }
+        if (value instanceof LocalDateTime) {
+            return Timestamp.valueOf((LocalDateTime) value).toString();
+        }
+        return String.valueOf(value);
+    }
+}
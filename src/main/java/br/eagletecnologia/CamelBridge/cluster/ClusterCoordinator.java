@@ -0,0 +1,439 @@
+package br.eagletecnologia.CamelBridge.cluster;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Coordena os nós do CamelBridge que usam o mesmo banco por leases na {@link LeaseTable}.
+ *
+ * Cada nó mantém o lease {@code node/<id>} enquanto está no ar, e os leases de trabalho
+ * (rotas ou partições de uma rota) são organizados em grupos. Um nó toma os leases livres
+ * de um grupo até a sua parte justa, {@code ceil(leases do grupo / nós vivos)}, e devolve
+ * os que passarem dela quando novos nós entram; assim, adicionar nós divide o trabalho em
+ * vez de duplicá-lo.
+ *
+ * A cada heartbeatInterval ms o nó renova os seus leases (incrementa a versão da linha) e
+ * lê a tabela. Um lease é considerado expirado quando a sua versão fica leaseDuration ms
+ * sem mudar, medidos pelo relógio local de quem observa, de modo que os relógios dos nós
+ * não precisam estar sincronizados. Um nó que não consegue renovar deixa de considerar os
+ * seus leases válidos antes que os outros possam tomá-los (leaseDuration menos um
+ * heartbeat), e um nó parado normalmente libera os seus leases na hora.
+ */
+public class ClusterCoordinator implements Service {
+
+    /**
+     * Prefixo dos leases de presença dos nós.
+     */
+    public static final String NODE_PREFIX = "node/";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterCoordinator.class);
+
+    private final CamelContext camelContext;
+    private final LeaseTable leases;
+    private final String nodeId;
+    private final long leaseDuration;
+    private final long heartbeatInterval;
+    private final LongSupplier clock;
+
+    private final Map<String, List<String>> groups = new LinkedHashMap<>();
+    private final Map<String, Observation> observed = new HashMap<>();
+    private final Map<String, Held> held = new HashMap<>();
+    private final Set<String> busy = new LinkedHashSet<>();
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean joined;
+
+    /**
+     * @param camelContext Contexto que fornece a thread de heartbeat
+     * @param leases Tabela de leases compartilhada
+     * @param nodeId Identificação deste nó (única entre os nós)
+     * @param leaseDuration Tempo (ms) sem heartbeat para um lease ser considerado expirado
+     * @param heartbeatInterval Intervalo (ms) entre as renovações dos leases
+     */
+    public ClusterCoordinator(CamelContext camelContext, LeaseTable leases, String nodeId,
+                              long leaseDuration, long heartbeatInterval) {
+        this(camelContext, leases, nodeId, leaseDuration, heartbeatInterval,
+            () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    ClusterCoordinator(CamelContext camelContext, LeaseTable leases, String nodeId,
+                       long leaseDuration, long heartbeatInterval, LongSupplier clock) {
+        if (heartbeatInterval <= 0 || leaseDuration < 2 * heartbeatInterval) {
+            throw new IllegalArgumentException("cluster.leaseDuration deve ser pelo menos o dobro de "
+                + "cluster.heartbeatInterval (leaseDuration=" + leaseDuration + ", heartbeatInterval="
+                + heartbeatInterval + ")");
+        }
+        if (nodeId.length() > 100) {
+            throw new IllegalArgumentException("cluster.nodeId deve ter no máximo 100 caracteres: " + nodeId);
+        }
+        this.camelContext = camelContext;
+        this.leases = leases;
+        this.nodeId = nodeId;
+        this.leaseDuration = leaseDuration;
+        this.heartbeatInterval = heartbeatInterval;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized void start() {
+        // A entrada no cluster é feita pela thread de heartbeat, sem atrasar a inicialização
+        // com o banco fora do ar; até lá o nó não toma nenhum lease e as rotas não executam
+        scheduler = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "ClusterHeartbeat");
+        scheduler.scheduleWithFixedDelay(this::scheduledHeartbeat, 0, heartbeatInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cria a tabela, se preciso, toma o lease de presença do nó e faz a primeira leitura
+     * da tabela.
+     */
+    synchronized void join() throws SQLException {
+        leases.create();
+        String name = NODE_PREFIX + nodeId;
+        leases.ensure(name);
+        Lease current = leases.read(name);
+        long now = clock.getAsLong();
+        Lease taken = leases.acquire(current, nodeId);
+        if (taken == null) {
+            throw new SQLException("Lease " + name + " alterado durante a entrada no cluster");
+        }
+        if (current.getOwner() != null && !current.getOwner().equals(nodeId)) {
+            LOG.warn("Lease {} pertencia a {}", name, current.getOwner());
+        }
+        held.put(name, new Held(taken.getEpoch(), now));
+        for (List<String> names : groups.values()) {
+            for (String lease : names) {
+                leases.ensure(lease);
+            }
+        }
+        joined = true;
+        heartbeat();
+        LOG.info("Nó {} no cluster (tabela {}): {} nó(s) vivo(s)", nodeId, leases.getTable(), getLiveNodes());
+    }
+
+    /**
+     * Registra um grupo de leases de trabalho, criando as linhas que ainda não existem.
+     *
+     * @param group Nome do grupo (ex: routes, route/sincronizar-usuarios)
+     * @param names Leases do grupo
+     */
+    public synchronized void register(String group, List<String> names) throws SQLException {
+        List<String> current = groups.computeIfAbsent(group, key -> new ArrayList<>());
+        for (String name : names) {
+            if (!current.contains(name)) {
+                current.add(name);
+            }
+            if (joined) {
+                leases.ensure(name);
+            }
+        }
+    }
+
+    /**
+     * Toma leases livres ou expirados do grupo até a parte justa deste nó.
+     *
+     * @return Leases do grupo que este nó detém, válidos neste momento
+     */
+    public Set<String> claim(String group) throws SQLException {
+        if (!joined) {
+            // Sem esperar a entrada no cluster em andamento (ex: banco fora do ar)
+            return new LinkedHashSet<>();
+        }
+        synchronized (this) {
+            return claimJoined(group);
+        }
+    }
+
+    private Set<String> claimJoined(String group) throws SQLException {
+        List<String> names = groups.getOrDefault(group, List.of());
+        Set<String> mine = new LinkedHashSet<>();
+        long now = clock.getAsLong();
+        for (String name : names) {
+            if (isValid(name, now)) {
+                mine.add(name);
+            }
+        }
+        if (!joined) {
+            return mine;
+        }
+
+        int share = share(names.size());
+        // Cada nó começa a procurar em uma posição diferente, para não disputarem os mesmos leases
+        int offset = names.isEmpty() ? 0 : Math.floorMod(nodeId.hashCode(), names.size());
+        for (int i = 0; i < names.size() && mine.size() < share; i++) {
+            String name = names.get((offset + i) % names.size());
+            if (mine.contains(name)) {
+                continue;
+            }
+            Observation observation = observed.get(name);
+            if (observation == null) {
+                Lease lease = leases.read(name);
+                if (lease == null) {
+                    continue;
+                }
+                observation = new Observation(lease, now);
+                observed.put(name, observation);
+            }
+            Lease lease = observation.lease;
+            boolean free = lease.getOwner() == null || lease.getOwner().equals(nodeId)
+                || now - observation.changedAt >= leaseDuration;
+            if (!free) {
+                continue;
+            }
+            Lease taken = leases.acquire(lease, nodeId);
+            if (taken == null) {
+                continue;
+            }
+            held.put(name, new Held(taken.getEpoch(), now));
+            observed.put(name, new Observation(taken, now));
+            mine.add(name);
+            if (lease.getOwner() != null && !lease.getOwner().equals(nodeId)) {
+                LOG.info("Lease {} assumido por {}: o nó {} parou de renová-lo", name, nodeId, lease.getOwner());
+            } else {
+                LOG.info("Lease {} tomado por {}", name, nodeId);
+            }
+        }
+        return mine;
+    }
+
+    /**
+     * Indica se este nó detém o lease e o renovou há menos de leaseDuration menos um
+     * heartbeat (antes de qualquer outro nó poder considerá-lo expirado).
+     */
+    public synchronized boolean holds(String name) {
+        return isValid(name, clock.getAsLong());
+    }
+
+    private boolean isValid(String name, long now) {
+        Held lease = held.get(name);
+        return lease != null && now - lease.renewedAt < leaseDuration - heartbeatInterval;
+    }
+
+    /**
+     * Época com que este nó detém o lease, ou -1 se não o detém. A época aumenta a cada
+     * vez que um nó toma o lease: duas épocas seguidas do mesmo nó indicam que nenhum
+     * outro nó o deteve entre elas.
+     */
+    synchronized long epoch(String name) {
+        Held lease = held.get(name);
+        return lease != null ? lease.epoch : -1;
+    }
+
+    /**
+     * Marca leases como em uso (execução em andamento), para que não sejam devolvidos no
+     * rebalanceamento.
+     */
+    public synchronized void busy(Set<String> names, boolean inUse) {
+        if (inUse) {
+            busy.addAll(names);
+        } else {
+            busy.removeAll(names);
+        }
+    }
+
+    /**
+     * Estado gravado no lease pelo dono anterior ou por este nó (ex: watermark).
+     */
+    public String readState(String name) throws SQLException {
+        return leases.readState(name);
+    }
+
+    /**
+     * Grava o estado no lease, se este nó ainda for o dono.
+     *
+     * @return false se o lease foi perdido e o estado não foi gravado
+     */
+    public boolean writeState(String name, String state) throws SQLException {
+        Held lease;
+        synchronized (this) {
+            lease = held.get(name);
+        }
+        return lease != null && leases.writeState(name, nodeId, lease.epoch, state);
+    }
+
+    private void scheduledHeartbeat() {
+        try {
+            synchronized (this) {
+                if (!joined) {
+                    try {
+                        join();
+                    } catch (SQLException e) {
+                        LOG.warn("Nó {} não conseguiu entrar no cluster (tabela {}): {}",
+                            nodeId, leases.getTable(), e.getMessage());
+                    }
+                    return;
+                }
+            }
+            heartbeat();
+        } catch (Exception e) {
+            LOG.warn("Heartbeat do nó {} falhou: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Renova os leases deste nó, lê a tabela e devolve os leases acima da parte justa.
+     */
+    synchronized void heartbeat() throws SQLException {
+        long now = clock.getAsLong();
+        for (Iterator<Map.Entry<String, Held>> it = held.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Held> entry = it.next();
+            if (leases.renew(entry.getKey(), nodeId, entry.getValue().epoch)) {
+                entry.getValue().renewedAt = now;
+            } else {
+                LOG.warn("Lease {} perdido pelo nó {}: outro nó o assumiu", entry.getKey(), nodeId);
+                it.remove();
+            }
+        }
+
+        for (Lease lease : leases.readAll()) {
+            Observation previous = observed.get(lease.getName());
+            if (previous == null || previous.lease.getVersion() != lease.getVersion()) {
+                observed.put(lease.getName(), new Observation(lease, now));
+            }
+        }
+
+        int live = getLiveNodes();
+        for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+            int share = share(live, group.getValue().size());
+            List<String> mine = new ArrayList<>();
+            for (String name : group.getValue()) {
+                if (held.containsKey(name)) {
+                    mine.add(name);
+                }
+            }
+            for (int i = mine.size() - 1; i >= 0 && mine.size() > share; i--) {
+                String name = mine.get(i);
+                if (!busy.contains(name)) {
+                    release(name);
+                    mine.remove(i);
+                    LOG.info("Lease {} devolvido por {} para dividir o grupo {} entre {} nó(s)",
+                        name, nodeId, group.getKey(), live);
+                }
+            }
+        }
+    }
+
+    private void release(String name) throws SQLException {
+        Held lease = held.remove(name);
+        if (lease != null) {
+            leases.release(name, nodeId, lease.epoch);
+        }
+    }
+
+    private int share(int leaseCount) {
+        return share(getLiveNodes(), leaseCount);
+    }
+
+    private static int share(int liveNodes, int leaseCount) {
+        return (leaseCount + liveNodes - 1) / liveNodes;
+    }
+
+    /**
+     * Nós vivos: lease de presença com dono e renovado há menos de leaseDuration
+     * (incluindo este nó).
+     */
+    public synchronized int getLiveNodes() {
+        long now = clock.getAsLong();
+        int live = 0;
+        for (Observation observation : observed.values()) {
+            Lease lease = observation.lease;
+            if (lease.getName().startsWith(NODE_PREFIX) && lease.getOwner() != null
+                    && (lease.getOwner().equals(nodeId) || now - observation.changedAt < leaseDuration)) {
+                live++;
+            }
+        }
+        return Math.max(1, live);
+    }
+
+    /**
+     * Leases de trabalho detidos por este nó, por grupo.
+     */
+    public synchronized Map<String, Integer> getHeldByGroup() {
+        Map<String, Integer> counts = new TreeMap<>();
+        long now = clock.getAsLong();
+        groups.forEach((group, names) -> counts.put(group,
+            (int) names.stream().filter(name -> isValid(name, now)).count()));
+        return counts;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this) {
+            if (scheduler != null) {
+                camelContext.getExecutorServiceManager().shutdownNow(scheduler);
+                scheduler = null;
+            }
+        }
+        leave();
+    }
+
+    /**
+     * Libera todos os leases do nó, para que os outros nós assumam o trabalho sem
+     * esperar a expiração.
+     */
+    synchronized void leave() {
+        for (String name : new ArrayList<>(held.keySet())) {
+            try {
+                release(name);
+            } catch (SQLException e) {
+                LOG.warn("Erro ao liberar o lease {}: {}", name, e.getMessage());
+            }
+        }
+        busy.clear();
+        if (joined) {
+            LOG.info("Nó {} saiu do cluster", nodeId);
+        }
+        joined = false;
+    }
+
+    /**
+     * Última versão vista de um lease e o momento (relógio local) em que ela mudou.
+     */
+    private static final class Observation {
+
+        private final Lease lease;
+        private final long changedAt;
+
+        Observation(Lease lease, long changedAt) {
+            this.lease = lease;
+            this.changedAt = changedAt;
+        }
+    }
+
+    /**
+     * Lease detido por este nó.
+     */
+    private static final class Held {
+
+        private final long epoch;
+        private long renewedAt;
+
+        Held(long epoch, long renewedAt) {
+            this.epoch = epoch;
+            this.renewedAt = renewedAt;
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package br.eagletecnologia.CamelBridge.cluster;
+
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import br.eagletecnologia.CamelBridge.execution.ExecutionGuard;
+import br.eagletecnologia.CamelBridge.index.RowHashIndexStore;
+import br.eagletecnologia.CamelBridge.journal.Journal;
+import br.eagletecnologia.CamelBridge.journal.JournalProducer;
+import org.apache.camel.Exchange;
+import org.apache.camel.Route;
+import org.apache.camel.support.RoutePolicySupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Política de rota que distribui as execuções entre os nós do cluster
+ * ({@link ClusterCoordinator}), para que duas instâncias com as mesmas rotas não
+ * executem nem enviem o mesmo trabalho duas vezes.
+ *
+ * Por padrão cada rota é um lease ({@code route/<id>}): a cada disparo (ex: trigger,
+ * cron), só o nó que detém o lease executa; nos demais o disparo termina sem executar os
+ * passos, como um disparo ignorado pelo {@link ExecutionGuard}. As rotas com a política são
+ * divididas entre os nós vivos.
+ *
+ * Com {@code cluster.route.<id>.partitions = N} (N &gt; 1), a rota é dividida em N
+ * partições de chave ({@code route/<id>/<p>}) distribuídas entre os nós, e todos os nós
+ * com alguma partição executam a rota ao mesmo tempo, cada um com as suas. As partições
+ * deste nó vão nos cabeçalhos {@value #PARTITIONS_HEADER} (lista) e
+ * {@value #PARTITION_COUNT_HEADER} (N); o keyset com clusterPartitionColumn lê apenas as
+ * linhas com {@code MOD(ABS(coluna), N)} entre elas.
+ *
+ * O watermark da rota segue o lease: ao final de uma execução bem-sucedida ele é gravado
+ * no estado dos leases da rota, e um nó que assume um lease começa do watermark gravado
+ * pelo dono anterior (o menor entre os leases assumidos), e não do seu checkpoint local.
+ * Quando a execução grava os registros em um journal ({@link JournalProducer}), o
+ * watermark só vai para os leases depois que a entrega confirma o journal até o fim
+ * desses registros: o lease nunca passa de linhas que ficaram só no journal local de um
+ * nó que parou. Um lease ainda sem watermark gravado conta como o watermark inicial
+ * (lastSearch): as linhas dele nunca foram entregues por nenhum nó.
+ *
+ * O índice de hash é local. Com {@code cluster.route.<id>.hashTable}, as chaves das
+ * partições que outro nó pode ter entregue desde a última execução deste nó (o lease
+ * passou por outro dono, ou este nó reiniciou) são removidas do índice ao assumi-las,
+ * para que uma versão entregue por outro nó não seja confundida com a última entregue
+ * por este.
+ *
+ * Sem coordenador (cluster.enabled = false), a política não interfere nas execuções.
+ */
+public class ClusterRoutePolicy extends RoutePolicySupport {
+
+    /**
+     * Cabeçalho com as partições da rota detidas por este nó (lista de inteiros).
+     */
+    public static final String PARTITIONS_HEADER = "CLUSTER_PARTICOES";
+
+    /**
+     * Cabeçalho com a quantidade total de partições da rota.
+     */
+    public static final String PARTITION_COUNT_HEADER = "CLUSTER_TOTAL_PARTICOES";
+
+    /**
+     * Prefixo das propriedades por rota (cluster.route.&lt;id&gt;.partitions e
+     * cluster.route.&lt;id&gt;.hashTable).
+     */
+    public static final String ROUTE_PREFIX = "cluster.route.";
+
+    private static final Set<String> ROUTE_OPTIONS = Set.of("partitions", "hashTable");
+
+    /**
+     * Grupo dos leases das rotas não particionadas.
+     */
+    static final String ROUTES_GROUP = "routes";
+
+    private static final String LEASES_PROPERTY = "CamelBridgeLeasesCluster";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterRoutePolicy.class);
+
+    private final ClusterCoordinator coordinator;
+    private final Map<String, Integer> partitions;
+    private final Map<String, String> hashTables;
+    private final CheckpointStore checkpointStore;
+    private final RowHashIndexStore hashIndex;
+    private final Map<String, Map<String, Long>> lastHeld = new ConcurrentHashMap<>();
+    private final Map<String, Long> executedEpochs = new ConcurrentHashMap<>();
+    private final Map<String, Deque<PendingState>> pending = new ConcurrentHashMap<>();
+    private final Set<Journal> listening = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param coordinator Coordenador do cluster, ou null para executar sempre
+     * @param partitions Quantidade de partições por id de rota (rotas ausentes: 1)
+     * @param hashTables Índice de hash das linhas de cada rota, por id de rota
+     * @param checkpointStore Watermarks das rotas sincronizados com os leases, ou null
+     * @param hashIndex Índices de hash locais, ou null
+     */
+    public ClusterRoutePolicy(ClusterCoordinator coordinator, Map<String, Integer> partitions,
+                              Map<String, String> hashTables, CheckpointStore checkpointStore,
+                              RowHashIndexStore hashIndex) {
+        this.coordinator = coordinator;
+        this.partitions = Map.copyOf(partitions);
+        this.hashTables = new ConcurrentHashMap<>(hashTables);
+        this.checkpointStore = checkpointStore;
+        this.hashIndex = hashIndex;
+    }
+
+    /**
+     * Lê as partições por rota de cluster.route.&lt;id&gt;.partitions.
+     *
+     * @throws IllegalArgumentException se uma opção for desconhecida ou inválida
+     */
+    public static Map<String, Integer> parsePartitions(Properties properties) {
+        Map<String, Integer> partitions = new TreeMap<>();
+        routeOptions(properties, "partitions").forEach((routeId, value) -> {
+            String key = ROUTE_PREFIX + routeId + ".partitions";
+            int count;
+            try {
+                count = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido para " + key + ": " + value);
+            }
+            if (count <= 0) {
+                throw new IllegalArgumentException(key + " deve ser maior que zero");
+            }
+            partitions.put(routeId, count);
+        });
+        return partitions;
+    }
+
+    /**
+     * Lê o índice de hash de cada rota de cluster.route.&lt;id&gt;.hashTable (o mesmo
+     * hashTable do bulk que entrega as linhas da rota).
+     *
+     * @throws IllegalArgumentException se uma opção for desconhecida
+     */
+    public static Map<String, String> parseHashTables(Properties properties) {
+        Map<String, String> tables = new TreeMap<>();
+        routeOptions(properties, "hashTable").forEach((routeId, value) -> {
+            if (!value.isBlank()) {
+                tables.put(routeId, value.trim().toUpperCase());
+            }
+        });
+        return tables;
+    }
+
+    /**
+     * Valores da opção informada por id de rota, validando os nomes de todas as opções.
+     */
+    private static Map<String, String> routeOptions(Properties properties, String option) {
+        Map<String, String> values = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(ROUTE_PREFIX)) {
+                continue;
+            }
+            String rest = key.substring(ROUTE_PREFIX.length());
+            int dot = rest.lastIndexOf('.');
+            if (dot <= 0 || !ROUTE_OPTIONS.contains(rest.substring(dot + 1))) {
+                throw new IllegalArgumentException("Opção de cluster desconhecida: " + key);
+            }
+            if (rest.substring(dot + 1).equals(option)) {
+                values.put(rest.substring(0, dot), properties.getProperty(key));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Define o índice de hash das linhas da rota (ex: rotas geradas de sync.table.*),
+     * antes da primeira execução.
+     */
+    public void setHashTable(String routeId, String table) {
+        hashTables.put(routeId, table.toUpperCase());
+    }
+
+    @Override
+    public void onInit(Route route) {
+        if (coordinator == null) {
+            return;
+        }
+        String routeId = route.getRouteId();
+        try {
+            coordinator.register(group(routeId), leaseNames(routeId));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao registrar os leases da rota " + routeId, e);
+        }
+    }
+
+    @Override
+    public void onExchangeBegin(Route route, Exchange exchange) {
+        if (coordinator == null || exchange.getProperty(ExecutionGuard.SKIPPED_PROPERTY, false, Boolean.class)) {
+            return;
+        }
+        String routeId = route.getRouteId();
+        int count = partitions.getOrDefault(routeId, 1);
+        Set<String> mine;
+        try {
+            mine = coordinator.claim(group(routeId));
+            mine.retainAll(leaseNames(routeId));
+        } catch (SQLException e) {
+            LOG.warn("Rota {}: erro ao consultar os leases do cluster, disparo ignorado: {}", routeId, e.getMessage());
+            discard(exchange);
+            return;
+        }
+        if (mine.isEmpty()) {
+            LOG.debug("Rota {}: lease com outro nó, disparo ignorado", routeId);
+            discard(exchange);
+            return;
+        }
+
+        Map<String, Long> epochs = new TreeMap<>();
+        for (String name : mine) {
+            epochs.put(name, coordinator.epoch(name));
+        }
+        coordinator.busy(mine, true);
+        exchange.setProperty(LEASES_PROPERTY, epochs);
+        if (count > 1) {
+            List<Integer> held = new ArrayList<>();
+            for (String name : mine) {
+                held.add(Integer.valueOf(name.substring(name.lastIndexOf('/') + 1)));
+            }
+            held.sort(null);
+            exchange.getIn().setHeader(PARTITIONS_HEADER, held);
+            exchange.getIn().setHeader(PARTITION_COUNT_HEADER, count);
+        }
+
+        // Épocas diferentes: o lease foi perdido e tomado de novo desde a última execução
+        Map<String, Long> previous = lastHeld.put(routeId, Map.copyOf(epochs));
+        if (!epochs.equals(previous)) {
+            try {
+                adopt(routeId, epochs, previous);
+            } catch (RuntimeException e) {
+                lastHeld.remove(routeId);
+                throw e;
+            }
+        }
+        executedEpochs.putAll(epochs);
+    }
+
+    /**
+     * Leases da rota mudaram (primeira execução neste nó, partições assumidas ou
+     * devolvidas, ou um lease perdido e tomado de novo): a rota continua do menor watermark gravado nos leases. Um lease sem
+     * watermark (ex: o dono anterior parou antes da primeira execução bem-sucedida) conta
+     * como o watermark inicial; caso contrário, as linhas das partições dele entre o
+     * lastSearch e o watermark deste nó nunca seriam extraídas.
+     */
+    private void adopt(String routeId, Map<String, Long> mine, Map<String, Long> previous) {
+        Map<String, String> states = new HashMap<>();
+        for (String name : mine.keySet()) {
+            try {
+                states.put(name, coordinator.readState(name));
+            } catch (SQLException e) {
+                throw new IllegalStateException("Erro ao ler o watermark do lease " + name, e);
+            }
+        }
+        forgetAdopted(routeId, mine, previous, states);
+        if (checkpointStore == null) {
+            return;
+        }
+        String oldest = null;
+        for (String name : mine.keySet()) {
+            String state = states.get(name);
+            if (state == null) {
+                state = checkpointStore.getInitialWatermark();
+            }
+            if (oldest == null || state.compareTo(oldest) < 0) {
+                oldest = state;
+            }
+        }
+        // Um plano de partições local deixa de valer com outras partições do cluster
+        if (previous != null) {
+            checkpointStore.clearPartitions(routeId);
+        }
+        if (oldest != null && !oldest.equals(checkpointStore.getWatermark(routeId))) {
+            LOG.info("Rota {}: leases {} assumidos; continuando do watermark {} gravado no cluster",
+                routeId, mine.keySet(), oldest);
+            checkpointStore.advance(routeId, oldest);
+        }
+    }
+
+    /**
+     * Remove do índice de hash da rota as chaves das partições assumidas que podem ter
+     * sido entregues por outro nó desde a última execução deste: o índice guardaria a
+     * versão entregue por este nó, e um registro que voltasse a ela seria descartado
+     * como inalterado, deixando no destino a versão entregue pelo outro nó.
+     *
+     * Continua válido o índice de um lease mantido desde a execução anterior ou tomado de
+     * novo na época seguinte à da última execução deste nó (nenhum outro dono entre
+     * elas), e o de um lease sem watermark que este nó nunca executou.
+     */
+    private void forgetAdopted(String routeId, Map<String, Long> mine, Map<String, Long> previous,
+                               Map<String, String> states) {
+        String table = hashTables.get(routeId);
+        if (hashIndex == null || table == null) {
+            return;
+        }
+        int count = partitions.getOrDefault(routeId, 1);
+        Set<Integer> stale = new TreeSet<>();
+        for (Map.Entry<String, Long> lease : mine.entrySet()) {
+            String name = lease.getKey();
+            long epoch = lease.getValue();
+            Long executed = executedEpochs.get(name);
+            if (previous != null && Long.valueOf(epoch).equals(previous.get(name))) {
+                continue;
+            }
+            if (executed != null ? epoch == executed || epoch == executed + 1 : states.get(name) == null) {
+                continue;
+            }
+            stale.add(count > 1 ? Integer.parseInt(name.substring(name.lastIndexOf('/') + 1)) : 0);
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+        try {
+            int removed = hashIndex.get(table).removeIf(key -> stale.contains((int) Math.abs(key % count)));
+            LOG.info("Rota {}: {} chave(s) das partições {} removida(s) do índice de hash {}; "
+                + "podem ter sido entregues por outro nó", routeId, removed, stale, table);
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao abrir o índice de hash " + table, e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onExchangeDone(Route route, Exchange exchange) {
+        Map<String, Long> mine = exchange.getProperty(LEASES_PROPERTY, Map.class);
+        if (mine == null) {
+            return;
+        }
+        coordinator.busy(mine.keySet(), false);
+        String routeId = route.getRouteId();
+        if (exchange.isFailed() || checkpointStore == null || !checkpointStore.getWatermarks().containsKey(routeId)) {
+            return;
+        }
+        String watermark = checkpointStore.getWatermark(routeId);
+        Journal journal = exchange.getProperty(JournalProducer.JOURNAL_PROPERTY, Journal.class);
+        Long end = exchange.getProperty(JournalProducer.END_OFFSET_PROPERTY, Long.class);
+        if (journal == null || end == null) {
+            writeState(routeId, mine, watermark);
+            return;
+        }
+
+        // O watermark só vai para o cluster depois que a entrega confirmar o journal até end
+        Deque<PendingState> queue = pending.computeIfAbsent(routeId, id -> new ArrayDeque<>());
+        synchronized (queue) {
+            PendingState last = queue.peekLast();
+            if (last != null && last.journal == journal && last.end == end && last.leases.equals(mine)) {
+                queue.pollLast();
+            }
+            queue.addLast(new PendingState(journal, end, watermark, mine));
+        }
+        if (listening.add(journal)) {
+            journal.addAckListener(offset -> acknowledged(journal, offset));
+        }
+        acknowledged(journal, journal.getAckedOffset());
+    }
+
+    /**
+     * Grava nos leases o watermark mais recente entre as execuções cujos registros o
+     * journal já confirmou até {@code offset}.
+     */
+    private void acknowledged(Journal journal, long offset) {
+        for (Map.Entry<String, Deque<PendingState>> route : pending.entrySet()) {
+            Deque<PendingState> queue = route.getValue();
+            synchronized (queue) {
+                PendingState ready = null;
+                while (!queue.isEmpty() && queue.peekFirst().journal == journal && queue.peekFirst().end <= offset) {
+                    ready = queue.pollFirst();
+                }
+                if (ready != null) {
+                    writeState(route.getKey(), ready.leases, ready.watermark);
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava o watermark nos leases, apenas se este nó ainda os detém com a mesma época da
+     * execução que o produziu.
+     */
+    private void writeState(String routeId, Map<String, Long> leases, String watermark) {
+        for (Map.Entry<String, Long> lease : leases.entrySet()) {
+            String name = lease.getKey();
+            try {
+                if (coordinator.epoch(name) != lease.getValue() || !coordinator.writeState(name, watermark)) {
+                    LOG.warn("Rota {}: lease {} perdido desde a execução; watermark não gravado no cluster",
+                        routeId, name);
+                    lastHeld.remove(routeId);
+                }
+            } catch (SQLException e) {
+                LOG.warn("Rota {}: erro ao gravar o watermark no lease {}: {}", routeId, name, e.getMessage());
+            }
+        }
+    }
+
+    private static void discard(Exchange exchange) {
+        exchange.setProperty(ExecutionGuard.SKIPPED_PROPERTY, true);
+        exchange.setRouteStop(true);
+    }
+
+    private String group(String routeId) {
+        return partitions.getOrDefault(routeId, 1) > 1 ? "route/" + routeId : ROUTES_GROUP;
+    }
+
+    private List<String> leaseNames(String routeId) {
+        int count = partitions.getOrDefault(routeId, 1);
+        if (count == 1) {
+            return List.of("route/" + routeId);
+        }
+        List<String> names = new ArrayList<>(count);
+        for (int p = 0; p < count; p++) {
+            names.add("route/" + routeId + "/" + p);
+        }
+        return names;
+    }
+
+    public ClusterCoordinator getCoordinator() {
+        return coordinator;
+    }
+
+    /**
+     * Watermark de uma execução à espera da confirmação da entrega dos registros que ela
+     * gravou no journal.
+     */
+    private static final class PendingState {
+        private final Journal journal;
+        private final long end;
+        private final String watermark;
+        private final Map<String, Long> leases;
+
+        private PendingState(Journal journal, long end, String watermark, Map<String, Long> leases) {
+            this.journal = journal;
+            this.end = end;
+            this.watermark = watermark;
+            this.leases = leases;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package br.eagletecnologia.CamelBridge.cluster;
+
+/**
+ * Linha da tabela de leases lida do banco.
+ */
+public final class Lease {
+
+    private final String name;
+    private final String owner;
+    private final long version;
+    private final long epoch;
+
+    public Lease(String name, String owner, long version, long epoch) {
+        this.name = name;
+        this.owner = owner;
+        this.version = version;
+        this.epoch = epoch;
+    }
+
+    /**
+     * Nome do lease (ex: node/srv01, route/sincronizar-usuarios/3).
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Nó dono do lease, ou null se ele foi liberado ou nunca foi tomado.
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Versão da linha, incrementada a cada heartbeat, tomada e liberação.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Época do lease, incrementada a cada tomada; protege as gravações de um dono antigo.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + (owner != null ? owner : "-") + " (versão " + version + ", época " + epoch + ")";
+    }
+}
@@ -0,0 +1,226 @@
+package br.eagletecnologia.CamelBridge.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Acesso à tabela de leases compartilhada pelos nós, no mesmo banco das rotas.
+ *
+ * Todas as alterações são UPDATEs condicionais de uma linha: a tomada só acontece se a
+ * versão lida não mudou ({@code VERSION = ?}), e a renovação, a liberação e a gravação do
+ * estado só acontecem para o dono e a época atuais ({@code OWNER_ID = ? AND EPOCH = ?}).
+ * Assim, dois nós nunca tomam o mesmo lease, e um nó que perdeu o lease não renova nem
+ * grava o estado por cima do novo dono. Os comandos são portáveis (sem MERGE, sem
+ * funções de data) e rodam em autocommit.
+ *
+ * <pre>
+ * CREATE TABLE CB_LEASES (
+ *   LEASE_NAME VARCHAR(200) NOT NULL PRIMARY KEY,
+ *   OWNER_ID   VARCHAR(100),
+ *   VERSION    BIGINT NOT NULL,
+ *   EPOCH      BIGINT NOT NULL,
+ *   STATE      VARCHAR(4000)
+ * )
+ * </pre>
+ */
+public class LeaseTable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaseTable.class);
+
+    private final DataSource dataSource;
+    private final String table;
+
+    /**
+     * @param dataSource Banco compartilhado pelos nós
+     * @param table Nome da tabela de leases
+     */
+    public LeaseTable(DataSource dataSource, String table) {
+        this.dataSource = dataSource;
+        this.table = table;
+    }
+
+    /**
+     * Cria a tabela se ela ainda não existir. Dois nós iniciando juntos podem tentar criar
+     * a tabela ao mesmo tempo; o que perder encontra a tabela criada pelo outro.
+     */
+    public void create() throws SQLException {
+        if (exists()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table + " ("
+                + "LEASE_NAME VARCHAR(200) NOT NULL PRIMARY KEY, "
+                + "OWNER_ID VARCHAR(100), "
+                + "VERSION BIGINT NOT NULL, "
+                + "EPOCH BIGINT NOT NULL, "
+                + "STATE VARCHAR(4000))");
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            LOG.info("Tabela de leases {} criada", table);
+        } catch (SQLException e) {
+            if (!exists()) {
+                throw e;
+            }
+        }
+    }
+
+    private boolean exists() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT COUNT(*) FROM " + table + " WHERE 1 = 0").close();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Garante que a linha do lease exista (sem dono). Uma chave duplicada, criada por
+     * outro nó ao mesmo tempo, é ignorada.
+     */
+    public void ensure(String name) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT COUNT(*) FROM " + table + " WHERE LEASE_NAME = ?")) {
+                select.setString(1, name);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    resultSet.next();
+                    if (resultSet.getLong(1) > 0) {
+                        return;
+                    }
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO " + table + " (LEASE_NAME, OWNER_ID, VERSION, EPOCH) VALUES (?, NULL, 0, 0)")) {
+                insert.setString(1, name);
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Todas as linhas da tabela.
+     */
+    public List<Lease> readAll() throws SQLException {
+        List<Lease> leases = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT LEASE_NAME, OWNER_ID, VERSION, EPOCH FROM " + table);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                leases.add(new Lease(resultSet.getString(1), resultSet.getString(2),
+                    resultSet.getLong(3), resultSet.getLong(4)));
+            }
+        }
+        return leases;
+    }
+
+    /**
+     * Linha de um lease, ou null se ela não existir.
+     */
+    public Lease read(String name) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT LEASE_NAME, OWNER_ID, VERSION, EPOCH FROM " + table + " WHERE LEASE_NAME = ?")) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next()
+                    ? new Lease(resultSet.getString(1), resultSet.getString(2), resultSet.getLong(3), resultSet.getLong(4))
+                    : null;
+            }
+        }
+    }
+
+    /**
+     * Toma o lease se a versão ainda for a lida ({@code observed}).
+     *
+     * @return Lease tomado, com a nova versão e época, ou null se outro nó alterou a
+     *         linha desde a leitura
+     */
+    public Lease acquire(Lease observed, String owner) throws SQLException {
+        int updated = update("UPDATE " + table + " SET OWNER_ID = ?, VERSION = VERSION + 1, EPOCH = EPOCH + 1 "
+            + "WHERE LEASE_NAME = ? AND VERSION = ?", owner, observed.getName(), observed.getVersion());
+        return updated == 1
+            ? new Lease(observed.getName(), owner, observed.getVersion() + 1, observed.getEpoch() + 1)
+            : null;
+    }
+
+    /**
+     * Renova o lease (heartbeat) se o nó ainda for o dono na mesma época.
+     *
+     * @return false se o lease foi perdido
+     */
+    public boolean renew(String name, String owner, long epoch) throws SQLException {
+        return update("UPDATE " + table + " SET VERSION = VERSION + 1 "
+            + "WHERE LEASE_NAME = ? AND OWNER_ID = ? AND EPOCH = ?", name, owner, epoch) == 1;
+    }
+
+    /**
+     * Libera o lease se o nó ainda for o dono na mesma época; outro nó pode tomá-lo em
+     * seguida, sem esperar a expiração.
+     */
+    public boolean release(String name, String owner, long epoch) throws SQLException {
+        return update("UPDATE " + table + " SET OWNER_ID = NULL, VERSION = VERSION + 1 "
+            + "WHERE LEASE_NAME = ? AND OWNER_ID = ? AND EPOCH = ?", name, owner, epoch) == 1;
+    }
+
+    /**
+     * Estado gravado no lease (ex: watermark da rota), ou null.
+     */
+    public String readState(String name) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT STATE FROM " + table + " WHERE LEASE_NAME = ?")) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Grava o estado do lease se o nó ainda for o dono na mesma época.
+     *
+     * @return false se o lease foi perdido (o estado não é gravado)
+     */
+    public boolean writeState(String name, String owner, long epoch, String state) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("UPDATE " + table + " SET STATE = ? "
+                 + "WHERE LEASE_NAME = ? AND OWNER_ID = ? AND EPOCH = ?")) {
+            statement.setString(1, state);
+            statement.setString(2, name);
+            statement.setString(3, owner);
+            statement.setLong(4, epoch);
+            return statement.executeUpdate() == 1;
+        }
+    }
+
+    private int update(String sql, Object... parameters) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    public String getTable() {
+        return table;
+    }
+}
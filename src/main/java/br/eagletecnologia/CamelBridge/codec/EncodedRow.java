@@ -0,0 +1,60 @@
+package br.eagletecnologia.CamelBridge.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Registro já codificado em JSON por {@link RowJsonCodec}.
+ *
+ * Além do JSON, guarda os valores de algumas colunas capturadas na leitura (ex: as
+ * colunas de chave do keyset), para quem precisa delas sem interpretar o JSON
+ * (continuação da paginação, watermark do journal, chave do bulk). As demais colunas
+ * só existem no JSON.
+ */
+public final class EncodedRow {
+
+    private final byte[] json;
+    private final String[] columns;
+    private final Object[] values;
+
+    EncodedRow(byte[] json, String[] columns, Object[] values) {
+        this.json = json;
+        this.columns = columns;
+        this.values = values;
+    }
+
+    /**
+     * JSON do registro em UTF-8. O array não deve ser alterado.
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * Valor de uma coluna capturada, ou null se a coluna não foi capturada.
+     */
+    public Object get(String column) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase(column)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indica se a coluna foi capturada na leitura.
+     */
+    public boolean has(String column) {
+        for (String captured : columns) {
+            if (captured.equalsIgnoreCase(column)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,219 @@
+package br.eagletecnologia.CamelBridge.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Buffer de bytes reaproveitável para a escrita de JSON em UTF-8.
+ *
+ * Cada thread tem o seu buffer ({@link #local()}), limpo a cada uso: o array interno só
+ * cresce quando um registro não cabe nele, de modo que, em regime, escrever um registro
+ * não aloca nada além do array final copiado por {@link #toByteArray()}. Números são
+ * escritos dígito a dígito e textos são escapados e convertidos para UTF-8 direto no
+ * buffer, sem Strings intermediárias.
+ */
+public final class JsonBuffer {
+
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+    private static final ThreadLocal<JsonBuffer> LOCAL = ThreadLocal.withInitial(JsonBuffer::new);
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    /**
+     * Buffer da thread atual, vazio. Um buffer que cresceu além de 1 MB (ex: registro
+     * com um BLOB grande) é descartado para não ficar retido na thread.
+     */
+    public static JsonBuffer local() {
+        JsonBuffer buffer = LOCAL.get();
+        if (buffer.bytes.length > MAX_RETAINED_CAPACITY) {
+            buffer.bytes = new byte[INITIAL_CAPACITY];
+        }
+        buffer.length = 0;
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void reset() {
+        length = 0;
+    }
+
+    /**
+     * Cópia do conteúdo escrito, com o tamanho exato.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, length);
+    }
+
+    public void write(byte b) {
+        ensure(1);
+        bytes[length++] = b;
+    }
+
+    public void write(byte[] data) {
+        write(data, 0, data.length);
+    }
+
+    public void write(byte[] data, int offset, int count) {
+        ensure(count);
+        System.arraycopy(data, offset, bytes, length, count);
+        length += count;
+    }
+
+    public void writeNull() {
+        ensure(4);
+        bytes[length++] = 'n';
+        bytes[length++] = 'u';
+        bytes[length++] = 'l';
+        bytes[length++] = 'l';
+    }
+
+    public void writeBoolean(boolean value) {
+        if (value) {
+            ensure(4);
+            bytes[length++] = 't';
+            bytes[length++] = 'r';
+            bytes[length++] = 'u';
+            bytes[length++] = 'e';
+        } else {
+            ensure(5);
+            bytes[length++] = 'f';
+            bytes[length++] = 'a';
+            bytes[length++] = 'l';
+            bytes[length++] = 's';
+            bytes[length++] = 'e';
+        }
+    }
+
+    /**
+     * Escreve o número em decimal, sem criar uma String.
+     */
+    public void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(MIN_LONG);
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            bytes[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int position = length + digits;
+        do {
+            bytes[--position] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        length += digits;
+    }
+
+    /**
+     * Escreve um texto já formatado (ex: número decimal) sem aspas nem escape. Apenas
+     * para textos ASCII.
+     */
+    public void writeAscii(CharSequence text) {
+        int count = text.length();
+        ensure(count);
+        for (int i = 0; i < count; i++) {
+            bytes[length++] = (byte) text.charAt(i);
+        }
+    }
+
+    /**
+     * Escreve o texto entre aspas, escapado conforme o JSON e codificado em UTF-8.
+     */
+    public void writeString(CharSequence text) {
+        int count = text.length();
+        // Pior caso: 6 bytes por caractere (\\u00XX) mais as aspas
+        ensure(count * 6 + 2);
+        byte[] out = bytes;
+        int position = length;
+        out[position++] = '"';
+        for (int i = 0; i < count; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    out[position++] = (byte) c;
+                    continue;
+                }
+                out[position++] = '\\';
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        out[position++] = (byte) c;
+                        break;
+                    case '\n':
+                        out[position++] = 'n';
+                        break;
+                    case '\r':
+                        out[position++] = 'r';
+                        break;
+                    case '\t':
+                        out[position++] = 't';
+                        break;
+                    case '\b':
+                        out[position++] = 'b';
+                        break;
+                    case '\f':
+                        out[position++] = 'f';
+                        break;
+                    default:
+                        out[position++] = 'u';
+                        out[position++] = '0';
+                        out[position++] = '0';
+                        out[position++] = HEX[c >> 4];
+                        out[position++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Surrogate sem par: não é um caractere válido em UTF-8
+                out[position++] = '?';
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        out[position++] = '"';
+        length = position;
+    }
+
+    /**
+     * Escreve o conteúdo binário como texto Base64 entre aspas (mesmo formato do Jackson).
+     */
+    public void writeBase64(byte[] data) {
+        write((byte) '"');
+        write(Base64.getEncoder().encode(data));
+        write((byte) '"');
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+}
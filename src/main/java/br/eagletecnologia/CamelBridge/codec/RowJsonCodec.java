@@ -0,0 +1,280 @@
+package br.eagletecnologia.CamelBridge.codec;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+
+/**
+ * Codificador de linhas de um {@link ResultSet} diretamente em JSON.
+ *
+ * O plano de escrita é montado uma única vez a partir do {@link ResultSetMetaData} da
+ * consulta: para cada coluna, o nome já escapado e convertido em bytes e um escritor
+ * específico para o tipo SQL (inteiros lidos com {@code getLong}, decimais com
+ * {@code getBigDecimal}, datas como milissegundos etc.). Cada linha é então escrita
+ * coluna a coluna no {@link JsonBuffer} da thread, sem criar um {@code Map}, sem
+ * converter os valores primitivos em objetos e sem Strings intermediárias.
+ *
+ * O JSON gerado segue o formato que o Jackson produz para o mapa da mesma linha
+ * (datas e timestamps como milissegundos, horas como texto, binários em Base64), de
+ * modo que registros codificados aqui e pelo Jackson podem ser misturados.
+ *
+ * O codificador não guarda estado entre linhas e pode ser usado por várias threads.
+ */
+public final class RowJsonCodec {
+
+    /**
+     * Escreve o valor de uma coluna da linha atual.
+     */
+    @FunctionalInterface
+    interface ColumnWriter {
+        void write(ResultSet resultSet, int column, JsonBuffer out) throws SQLException;
+    }
+
+    private final String[] labels;
+    private final byte[][] prefixes;
+    private final ColumnWriter[] writers;
+    private final String[] captured;
+    private final int[] capturedColumns;
+
+    private RowJsonCodec(String[] labels, int[] types, String[] captured, int[] capturedColumns) {
+        this.labels = labels;
+        this.captured = captured;
+        this.capturedColumns = capturedColumns;
+        this.prefixes = new byte[labels.length][];
+        this.writers = new ColumnWriter[labels.length];
+
+        JsonBuffer name = new JsonBuffer();
+        for (int i = 0; i < labels.length; i++) {
+            name.reset();
+            name.write((byte) (i == 0 ? '{' : ','));
+            name.writeString(labels[i]);
+            name.write((byte) ':');
+            prefixes[i] = name.toByteArray();
+            writers[i] = writerFor(types[i]);
+        }
+    }
+
+    /**
+     * Monta o plano de escrita da consulta.
+     *
+     * @param metaData Metadados do resultado da consulta
+     * @param capture Colunas cujos valores são guardados em cada {@link EncodedRow}
+     *                (ex: colunas de chave); podem ser vazias
+     */
+    public static RowJsonCodec of(ResultSetMetaData metaData, Collection<String> capture) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        int[] types = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+            types[i] = metaData.getColumnType(i + 1);
+        }
+
+        String[] captured = capture.toArray(new String[0]);
+        int[] capturedColumns = new int[captured.length];
+        for (int i = 0; i < captured.length; i++) {
+            capturedColumns[i] = indexOf(labels, captured[i]);
+            if (capturedColumns[i] < 0) {
+                throw new IllegalArgumentException("A coluna " + captured[i] + " não está entre as colunas projetadas");
+            }
+        }
+        return new RowJsonCodec(labels, types, captured, capturedColumns);
+    }
+
+    private static int indexOf(String[] labels, String column) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(column)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Nomes das colunas, na ordem da consulta.
+     */
+    public String[] getLabels() {
+        return labels.clone();
+    }
+
+    /**
+     * Escreve a linha atual do {@link ResultSet} como um objeto JSON no buffer.
+     */
+    public void write(ResultSet resultSet, JsonBuffer out) throws SQLException {
+        if (writers.length == 0) {
+            out.write((byte) '{');
+        }
+        for (int i = 0; i < writers.length; i++) {
+            out.write(prefixes[i]);
+            writers[i].write(resultSet, i + 1, out);
+        }
+        out.write((byte) '}');
+    }
+
+    /**
+     * Codifica a linha atual do {@link ResultSet} usando o buffer da thread, copiando
+     * apenas o JSON final e os valores das colunas capturadas.
+     */
+    public EncodedRow encode(ResultSet resultSet) throws SQLException {
+        JsonBuffer buffer = JsonBuffer.local();
+        write(resultSet, buffer);
+
+        Object[] values = new Object[capturedColumns.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = resultSet.getObject(capturedColumns[i]);
+        }
+        return new EncodedRow(buffer.toByteArray(), captured, values);
+    }
+
+    /**
+     * Escritor adequado ao tipo SQL da coluna. Tipos desconhecidos são lidos com
+     * {@code getObject} e escritos conforme a classe do valor.
+     */
+    static ColumnWriter writerFor(int sqlType) {
+        switch (sqlType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return (resultSet, column, out) -> {
+                    boolean value = resultSet.getBoolean(column);
+                    if (resultSet.wasNull()) {
+                        out.writeNull();
+                    } else {
+                        out.writeBoolean(value);
+                    }
+                };
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return (resultSet, column, out) -> {
+                    long value = resultSet.getLong(column);
+                    if (resultSet.wasNull()) {
+                        out.writeNull();
+                    } else {
+                        out.writeLong(value);
+                    }
+                };
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return (resultSet, column, out) -> {
+                    double value = resultSet.getDouble(column);
+                    if (resultSet.wasNull()) {
+                        out.writeNull();
+                    } else {
+                        writeDouble(value, out);
+                    }
+                };
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return (resultSet, column, out) -> {
+                    BigDecimal value = resultSet.getBigDecimal(column);
+                    if (value == null) {
+                        out.writeNull();
+                    } else {
+                        out.writeAscii(value.toString());
+                    }
+                };
+            case Types.DATE:
+                return (resultSet, column, out) -> {
+                    Date value = resultSet.getDate(column);
+                    if (value == null) {
+                        out.writeNull();
+                    } else {
+                        out.writeLong(value.getTime());
+                    }
+                };
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return (resultSet, column, out) -> {
+                    Timestamp value = resultSet.getTimestamp(column);
+                    if (value == null) {
+                        out.writeNull();
+                    } else {
+                        out.writeLong(value.getTime());
+                    }
+                };
+            case Types.TIME:
+            case Types.TIME_WITH_TIMEZONE:
+                return (resultSet, column, out) -> {
+                    Time value = resultSet.getTime(column);
+                    if (value == null) {
+                        out.writeNull();
+                    } else {
+                        out.writeString(value.toString());
+                    }
+                };
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return (resultSet, column, out) -> {
+                    String value = resultSet.getString(column);
+                    if (value == null) {
+                        out.writeNull();
+                    } else {
+                        out.writeString(value);
+                    }
+                };
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return (resultSet, column, out) -> {
+                    byte[] value = resultSet.getBytes(column);
+                    if (value == null) {
+                        out.writeNull();
+                    } else {
+                        out.writeBase64(value);
+                    }
+                };
+            default:
+                return (resultSet, column, out) -> writeObject(resultSet.getObject(column), out);
+        }
+    }
+
+    private static void writeDouble(double value, JsonBuffer out) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            // NaN e infinito não são números JSON válidos
+            out.writeString(Double.toString(value));
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.writeLong((long) value);
+            out.write((byte) '.');
+            out.write((byte) '0');
+        } else {
+            out.writeAscii(Double.toString(value));
+        }
+    }
+
+    private static void writeObject(Object value, JsonBuffer out) {
+        if (value == null) {
+            out.writeNull();
+        } else if (value instanceof Boolean) {
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            writeDouble(((Number) value).doubleValue(), out);
+        } else if (value instanceof Number) {
+            out.writeAscii(value.toString());
+        } else if (value instanceof byte[]) {
+            out.writeBase64((byte[]) value);
+        } else if (value instanceof Time) {
+            out.writeString(value.toString());
+        } else if (value instanceof java.util.Date) {
+            out.writeLong(((java.util.Date) value).getTime());
+        } else {
+            out.writeString(value.toString());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package br.eagletecnologia.CamelBridge.codec;
+
+import br.eagletecnologia.CamelBridge.extraction.Rows;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.DataFormat;
+import org.apache.camel.spi.DataFormatName;
+import org.apache.camel.support.service.ServiceSupport;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Data format que converte registros em JSON, usável em rotas YAML como
+ * {@code marshal: custom: rowJson}.
+ *
+ * <ul>
+ *   <li>{@link ResultSet}: as linhas são escritas direto do ResultSet pelo
+ *   {@link RowJsonCodec}, uma a uma, sem montar mapas;</li>
+ *   <li>{@link EncodedRow}: o JSON já codificado é copiado como está;</li>
+ *   <li>mapas e demais objetos: serializados pelo Jackson.</li>
+ * </ul>
+ *
+ * Um registro único vira um objeto JSON; listas, iteradores (ex: páginas do keyset) e
+ * ResultSets viram um array JSON, ou um objeto por linha com {@code lineDelimited}
+ * (NDJSON). O unmarshal faz o caminho inverso com o Jackson (mapa ou lista de mapas).
+ */
+public class RowJsonDataFormat extends ServiceSupport implements DataFormat, DataFormatName {
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final byte[] OPEN = {'['};
+    private static final byte[] CLOSE = {']'};
+    private static final byte[] COMMA = {','};
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private boolean lineDelimited;
+
+    @Override
+    public String getDataFormatName() {
+        return "rowJson";
+    }
+
+    @Override
+    public void marshal(Exchange exchange, Object graph, OutputStream stream) throws Exception {
+        exchange.getMessage().setHeader(Exchange.CONTENT_TYPE,
+            lineDelimited ? "application/x-ndjson" : "application/json");
+
+        if (graph instanceof Map || graph instanceof EncodedRow) {
+            writeRow(graph, stream);
+            return;
+        }
+
+        stream.write(lineDelimited ? EMPTY : OPEN);
+        boolean first = true;
+        if (graph instanceof ResultSet) {
+            ResultSet resultSet = (ResultSet) graph;
+            RowJsonCodec codec = RowJsonCodec.of(resultSet.getMetaData(), Collections.emptyList());
+            JsonBuffer buffer = JsonBuffer.local();
+            while (resultSet.next()) {
+                buffer.reset();
+                writeSeparator(first, stream);
+                codec.write(resultSet, buffer);
+                buffer.writeTo(stream);
+                first = false;
+            }
+        } else {
+            Iterator<Object> rows = Rows.of(graph);
+            while (rows.hasNext()) {
+                writeSeparator(first, stream);
+                writeRow(rows.next(), stream);
+                first = false;
+            }
+        }
+        stream.write(lineDelimited ? (first ? EMPTY : NEWLINE) : CLOSE);
+    }
+
+    private void writeRow(Object row, OutputStream stream) throws Exception {
+        if (row instanceof EncodedRow) {
+            stream.write(((EncodedRow) row).getJson());
+        } else {
+            stream.write(objectMapper.writeValueAsBytes(row));
+        }
+    }
+
+    private void writeSeparator(boolean first, OutputStream stream) throws Exception {
+        if (!first) {
+            stream.write(lineDelimited ? NEWLINE : COMMA);
+        }
+    }
+
+    @Override
+    public Object unmarshal(Exchange exchange, InputStream stream) throws Exception {
+        if (lineDelimited) {
+            return objectMapper.readerFor(Map.class).readValues(stream).readAll();
+        }
+        return objectMapper.readValue(stream, Object.class);
+    }
+
+    public boolean isLineDelimited() {
+        return lineDelimited;
+    }
+
+    /**
+     * Escreve um objeto JSON por linha (NDJSON) em vez de um array.
+     */
+    public void setLineDelimited(boolean lineDelimited) {
+        this.lineDelimited = lineDelimited;
+    }
+}
@@ -0,0 +1,27 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.support.DefaultComponent;
+
+import java.util.Map;
+
+/**
+ * Componente Camel de entrega em lote.
+ *
+ * Registrado em AppConfiguration com o nome "bulk" e usado nas rotas como:
+ * <pre>
+ * bulk:usuarios?deliverTo=direct:enviar-lote-usuarios&amp;batchSize=500&amp;encoding=json
+ * </pre>
+ *
+ * @see BulkEndpoint
+ */
+public class BulkComponent extends DefaultComponent {
+
+    @Override
+    protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
+        BulkEndpoint endpoint = new BulkEndpoint(uri, this);
+        endpoint.setName(remaining);
+        setProperties(endpoint, parameters);
+        return endpoint;
+    }
+}
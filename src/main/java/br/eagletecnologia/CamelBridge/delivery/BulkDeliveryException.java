@@ -0,0 +1,24 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import org.apache.camel.CamelException;
+
+/**
+ * Lançada ao final de uma entrega em lote quando algum registro não pôde ser entregue.
+ *
+ * Faz a rota terminar com erro, de modo que o watermark não avance além dos
+ * registros que falharam.
+ */
+public class BulkDeliveryException extends CamelException {
+
+    private final transient BulkResult result;
+
+    public BulkDeliveryException(BulkResult result) {
+        super("Falha na entrega em lote " + result.getName() + ": " + result
+            + (result.getFailures().isEmpty() ? "" : ". Primeira falha: " + result.getFailures().get(0)));
+        this.result = result;
+    }
+
+    public BulkResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Formatos de payload de um lote.
+ */
+public enum BulkEncoding {
+
+    /**
+     * Array JSON: {@code [{...},{...}]}
+     */
+    JSON("application/json", "[", ",", "]"),
+
+    /**
+     * JSON delimitado por linhas (NDJSON): um objeto por linha.
+     */
+    NDJSON("application/x-ndjson", "", "\n", "\n");
+
+    private final String contentType;
+    private final byte[] open;
+    private final byte[] separator;
+    private final byte[] close;
+
+    BulkEncoding(String contentType, String open, String separator, String close) {
+        this.contentType = contentType;
+        this.open = open.getBytes(StandardCharsets.UTF_8);
+        this.separator = separator.getBytes(StandardCharsets.UTF_8);
+        this.close = close.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Tamanho em bytes que um registro acrescenta ao payload, incluindo o separador.
+     */
+    int overhead() {
+        return separator.length;
+    }
+
+    /**
+     * Monta o payload do lote a partir dos registros já codificados em JSON.
+     */
+    byte[] encode(List<BulkRecord> records) {
+        int size = open.length + close.length;
+        for (BulkRecord record : records) {
+            size += record.getJson().length + separator.length;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.writeBytes(open);
+        for (int i = 0; i < records.size(); i++) {
+            if (i > 0) {
+                out.writeBytes(separator);
+            }
+            out.writeBytes(records.get(i).getJson());
+        }
+        out.writeBytes(close);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,270 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import br.eagletecnologia.CamelBridge.index.RowHashIndexStore;
+import org.apache.camel.Consumer;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.support.DefaultEndpoint;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoint de entrega em lote.
+ *
+ * O producer deste endpoint recebe no corpo da mensagem os registros a entregar
+ * (uma lista, um iterador de páginas como o do componente keyset, ou um único registro),
+ * agrupa-os em lotes e envia cada lote como uma única mensagem para o endpoint
+ * {@code deliverTo} (normalmente uma rota direct: que faz o POST HTTP).
+ *
+ * Um lote é fechado quando atinge {@code batchSize} registros, quando o próximo registro
+ * ultrapassaria {@code maxBytes}, ou ao fim dos registros da mensagem (um lote nunca
+ * junta registros de mensagens diferentes). Se o destino recusar um lote por causa dos
+ * registros (HTTP 4xx, exceto 408 e 429), ele é dividido ao meio e cada metade é
+ * reenviada, até isolar os registros com problema. Falhas de rede e HTTP 5xx fazem o lote
+ * inteiro falhar, sem divisão.
+ *
+ * Opções:
+ * <ul>
+ *   <li>name (caminho da URI): nome usado nos logs</li>
+ *   <li>deliverTo: endpoint que recebe cada lote (obrigatório)</li>
+ *   <li>batchSize: quantidade máxima de registros por lote</li>
+ *   <li>maxBytes: tamanho máximo do payload do lote em bytes</li>
+ *   <li>encoding: json (array JSON) ou ndjson (um objeto por linha)</li>
+ *   <li>watermarkColumn: coluna cujo maior valor no lote vai para o cabeçalho
+ *       {@value CheckpointStore#RECORD_WATERMARK_HEADER}</li>
+ *   <li>executor: {@link DeliveryExecutor} usado para enviar os lotes em paralelo
+ *       (ex: #deliveryExecutor); se omitido, os lotes são enviados em sequência</li>
+ *   <li>parallelism: quantidade de filas de lotes enviadas em paralelo (com executor)</li>
+ *   <li>maxQueuedBatches: lotes fechados por fila, em envio ou aguardando o anterior, antes
+ *       de a leitura dos registros parar até uma vaga (com executor, padrão: 2)</li>
+ *   <li>keyColumn: coluna de chave do registro; registros com a mesma chave são
+ *       entregues na ordem de leitura</li>
+ *   <li>destination: URL ou host de destino, usado no limite de requisições por host
+ *       do executor (padrão: deliverTo)</li>
+ *   <li>hashIndex: {@link RowHashIndexStore} usado para descartar registros cujo
+ *       conteúdo não mudou desde a última entrega (ex: #rowHashIndex); exige keyColumn</li>
+ *   <li>hashTable: nome do índice de hash (padrão: name)</li>
+ *   <li>hashExclude: colunas ignoradas no hash de conteúdo (padrão: watermarkColumn)</li>
+ *   <li>throttleRetries: reenvios do mesmo lote após HTTP 429/503, respeitando o
+ *       Retry-After, antes de a entrega do lote falhar</li>
+ *   <li>deadLetter: {@link DeadLetterStore} onde são gravados os registros que
+ *       continuam recusados depois da divisão (ex: #deadLetterStore); sem ele, a
+ *       entrega termina com erro</li>
+ *   <li>deadLetterOn: rejected (apenas HTTP 4xx, exceto 408/429) ou any (qualquer falha,
+ *       inclusive os lotes inteiros que falham por rede ou HTTP 5xx)</li>
+ * </ul>
+ */
+public class BulkEndpoint extends DefaultEndpoint {
+
+    private String name;
+    private String deliverTo;
+    private int batchSize = 500;
+    private long maxBytes = 1024 * 1024;
+    private BulkEncoding encoding = BulkEncoding.JSON;
+    private String watermarkColumn;
+    private DeliveryExecutor executor;
+    private int parallelism = 4;
+    private int maxQueuedBatches = 2;
+    private String keyColumn;
+    private String destination;
+    private int throttleRetries = 3;
+    private RowHashIndexStore hashIndex;
+    private String hashTable;
+    private String hashExclude;
+    private DeadLetterStore deadLetter;
+    private DeadLetterPolicy deadLetterOn = DeadLetterPolicy.REJECTED;
+
+    public BulkEndpoint(String endpointUri, BulkComponent component) {
+        super(endpointUri, component);
+    }
+
+    @Override
+    public Producer createProducer() throws Exception {
+        return new BulkProducer(this);
+    }
+
+    @Override
+    public Consumer createConsumer(Processor processor) throws Exception {
+        throw new UnsupportedOperationException("O endpoint bulk suporta apenas producer: " + getEndpointUri());
+    }
+
+    @Override
+    protected void doInit() throws Exception {
+        super.doInit();
+        if (deliverTo == null || deliverTo.isBlank()) {
+            throw new IllegalArgumentException("A opção deliverTo é obrigatória: " + getEndpointUri());
+        }
+        if (batchSize <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("batchSize e maxBytes devem ser maiores que zero: " + getEndpointUri());
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("A opção parallelism deve ser maior que zero: " + getEndpointUri());
+        }
+        if (maxQueuedBatches <= 0) {
+            throw new IllegalArgumentException("A opção maxQueuedBatches deve ser maior que zero: " + getEndpointUri());
+        }
+        if (destination == null || destination.isBlank()) {
+            destination = deliverTo;
+        }
+        if (hashIndex != null) {
+            if (keyColumn == null || keyColumn.isBlank()) {
+                throw new IllegalArgumentException("A opção hashIndex exige keyColumn: " + getEndpointUri());
+            }
+            if (hashTable == null || hashTable.isBlank()) {
+                hashTable = name;
+            }
+            if (hashExclude == null) {
+                hashExclude = watermarkColumn != null ? watermarkColumn : "";
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDeliverTo() {
+        return deliverTo;
+    }
+
+    public void setDeliverTo(String deliverTo) {
+        this.deliverTo = deliverTo;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public BulkEncoding getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(BulkEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+    public String getWatermarkColumn() {
+        return watermarkColumn;
+    }
+
+    public void setWatermarkColumn(String watermarkColumn) {
+        this.watermarkColumn = watermarkColumn;
+    }
+
+    public DeliveryExecutor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(DeliveryExecutor executor) {
+        this.executor = executor;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getMaxQueuedBatches() {
+        return maxQueuedBatches;
+    }
+
+    public void setMaxQueuedBatches(int maxQueuedBatches) {
+        this.maxQueuedBatches = maxQueuedBatches;
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    public void setKeyColumn(String keyColumn) {
+        this.keyColumn = keyColumn;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public int getThrottleRetries() {
+        return throttleRetries;
+    }
+
+    public void setThrottleRetries(int throttleRetries) {
+        this.throttleRetries = throttleRetries;
+    }
+
+    /**
+     * Colunas ignoradas no hash de conteúdo.
+     */
+    Set<String> getHashExcludeSet() {
+        return Arrays.stream(hashExclude == null ? new String[0] : hashExclude.split(","))
+            .map(String::trim)
+            .filter(column -> !column.isEmpty())
+            .collect(Collectors.toSet());
+    }
+
+    public RowHashIndexStore getHashIndex() {
+        return hashIndex;
+    }
+
+    public void setHashIndex(RowHashIndexStore hashIndex) {
+        this.hashIndex = hashIndex;
+    }
+
+    public String getHashTable() {
+        return hashTable;
+    }
+
+    public void setHashTable(String hashTable) {
+        this.hashTable = hashTable;
+    }
+
+    public String getHashExclude() {
+        return hashExclude;
+    }
+
+    public void setHashExclude(String hashExclude) {
+        this.hashExclude = hashExclude;
+    }
+
+    public DeadLetterStore getDeadLetter() {
+        return deadLetter;
+    }
+
+    public void setDeadLetter(DeadLetterStore deadLetter) {
+        this.deadLetter = deadLetter;
+    }
+
+    public DeadLetterPolicy getDeadLetterOn() {
+        return deadLetterOn;
+    }
+
+    public void setDeadLetterOn(DeadLetterPolicy deadLetterOn) {
+        this.deadLetterOn = deadLetterOn;
+    }
+}
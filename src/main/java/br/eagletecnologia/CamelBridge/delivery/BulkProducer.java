@@ -0,0 +1,546 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import br.eagletecnologia.CamelBridge.codec.EncodedRow;
+import br.eagletecnologia.CamelBridge.extraction.Rows;
+import br.eagletecnologia.CamelBridge.index.RowHashIndex;
+import br.eagletecnologia.CamelBridge.index.RowHashIndexStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.spi.HttpResponseAware;
+import org.apache.camel.support.DefaultProducer;
+import org.apache.camel.support.service.ServiceHelper;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer que agrupa os registros do corpo da mensagem em lotes e envia cada lote
+ * para o endpoint de entrega, dividindo e reenviando os lotes recusados por causa dos
+ * registros (HTTP 4xx, exceto 408 e 429).
+ *
+ * Cada lote é enviado como uma cópia da mensagem original, com o payload JSON/NDJSON
+ * no corpo e os cabeçalhos {@value #BATCH_NUMBER_HEADER}, {@value #BATCH_SIZE_HEADER}
+ * e Content-Type. O corpo da mensagem original não é alterado; o resumo da entrega fica
+ * no cabeçalho {@value #RESULT_HEADER}.
+ *
+ * Com um {@link DeliveryExecutor} configurado, os lotes são distribuídos em
+ * {@code parallelism} filas enviadas em paralelo. Com {@code keyColumn}, todos os
+ * registros de uma mesma chave caem na mesma fila, e cada fila envia os seus lotes em
+ * ordem, de modo que duas alterações do mesmo registro nunca concorrem entre si. A
+ * permissão do host de destino só é pedida quando o lote chega a vez de ser enviado, e a
+ * leitura dos registros para quando uma fila já tem {@code maxQueuedBatches} lotes
+ * fechados.
+ *
+ * Com um índice de hash ({@code hashIndex}), registros cujo conteúdo (sem as colunas de
+ * {@code hashExclude}) é igual ao da última entrega bem-sucedida são descartados antes
+ * da conversão para o lote. O índice só é atualizado quando todos os registros da
+ * mensagem foram entregues (ou gravados no dead letter): se um lote falha, nenhum hash da
+ * mensagem é gravado, e o reenvio pelo journal repete também os lotes seguintes da mesma
+ * chave, na ordem original. Da mesma forma, depois que uma versão da chave entra em um
+ * lote, as versões seguintes da mensagem não são descartadas. Assim uma versão antiga
+ * reenviada nunca fica por último no destino. O maior watermark entre os descartados fica no cabeçalho
+ * {@value CheckpointStore#RECORD_WATERMARK_HEADER} da mensagem original.
+ *
+ * Registros já codificados ({@link EncodedRow}) seguem para o lote sem nova conversão;
+ * as colunas de chave e de watermark são lidas dos valores capturados. Como o conteúdo
+ * completo só existe no JSON, esses registros não são comparados com o índice de hash.
+ *
+ * No reenvio do dead letter, os registros cuja chave mudou no índice de hash desde a
+ * recusa (uma versão mais nova já foi entregue) são descartados antes do envio.
+ *
+ * Com um {@link DeadLetterStore} ({@code deadLetter}), os registros que continuam
+ * recusados depois da divisão são gravados nele em vez de fazer a entrega falhar, de modo
+ * que um registro inválido não trava a fila do journal. Com {@code deadLetterOn=any}, os
+ * registros dos lotes que falham por rede ou HTTP 5xx também vão para ele, sem divisão.
+ */
+public class BulkProducer extends DefaultProducer {
+
+    /**
+     * Cabeçalho com o número sequencial do lote enviado.
+     */
+    public static final String BATCH_NUMBER_HEADER = "LOTE_NUMERO";
+
+    /**
+     * Cabeçalho com a quantidade de registros do lote enviado.
+     */
+    public static final String BATCH_SIZE_HEADER = "LOTE_REGISTROS";
+
+    /**
+     * Cabeçalho com o {@link BulkResult} da entrega, definido na mensagem original.
+     */
+    public static final String RESULT_HEADER = "RESULTADO_ENVIO";
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkProducer.class);
+
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ProducerTemplate producerTemplate;
+    private Endpoint deliveryEndpoint;
+
+    public BulkProducer(BulkEndpoint endpoint) {
+        super(endpoint);
+    }
+
+    @Override
+    public BulkEndpoint getEndpoint() {
+        return (BulkEndpoint) super.getEndpoint();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        deliveryEndpoint = getEndpoint().getCamelContext().getEndpoint(getEndpoint().getDeliverTo());
+        producerTemplate = getEndpoint().getCamelContext().createProducerTemplate();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        ServiceHelper.stopService(producerTemplate);
+        super.doStop();
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        BulkEndpoint endpoint = getEndpoint();
+        BulkResult result = new BulkResult(endpoint.getName());
+        int overhead = endpoint.getEncoding().overhead();
+
+        // Sem executor os lotes são enviados em sequência pela própria thread da rota
+        DeliveryExecutor executor = endpoint.getExecutor();
+        Lane[] lanes = new Lane[executor != null ? endpoint.getParallelism() : 1];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(endpoint.getMaxQueuedBatches());
+        }
+        String keyColumn = endpoint.getKeyColumn();
+        int nextLane = 0;
+
+        // Índice de hash: registros com o mesmo conteúdo da última entrega são descartados
+        RowHashIndex hashIndex = endpoint.getHashIndex() != null
+            ? endpoint.getHashIndex().get(endpoint.getHashTable()) : null;
+        Set<String> hashExclude = endpoint.getHashExcludeSet();
+        Object unchangedWatermark = null;
+        Map<?, ?> replayOrigins = exchange.getProperty(DeadLetterStore.REPLAY_PROPERTY, Map.class);
+        // Hashes entregues nesta mensagem, gravados no índice só se nenhum lote falhar
+        Map<Long, Long> delivered = hashIndex != null ? new ConcurrentHashMap<>() : null;
+        Set<Long> queuedKeys = new HashSet<>();
+
+        try {
+            Iterator<Object> rows = Rows.of(exchange.getIn().getBody());
+            while (rows.hasNext()) {
+                Object row = rows.next();
+
+                // Registros com a mesma chave ficam sempre na mesma fila, preservando a ordem
+                Lane lane;
+                if (lanes.length == 1) {
+                    lane = lanes[0];
+                } else if (keyColumn != null) {
+                    Object key = row instanceof Map || row instanceof EncodedRow ? keyOf(row, keyColumn) : row;
+                    lane = lanes[Math.floorMod(Objects.hashCode(key), lanes.length)];
+                } else {
+                    lane = lanes[nextLane];
+                }
+
+                BulkRecord record;
+                if (hashIndex != null && row instanceof Map) {
+                    long key = RowHashIndexStore.keyOf(keyOf(row, keyColumn));
+                    long hash = RowHashIndexStore.hashRow((Map<?, ?>) row, hashExclude);
+                    // Uma versão anterior da chave já está nesta mensagem: as seguintes também seguem
+                    if (!queuedKeys.contains(key) && hashIndex.matches(key, hash)) {
+                        result.unchanged();
+                        unchangedWatermark = max(unchangedWatermark, watermarkOf(row));
+                        continue;
+                    }
+                    // Reenvio do dead letter: outra versão da chave foi entregue depois da recusa
+                    DeadLetter origin = replayOrigins != null ? (DeadLetter) replayOrigins.get(row) : null;
+                    if (origin != null && origin.getDeliveredHash() != null
+                            && origin.getDeliveredHash() != hashIndex.get(key)) {
+                        LOG.info("Registro de {} do dead letter descartado: versão mais nova da chave {} já entregue",
+                            endpoint.getName(), keyOf(row, keyColumn));
+                        result.superseded();
+                        continue;
+                    }
+                    queuedKeys.add(key);
+                    record = new BulkRecord(row, objectMapper.writeValueAsBytes(row), key, hash);
+                } else if (row instanceof EncodedRow) {
+                    record = new BulkRecord(row, ((EncodedRow) row).getJson());
+                } else {
+                    record = new BulkRecord(row, objectMapper.writeValueAsBytes(row));
+                }
+                int recordBytes = record.getJson().length + overhead;
+
+                // Limite de bytes: um registro maior que maxBytes segue sozinho em um lote
+                if (!lane.batch.isEmpty() && lane.batchBytes + recordBytes > endpoint.getMaxBytes()) {
+                    dispatch(exchange, lane, result, delivered);
+                }
+
+                lane.batch.add(record);
+                lane.batchBytes += recordBytes;
+
+                if (lane.batch.size() >= endpoint.getBatchSize()) {
+                    dispatch(exchange, lane, result, delivered);
+                    // Sem chave, os lotes completos são distribuídos entre as filas em rodízio
+                    nextLane = (nextLane + 1) % lanes.length;
+                }
+            }
+            for (Lane lane : lanes) {
+                if (!lane.batch.isEmpty()) {
+                    dispatch(exchange, lane, result, delivered);
+                }
+            }
+        } finally {
+            // Aguarda os lotes em andamento mesmo em caso de erro na leitura dos registros
+            for (Lane lane : lanes) {
+                lane.tail.join();
+            }
+        }
+
+        exchange.getIn().setHeader(RESULT_HEADER, result);
+        if (delivered != null && result.getFailedRecords() == 0) {
+            remember(hashIndex, delivered);
+        }
+        if (unchangedWatermark != null) {
+            // Os registros descartados também contam para o avanço do watermark da rota
+            exchange.getIn().setHeader(CheckpointStore.RECORD_WATERMARK_HEADER, unchangedWatermark);
+        }
+        if (result.getFailedRecords() > 0) {
+            throw new BulkDeliveryException(result);
+        }
+    }
+
+    /**
+     * Fecha o lote atual da fila e o envia. Com executor, o envio é encadeado ao
+     * anterior da mesma fila e roda em segundo plano; a permissão do host de destino é
+     * obtida pela tarefa, logo antes do envio, para que um lote parado atrás do anterior
+     * da fila não ocupe uma vaga do host. Se a fila já tem maxQueuedBatches lotes
+     * fechados, espera um deles terminar. Sem executor, o envio é feito na thread atual.
+     */
+    private void dispatch(Exchange original, Lane lane, BulkResult result, Map<Long, Long> delivered)
+            throws InterruptedException {
+        List<BulkRecord> records = lane.batch;
+        lane.batch = new ArrayList<>();
+        lane.batchBytes = 0;
+
+        DeliveryExecutor executor = getEndpoint().getExecutor();
+        if (executor == null) {
+            deliver(original, records, result, null, delivered);
+            return;
+        }
+
+        lane.queued.acquire();
+        lane.tail = lane.tail.thenRunAsync(() -> {
+            try (DeliveryExecutor.Permit permit = executor.acquire(getEndpoint().getDestination())) {
+                deliver(original, records, result, permit, delivered);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.failure(records.size(), describe(e));
+            } catch (RuntimeException e) {
+                LOG.error("Erro ao entregar lote de {}: {}", getEndpoint().getName(), e.getMessage(), e);
+                result.failure(records.size(), describe(e));
+            }
+        }, executor).whenComplete((ignored, error) -> lane.queued.release());
+    }
+
+    /**
+     * Envia um lote; se o destino recusar os registros (HTTP 4xx, exceto 408 e 429),
+     * divide o lote ao meio e reenvia cada parte, até que as partes com falha tenham um
+     * único registro.
+     *
+     * Falhas de rede e HTTP 5xx não indicam registros com problema: o lote inteiro falha
+     * de uma vez, sem divisão, para ser reenviado depois pelo journal. Dividi-lo só
+     * multiplicaria as requisições para uma API fora do ar. Respostas de sobrecarga
+     * (HTTP 429 ou 503) antes são reenviadas com o mesmo lote após o Retry-After (ou uma
+     * espera crescente), até {@code throttleRetries} vezes. Com permissão do
+     * {@link DeliveryExecutor}, a latência e o status de cada envio alimentam o limite
+     * adaptativo do host. Os hashes dos registros entregues vão para {@code delivered}.
+     */
+    private void deliver(Exchange original, List<BulkRecord> records, BulkResult result,
+                         DeliveryExecutor.Permit permit, Map<Long, Long> delivered) {
+        int batchNumber = result.nextBatchNumber();
+        byte[] payload = getEndpoint().getEncoding().encode(records);
+
+        Exception error;
+        int statusCode;
+        int attempt = 0;
+        while (true) {
+            long started = System.nanoTime();
+            Exchange sent = producerTemplate.send(deliveryEndpoint, createBatchExchange(original, records, batchNumber, payload));
+            long latency = System.nanoTime() - started;
+            error = sent.getException();
+
+            statusCode = statusCode(sent, error);
+            long retryAfter = retryAfterMillis(sent, error);
+            if (permit != null) {
+                permit.record(latency, statusCode, error != null, retryAfter);
+            }
+            if (error == null) {
+                result.success(records.size(), payload.length);
+                if (delivered != null) {
+                    for (BulkRecord record : records) {
+                        if (record.getHash() != 0) {
+                            delivered.put(record.getKey(), record.getHash());
+                        }
+                    }
+                }
+                return;
+            }
+            if ((statusCode != 429 && statusCode != 503) || attempt >= getEndpoint().getThrottleRetries()) {
+                break;
+            }
+
+            long wait = retryAfter > 0 ? retryAfter : Math.min(30_000L, 1000L << attempt);
+            attempt++;
+            LOG.warn("Lote {} de {} recusado por sobrecarga (HTTP {}). Nova tentativa {} de {} em {} ms",
+                batchNumber, getEndpoint().getName(), statusCode, attempt, getEndpoint().getThrottleRetries(), wait);
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        String reason = describe(error);
+        boolean rejected = isRejection(statusCode);
+        if (rejected && records.size() > 1) {
+            int middle = records.size() / 2;
+            LOG.warn("Lote {} de {} ({} registros) recusado: {}. Dividindo em {} + {} registros",
+                batchNumber, getEndpoint().getName(), records.size(), reason, middle, records.size() - middle);
+            deliver(original, records.subList(0, middle), result, permit, delivered);
+            deliver(original, records.subList(middle, records.size()), result, permit, delivered);
+        } else if (shouldDeadLetter(rejected)) {
+            for (BulkRecord record : records) {
+                deadLetter(original, record, error, result, delivered);
+            }
+        } else if (records.size() == 1) {
+            LOG.error("Registro do lote {} de {} não pôde ser entregue: {}. Registro: {}",
+                batchNumber, getEndpoint().getName(), reason, new String(records.get(0).getJson()));
+            result.failure(1, reason);
+        } else {
+            LOG.error("Lote {} de {} ({} registros) não pôde ser entregue: {}. O lote será reenviado inteiro",
+                batchNumber, getEndpoint().getName(), records.size(), reason);
+            result.failure(records.size(), reason);
+        }
+    }
+
+    /**
+     * Recusa causada pelos próprios registros do lote: HTTP 4xx, exceto 408 (timeout) e
+     * 429 (sobrecarga). Apenas essas recusas levam à divisão do lote.
+     */
+    private static boolean isRejection(int statusCode) {
+        return statusCode >= 400 && statusCode < 500 && statusCode != 408 && statusCode != 429;
+    }
+
+    private boolean shouldDeadLetter(boolean rejected) {
+        if (getEndpoint().getDeadLetter() == null) {
+            return false;
+        }
+        return rejected || getEndpoint().getDeadLetterOn() == DeadLetterPolicy.ANY;
+    }
+
+    /**
+     * Grava o registro recusado no dead letter, com os cabeçalhos simples da mensagem e
+     * as tentativas anteriores quando a mensagem é um reenvio do próprio dead letter.
+     */
+    private void deadLetter(Exchange original, BulkRecord record, Exception error, BulkResult result,
+                            Map<Long, Long> delivered) {
+        DeadLetter origin = null;
+        Object replay = original.getProperty(DeadLetterStore.REPLAY_PROPERTY);
+        if (replay instanceof Map) {
+            origin = (DeadLetter) ((Map<?, ?>) replay).get(record.getSource());
+        }
+
+        long now = System.currentTimeMillis();
+        DeadLetter letter = new DeadLetter();
+        letter.setSource(getEndpoint().getName());
+        letter.setEndpointUri(getEndpoint().getEndpointUri());
+        letter.setRouteId(origin != null ? origin.getRouteId() : original.getFromRouteId());
+        letter.setPayload(new String(record.getJson(), StandardCharsets.UTF_8));
+        original.getIn().getHeaders().forEach((name, value) -> {
+            if (!name.startsWith("Camel") && !RESULT_HEADER.equals(name)
+                    && (value instanceof String || value instanceof Number || value instanceof Boolean)) {
+                letter.getHeaders().put(name, value);
+            }
+        });
+        letter.setError(describe(error));
+        letter.setStatusCode(statusCode(null, error));
+        letter.setAttempts(origin != null ? origin.getAttempts() + 1 : 1);
+        letter.setFirstFailedAt(origin != null ? origin.getFirstFailedAt() : now);
+        letter.setLastFailedAt(now);
+
+        try {
+            if (record.getHash() != 0) {
+                // Versão da chave entregue até agora; outra no reenvio indica registro substituído
+                Long hash = delivered.get(record.getKey());
+                if (hash == null) {
+                    RowHashIndex index = getEndpoint().getHashIndex().get(getEndpoint().getHashTable());
+                    hash = index.get(record.getKey());
+                }
+                letter.setDeliveredHash(hash);
+            }
+            getEndpoint().getDeadLetter().add(letter);
+            result.deadLettered();
+        } catch (IOException e) {
+            LOG.error("Erro ao gravar registro de {} no dead letter: {}", getEndpoint().getName(), e.getMessage(), e);
+            result.failure(1, letter.getError());
+        }
+    }
+
+    /**
+     * Grava no índice de hash o conteúdo dos registros entregues pela mensagem. Uma falha
+     * aqui não desfaz a entrega: os registros apenas serão reenviados na próxima vez.
+     */
+    private void remember(RowHashIndex index, Map<Long, Long> delivered) {
+        if (delivered.isEmpty()) {
+            return;
+        }
+        try {
+            for (Map.Entry<Long, Long> entry : delivered.entrySet()) {
+                index.put(entry.getKey(), entry.getValue());
+            }
+            index.force();
+        } catch (IOException e) {
+            LOG.warn("Erro ao atualizar índice de hash de {}: {}", getEndpoint().getHashTable(), e.getMessage());
+        }
+    }
+
+    /**
+     * Status HTTP do envio: do cabeçalho CamelHttpResponseCode em caso de sucesso, ou da
+     * exceção HTTP em caso de falha. Retorna 0 para destinos que não são HTTP.
+     */
+    private static int statusCode(Exchange sent, Exception error) {
+        if (error != null) {
+            HttpResponseAware http = ObjectHelper.getException(HttpResponseAware.class, error);
+            return http != null ? http.getHttpResponseCode() : 0;
+        }
+        Integer code = sent.getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE, Integer.class);
+        return code != null ? code : 0;
+    }
+
+    /**
+     * Espera pedida pelo cabeçalho Retry-After da resposta, em milissegundos (0 se ausente).
+     */
+    private static long retryAfterMillis(Exchange sent, Exception error) {
+        Object value = null;
+        HttpOperationFailedException http = error != null
+            ? ObjectHelper.getException(HttpOperationFailedException.class, error) : null;
+        if (http != null && http.getResponseHeaders() != null) {
+            value = http.getResponseHeaders().entrySet().stream()
+                .filter(entry -> RETRY_AFTER.equalsIgnoreCase(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+        } else if (error == null) {
+            value = sent.getMessage().getHeader(RETRY_AFTER);
+        }
+        return value != null ? parseRetryAfter(value.toString()) : 0;
+    }
+
+    /**
+     * Converte um Retry-After em milissegundos: segundos ("120") ou data HTTP
+     * ("Wed, 21 Oct 2015 07:28:00 GMT").
+     */
+    static long parseRetryAfter(String value) {
+        String text = value.trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(text)));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(text, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+            } catch (DateTimeParseException ignored) {
+                LOG.debug("Retry-After inválido ignorado: {}", text);
+                return 0;
+            }
+        }
+    }
+
+    private Exchange createBatchExchange(Exchange original, List<BulkRecord> records, int batchNumber, byte[] payload) {
+        Exchange batch = original.copy();
+        batch.setException(null);
+        batch.getIn().setBody(payload);
+        batch.getIn().removeHeader(RESULT_HEADER);
+        batch.getIn().setHeader(BATCH_NUMBER_HEADER, batchNumber);
+        batch.getIn().setHeader(BATCH_SIZE_HEADER, records.size());
+        batch.getIn().setHeader(Exchange.CONTENT_TYPE, getEndpoint().getEncoding().getContentType());
+
+        String watermarkColumn = getEndpoint().getWatermarkColumn();
+        if (watermarkColumn != null) {
+            batch.getIn().setHeader(CheckpointStore.RECORD_WATERMARK_HEADER, maxValue(records, watermarkColumn));
+        }
+        return batch;
+    }
+
+    private static Object maxValue(List<BulkRecord> records, String column) {
+        Object max = null;
+        for (BulkRecord record : records) {
+            max = max(max, keyOf(record.getSource(), column));
+        }
+        return max;
+    }
+
+    private Object watermarkOf(Object row) {
+        String column = getEndpoint().getWatermarkColumn();
+        return column != null ? keyOf(row, column) : null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object max(Object current, Object value) {
+        if (!(value instanceof Comparable)) {
+            return current;
+        }
+        return current == null || ((Comparable) current).compareTo(value) < 0 ? value : current;
+    }
+
+    private static Object keyOf(Object row, String column) {
+        if (row instanceof EncodedRow) {
+            return ((EncodedRow) row).get(column);
+        }
+        return row instanceof Map ? ((Map<?, ?>) row).get(column) : null;
+    }
+
+    private static String describe(Exception error) {
+        if (error instanceof HttpResponseAware) {
+            return "HTTP " + ((HttpResponseAware) error).getHttpResponseCode() + " - " + error.getMessage();
+        }
+        return error.getClass().getSimpleName() + ": " + error.getMessage();
+    }
+
+    /**
+     * Fila de lotes: acumula o lote em formação e encadeia os envios, de modo que os
+     * lotes de uma mesma fila são entregues um após o outro, na ordem de leitura. As
+     * vagas de {@code queued} limitam os lotes fechados ainda não entregues.
+     */
+    private static final class Lane {
+        private final Semaphore queued;
+        private List<BulkRecord> batch = new ArrayList<>();
+        private long batchBytes;
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+        private Lane(int maxQueuedBatches) {
+            this.queued = new Semaphore(maxQueuedBatches);
+        }
+    }
+}
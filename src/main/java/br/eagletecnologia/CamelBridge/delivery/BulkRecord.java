@@ -0,0 +1,40 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+/**
+ * Registro de um lote: a linha original e a sua representação JSON, além da chave e do
+ * hash de conteúdo quando o índice de hash está ativo.
+ */
+final class BulkRecord {
+
+    private final Object source;
+    private final byte[] json;
+    private final long key;
+    private final long hash;
+
+    BulkRecord(Object source, byte[] json) {
+        this(source, json, 0, 0);
+    }
+
+    BulkRecord(Object source, byte[] json, long key, long hash) {
+        this.source = source;
+        this.json = json;
+        this.key = key;
+        this.hash = hash;
+    }
+
+    Object getSource() {
+        return source;
+    }
+
+    byte[] getJson() {
+        return json;
+    }
+
+    long getKey() {
+        return key;
+    }
+
+    long getHash() {
+        return hash;
+    }
+}
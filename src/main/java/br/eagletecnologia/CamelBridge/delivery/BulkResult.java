@@ -0,0 +1,152 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resumo de uma entrega em lote: lotes e registros entregues e com falha.
+ *
+ * Disponível na rota através do cabeçalho {@value BulkProducer#RESULT_HEADER}.
+ */
+public class BulkResult {
+
+    private static final int MAX_FAILURES = 100;
+
+    private final String name;
+    private final AtomicInteger batchNumber = new AtomicInteger();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicInteger failedBatches = new AtomicInteger();
+    private final AtomicLong failedRecords = new AtomicLong();
+    private final AtomicLong unchangedRecords = new AtomicLong();
+    private final AtomicLong deadLetteredRecords = new AtomicLong();
+    private final AtomicLong supersededRecords = new AtomicLong();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    BulkResult(String name) {
+        this.name = name;
+    }
+
+    int nextBatchNumber() {
+        return batchNumber.incrementAndGet();
+    }
+
+    void success(int recordCount, int byteCount) {
+        batches.incrementAndGet();
+        records.addAndGet(recordCount);
+        bytes.addAndGet(byteCount);
+    }
+
+    void failure(int recordCount, String message) {
+        failedBatches.incrementAndGet();
+        failedRecords.addAndGet(recordCount);
+        if (failures.size() < MAX_FAILURES) {
+            failures.add(message);
+        }
+    }
+
+    void unchanged() {
+        unchangedRecords.incrementAndGet();
+    }
+
+    void deadLettered() {
+        deadLetteredRecords.incrementAndGet();
+    }
+
+    void superseded() {
+        supersededRecords.incrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Lotes entregues com sucesso.
+     */
+    public int getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * Registros entregues com sucesso.
+     */
+    public long getRecords() {
+        return records.get();
+    }
+
+    /**
+     * Bytes de payload entregues com sucesso.
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Lotes que falharam mesmo após a divisão (lotes de um único registro).
+     */
+    public int getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    /**
+     * Registros que não puderam ser entregues.
+     */
+    public long getFailedRecords() {
+        return failedRecords.get();
+    }
+
+    /**
+     * Registros ignorados por não terem mudado desde a última entrega (índice de hash).
+     */
+    public long getUnchangedRecords() {
+        return unchangedRecords.get();
+    }
+
+    /**
+     * Registros recusados pelo destino e gravados no dead letter ({@link DeadLetterStore}).
+     */
+    public long getDeadLetteredRecords() {
+        return deadLetteredRecords.get();
+    }
+
+    /**
+     * Registros reenviados do dead letter e descartados porque uma versão mais nova da
+     * mesma chave já foi entregue.
+     */
+    public long getSupersededRecords() {
+        return supersededRecords.get();
+    }
+
+    /**
+     * Mensagens das primeiras falhas de entrega.
+     */
+    public List<String> getFailures() {
+        synchronized (failures) {
+            return List.copyOf(failures);
+        }
+    }
+
+    @Override
+    public String toString() {
+        String summary = String.format("%d registro(s) entregue(s) em %d lote(s)", getRecords(), getBatches());
+        if (getUnchangedRecords() > 0) {
+            summary += String.format("; %d registro(s) inalterado(s) ignorado(s)", getUnchangedRecords());
+        }
+        if (getSupersededRecords() > 0) {
+            summary += String.format("; %d registro(s) substituído(s) por versão mais nova ignorado(s)",
+                getSupersededRecords());
+        }
+        if (getDeadLetteredRecords() > 0) {
+            summary += String.format("; %d registro(s) recusado(s) gravado(s) no dead letter", getDeadLetteredRecords());
+        }
+        if (getFailedRecords() > 0) {
+            summary += String.format("; %d registro(s) com falha", getFailedRecords());
+        }
+        return summary;
+    }
+}
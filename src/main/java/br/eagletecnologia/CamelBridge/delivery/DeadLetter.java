@@ -0,0 +1,149 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registro que não pôde ser entregue, guardado no {@link DeadLetterStore}.
+ *
+ * Contém tudo o que é preciso para reenviá-lo sem consultar o banco: o JSON do
+ * registro, o endpoint bulk que tentou entregá-lo e os cabeçalhos da mensagem, além do
+ * erro da última tentativa e a quantidade de tentativas. Gravado em JSON no journal
+ * de dead letters.
+ */
+public class DeadLetter {
+
+    private String source;
+    private String endpointUri;
+    private String routeId;
+    private String payload;
+    private Map<String, Object> headers = new LinkedHashMap<>();
+    private String error;
+    private int statusCode;
+    private int attempts;
+    private long firstFailedAt;
+    private long lastFailedAt;
+    private Long deliveredHash;
+
+    /**
+     * Nome da entrega que recusou o registro (caminho da URI bulk, ex: usuarios).
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    /**
+     * URI do endpoint bulk usado no reenvio.
+     */
+    public String getEndpointUri() {
+        return endpointUri;
+    }
+
+    public void setEndpointUri(String endpointUri) {
+        this.endpointUri = endpointUri;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public void setRouteId(String routeId) {
+        this.routeId = routeId;
+    }
+
+    /**
+     * JSON do registro, como foi enviado.
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Cabeçalhos da mensagem com valores simples (texto, número, booleano).
+     */
+    public Map<String, Object> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, Object> headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * Erro da última tentativa.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Status HTTP da última tentativa (0 se não houve resposta HTTP).
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Quantidade de entregas que terminaram com o registro no dead letter (a original
+     * e os reenvios).
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Instante (epoch ms) da primeira falha.
+     */
+    public long getFirstFailedAt() {
+        return firstFailedAt;
+    }
+
+    public void setFirstFailedAt(long firstFailedAt) {
+        this.firstFailedAt = firstFailedAt;
+    }
+
+    /**
+     * Instante (epoch ms) da última falha.
+     */
+    public long getLastFailedAt() {
+        return lastFailedAt;
+    }
+
+    public void setLastFailedAt(long lastFailedAt) {
+        this.lastFailedAt = lastFailedAt;
+    }
+
+    /**
+     * Hash gravado no índice de hash para a chave do registro quando ele foi para o dead
+     * letter (0 se a chave não estava no índice), ou null se a entrega não usa índice de
+     * hash. Se o índice mudar, uma versão mais nova da chave foi entregue depois, e o
+     * registro não é reenviado.
+     */
+    public Long getDeliveredHash() {
+        return deliveredHash;
+    }
+
+    public void setDeliveredHash(Long deliveredHash) {
+        this.deliveredHash = deliveredHash;
+    }
+}
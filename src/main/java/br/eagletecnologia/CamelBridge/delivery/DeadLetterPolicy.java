@@ -0,0 +1,21 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+/**
+ * Quais registros com falha de entrega o bulk grava no dead letter.
+ */
+public enum DeadLetterPolicy {
+
+    /**
+     * Apenas os isolados pela divisão dos lotes, recusados pelo destino por causa do
+     * próprio registro: HTTP 4xx, exceto 408 e 429. Falhas de rede e HTTP 5xx continuam fazendo a entrega falhar, para que
+     * o grupo inteiro seja reenviado pelo journal quando a API voltar.
+     */
+    REJECTED,
+
+    /**
+     * Qualquer falha, inclusive de rede e HTTP 5xx: os lotes que falham sem recusa dos
+     * registros vão inteiros para o dead letter, sem divisão. A entrega nunca fica parada
+     * em um registro, e a API indisponível enche o dead letter até o reenvio.
+     */
+    ANY
+}
@@ -0,0 +1,81 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+/**
+ * Resumo de um reenvio do {@link DeadLetterStore}.
+ */
+public class DeadLetterReplayResult {
+
+    private long delivered;
+    private long unchanged;
+    private long superseded;
+    private long deadLettered;
+    private long failed;
+    private long remaining;
+
+    void add(BulkResult result) {
+        delivered += result.getRecords();
+        unchanged += result.getUnchangedRecords();
+        superseded += result.getSupersededRecords();
+        deadLettered += result.getDeadLetteredRecords();
+        failed += result.getFailedRecords();
+    }
+
+    void interrupted(long records) {
+        remaining += records;
+    }
+
+    /**
+     * Registros entregues.
+     */
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Registros descartados por não terem mudado desde a última entrega (índice de hash).
+     */
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * Registros descartados porque uma versão mais nova da mesma chave foi entregue depois
+     * que foram para o dead letter.
+     */
+    public long getSuperseded() {
+        return superseded;
+    }
+
+    /**
+     * Registros recusados de novo e gravados outra vez no dead letter.
+     */
+    public long getDeadLettered() {
+        return deadLettered;
+    }
+
+    /**
+     * Registros de grupos interrompidos por falha do destino, que continuam pendentes.
+     */
+    public long getRemaining() {
+        return remaining;
+    }
+
+    @Override
+    public String toString() {
+        String summary = String.format("%d registro(s) entregue(s)", delivered);
+        if (unchanged > 0) {
+            summary += String.format("; %d inalterado(s) ignorado(s)", unchanged);
+        }
+        if (superseded > 0) {
+            summary += String.format("; %d substituído(s) por versão mais nova descartado(s)", superseded);
+        }
+        if (deadLettered > 0) {
+            summary += String.format("; %d recusado(s) novamente", deadLettered);
+        }
+        if (remaining > 0) {
+            summary += String.format("; reenvio interrompido por falha do destino (%d com falha), %d pendente(s)",
+                failed, remaining);
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,283 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import br.eagletecnologia.CamelBridge.journal.Journal;
+import br.eagletecnologia.CamelBridge.journal.JournalRecord;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.Service;
+import org.apache.camel.support.DefaultExchange;
+import org.apache.camel.support.service.ServiceHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Armazenamento local dos registros que o componente bulk não conseguiu entregar
+ * (dead letters), com o reenvio deles em lotes.
+ *
+ * Cada {@link DeadLetter} é gravado em JSON em um {@link Journal} próprio, em disco antes
+ * de o bulk considerar o registro tratado; assim o journal de entrega pode avançar sem
+ * que o registro se perca e sem que um único registro recusado bloqueie a fila.
+ *
+ * O reenvio ({@link #replay()}) lê os dead letters pendentes em grupos de
+ * {@code replayBatchSize} e envia cada grupo ao mesmo endpoint bulk que os recusou, sem
+ * consultar o banco: o bulk monta os lotes, divide os recusados e respeita o paralelismo
+ * das filas e o limite por host do executor de entrega. Registros recusados de novo
+ * voltam ao final do journal com a quantidade de tentativas incrementada. Se o destino
+ * falhar por outro motivo (ex: API fora do ar), o reenvio para e os registros do grupo
+ * continuam pendentes. O reenvio é "ao menos uma vez": os registros de um grupo
+ * interrompido podem ser reenviados.
+ *
+ * Um registro cuja chave teve uma versão mais nova entregue depois da recusa não é
+ * reenviado: com índice de hash no bulk, o hash da chave gravado no dead letter
+ * ({@link DeadLetter#getDeliveredHash()}) é comparado com o atual, e o registro é
+ * descartado se o índice mudou. Assim um registro antigo não sobrescreve dados mais
+ * novos no destino nem volta ao dead letter indefinidamente.
+ *
+ * Com {@code replayInterval} &gt; 0, o reenvio também é feito periodicamente.
+ */
+public class DeadLetterStore implements Service {
+
+    /**
+     * Propriedade da mensagem de reenvio com o {@link DeadLetter} de origem de cada
+     * registro do corpo (por identidade), usada pelo bulk para manter as tentativas.
+     */
+    public static final String REPLAY_PROPERTY = "CamelBridgeDeadLetterReplay";
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeadLetterStore.class);
+
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW = new TypeReference<>() {
+    };
+
+    private final CamelContext camelContext;
+    private final Path directory;
+    private final long segmentSize;
+    private final int replayBatchSize;
+    private final long replayInterval;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final Object replayLock = new Object();
+
+    private Journal journal;
+    private ProducerTemplate producerTemplate;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param camelContext Contexto usado no reenvio
+     * @param directory Diretório do journal de dead letters
+     * @param segmentSize Tamanho máximo de cada segmento do journal em bytes
+     * @param replayBatchSize Quantidade de registros enviados ao bulk por vez no reenvio
+     * @param replayInterval Intervalo (ms) entre reenvios automáticos (0 = apenas manual)
+     */
+    public DeadLetterStore(CamelContext camelContext, Path directory, long segmentSize, int replayBatchSize,
+                           long replayInterval) {
+        if (replayBatchSize <= 0) {
+            throw new IllegalArgumentException("replayBatchSize deve ser maior que zero");
+        }
+        this.camelContext = camelContext;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.replayBatchSize = replayBatchSize;
+        this.replayInterval = replayInterval;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (journal != null) {
+            return;
+        }
+        try {
+            journal = new Journal("dead-letter", directory, segmentSize);
+            pending.set(count());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao abrir dead letters em " + directory, e);
+        }
+        producerTemplate = camelContext.createProducerTemplate();
+        if (pending.get() > 0) {
+            LOG.warn("{} registro(s) pendente(s) no dead letter ({})", pending.get(), directory);
+        }
+
+        if (replayInterval > 0) {
+            scheduler = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "DeadLetterReplay");
+            scheduler.scheduleWithFixedDelay(this::scheduledReplay, replayInterval, replayInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            camelContext.getExecutorServiceManager().shutdownNow(scheduler);
+            scheduler = null;
+        }
+        ServiceHelper.stopService(producerTemplate);
+        producerTemplate = null;
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOG.warn("Erro ao fechar dead letters: {}", e.getMessage());
+            }
+            journal = null;
+        }
+    }
+
+    private long count() throws IOException {
+        long count = 0;
+        long offset = journal.getAckedOffset();
+        List<JournalRecord> records;
+        while (!(records = journal.read(offset, 1000)).isEmpty()) {
+            count += records.size();
+            offset = records.get(records.size() - 1).getNextOffset();
+        }
+        return count;
+    }
+
+    /**
+     * Grava um registro não entregue. Quando retorna, o registro já está em disco.
+     */
+    public void add(DeadLetter letter) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(letter);
+        Journal current = journal;
+        if (current == null) {
+            throw new IOException("Dead letter não iniciado: " + directory);
+        }
+        synchronized (current) {
+            current.append(json);
+            current.flush();
+        }
+        pending.incrementAndGet();
+        added.incrementAndGet();
+        LOG.warn("Registro de {} enviado ao dead letter (tentativa {}): {}",
+            letter.getSource(), letter.getAttempts(), letter.getError());
+    }
+
+    /**
+     * Reenvia os dead letters pendentes gravados até agora. Apenas um reenvio roda por
+     * vez; uma chamada durante outro reenvio espera que ele termine.
+     */
+    public DeadLetterReplayResult replay() {
+        synchronized (replayLock) {
+            DeadLetterReplayResult result = new DeadLetterReplayResult();
+            if (journal == null) {
+                return result;
+            }
+            try {
+                // Os registros recusados de novo durante o reenvio ficam para o próximo
+                long end = journal.getDurableOffset();
+                long offset = journal.getAckedOffset();
+                while (offset < end) {
+                    List<JournalRecord> chunk = new ArrayList<>();
+                    for (JournalRecord record : journal.read(offset, replayBatchSize)) {
+                        if (record.getOffset() < end) {
+                            chunk.add(record);
+                        }
+                    }
+                    if (chunk.isEmpty() || !replay(chunk, result)) {
+                        break;
+                    }
+                    offset = chunk.get(chunk.size() - 1).getNextOffset();
+                    journal.ack(offset);
+                    pending.addAndGet(-chunk.size());
+                    replayed.addAndGet(chunk.size());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao ler dead letters de " + directory, e);
+            }
+            LOG.info("Reenvio do dead letter: {}", result);
+            return result;
+        }
+    }
+
+    private void scheduledReplay() {
+        if (pending.get() == 0) {
+            return;
+        }
+        try {
+            replay();
+        } catch (RuntimeException e) {
+            LOG.error("Erro no reenvio automático do dead letter: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reenvia um grupo de dead letters, agrupados pelo endpoint bulk de origem.
+     *
+     * @return false se algum endpoint falhou e o reenvio deve parar
+     */
+    private boolean replay(List<JournalRecord> chunk, DeadLetterReplayResult result) throws IOException {
+        Map<String, List<DeadLetter>> byEndpoint = new LinkedHashMap<>();
+        for (JournalRecord record : chunk) {
+            DeadLetter letter = objectMapper.readValue(record.getPayload(), DeadLetter.class);
+            byEndpoint.computeIfAbsent(letter.getEndpointUri(), uri -> new ArrayList<>()).add(letter);
+        }
+
+        for (Map.Entry<String, List<DeadLetter>> entry : byEndpoint.entrySet()) {
+            List<DeadLetter> letters = entry.getValue();
+            List<Object> rows = new ArrayList<>(letters.size());
+            Map<Object, DeadLetter> origins = new IdentityHashMap<>();
+            for (DeadLetter letter : letters) {
+                Map<String, Object> row = objectMapper.readValue(letter.getPayload(), ROW);
+                rows.add(row);
+                origins.put(row, letter);
+            }
+
+            Exchange exchange = new DefaultExchange(camelContext);
+            exchange.getIn().setHeaders(new HashMap<>(letters.get(0).getHeaders()));
+            exchange.getIn().setBody(rows);
+            exchange.setProperty(REPLAY_PROPERTY, origins);
+
+            Exchange sent = producerTemplate.send(entry.getKey(), exchange);
+            BulkResult bulk = sent.getMessage().getHeader(BulkProducer.RESULT_HEADER, BulkResult.class);
+            if (bulk != null) {
+                result.add(bulk);
+            }
+            if (sent.getException() != null) {
+                LOG.warn("Reenvio do dead letter para {} interrompido: {}", entry.getKey(),
+                    sent.getException().getMessage());
+                result.interrupted(letters.size());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registros pendentes de reenvio.
+     */
+    public long getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Registros gravados no dead letter desde o início da aplicação.
+     */
+    public long getAdded() {
+        return added.get();
+    }
+
+    /**
+     * Registros retirados do dead letter por reenvios desde o início da aplicação
+     * (entregues, inalterados ou gravados de novo por nova recusa).
+     */
+    public long getReplayed() {
+        return replayed.get();
+    }
+}
@@ -0,0 +1,321 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor compartilhado para a entrega dos registros às APIs externas.
+ *
+ * As tarefas rodam em virtual threads quando a JVM é 21 ou superior e
+ * {@code virtualThreads} está ativo; caso contrário, em um pool fixo de {@code threads}
+ * threads de plataforma. Como é um {@link ExecutorService}, pode ser referenciado pelo
+ * nome em qualquer rota YAML (ex: {@code executor-service: deliveryExecutor} em um split,
+ * ou {@code executor=#deliveryExecutor} no componente bulk).
+ *
+ * Além do pool, limita a quantidade de requisições em andamento por host de destino:
+ * antes de enviar, o chamador obtém uma permissão com {@link #acquire(String)}, informa
+ * o resultado da requisição com {@link Permit#record(long, int, boolean, long)} e a
+ * devolve ao final, de modo que várias rotas entregando para a mesma API nunca
+ * ultrapassam o limite somadas. Com {@code adaptive} ativo, o limite de cada host
+ * ({@link HostLimiter}) se ajusta entre {@code minLimit} e {@code maxInFlightPerHost}
+ * conforme a latência e os erros da API; caso contrário, fica fixo em
+ * {@code maxInFlightPerHost}.
+ */
+public class DeliveryExecutor extends AbstractExecutorService implements Service {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeliveryExecutor.class);
+
+    private final CamelContext camelContext;
+    private final boolean virtualThreads;
+    private final int threads;
+    private final int maxInFlightPerHost;
+    private final Map<String, HostLimiter> hosts = new ConcurrentHashMap<>();
+
+    private boolean adaptive = true;
+    private int initialLimit = 2;
+    private int minLimit = 1;
+    private long latencyThresholdMs = 5000;
+    private double backoffRatio = 0.5;
+
+    private volatile ExecutorService delegate;
+    /** Último executor parado, consultado por isTerminated() e awaitTermination(). */
+    private volatile ExecutorService terminating;
+
+    /**
+     * @param camelContext Contexto usado para criar o pool de threads de plataforma
+     * @param virtualThreads Usa virtual threads quando disponíveis (JDK 21+)
+     * @param threads Tamanho do pool de threads de plataforma
+     * @param maxInFlightPerHost Máximo de requisições simultâneas por host de destino
+     */
+    public DeliveryExecutor(CamelContext camelContext, boolean virtualThreads, int threads, int maxInFlightPerHost) {
+        if (threads <= 0 || maxInFlightPerHost <= 0) {
+            throw new IllegalArgumentException("threads e maxInFlightPerHost devem ser maiores que zero");
+        }
+        this.camelContext = camelContext;
+        this.virtualThreads = virtualThreads;
+        this.threads = threads;
+        this.maxInFlightPerHost = maxInFlightPerHost;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (delegate != null) {
+            return;
+        }
+        ExecutorService executor = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (executor != null) {
+            LOG.info("Executor de entrega iniciado com virtual threads (máximo de {} requisições por host, limite {})",
+                maxInFlightPerHost, adaptive ? "adaptativo" : "fixo");
+        } else {
+            executor = camelContext.getExecutorServiceManager().newFixedThreadPool(this, "Delivery", threads);
+            LOG.info("Executor de entrega iniciado com {} threads (máximo de {} requisições por host, limite {})",
+                threads, maxInFlightPerHost, adaptive ? "adaptativo" : "fixo");
+        }
+        delegate = executor;
+        terminating = null;
+    }
+
+    @Override
+    public synchronized void stop() {
+        ExecutorService executor = delegate;
+        delegate = null;
+        if (executor != null) {
+            terminating = executor;
+            camelContext.getExecutorServiceManager().shutdownGraceful(executor);
+        }
+    }
+
+    /**
+     * Cria o executor de virtual threads por reflexão, para que a aplicação continue
+     * compilando e rodando em JDK 17. Retorna null se a JVM não suportar.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            LOG.warn("Virtual threads indisponíveis nesta JVM ({}); usando pool de threads de plataforma",
+                System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+    /**
+     * Obtém uma permissão de envio para o destino, bloqueando enquanto o host já tiver
+     * o limite atual de requisições em andamento ou estiver suspenso por Retry-After.
+     * A permissão deve ser devolvida com {@link Permit#close()} ao final do envio.
+     *
+     * @param destination URL ou host de destino
+     */
+    public Permit acquire(String destination) throws InterruptedException {
+        HostLimiter limiter = getLimiter(destination);
+        limiter.acquire();
+        return new Permit(limiter);
+    }
+
+    /**
+     * Limitador do host do destino, criado no primeiro uso.
+     */
+    public HostLimiter getLimiter(String destination) {
+        return hosts.computeIfAbsent(host(destination), host -> new HostLimiter(
+            host, adaptive, initialLimit, minLimit, maxInFlightPerHost, latencyThresholdMs, backoffRatio));
+    }
+
+    /**
+     * Limitadores de todos os hosts que já receberam envios, ordenados pelo host.
+     */
+    public List<HostLimiter> getLimiters() {
+        return hosts.values().stream()
+            .sorted(Comparator.comparing(HostLimiter::getHost))
+            .toList();
+    }
+
+    /**
+     * Requisições em andamento para o destino.
+     */
+    public int getInFlight(String destination) {
+        HostLimiter limiter = hosts.get(host(destination));
+        return limiter == null ? 0 : limiter.getInFlight();
+    }
+
+    /**
+     * Extrai host[:porta] de uma URL; valores que não são URL são usados como estão.
+     */
+    static String host(String destination) {
+        if (destination == null) {
+            return "";
+        }
+        try {
+            URI uri = URI.create(destination.trim());
+            if (uri.getHost() != null) {
+                return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+            }
+        } catch (IllegalArgumentException e) {
+            // não é uma URL: usa o valor informado como chave
+        }
+        return destination.trim();
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Ajusta o limite de cada host conforme latência e erros (AIMD).
+     */
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * Limite inicial de requisições simultâneas de um host (modo adaptativo).
+     */
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * Limite mínimo de requisições simultâneas de um host (modo adaptativo).
+     */
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public long getLatencyThresholdMs() {
+        return latencyThresholdMs;
+    }
+
+    /**
+     * Latência acima da qual uma resposta é tratada como sinal de sobrecarga (0 desativa).
+     */
+    public void setLatencyThresholdMs(long latencyThresholdMs) {
+        this.latencyThresholdMs = latencyThresholdMs;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * Fator aplicado ao limite quando a API sinaliza sobrecarga (entre 0 e 1).
+     */
+    public void setBackoffRatio(double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio deve estar entre 0 e 1: " + backoffRatio);
+        }
+        this.backoffRatio = backoffRatio;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getMaxInFlightPerHost() {
+        return maxInFlightPerHost;
+    }
+
+    private ExecutorService delegate() {
+        ExecutorService executor = delegate;
+        if (executor == null) {
+            throw new RejectedExecutionException("O executor de entrega não está iniciado");
+        }
+        return executor;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate().execute(command);
+    }
+
+    @Override
+    public void shutdown() {
+        stop();
+    }
+
+    @Override
+    public synchronized List<Runnable> shutdownNow() {
+        ExecutorService executor = delegate;
+        delegate = null;
+        if (executor == null) {
+            return List.of();
+        }
+        terminating = executor;
+        return camelContext.getExecutorServiceManager().shutdownNow(executor);
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate == null;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        // Parado, mas as tarefas já aceitas pelo executor anterior podem ainda estar rodando
+        ExecutorService executor = terminating;
+        return delegate == null && (executor == null || executor.isTerminated());
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        // Se ainda não foi parado, aguarda todo o prazo e retorna false, como um ExecutorService ativo
+        ExecutorService executor = delegate != null ? delegate : terminating;
+        return executor == null || executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Permissão de envio para um host, devolvida ao final da requisição.
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final HostLimiter limiter;
+        private boolean released;
+
+        private Permit(HostLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        /**
+         * Informa ao limitador do host o resultado de uma requisição feita com esta permissão.
+         *
+         * @param latencyNanos Duração da requisição
+         * @param statusCode Status HTTP da resposta, ou 0 se não houve resposta
+         * @param failed Se a requisição terminou com erro
+         * @param retryAfterMillis Espera pedida pelo cabeçalho Retry-After, ou 0
+         */
+        public void record(long latencyNanos, int statusCode, boolean failed, long retryAfterMillis) {
+            limiter.record(latencyNanos, statusCode, failed, retryAfterMillis);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!released) {
+                released = true;
+                limiter.release();
+            }
+        }
+    }
+}
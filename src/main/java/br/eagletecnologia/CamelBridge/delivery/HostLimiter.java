@@ -0,0 +1,208 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite adaptativo (AIMD) de requisições simultâneas para um host de destino.
+ *
+ * Enquanto a API responde bem (status 2xx/3xx/4xx comuns e latência abaixo de
+ * {@code latencyThresholdMs}), o limite cresce de forma aditiva, cerca de uma requisição
+ * a cada "rodada" de {@code limite} respostas. Quando a API sinaliza pressão (HTTP 429,
+ * 5xx, falha de conexão ou latência acima do limiar), o limite é multiplicado por
+ * {@code backoffRatio}, no máximo uma vez por janela de latência, para que uma rajada
+ * de erros da mesma rodada não derrube o limite até o mínimo.
+ *
+ * Um cabeçalho Retry-After suspende novos envios para o host até o instante indicado.
+ * Com {@code adaptive = false} o limite fica fixo em {@code maxLimit}, mas o Retry-After
+ * continua sendo respeitado.
+ */
+public class HostLimiter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HostLimiter.class);
+
+    private final String host;
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private long pausedUntil;
+    private long lastDecrease;
+    private long lastLatency;
+
+    HostLimiter(String host, boolean adaptive, int initialLimit, int minLimit, int maxLimit,
+                long latencyThresholdMs, double backoffRatio) {
+        this.host = host;
+        this.adaptive = adaptive;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.backoffRatio = backoffRatio;
+        this.limit = adaptive ? Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit)) : this.maxLimit;
+        this.lastDecrease = System.nanoTime();
+        this.pausedUntil = lastDecrease;
+    }
+
+    /**
+     * Aguarda até haver vaga no limite atual e o host não estar suspenso por Retry-After.
+     */
+    void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            waiting++;
+            try {
+                while (true) {
+                    long pause = pausedUntil - System.nanoTime();
+                    if (pause > 0) {
+                        available.awaitNanos(pause);
+                    } else if (inFlight >= (int) limit) {
+                        available.await();
+                    } else {
+                        break;
+                    }
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra o resultado de uma requisição ao host.
+     *
+     * @param latencyNanos Duração da requisição
+     * @param statusCode Status HTTP da resposta, ou 0 se não houve resposta
+     * @param failed Se a requisição terminou com erro
+     * @param retryAfterMillis Espera pedida pelo cabeçalho Retry-After, ou 0
+     */
+    void record(long latencyNanos, int statusCode, boolean failed, long retryAfterMillis) {
+        boolean pressure = statusCode == 429 || statusCode >= 500
+            || (failed && statusCode == 0)
+            || (latencyThresholdNanos > 0 && latencyNanos > latencyThresholdNanos);
+
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            lastLatency = latencyNanos;
+            if (retryAfterMillis > 0) {
+                pausedUntil = Math.max(pausedUntil, now + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis));
+                LOG.warn("Host {} pediu para aguardar {} ms (Retry-After)", host, retryAfterMillis);
+            }
+            if (!adaptive) {
+                return;
+            }
+            if (pressure) {
+                // Reduz no máximo uma vez por janela de latência
+                if (now - lastDecrease >= Math.max(latencyNanos, TimeUnit.MILLISECONDS.toNanos(100))) {
+                    double previous = limit;
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecrease = now;
+                    if ((int) previous != (int) limit) {
+                        LOG.warn("Limite de envio para {} reduzido de {} para {} (status {}, {} ms)",
+                            host, (int) previous, (int) limit, statusCode, TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+                    }
+                }
+            } else if (!failed && limit < maxLimit) {
+                // Aumento aditivo: cerca de +1 a cada rodada de "limite" respostas
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+                available.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Limite atual de requisições simultâneas.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Requisições em andamento.
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Envios aguardando vaga (profundidade da fila).
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Latência da última requisição, em milissegundos.
+     */
+    public long getLastLatencyMillis() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(lastLatency);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Milissegundos restantes de suspensão pedida por Retry-After (0 se não suspenso).
+     */
+    public long getPausedMillis() {
+        lock.lock();
+        try {
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntil - System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: limite %d, em andamento %d, fila %d", host, getLimit(), getInFlight(), getQueueDepth());
+    }
+}
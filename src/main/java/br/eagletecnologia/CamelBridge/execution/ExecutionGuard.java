@@ -0,0 +1,252 @@
+package br.eagletecnologia.CamelBridge.execution;
+
+import org.apache.camel.Consumer;
+import org.apache.camel.Exchange;
+import org.apache.camel.Route;
+import org.apache.camel.support.RoutePolicySupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Política de rota que impede execuções sobrepostas de uma mesma rota agendada.
+ *
+ * Quando um disparo (ex: cron) chega enquanto a execução anterior ainda não terminou,
+ * a {@link ExecutionPolicy} decide o que fazer: ignorar o disparo (SKIP), deixá-lo
+ * aguardando o fim da execução atual, no máximo um por vez (QUEUE), ou agrupar todos os
+ * disparos em uma única nova execução iniciada assim que a atual terminar (COALESCE).
+ * Assim, uma extração demorada nunca concorre consigo mesma pelas conexões do pool nem
+ * gera envios duplicados.
+ *
+ * Um disparo descartado termina sem executar os passos da rota, com a propriedade
+ * {@value #SKIPPED_PROPERTY} definida. O controle é feito por rota (pelo id), de modo que
+ * a mesma instância pode ser usada em várias rotas; os contadores de cada rota ficam em
+ * {@link #getStats()}.
+ */
+public class ExecutionGuard extends RoutePolicySupport {
+
+    /**
+     * Propriedade definida no exchange de um disparo que não foi executado.
+     */
+    public static final String SKIPPED_PROPERTY = "CamelBridgeExecucaoIgnorada";
+
+    private static final String COALESCED_RUN_PROPERTY = "CamelBridgeExecucaoAgrupada";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionGuard.class);
+
+    private final ExecutionPolicy policy;
+    private final Map<String, RouteState> routes = new ConcurrentHashMap<>();
+
+    private ExecutorService rerunExecutor;
+
+    /**
+     * @param policy O que fazer com os disparos recebidos durante uma execução
+     */
+    public ExecutionGuard(ExecutionPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public void onInit(Route route) {
+        state(route);
+    }
+
+    @Override
+    public void onExchangeBegin(Route route, Exchange exchange) {
+        RouteState state = state(route);
+        synchronized (state) {
+            if (exchange.getProperty(COALESCED_RUN_PROPERTY, false, Boolean.class)) {
+                // Execução agrupada: a rota já está marcada como em andamento
+                state.begin(exchange);
+                return;
+            }
+            if (!state.running) {
+                state.begin(exchange);
+                return;
+            }
+
+            switch (policy) {
+                case QUEUE:
+                    if (!state.waiting && await(state)) {
+                        state.stats.queued();
+                        state.begin(exchange);
+                        return;
+                    }
+                    break;
+                case COALESCE:
+                    state.rerun = true;
+                    state.stats.coalesced();
+                    LOG.info("Rota {}: disparo agrupado; nova execução ao fim da atual (em andamento há {} ms)",
+                        state.routeId, state.elapsedMillis());
+                    discard(exchange);
+                    return;
+                default:
+                    break;
+            }
+
+            state.stats.skipped();
+            LOG.info("Rota {}: disparo ignorado, execução anterior em andamento há {} ms",
+                state.routeId, state.elapsedMillis());
+            discard(exchange);
+        }
+    }
+
+    /**
+     * Aguarda o fim da execução em andamento (política QUEUE). Retorna false se a thread
+     * foi interrompida.
+     */
+    private static boolean await(RouteState state) {
+        state.waiting = true;
+        try {
+            while (state.running) {
+                state.wait();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            state.waiting = false;
+        }
+    }
+
+    private static void discard(Exchange exchange) {
+        exchange.setProperty(SKIPPED_PROPERTY, true);
+        exchange.setRouteStop(true);
+    }
+
+    @Override
+    public void onExchangeDone(Route route, Exchange exchange) {
+        RouteState state = state(route);
+        synchronized (state) {
+            if (!exchange.getExchangeId().equals(state.exchangeId)) {
+                // Disparo descartado
+                return;
+            }
+            long duration = state.stats.finished(System.nanoTime());
+            state.exchangeId = null;
+            LOG.debug("Rota {}: execução concluída em {} ms", state.routeId, TimeUnit.NANOSECONDS.toMillis(duration));
+
+            if (state.rerun && isRunAllowed()) {
+                // Mantém a rota em andamento e passa a vez direto para a execução agrupada
+                state.rerun = false;
+                if (rerun(route)) {
+                    return;
+                }
+            }
+            state.rerun = false;
+            state.running = false;
+            state.notifyAll();
+        }
+    }
+
+    /**
+     * Inicia em segundo plano a execução que agrupa os disparos recebidos.
+     */
+    private boolean rerun(Route route) {
+        try {
+            executor(route).execute(() -> {
+                Consumer consumer = route.getConsumer();
+                Exchange exchange = consumer.createExchange(false);
+                exchange.setProperty(COALESCED_RUN_PROPERTY, true);
+                try {
+                    route.getProcessor().process(exchange);
+                } catch (Exception e) {
+                    exchange.setException(e);
+                }
+                if (exchange.getException() != null) {
+                    LOG.warn("Rota {}: erro na execução agrupada: {}", route.getRouteId(),
+                        exchange.getException().getMessage());
+                }
+                consumer.releaseExchange(exchange, false);
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Rota {}: execução agrupada descartada: {}", route.getRouteId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized ExecutorService executor(Route route) {
+        if (rerunExecutor == null) {
+            rerunExecutor = route.getCamelContext().getExecutorServiceManager()
+                .newSingleThreadExecutor(this, "ExecutionGuard");
+        }
+        return rerunExecutor;
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        ExecutorService executor;
+        synchronized (this) {
+            executor = rerunExecutor;
+            rerunExecutor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        super.doStop();
+    }
+
+    private RouteState state(Route route) {
+        return routes.computeIfAbsent(route.getRouteId(), RouteState::new);
+    }
+
+    public ExecutionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Contadores da rota, ou null se a rota não usa esta política.
+     */
+    public ExecutionStats getStats(String routeId) {
+        RouteState state = routes.get(routeId);
+        return state != null ? state.stats : null;
+    }
+
+    /**
+     * Contadores de todas as rotas que usam esta política, ordenados pelo id da rota.
+     */
+    public List<ExecutionStats> getStats() {
+        return routes.values().stream()
+            .map(state -> state.stats)
+            .sorted(Comparator.comparing(ExecutionStats::getRouteId))
+            .toList();
+    }
+
+    /**
+     * Estado de execução de uma rota.
+     */
+    private static final class RouteState {
+        private final String routeId;
+        private final ExecutionStats stats;
+        private boolean running;
+        private boolean waiting;
+        private boolean rerun;
+        private String exchangeId;
+        private long startedAt;
+
+        private RouteState(String routeId) {
+            this.routeId = routeId;
+            this.stats = new ExecutionStats(routeId);
+        }
+
+        private void begin(Exchange exchange) {
+            running = true;
+            exchangeId = exchange.getExchangeId();
+            startedAt = System.nanoTime();
+            stats.started(startedAt);
+        }
+
+        private long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        }
+    }
+}
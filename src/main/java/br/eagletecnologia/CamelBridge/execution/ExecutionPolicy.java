@@ -0,0 +1,25 @@
+package br.eagletecnologia.CamelBridge.execution;
+
+/**
+ * O que fazer com um disparo (ex: do cron) que chega enquanto a execução anterior da
+ * mesma rota ainda está em andamento.
+ */
+public enum ExecutionPolicy {
+
+    /**
+     * Ignora o disparo.
+     */
+    SKIP,
+
+    /**
+     * Mantém no máximo um disparo aguardando o fim da execução em andamento; os demais
+     * são ignorados.
+     */
+    QUEUE,
+
+    /**
+     * Junta todos os disparos recebidos durante a execução em uma única nova execução,
+     * iniciada assim que a atual terminar.
+     */
+    COALESCE
+}
@@ -0,0 +1,112 @@
+package br.eagletecnologia.CamelBridge.execution;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contadores de execução de uma rota protegida por {@link ExecutionGuard}: quantidade
+ * de execuções, disparos ignorados, enfileirados e agrupados, e a duração das execuções.
+ * Servem para dimensionar o intervalo do agendamento com base nas durações reais.
+ */
+public class ExecutionStats {
+
+    private final String routeId;
+
+    private long runs;
+    private long skipped;
+    private long queued;
+    private long coalesced;
+    private long lastDurationNanos;
+    private long maxDurationNanos;
+    private long totalDurationNanos;
+    private boolean running;
+    private long runningSince;
+
+    ExecutionStats(String routeId) {
+        this.routeId = routeId;
+    }
+
+    synchronized void started(long now) {
+        running = true;
+        runningSince = now;
+    }
+
+    synchronized long finished(long now) {
+        long duration = now - runningSince;
+        running = false;
+        runs++;
+        lastDurationNanos = duration;
+        maxDurationNanos = Math.max(maxDurationNanos, duration);
+        totalDurationNanos += duration;
+        return duration;
+    }
+
+    synchronized void skipped() {
+        skipped++;
+    }
+
+    synchronized void queued() {
+        queued++;
+    }
+
+    synchronized void coalesced() {
+        coalesced++;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    /**
+     * Execuções concluídas.
+     */
+    public synchronized long getRuns() {
+        return runs;
+    }
+
+    /**
+     * Disparos ignorados por haver uma execução em andamento.
+     */
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Disparos que aguardaram o fim da execução anterior (política QUEUE).
+     */
+    public synchronized long getQueued() {
+        return queued;
+    }
+
+    /**
+     * Disparos agrupados em uma execução seguinte (política COALESCE).
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Indica se há uma execução em andamento.
+     */
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    public synchronized long getLastDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastDurationNanos);
+    }
+
+    public synchronized long getMaxDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxDurationNanos);
+    }
+
+    public synchronized long getAverageDurationMillis() {
+        return runs == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalDurationNanos / runs);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %d execução(ões), última %d ms, média %d ms, máx %d ms, %d ignorado(s)%s",
+            routeId, runs, getLastDurationMillis(), getAverageDurationMillis(), getMaxDurationMillis(),
+            skipped, running ? " (em andamento)" : "");
+    }
+}
@@ -0,0 +1,27 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.support.DefaultComponent;
+
+import java.util.Map;
+
+/**
+ * Componente Camel para extração paginada por keyset (seek method).
+ *
+ * Registrado em AppConfiguration com o nome "keyset" e usado nas rotas como:
+ * <pre>
+ * keyset:USUARIOS?columns=USUARIOS_ID,MODIFICADO&amp;keyColumns=MODIFICADO,USUARIOS_ID&amp;pageSize=500
+ * </pre>
+ *
+ * @see KeysetEndpoint
+ */
+public class KeysetComponent extends DefaultComponent {
+
+    @Override
+    protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
+        KeysetEndpoint endpoint = new KeysetEndpoint(uri, this);
+        endpoint.setTable(remaining);
+        setProperties(endpoint, parameters);
+        return endpoint;
+    }
+}
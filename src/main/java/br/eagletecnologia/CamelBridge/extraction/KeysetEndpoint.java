@@ -0,0 +1,281 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import org.apache.camel.Consumer;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.support.CamelContextHelper;
+import org.apache.camel.support.DefaultEndpoint;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Endpoint de extração paginada por keyset.
+ *
+ * Em vez de carregar todo o resultado da consulta em memória, o producer deste endpoint
+ * define como corpo da mensagem um {@link KeysetPageIterator}, que busca uma página
+ * de {@code pageSize} registros por vez ordenada pelas colunas de chave
+ * (ex: MODIFICADO, USUARIOS_ID). A próxima página é buscada em segundo plano enquanto
+ * a página atual é processada pela rota, e cada página usa e devolve a sua própria
+ * conexão ao pool. Use um split com {@code streaming: true} para consumir as páginas.
+ *
+ * Opções:
+ * <ul>
+ *   <li>table (caminho da URI): tabela consultada</li>
+ *   <li>columns: colunas projetadas (padrão: *); devem incluir as colunas de chave</li>
+ *   <li>keyColumns: colunas de ordenação/keyset, da mais significativa para a menos significativa</li>
+ *   <li>startHeader: cabeçalho com o limite inferior (exclusivo) da primeira coluna de chave</li>
+ *   <li>pageSize: quantidade de registros por página</li>
+ *   <li>prefetch: busca a próxima página em segundo plano</li>
+ *   <li>dataSource: DataSource usado; se omitido, o único DataSource do registro</li>
+ *   <li>outputType: map (um Map por registro) ou json (o JSON de cada registro escrito
+ *   direto do ResultSet, sem Map; apenas as colunas de chave ficam disponíveis como valores)</li>
+ *   <li>partitions: quantidade de partições lidas em paralelo (padrão: 1, sem particionar)</li>
+ *   <li>partitionColumn: coluna cujo intervalo de valores é dividido entre as partições
+ *   (ex: USUARIOS_ID); obrigatória com partitions &gt; 1</li>
+ *   <li>partitionBoundaries: minmax (intervalos iguais entre MIN e MAX) ou sample (quantis
+ *   de uma amostra dos valores)</li>
+ *   <li>partitionThreshold: quantidade mínima de linhas pendentes para particionar; abaixo
+ *   dela a leitura é feita em uma única sequência de páginas</li>
+ *   <li>checkpointInterval: intervalo (ms) entre as gravações da posição de cada partição</li>
+ *   <li>checkpointStore: onde a posição das partições é gravada; se omitido, o único
+ *   CheckpointStore do registro</li>
+ *   <li>clusterPartitionColumn: coluna inteira usada para dividir as linhas entre os nós do
+ *   cluster (ex: USUARIOS_ID); quando a rota é particionada no cluster (cabeçalhos
+ *   CLUSTER_PARTICOES e CLUSTER_TOTAL_PARTICOES), só são lidas as linhas com
+ *   {@code MOD(ABS(coluna), total)} entre as partições deste nó</li>
+ * </ul>
+ *
+ * Com partitions &gt; 1, a extração é dividida por intervalos da coluna de partição e
+ * cada intervalo é lido em paralelo, com a sua própria conexão, por um
+ * {@link PartitionedPageIterator}. Cada partição ocupa uma conexão do pool enquanto
+ * busca uma página, portanto partitions deve ficar abaixo de db.pool.maximumPoolSize.
+ */
+public class KeysetEndpoint extends DefaultEndpoint {
+
+    private String table;
+    private String columns = "*";
+    private String keyColumns;
+    private String startHeader = CheckpointStore.WATERMARK_HEADER;
+    private int pageSize = 500;
+    private boolean prefetch = true;
+    private DataSource dataSource;
+    private KeysetOutputType outputType = KeysetOutputType.MAP;
+    private int partitions = 1;
+    private String partitionColumn;
+    private String clusterPartitionColumn;
+    private KeysetPartitionBoundaries partitionBoundaries = KeysetPartitionBoundaries.MINMAX;
+    private long partitionThreshold;
+    private long checkpointInterval = 1000;
+    private CheckpointStore checkpointStore;
+
+    private ExecutorService prefetchExecutor;
+    private ExecutorService partitionExecutor;
+
+    public KeysetEndpoint(String endpointUri, KeysetComponent component) {
+        super(endpointUri, component);
+    }
+
+    @Override
+    public Producer createProducer() throws Exception {
+        return new KeysetProducer(this);
+    }
+
+    @Override
+    public Consumer createConsumer(Processor processor) throws Exception {
+        throw new UnsupportedOperationException("O endpoint keyset suporta apenas producer: " + getEndpointUri());
+    }
+
+    @Override
+    protected void doInit() throws Exception {
+        super.doInit();
+        if (keyColumns == null || keyColumns.isBlank()) {
+            throw new IllegalArgumentException("A opção keyColumns é obrigatória: " + getEndpointUri());
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("A opção pageSize deve ser maior que zero: " + getEndpointUri());
+        }
+        if (dataSource == null) {
+            dataSource = CamelContextHelper.findSingleByType(getCamelContext(), DataSource.class);
+        }
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Nenhum DataSource configurado para " + getEndpointUri());
+        }
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("A opção partitions deve ser maior que zero: " + getEndpointUri());
+        }
+        if (partitions > 1) {
+            if (partitionColumn == null || partitionColumn.isBlank()) {
+                throw new IllegalArgumentException("A opção partitionColumn é obrigatória com partitions > 1: "
+                    + getEndpointUri());
+            }
+            if (checkpointStore == null) {
+                checkpointStore = CamelContextHelper.findSingleByType(getCamelContext(), CheckpointStore.class);
+            }
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (prefetch) {
+            prefetchExecutor = getCamelContext().getExecutorServiceManager()
+                .newCachedThreadPool(this, "Keyset-" + table);
+        }
+        if (partitions > 1) {
+            partitionExecutor = getCamelContext().getExecutorServiceManager()
+                .newFixedThreadPool(this, "KeysetParticao-" + table, partitions);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (prefetchExecutor != null) {
+            getCamelContext().getExecutorServiceManager().shutdown(prefetchExecutor);
+            prefetchExecutor = null;
+        }
+        if (partitionExecutor != null) {
+            getCamelContext().getExecutorServiceManager().shutdownNow(partitionExecutor);
+            partitionExecutor = null;
+        }
+        super.doStop();
+    }
+
+    ExecutorService getPrefetchExecutor() {
+        return prefetchExecutor;
+    }
+
+    ExecutorService getPartitionExecutor() {
+        return partitionExecutor;
+    }
+
+    List<String> getKeyColumnList() {
+        return Arrays.stream(keyColumns.split(","))
+            .map(String::trim)
+            .filter(column -> !column.isEmpty())
+            .toList();
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public String getColumns() {
+        return columns;
+    }
+
+    public void setColumns(String columns) {
+        this.columns = columns;
+    }
+
+    public String getKeyColumns() {
+        return keyColumns;
+    }
+
+    public void setKeyColumns(String keyColumns) {
+        this.keyColumns = keyColumns;
+    }
+
+    public String getStartHeader() {
+        return startHeader;
+    }
+
+    public void setStartHeader(String startHeader) {
+        this.startHeader = startHeader;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public KeysetOutputType getOutputType() {
+        return outputType;
+    }
+
+    public void setOutputType(KeysetOutputType outputType) {
+        this.outputType = outputType;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public String getPartitionColumn() {
+        return partitionColumn;
+    }
+
+    public void setPartitionColumn(String partitionColumn) {
+        this.partitionColumn = partitionColumn;
+    }
+
+    public String getClusterPartitionColumn() {
+        return clusterPartitionColumn;
+    }
+
+    public void setClusterPartitionColumn(String clusterPartitionColumn) {
+        this.clusterPartitionColumn = clusterPartitionColumn;
+    }
+
+    public KeysetPartitionBoundaries getPartitionBoundaries() {
+        return partitionBoundaries;
+    }
+
+    public void setPartitionBoundaries(KeysetPartitionBoundaries partitionBoundaries) {
+        this.partitionBoundaries = partitionBoundaries;
+    }
+
+    public long getPartitionThreshold() {
+        return partitionThreshold;
+    }
+
+    public void setPartitionThreshold(long partitionThreshold) {
+        this.partitionThreshold = partitionThreshold;
+    }
+
+    public long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public void setCheckpointInterval(long checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public CheckpointStore getCheckpointStore() {
+        return checkpointStore;
+    }
+
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+}
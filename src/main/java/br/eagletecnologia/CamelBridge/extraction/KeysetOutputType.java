@@ -0,0 +1,20 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import br.eagletecnologia.CamelBridge.codec.EncodedRow;
+
+/**
+ * Formato dos registros das páginas do keyset.
+ */
+public enum KeysetOutputType {
+
+    /**
+     * Um {@code Map} por registro (coluna → valor), como o componente sql.
+     */
+    MAP,
+
+    /**
+     * Um {@link EncodedRow} por registro: o JSON escrito direto do ResultSet, com os
+     * valores das colunas de chave.
+     */
+    JSON
+}
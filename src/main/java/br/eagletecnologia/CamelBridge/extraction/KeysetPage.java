@@ -0,0 +1,46 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Página de uma extração particionada ({@link PartitionedPageIterator}).
+ *
+ * Para quem consome o corpo da mensagem é uma lista de registros como as páginas do
+ * {@link KeysetPageIterator}; além dos registros, guarda a partição de origem e a chave
+ * da última linha, usadas para gravar o progresso de cada partição.
+ */
+public final class KeysetPage extends AbstractList<Object> implements RandomAccess {
+
+    private final int partition;
+    private final List<Object> rows;
+    private final Object[] lastKey;
+
+    KeysetPage(int partition, List<Object> rows, Object[] lastKey) {
+        this.partition = partition;
+        this.rows = rows;
+        this.lastKey = lastKey;
+    }
+
+    /**
+     * Índice da partição que leu a página (0 a partitions - 1).
+     */
+    public int getPartition() {
+        return partition;
+    }
+
+    Object[] getLastKey() {
+        return lastKey;
+    }
+
+    @Override
+    public Object get(int index) {
+        return rows.get(index);
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+}
@@ -0,0 +1,243 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import br.eagletecnologia.CamelBridge.codec.EncodedRow;
+import br.eagletecnologia.CamelBridge.codec.RowJsonCodec;
+import org.apache.camel.RuntimeCamelException;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Iterador de páginas de uma consulta paginada por keyset.
+ *
+ * Cada chamada a {@link #next()} devolve uma página com até {@code pageSize} registros:
+ * um {@code Map} por registro ou, com {@link KeysetOutputType#JSON}, um {@link EncodedRow}
+ * escrito direto do ResultSet por um {@link RowJsonCodec} montado na primeira página.
+ * Quando a página devolvida está cheia e há um executor de prefetch, a consulta da
+ * página seguinte é disparada imediatamente em segundo plano, de modo que o banco trabalha enquanto a rota processa a página atual.
+ * No máximo duas páginas ficam em memória ao mesmo tempo.
+ */
+public class KeysetPageIterator implements Iterator<List<Object>>, Closeable {
+
+    private final DataSource dataSource;
+    private final KeysetQuery query;
+    private final Object start;
+    private final int pageSize;
+    private final ExecutorService prefetchExecutor;
+    private final KeysetOutputType outputType;
+    private final Object[] resumeKey;
+
+    private volatile RowJsonCodec codec;
+    private Future<List<Object>> pending;
+    private List<Object> ready;
+    private boolean exhausted;
+    private long rowCount;
+    private int pageCount;
+    private Object[] lastKey;
+
+    KeysetPageIterator(DataSource dataSource, KeysetQuery query, Object start, int pageSize,
+                       ExecutorService prefetchExecutor, KeysetOutputType outputType) {
+        this(dataSource, query, start, pageSize, prefetchExecutor, outputType, null);
+    }
+
+    /**
+     * @param resumeKey Chave da última linha já lida em uma execução anterior; a primeira
+     *                  página continua a partir dela em vez de {@code start} (null = do início)
+     */
+    KeysetPageIterator(DataSource dataSource, KeysetQuery query, Object start, int pageSize,
+                       ExecutorService prefetchExecutor, KeysetOutputType outputType, Object[] resumeKey) {
+        this.dataSource = dataSource;
+        this.query = query;
+        this.start = start;
+        this.pageSize = pageSize;
+        this.prefetchExecutor = prefetchExecutor;
+        this.outputType = outputType;
+        this.resumeKey = resumeKey;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (ready != null) {
+            return true;
+        }
+        if (exhausted) {
+            return false;
+        }
+        if (pending == null) {
+            pending = schedule(resumeKey);
+        }
+
+        ready = await(pending);
+        pending = null;
+        if (ready.isEmpty()) {
+            ready = null;
+            exhausted = true;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public List<Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        List<Object> page = ready;
+        ready = null;
+        rowCount += page.size();
+        pageCount++;
+        lastKey = lastKey(page.get(page.size() - 1));
+
+        if (page.size() < pageSize) {
+            exhausted = true;
+        } else {
+            pending = schedule(lastKey);
+        }
+        return page;
+    }
+
+    /**
+     * Dispara a busca de uma página: em segundo plano quando há executor de
+     * prefetch, ou de forma síncrona na primeira chamada a hasNext().
+     */
+    private Future<List<Object>> schedule(Object[] lastKey) {
+        if (prefetchExecutor == null) {
+            return CompletableFuture.completedFuture(fetchUnchecked(lastKey));
+        }
+        return prefetchExecutor.submit(() -> fetch(lastKey));
+    }
+
+    private List<Object> fetchUnchecked(Object[] lastKey) {
+        try {
+            return fetch(lastKey);
+        } catch (SQLException e) {
+            throw new RuntimeCamelException("Erro ao buscar página da consulta", e);
+        }
+    }
+
+    private List<Object> fetch(Object[] lastKey) throws SQLException {
+        String sql = lastKey == null ? query.getFirstPageSql() : query.getNextPageSql();
+        Object[] parameters = lastKey == null ? query.firstPageParameters(start) : query.nextPageParameters(lastKey);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setMaxRows(pageSize);
+            statement.setFetchSize(pageSize);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Object> page = new ArrayList<>(pageSize);
+                if (outputType == KeysetOutputType.JSON) {
+                    // O plano de escrita é montado uma vez e reaproveitado nas páginas seguintes
+                    RowJsonCodec rowCodec = codec;
+                    if (rowCodec == null) {
+                        rowCodec = RowJsonCodec.of(resultSet.getMetaData(), query.getKeyColumns());
+                        codec = rowCodec;
+                    }
+                    while (resultSet.next()) {
+                        page.add(rowCodec.encode(resultSet));
+                    }
+                    return page;
+                }
+
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                String[] labels = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    labels[i] = metaData.getColumnLabel(i + 1);
+                }
+
+                while (resultSet.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>(columnCount * 2);
+                    for (int i = 0; i < columnCount; i++) {
+                        row.put(labels[i], resultSet.getObject(i + 1));
+                    }
+                    page.add(row);
+                }
+                return page;
+            }
+        }
+    }
+
+    private Object[] lastKey(Object row) {
+        List<String> keyColumns = query.getKeyColumns();
+        Object[] key = new Object[keyColumns.size()];
+        for (int i = 0; i < key.length; i++) {
+            String column = keyColumns.get(i);
+            if (row instanceof EncodedRow) {
+                key[i] = ((EncodedRow) row).get(column);
+                continue;
+            }
+            Map<?, ?> map = (Map<?, ?>) row;
+            if (!map.containsKey(column)) {
+                throw new IllegalStateException("A coluna de chave " + column + " não está entre as colunas projetadas");
+            }
+            key[i] = map.get(column);
+        }
+        return key;
+    }
+
+    private static List<Object> await(Future<List<Object>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeCamelException("Interrompido aguardando página da consulta", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeCamelException("Erro ao buscar página da consulta", e.getCause());
+        }
+    }
+
+    /**
+     * Quantidade de registros entregues até o momento.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Quantidade de páginas entregues até o momento.
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Valores das colunas de chave da última linha entregue, ou null se nenhuma página
+     * foi entregue.
+     */
+    Object[] getLastKey() {
+        return lastKey;
+    }
+
+    /**
+     * Cancela a busca em andamento, se houver. Chamado pelo split ao final da iteração.
+     */
+    @Override
+    public void close() {
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        ready = null;
+        exhausted = true;
+    }
+}
@@ -0,0 +1,22 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+/**
+ * Como os limites das partições da extração particionada são calculados.
+ */
+public enum KeysetPartitionBoundaries {
+
+    /**
+     * Intervalos de mesmo tamanho entre o menor e o maior valor da coluna de partição
+     * ({@code MIN}/{@code MAX} em uma única consulta). Exige coluna numérica inteira e
+     * funciona bem para chaves sequenciais sem grandes buracos (ex: USUARIOS_ID).
+     */
+    MINMAX,
+
+    /**
+     * Quantis de uma amostra dos valores da coluna de partição, lidos em uma varredura
+     * só dessa coluna. Aceita qualquer tipo ordenável e divide bem chaves com buracos
+     * ou concentradas em poucas faixas, ao custo de ler a coluna de todas as linhas
+     * pendentes.
+     */
+    SAMPLE
+}
@@ -0,0 +1,134 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Calcula o {@link PartitionPlan} de uma extração particionada, sobre as mesmas linhas
+ * que a extração vai ler ({@code k1 > início}).
+ *
+ * Devolve null quando não vale a pena particionar: nenhuma linha pendente, menos linhas
+ * que {@code partitionThreshold} ou valores insuficientes para mais de uma partição.
+ */
+final class KeysetPartitioner {
+
+    /** Valores amostrados por partição no modo {@link KeysetPartitionBoundaries#SAMPLE}. */
+    private static final int SAMPLES_PER_PARTITION = 100;
+
+    private KeysetPartitioner() {
+    }
+
+    static PartitionPlan plan(KeysetEndpoint endpoint, Object start) throws SQLException {
+        String table = endpoint.getTable();
+        String keyColumn = endpoint.getKeyColumnList().get(0);
+        String column = endpoint.getPartitionColumn();
+        int partitions = endpoint.getPartitions();
+
+        List<Object> boundaries = endpoint.getPartitionBoundaries() == KeysetPartitionBoundaries.SAMPLE
+            ? sample(endpoint, "SELECT " + column + " FROM " + table + " WHERE " + keyColumn + " > ?", start)
+            : minMax(endpoint, "SELECT COUNT(*), MIN(" + column + "), MAX(" + column + ") FROM " + table
+                + " WHERE " + keyColumn + " > ?", start);
+        if (boundaries == null || boundaries.isEmpty()) {
+            return null;
+        }
+        return new PartitionPlan(column, partitions, start, boundaries);
+    }
+
+    /**
+     * Limites em intervalos de mesmo tamanho entre MIN e MAX da coluna de partição.
+     */
+    private static List<Object> minMax(KeysetEndpoint endpoint, String sql, Object start) throws SQLException {
+        long count;
+        Object min;
+        Object max;
+        try (Connection connection = endpoint.getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, start);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                count = resultSet.getLong(1);
+                min = resultSet.getObject(2);
+                max = resultSet.getObject(3);
+            }
+        }
+        if (count == 0 || count < endpoint.getPartitionThreshold() || min == null) {
+            return null;
+        }
+        if (!(min instanceof Number) || !(max instanceof Number)) {
+            throw new IllegalArgumentException("partitionBoundaries=minmax exige uma coluna de partição numérica ("
+                + endpoint.getPartitionColumn() + "); use partitionBoundaries=sample: " + endpoint.getEndpointUri());
+        }
+
+        long low = ((Number) min).longValue();
+        long span = ((Number) max).longValue() - low + 1;
+        int partitions = endpoint.getPartitions();
+        List<Object> boundaries = new ArrayList<>(partitions - 1);
+        long previous = low;
+        for (int i = 1; i < partitions; i++) {
+            // low + span * i / partitions, sem estourar o long com intervalos grandes
+            long boundary = low + (span / partitions) * i + (span % partitions) * i / partitions;
+            if (boundary > previous) {
+                boundaries.add(boundary);
+                previous = boundary;
+            }
+        }
+        return boundaries;
+    }
+
+    /**
+     * Limites nos quantis de uma amostra aleatória (reservoir sampling) dos valores da
+     * coluna de partição.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<Object> sample(KeysetEndpoint endpoint, String sql, Object start) throws SQLException {
+        int partitions = endpoint.getPartitions();
+        int capacity = partitions * SAMPLES_PER_PARTITION;
+        List<Comparable> sample = new ArrayList<>(capacity);
+        long count = 0;
+
+        try (Connection connection = endpoint.getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setFetchSize(1000);
+            statement.setObject(1, start);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (resultSet.next()) {
+                    count++;
+                    Object value = resultSet.getObject(1);
+                    if (!(value instanceof Comparable)) {
+                        continue;
+                    }
+                    if (sample.size() < capacity) {
+                        sample.add((Comparable) value);
+                    } else {
+                        long slot = random.nextLong(count);
+                        if (slot < capacity) {
+                            sample.set((int) slot, (Comparable) value);
+                        }
+                    }
+                }
+            }
+        }
+        if (count == 0 || count < endpoint.getPartitionThreshold() || sample.isEmpty()) {
+            return null;
+        }
+
+        sample.sort(null);
+        List<Object> boundaries = new ArrayList<>(partitions - 1);
+        Comparable previous = sample.get(0);
+        for (int i = 1; i < partitions; i++) {
+            Comparable boundary = sample.get(sample.size() * i / partitions);
+            if (boundary.compareTo(previous) > 0) {
+                boundaries.add(boundary);
+                previous = boundary;
+            }
+        }
+        return boundaries;
+    }
+}
@@ -0,0 +1,114 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import br.eagletecnologia.CamelBridge.cluster.ClusterRoutePolicy;
+import org.apache.camel.Exchange;
+import org.apache.camel.support.DefaultProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Producer que substitui o corpo da mensagem por um {@link KeysetPageIterator}.
+ *
+ * Nenhuma linha é lida aqui: a primeira página só é buscada quando a rota
+ * começa a iterar o corpo (ex: split com streaming).
+ *
+ * Com partitions &gt; 1, os limites das partições são calculados aqui (ou recuperados do
+ * {@link CheckpointStore}, se a extração anterior foi interrompida com o mesmo watermark)
+ * e o corpo passa a ser um {@link PartitionedPageIterator}.
+ *
+ * Com clusterPartitionColumn e os cabeçalhos de partições do {@link ClusterRoutePolicy},
+ * as consultas leem apenas as linhas das partições de chave deste nó.
+ */
+public class KeysetProducer extends DefaultProducer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KeysetProducer.class);
+
+    public KeysetProducer(KeysetEndpoint endpoint) {
+        super(endpoint);
+    }
+
+    @Override
+    public KeysetEndpoint getEndpoint() {
+        return (KeysetEndpoint) super.getEndpoint();
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        KeysetEndpoint endpoint = getEndpoint();
+        Object start = exchange.getIn().getHeader(endpoint.getStartHeader());
+
+        KeysetQuery query = new KeysetQuery(endpoint.getTable(), endpoint.getColumns(), endpoint.getKeyColumnList());
+        String clusterFilter = clusterFilter(exchange);
+        if (clusterFilter != null) {
+            query = query.filter(clusterFilter);
+        }
+        if (endpoint.getPartitions() > 1) {
+            PartitionedPageIterator partitioned = partitioned(exchange, query, start);
+            if (partitioned != null) {
+                exchange.getIn().setBody(partitioned);
+                return;
+            }
+        }
+        exchange.getIn().setBody(new KeysetPageIterator(
+            endpoint.getDataSource(), query, start, endpoint.getPageSize(), endpoint.getPrefetchExecutor(),
+            endpoint.getOutputType()));
+    }
+
+    /**
+     * MOD(ABS(coluna), total) IN (partições deste nó), ou null se a rota não é
+     * particionada no cluster.
+     */
+    private String clusterFilter(Exchange exchange) {
+        String column = getEndpoint().getClusterPartitionColumn();
+        Integer total = exchange.getIn().getHeader(ClusterRoutePolicy.PARTITION_COUNT_HEADER, Integer.class);
+        List<?> held = exchange.getIn().getHeader(ClusterRoutePolicy.PARTITIONS_HEADER, List.class);
+        if (column == null || column.isBlank() || total == null || held == null) {
+            return null;
+        }
+        String partitions = held.stream()
+            .map(partition -> String.valueOf(Integer.parseInt(partition.toString())))
+            .collect(Collectors.joining(", "));
+        return "MOD(ABS(" + column + "), " + total + ") IN (" + partitions + ")";
+    }
+
+    /**
+     * Monta o iterador particionado, ou devolve null quando a extração não deve ser
+     * particionada (poucas linhas pendentes).
+     */
+    private PartitionedPageIterator partitioned(Exchange exchange, KeysetQuery query, Object start) throws Exception {
+        KeysetEndpoint endpoint = getEndpoint();
+        CheckpointStore checkpointStore = endpoint.getCheckpointStore();
+        String routeId = exchange.getFromRouteId();
+
+        PartitionPlan plan = null;
+        Map<Integer, Object[]> positions = new HashMap<>();
+        String saved = checkpointStore != null ? checkpointStore.getPartitionPlan(routeId) : null;
+        if (saved != null) {
+            PartitionPlan previous = PartitionPlan.decode(saved);
+            if (previous.matches(endpoint.getPartitionColumn(), endpoint.getPartitions(), start)) {
+                plan = previous;
+                checkpointStore.getPartitionPositions(routeId)
+                    .forEach((partition, key) -> positions.put(partition, PartitionPlan.decodeKey(key)));
+                LOG.info("Continuando a extração particionada de {} ({}): {} partição(ões) com progresso gravado",
+                    endpoint.getTable(), plan, positions.size());
+            } else {
+                checkpointStore.clearPartitions(routeId);
+            }
+        }
+
+        if (plan == null) {
+            plan = KeysetPartitioner.plan(endpoint, start);
+            if (plan == null) {
+                return null;
+            }
+            LOG.info("Extração particionada de {}: {}", endpoint.getTable(), plan);
+        }
+        return new PartitionedPageIterator(endpoint, query, plan, start, positions, checkpointStore, routeId);
+    }
+}
@@ -0,0 +1,146 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import java.util.List;
+
+/**
+ * Monta as consultas SQL da paginação por keyset.
+ *
+ * A primeira página filtra apenas pela primeira coluna de chave
+ * ({@code k1 > ?}); as páginas seguintes continuam a partir da última linha lida,
+ * comparando todas as colunas de chave
+ * ({@code k1 > ? OR (k1 = ? AND k2 > ?) ...}). A ordenação é sempre pelas
+ * colunas de chave e o tamanho da página é limitado via {@code Statement.setMaxRows},
+ * o que mantém as consultas portáveis entre bancos.
+ *
+ * Na extração particionada, cada partição usa a sua própria consulta com o intervalo
+ * da coluna de partição ({@code p >= ? AND p < ?}) acrescentado às duas consultas; a
+ * primeira partição não tem limite inferior (e inclui as linhas com a coluna nula) e a
+ * última não tem limite superior, de modo que nenhuma linha fica de fora.
+ *
+ * Um filtro fixo ({@link #filter(String)}) é acrescentado às duas consultas e mantido nas
+ * partições; é usado para ler apenas as partições de chave deste nó no cluster.
+ */
+class KeysetQuery {
+
+    private final String table;
+    private final String columns;
+    private final List<String> keyColumns;
+    private final Object lowerBound;
+    private final Object upperBound;
+    private final String filter;
+    private final String firstPageSql;
+    private final String nextPageSql;
+
+    KeysetQuery(String table, String columns, List<String> keyColumns) {
+        this(table, columns, keyColumns, null, null, null, null);
+    }
+
+    private KeysetQuery(String table, String columns, List<String> keyColumns, String filter,
+                        String partitionColumn, Object lowerBound, Object upperBound) {
+        if (keyColumns.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma coluna de chave");
+        }
+        this.table = table;
+        this.columns = columns;
+        this.keyColumns = List.copyOf(keyColumns);
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.filter = filter;
+
+        String select = "SELECT " + columns + " FROM " + table + " WHERE ";
+        // Linhas com a coluna de partição nula ficam com a primeira partição
+        String range = (lowerBound != null ? " AND " + partitionColumn + " >= ?" : "")
+            + (upperBound == null ? ""
+                : lowerBound == null ? " AND (" + partitionColumn + " < ? OR " + partitionColumn + " IS NULL)"
+                : " AND " + partitionColumn + " < ?")
+            + (filter != null ? " AND (" + filter + ")" : "");
+        String orderBy = " ORDER BY " + String.join(", ", keyColumns);
+
+        this.firstPageSql = select + keyColumns.get(0) + " > ?" + range + orderBy;
+        this.nextPageSql = select + "(" + seekPredicate() + ")" + range + orderBy;
+    }
+
+    /**
+     * Mesma consulta restrita ao intervalo [lowerBound, upperBound) da coluna de
+     * partição; um limite null deixa o intervalo aberto daquele lado.
+     */
+    KeysetQuery partition(String partitionColumn, Object lowerBound, Object upperBound) {
+        return new KeysetQuery(table, columns, keyColumns, filter, partitionColumn, lowerBound, upperBound);
+    }
+
+    /**
+     * Mesma consulta com o predicado SQL (sem parâmetros) acrescentado às duas consultas.
+     */
+    KeysetQuery filter(String predicate) {
+        return new KeysetQuery(table, columns, keyColumns, predicate, null, null, null);
+    }
+
+    /**
+     * (k1 > ?) OR (k1 = ? AND k2 > ?) OR (k1 = ? AND k2 = ? AND k3 > ?) ...
+     */
+    private String seekPredicate() {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append('(');
+            for (int j = 0; j < i; j++) {
+                sql.append(keyColumns.get(j)).append(" = ? AND ");
+            }
+            sql.append(keyColumns.get(i)).append(" > ?)");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Parâmetros da consulta da primeira página na ordem dos placeholders.
+     */
+    Object[] firstPageParameters(Object start) {
+        Object[] parameters = new Object[1 + rangeParameterCount()];
+        parameters[0] = start;
+        appendRange(parameters, 1);
+        return parameters;
+    }
+
+    /**
+     * Parâmetros da consulta da próxima página na ordem dos placeholders.
+     */
+    Object[] nextPageParameters(Object[] lastKey) {
+        int n = keyColumns.size();
+        Object[] parameters = new Object[n * (n + 1) / 2 + rangeParameterCount()];
+        int index = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                parameters[index++] = lastKey[j];
+            }
+        }
+        appendRange(parameters, index);
+        return parameters;
+    }
+
+    private int rangeParameterCount() {
+        return (lowerBound != null ? 1 : 0) + (upperBound != null ? 1 : 0);
+    }
+
+    private void appendRange(Object[] parameters, int index) {
+        if (lowerBound != null) {
+            parameters[index++] = lowerBound;
+        }
+        if (upperBound != null) {
+            parameters[index] = upperBound;
+        }
+    }
+
+    List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    String getFirstPageSql() {
+        return firstPageSql;
+    }
+
+    String getNextPageSql() {
+        return nextPageSql;
+    }
+}
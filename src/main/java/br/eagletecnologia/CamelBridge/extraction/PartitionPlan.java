@@ -0,0 +1,122 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Divisão de uma extração em partições: coluna de partição, watermark de início da
+ * extração e os limites entre as partições.
+ *
+ * Com N - 1 limites ordenados b1 &lt; b2 &lt; ..., a partição 0 lê {@code p < b1}, a
+ * partição i lê {@code b[i] <= p < b[i+1]} e a última lê {@code p >= b[N-1]}.
+ *
+ * O plano e a posição de cada partição são gravados como texto no
+ * {@link CheckpointStore}, para que uma extração interrompida continue com os mesmos
+ * limites. Valores inteiros voltam como {@code Long}; os demais (ex: timestamps) voltam
+ * como texto, como o watermark das rotas.
+ */
+final class PartitionPlan {
+
+    private static final Pattern INTEGER = Pattern.compile("-?\\d{1,18}");
+
+    private final String column;
+    private final int partitions;
+    private final String start;
+    private final List<Object> boundaries;
+
+    PartitionPlan(String column, int partitions, Object start, List<Object> boundaries) {
+        this.column = column;
+        this.partitions = partitions;
+        this.start = start == null ? "" : CheckpointStore.format(start);
+        this.boundaries = List.copyOf(boundaries);
+    }
+
+    /**
+     * Indica se o plano foi calculado para a mesma coluna, quantidade de partições e
+     * watermark de início, ou seja, se uma extração interrompida pode continuar com ele.
+     */
+    boolean matches(String column, int partitions, Object start) {
+        return this.column.equalsIgnoreCase(column) && this.partitions == partitions
+            && this.start.equals(start == null ? "" : CheckpointStore.format(start));
+    }
+
+    /**
+     * Quantidade efetiva de partições (pode ser menor que a pedida quando há poucos
+     * valores distintos na coluna de partição).
+     */
+    int getPartitionCount() {
+        return boundaries.size() + 1;
+    }
+
+    String getColumn() {
+        return column;
+    }
+
+    Object lowerBound(int partition) {
+        return partition == 0 ? null : boundaries.get(partition - 1);
+    }
+
+    Object upperBound(int partition) {
+        return partition == boundaries.size() ? null : boundaries.get(partition);
+    }
+
+    /**
+     * coluna;partições;início;limite1,limite2,...
+     */
+    String encode() {
+        return encodeValue(column) + ";" + partitions + ";" + encodeValue(start) + ";" + encodeKey(boundaries.toArray());
+    }
+
+    static PartitionPlan decode(String text) {
+        String[] parts = text.split(";", -1);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Plano de partições inválido: " + text);
+        }
+        Object[] boundaries = decodeKey(parts[3]);
+        return new PartitionPlan(decodeText(parts[0]), Integer.parseInt(parts[1]), decodeText(parts[2]),
+            List.of(boundaries));
+    }
+
+    /**
+     * Valores de uma chave (ex: posição de uma partição) separados por vírgula.
+     */
+    static String encodeKey(Object[] values) {
+        List<String> encoded = new ArrayList<>(values.length);
+        for (Object value : values) {
+            encoded.add(encodeValue(CheckpointStore.format(value)));
+        }
+        return String.join(",", encoded);
+    }
+
+    static Object[] decodeKey(String text) {
+        if (text.isEmpty()) {
+            return new Object[0];
+        }
+        String[] parts = text.split(",", -1);
+        Object[] values = new Object[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String value = decodeText(parts[i]);
+            values[i] = INTEGER.matcher(value).matches() ? (Object) Long.valueOf(value) : value;
+        }
+        return values;
+    }
+
+    private static String encodeValue(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String decodeText(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return column + " em " + getPartitionCount() + " partição(ões), limites " + boundaries;
+    }
+}
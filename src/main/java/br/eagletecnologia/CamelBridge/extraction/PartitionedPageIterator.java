@@ -0,0 +1,225 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import org.apache.camel.RuntimeCamelException;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Iterador de páginas de uma extração particionada.
+ *
+ * Cada partição do {@link PartitionPlan} é lida por um {@link KeysetPageIterator} próprio
+ * em uma thread do executor do endpoint, com a sua própria conexão do pool; as páginas
+ * de todas as partições são entregues à rota por uma fila limitada (duas páginas por
+ * partição), na ordem em que ficam prontas. Dentro de cada partição a ordem do keyset é
+ * mantida, e como cada valor da coluna de partição pertence a uma única partição, as
+ * alterações de um mesmo registro continuam em ordem.
+ *
+ * Quem grava as páginas (ex: journal) informa o que já está seguro em disco com
+ * {@link #markWritten(KeysetPage)} e {@link #checkpoint()}: a posição de cada partição é
+ * gravada no {@link CheckpointStore} e, se a execução for interrompida, a próxima
+ * continua cada partição de onde parou. O watermark da rota só avança no commit, depois
+ * que todas as partições terminaram.
+ */
+public class PartitionedPageIterator implements Iterator<List<Object>>, Closeable {
+
+    private static final Object DONE = new Object();
+
+    private final KeysetEndpoint endpoint;
+    private final PartitionPlan plan;
+    private final List<KeysetPageIterator> partitions;
+    private final BlockingQueue<Object> queue;
+    private final CheckpointStore checkpointStore;
+    private final String routeId;
+    private final long checkpointInterval;
+
+    private final List<Future<?>> tasks = new ArrayList<>();
+    private final Map<Integer, Object[]> written = new HashMap<>();
+    private KeysetPage ready;
+    private int finished;
+    private boolean started;
+    private boolean closed;
+    private long rowCount;
+    private int pageCount;
+    private long lastCheckpoint = System.nanoTime();
+
+    /**
+     * @param positions Posição já gravada de cada partição (execução interrompida), ou vazio
+     * @param checkpointStore Onde o progresso das partições é gravado (null = não grava)
+     */
+    PartitionedPageIterator(KeysetEndpoint endpoint, KeysetQuery query, PartitionPlan plan, Object start,
+                            Map<Integer, Object[]> positions, CheckpointStore checkpointStore, String routeId) {
+        this.endpoint = endpoint;
+        this.plan = plan;
+        this.checkpointStore = checkpointStore;
+        this.routeId = routeId;
+        this.checkpointInterval = endpoint.getCheckpointInterval() * 1_000_000L;
+
+        int count = plan.getPartitionCount();
+        this.partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            KeysetQuery range = query.partition(plan.getColumn(), plan.lowerBound(i), plan.upperBound(i));
+            // A thread da partição já é a busca em segundo plano: sem prefetch
+            partitions.add(new KeysetPageIterator(endpoint.getDataSource(), range, start, endpoint.getPageSize(),
+                null, endpoint.getOutputType(), positions.get(i)));
+        }
+        this.queue = new ArrayBlockingQueue<>(count * 2);
+    }
+
+    private void start() {
+        started = true;
+        ExecutorService executor = endpoint.getPartitionExecutor();
+        for (int i = 0; i < partitions.size(); i++) {
+            int partition = i;
+            tasks.add(executor.submit(() -> read(partition)));
+        }
+    }
+
+    private void read(int partition) {
+        KeysetPageIterator pages = partitions.get(partition);
+        try {
+            while (pages.hasNext()) {
+                List<Object> page = pages.next();
+                queue.put(new KeysetPage(partition, page, pages.getLastKey()));
+            }
+            queue.put(DONE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            try {
+                queue.put(new RuntimeCamelException("Erro ao ler a partição " + partition + " de " + plan, e));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (ready != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        if (!started) {
+            start();
+        }
+
+        while (finished < partitions.size()) {
+            Object item = take();
+            if (item == DONE) {
+                finished++;
+            } else if (item instanceof RuntimeException) {
+                close();
+                throw (RuntimeException) item;
+            } else {
+                ready = (KeysetPage) item;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public KeysetPage next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        KeysetPage page = ready;
+        ready = null;
+        rowCount += page.size();
+        pageCount++;
+        return page;
+    }
+
+    private Object take() {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new RuntimeCamelException("Interrompido aguardando página da extração particionada", e);
+        }
+    }
+
+    /**
+     * Registra que todos os registros da página foram gravados. A posição só é
+     * persistida no próximo {@link #checkpoint()}.
+     */
+    public void markWritten(KeysetPage page) {
+        written.put(page.getPartition(), page.getLastKey());
+    }
+
+    /**
+     * Indica se já passou {@code checkpointInterval} ms desde a última gravação do
+     * progresso das partições.
+     */
+    public boolean isCheckpointDue() {
+        return !written.isEmpty() && System.nanoTime() - lastCheckpoint >= checkpointInterval;
+    }
+
+    /**
+     * Grava a posição das partições com páginas marcadas desde o último checkpoint.
+     * Deve ser chamado somente depois que essas páginas estão seguras em disco.
+     */
+    public void checkpoint() {
+        lastCheckpoint = System.nanoTime();
+        if (written.isEmpty() || checkpointStore == null) {
+            written.clear();
+            return;
+        }
+        Map<Integer, String> positions = new HashMap<>();
+        written.forEach((partition, key) -> positions.put(partition, PartitionPlan.encodeKey(key)));
+        written.clear();
+        checkpointStore.savePartitions(routeId, plan.encode(), positions);
+    }
+
+    /**
+     * Quantidade de partições lidas em paralelo.
+     */
+    public int getPartitionCount() {
+        return partitions.size();
+    }
+
+    /**
+     * Quantidade de registros entregues até o momento.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Quantidade de páginas entregues até o momento.
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Interrompe a leitura das partições ainda em andamento e descarta as páginas
+     * na fila.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        ready = null;
+        for (Future<?> task : tasks) {
+            task.cancel(true);
+        }
+        queue.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package br.eagletecnologia.CamelBridge.extraction;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Utilitário para percorrer os registros do corpo de uma mensagem, seja ele um único
+ * registro, uma lista ou um iterador de páginas (ex: {@link KeysetPageIterator}).
+ */
+public final class Rows {
+
+    private Rows() {
+    }
+
+    /**
+     * Percorre o corpo da mensagem registro a registro, expandindo listas e iteradores
+     * (ex: páginas do componente keyset). Mapas e demais objetos são registros.
+     */
+    public static Iterator<Object> of(Object body) {
+        Deque<Iterator<?>> stack = new ArrayDeque<>();
+        if (body instanceof Iterator || body instanceof Iterable) {
+            stack.push(body instanceof Iterator ? (Iterator<?>) body : ((Iterable<?>) body).iterator());
+        } else if (body != null) {
+            stack.push(Collections.singletonList(body).iterator());
+        }
+
+        return new Iterator<>() {
+            private Object next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && !stack.isEmpty()) {
+                    Iterator<?> current = stack.peek();
+                    if (!current.hasNext()) {
+                        stack.pop();
+                        continue;
+                    }
+                    Object element = current.next();
+                    if (element instanceof Iterable && !(element instanceof Map)) {
+                        stack.push(((Iterable<?>) element).iterator());
+                    } else if (element instanceof Iterator) {
+                        stack.push((Iterator<?>) element);
+                    } else {
+                        next = element;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+}
@@ -1,11 +1,13 @@
 package br.eagletecnologia.CamelBridge.gui;
 
+import br.eagletecnologia.CamelBridge.delivery.DeadLetterReplayResult;
 import br.eagletecnologia.CamelBridge.service.ApplicationService;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Janela principal da aplicação CamelBridge.
@@ -16,9 +18,11 @@ public class CamelBridgeFrame extends JFrame {
     private static final int HEIGHT = 600;
     
     private LogViewerPanel logViewerPanel;
+    private MetricsPanel metricsPanel;
     private StatusBar statusBar;
     private ApplicationService applicationService;
     private Timer statusUpdateTimer;
+    private JMenuItem replayItem;
     
     public CamelBridgeFrame(ApplicationService applicationService) {
         this.applicationService = applicationService;
@@ -76,6 +80,16 @@ public class CamelBridgeFrame extends JFrame {
         fileMenu.addSeparator();
         fileMenu.add(exitItem);
         
+        // Menu Entrega
+        JMenu deliveryMenu = new JMenu("Entrega");
+        deliveryMenu.setMnemonic('E');
+        
+        replayItem = new JMenuItem("Reenviar Dead Letters");
+        replayItem.setMnemonic('R');
+        replayItem.addActionListener(e -> replayDeadLetters());
+        
+        deliveryMenu.add(replayItem);
+        
         // Menu Sobre
         JMenu helpMenu = new JMenu("Sobre");
         helpMenu.setMnemonic('S');
@@ -87,6 +101,7 @@ public class CamelBridgeFrame extends JFrame {
         helpMenu.add(aboutItem);
         
         menuBar.add(fileMenu);
+        menuBar.add(deliveryMenu);
         menuBar.add(helpMenu);
         
         setJMenuBar(menuBar);
@@ -94,6 +109,7 @@ public class CamelBridgeFrame extends JFrame {
     
     private void createComponents() {
         logViewerPanel = new LogViewerPanel();
+        metricsPanel = new MetricsPanel();
         statusBar = new StatusBar();
         
         // Registrar o logViewerPanel no LogAppender
@@ -107,7 +123,10 @@ public class CamelBridgeFrame extends JFrame {
     
     private void setupLayout() {
         setLayout(new BorderLayout());
-        add(logViewerPanel, BorderLayout.CENTER);
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Logs", logViewerPanel);
+        tabs.addTab("Métricas", metricsPanel);
+        add(tabs, BorderLayout.CENTER);
         add(statusBar, BorderLayout.SOUTH);
     }
     
@@ -116,8 +135,13 @@ public class CamelBridgeFrame extends JFrame {
      */
     private void startStatusUpdateTimer() {
         statusUpdateTimer = new Timer(1000, e -> {
+            statusBar.updateLastSync(applicationService.getLastSearch());
             statusBar.updateStatus(applicationService.getStatus());
-            statusBar.updateLogCount(logViewerPanel.getLineCount());
+            statusBar.updateDelivery(applicationService.getDeliveryStatus());
+            statusBar.updateExecution(applicationService.getExecutionStatus());
+            statusBar.updateDeadLetters(applicationService.getDeadLetterCount());
+            statusBar.updateLogCount(logViewerPanel.getLineCount(), logViewerPanel.getDroppedCount());
+            metricsPanel.update(applicationService.getMetrics());
         });
         statusUpdateTimer.start();
     }
@@ -127,7 +151,49 @@ public class CamelBridgeFrame extends JFrame {
      */
     private void clearLogs() {
         logViewerPanel.clearLogs();
-        statusBar.updateLogCount(0);
+        statusBar.updateLogCount(0, logViewerPanel.getDroppedCount());
+    }
+    
+    /**
+     * Reenvia os dead letters em segundo plano e exibe o resultado ao final. O item do
+     * menu fica desabilitado durante o reenvio.
+     */
+    private void replayDeadLetters() {
+        long pending = applicationService.getDeadLetterCount();
+        if (pending <= 0) {
+            JOptionPane.showMessageDialog(this,
+                pending < 0 ? "O Camel ainda não foi iniciado." : "Não há registros no dead letter.",
+                "Reenviar Dead Letters", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        
+        replayItem.setEnabled(false);
+        new SwingWorker<DeadLetterReplayResult, Void>() {
+            @Override
+            protected DeadLetterReplayResult doInBackground() {
+                return applicationService.replayDeadLetters();
+            }
+            
+            @Override
+            protected void done() {
+                replayItem.setEnabled(true);
+                try {
+                    DeadLetterReplayResult result = get();
+                    if (result == null) {
+                        return;
+                    }
+                    JOptionPane.showMessageDialog(CamelBridgeFrame.this,
+                        "Reenvio concluído: " + result, "Reenviar Dead Letters",
+                        result.getRemaining() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(CamelBridgeFrame.this,
+                        "Erro no reenvio: " + e.getCause().getMessage(), "Reenviar Dead Letters",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }
     
     /**
@@ -0,0 +1,83 @@
+package br.eagletecnologia.CamelBridge.gui;
+
+import br.eagletecnologia.CamelBridge.Main;
+import br.eagletecnologia.CamelBridge.service.ApplicationService;
+
+import javax.swing.*;
+
+/**
+ * Inicia a aplicação no modo com interface gráfica: registra o appender de logs da GUI,
+ * exibe a janela principal e inicia o Camel em uma thread separada.
+ */
+public final class GuiLauncher {
+
+    private GuiLauncher() {
+    }
+
+    /**
+     * @param applicationService Serviço da aplicação usado pela janela
+     * @param args Argumentos repassados ao Camel Main
+     */
+    public static void launch(ApplicationService applicationService, String[] args) {
+        // Registrar o appender do Log4j2 ANTES de qualquer coisa
+        // Isso garante que os logs sejam capturados desde o início
+        LogAppender.register();
+        
+        // Iniciar GUI na Event Dispatch Thread
+        SwingUtilities.invokeLater(() -> {
+            try {
+                // Criar e exibir janela principal
+                CamelBridgeFrame frame = new CamelBridgeFrame(applicationService);
+                frame.setVisible(true);
+                
+                // Pequeno delay para garantir que a GUI esteja totalmente inicializada
+                Timer initTimer = new Timer(100, e -> {
+                    // Iniciar Camel em thread separada para não bloquear a GUI
+                    Thread camelThread = new Thread(() -> {
+                        try {
+                            org.apache.camel.main.Main camelMain = Main.newCamelMain();
+                            applicationService.setCamelMain(camelMain);
+                            
+                            // Atualizar status na GUI
+                            SwingUtilities.invokeLater(() -> {
+                                frame.getStatusBar().updateStatus("Iniciando...");
+                            });
+                            
+                            // Executar Camel (bloqueia até ser parado)
+                            camelMain.run(args);
+                        } catch (Exception ex) {
+                            ex.printStackTrace();
+                            SwingUtilities.invokeLater(() -> {
+                                frame.getStatusBar().updateStatus("Erro: " + ex.getMessage());
+                                JOptionPane.showMessageDialog(
+                                    frame,
+                                    "Erro ao iniciar Camel: " + ex.getMessage(),
+                                    "Erro",
+                                    JOptionPane.ERROR_MESSAGE
+                                );
+                            });
+                        }
+                    });
+                    
+                    camelThread.setDaemon(true);
+                    camelThread.setName("Camel-Main-Thread");
+                    camelThread.start();
+                    
+                    ((Timer) e.getSource()).stop();
+                });
+                initTimer.setRepeats(false);
+                initTimer.start();
+                
+            } catch (Exception e) {
+                e.printStackTrace();
+                JOptionPane.showMessageDialog(
+                    null,
+                    "Erro ao iniciar aplicação: " + e.getMessage(),
+                    "Erro Fatal",
+                    JOptionPane.ERROR_MESSAGE
+                );
+                System.exit(1);
+            }
+        });
+    }
+}
@@ -12,10 +12,19 @@ import java.io.Serializable;
 
 /**
  * Appender customizado do Log4j2 que captura logs e os envia para a GUI.
+ *
+ * O appender roda na thread que gerou o log (rotas, entregas, workers) e por isso
+ * apenas copia o evento para um {@link LogRingBuffer}, sem tocar no Swing: a GUI
+ * consome o buffer em lotes no seu próprio ritmo. Se a GUI não acompanhar, os logs
+ * mais antigos são descartados em vez de atrasar a integração.
  */
 public class LogAppender extends AbstractAppender {
     
-    private static LogViewerPanel logViewer;
+    /** Eventos retidos enquanto a GUI não os consome. */
+    private static final int BUFFER_CAPACITY = 16384;
+    
+    private static final LogRingBuffer<LogMessage> BUFFER = new LogRingBuffer<>(BUFFER_CAPACITY);
+    
     private static LogAppender instance;
     
     private LogAppender(String name, Filter filter, Layout<? extends Serializable> layout, 
@@ -63,23 +72,27 @@ public class LogAppender extends AbstractAppender {
     }
     
     /**
-     * Define o painel de visualização de logs.
+     * Define o painel de visualização de logs, que passa a consumir o buffer.
      * Deve ser chamado após a criação da GUI.
      */
     public static void setLogViewer(LogViewerPanel viewer) {
-        logViewer = viewer;
+        viewer.attach(BUFFER);
+    }
+    
+    /**
+     * Buffer entre o appender e a GUI.
+     */
+    public static LogRingBuffer<LogMessage> getBuffer() {
+        return BUFFER;
     }
     
     @Override
     public void append(LogEvent event) {
-        if (logViewer != null) {
-            String level = event.getLevel().toString();
-            String logger = event.getLoggerName();
-            String message = event.getMessage().getFormattedMessage();
-            
-            LogMessage logMessage = new LogMessage(level, logger, message);
-            logViewer.appendLog(logMessage);
-        }
+        String level = event.getLevel().toString();
+        String logger = event.getLoggerName();
+        String message = event.getMessage().getFormattedMessage();
+        
+        BUFFER.offer(new LogMessage(event.getTimeMillis(), level, logger, message));
     }
 }
 
@@ -0,0 +1,96 @@
+package br.eagletecnologia.CamelBridge.gui;
+
+/**
+ * Filtro do histórico de logs: nível mínimo, trecho do nome do logger e trecho da
+ * mensagem, ambos sem diferenciar maiúsculas de minúsculas. Campos vazios não filtram.
+ *
+ * O filtro é imutável. O nível e o logger são avaliados uma única vez por id internado
+ * (ver {@link #matchesLevel(LogStore, int)} e {@link #matchesLogger(LogStore, int)});
+ * só o texto é comparado entrada a entrada.
+ */
+public final class LogFilter {
+
+    public static final LogFilter ALL = new LogFilter(0, "", "");
+
+    private final int minSeverity;
+    private final String logger;
+    private final String text;
+
+    /**
+     * @param minSeverity Gravidade mínima (ver {@link LogStore#severity(String)})
+     * @param logger Trecho do nome do logger
+     * @param text Trecho da mensagem
+     */
+    public LogFilter(int minSeverity, String logger, String text) {
+        this.minSeverity = minSeverity;
+        this.logger = logger == null ? "" : logger.trim();
+        this.text = text == null ? "" : text;
+    }
+
+    public boolean matchesLevel(LogStore store, int levelId) {
+        return minSeverity == 0 || LogStore.severity(store.getLevelName(levelId)) >= minSeverity;
+    }
+
+    public boolean matchesLogger(LogStore store, int loggerId) {
+        return logger.isEmpty() || containsIgnoreCase(store.getLoggerName(loggerId), logger);
+    }
+
+    public boolean matchesText(String message) {
+        return text.isEmpty() || (message != null && containsIgnoreCase(message, text));
+    }
+
+    /**
+     * Indica se tudo o que este filtro aceita também é aceito por {@code other}, isto é,
+     * se o resultado deste filtro pode ser obtido filtrando o resultado de {@code other}
+     * (ex: o usuário acrescentou uma letra ao texto da busca).
+     */
+    public boolean isNarrowerThan(LogFilter other) {
+        return minSeverity >= other.minSeverity
+            && containsIgnoreCase(logger, other.logger)
+            && containsIgnoreCase(text, other.text);
+    }
+
+    public boolean isEmpty() {
+        return minSeverity == 0 && logger.isEmpty() && text.isEmpty();
+    }
+
+    /**
+     * Busca sem diferenciar maiúsculas de minúsculas e sem criar cópias em minúsculas
+     * do texto pesquisado.
+     */
+    static boolean containsIgnoreCase(String haystack, String needle) {
+        int length = needle.length();
+        if (length == 0) {
+            return true;
+        }
+        char first = needle.charAt(0);
+        char firstUpper = Character.toUpperCase(first);
+        char firstLower = Character.toLowerCase(first);
+        int last = haystack.length() - length;
+        for (int i = 0; i <= last; i++) {
+            char c = haystack.charAt(i);
+            if ((c == firstLower || c == firstUpper || c == first)
+                && haystack.regionMatches(true, i, needle, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LogFilter)) {
+            return false;
+        }
+        LogFilter other = (LogFilter) o;
+        return minSeverity == other.minSeverity && logger.equals(other.logger) && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return (minSeverity * 31 + logger.hashCode()) * 31 + text.hashCode();
+    }
+}
@@ -1,13 +1,15 @@
 package br.eagletecnologia.CamelBridge.gui;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 /**
  * Modelo que representa uma mensagem de log para exibição na GUI.
  */
 public class LogMessage {
-    private final LocalDateTime timestamp;
+    private final long timeMillis;
     private final String level;
     private final String logger;
     private final String message;
@@ -15,14 +17,28 @@ public class LogMessage {
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
     
     public LogMessage(String level, String logger, String message) {
-        this.timestamp = LocalDateTime.now();
+        this(System.currentTimeMillis(), level, logger, message);
+    }
+    
+    /**
+     * @param timeMillis Momento em que o log foi gerado (epoch em milissegundos)
+     */
+    public LogMessage(long timeMillis, String level, String logger, String message) {
+        this.timeMillis = timeMillis;
         this.level = level;
         this.logger = logger;
         this.message = message;
     }
     
     public LocalDateTime getTimestamp() {
-        return timestamp;
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault());
+    }
+    
+    /**
+     * Momento em que o log foi gerado, em milissegundos desde o epoch.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
     }
     
     public String getLevel() {
@@ -42,7 +58,7 @@ public class LogMessage {
      */
     public String getFormattedMessage() {
         return String.format("[%s] %-5s %s", 
-            timestamp.format(TIME_FORMATTER), 
+            getTimestamp().format(TIME_FORMATTER), 
             level, 
             message);
     }
@@ -51,6 +67,13 @@ public class LogMessage {
      * Retorna a cor HTML baseada no nível do log.
      */
     public String getColor() {
+        return colorOf(level);
+    }
+    
+    /**
+     * Retorna a cor HTML de um nível de log.
+     */
+    public static String colorOf(String level) {
         switch (level.toUpperCase()) {
             case "ERROR":
                 return "#FF6B6B"; // Vermelho
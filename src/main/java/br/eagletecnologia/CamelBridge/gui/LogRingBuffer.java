@@ -0,0 +1,120 @@
+package br.eagletecnologia.CamelBridge.gui;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Buffer circular limitado e sem locks entre o appender de logs e a GUI.
+ *
+ * Qualquer thread pode publicar ({@link #offer(Object)}): a publicação reserva uma
+ * posição com um único incremento atômico e grava o evento no slot correspondente,
+ * sem nunca esperar pelo consumidor. Quando o consumidor fica para trás, os eventos
+ * mais antigos são sobrescritos (drop-oldest) e contados em {@link #getDropped()}.
+ *
+ * Existe um único consumidor (a thread da GUI), que retira os eventos em lotes com
+ * {@link #drain(Consumer, int)}.
+ *
+ * @param <T> Tipo dos eventos
+ */
+public final class LogRingBuffer<T> {
+
+    /**
+     * Evento publicado junto com a sua sequência, para que o consumidor detecte slots
+     * ainda não gravados ou já sobrescritos.
+     */
+    private static final class Slot<T> {
+        final long sequence;
+        final T value;
+
+        Slot(long sequence, T value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+    }
+
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** Próxima sequência a ser lida; usada apenas pelo consumidor. */
+    private long tail;
+
+    /**
+     * @param capacity Quantidade máxima de eventos retidos (arredondada para a próxima
+     *                 potência de 2)
+     */
+    public LogRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A capacidade do buffer de logs deve ser positiva");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Publica um evento. Nunca bloqueia: se o buffer estiver cheio, o evento mais
+     * antigo ainda não lido é descartado.
+     */
+    public void offer(T value) {
+        long sequence = head.getAndIncrement();
+        slots.set((int) (sequence & mask), new Slot<>(sequence, value));
+    }
+
+    /**
+     * Entrega ao consumidor até {@code maxEvents} eventos, na ordem de publicação.
+     * Deve ser chamado sempre pela mesma thread.
+     *
+     * @return Quantidade de eventos entregues
+     */
+    public int drain(Consumer<? super T> consumer, int maxEvents) {
+        long published = head.get();
+        long oldest = published - slots.length();
+        if (tail < oldest) {
+            // O consumidor ficou mais de uma volta para trás
+            dropped.addAndGet(oldest - tail);
+            tail = oldest;
+        }
+
+        int count = 0;
+        while (tail < published && count < maxEvents) {
+            Slot<T> slot = slots.get((int) (tail & mask));
+            if (slot == null || slot.sequence < tail) {
+                // Posição reservada, mas o evento ainda não foi gravado
+                break;
+            }
+            if (slot.sequence > tail) {
+                // Sobrescrito por um evento mais novo antes de ser lido
+                dropped.incrementAndGet();
+            } else {
+                consumer.accept(slot.value);
+                count++;
+            }
+            tail++;
+        }
+        return count;
+    }
+
+    /**
+     * Eventos aguardando leitura (aproximado, limitado à capacidade).
+     */
+    public int size() {
+        return (int) Math.min(head.get() - tail, slots.length());
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Total de eventos descartados por falta de espaço desde a criação do buffer.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+}
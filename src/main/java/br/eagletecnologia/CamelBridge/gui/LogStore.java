@@ -0,0 +1,186 @@
+package br.eagletecnologia.CamelBridge.gui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Histórico de logs da GUI em memória, em formato colunar.
+ *
+ * Cada coluna é um array circular de tamanho fixo: horários em milissegundos
+ * ({@code long[]}), nível e logger como índices em tabelas de nomes internados
+ * ({@code byte[]} e {@code int[]}) e a mensagem. Assim cada entrada custa poucos bytes
+ * além do texto da mensagem, e centenas de milhares de entradas cabem na memória sem
+ * um objeto por log. Quando o histórico enche, as entradas mais antigas são
+ * sobrescritas.
+ *
+ * As entradas são identificadas por uma sequência crescente, que não muda quando
+ * entradas antigas são descartadas: as sequências válidas vão de
+ * {@link #getFirstSequence()} até {@link #getNextSequence()} (exclusivo).
+ *
+ * Não é thread-safe: é usado apenas pela Event Dispatch Thread.
+ */
+public final class LogStore {
+
+    /** Ordem dos níveis do Log4j, do menos ao mais grave. */
+    private static final List<String> LEVEL_ORDER = List.of("TRACE", "DEBUG", "INFO", "WARN", "ERROR", "FATAL");
+
+    private final int capacity;
+    private final long[] times;
+    private final byte[] levels;
+    private final int[] loggers;
+    private final String[] messages;
+
+    private final List<String> levelNames = new ArrayList<>();
+    private final Map<String, Integer> levelIds = new HashMap<>();
+    private final List<String> loggerNames = new ArrayList<>();
+    private final Map<String, Integer> loggerIds = new HashMap<>();
+
+    private long firstSequence;
+    private long nextSequence;
+
+    /**
+     * @param capacity Quantidade máxima de entradas mantidas no histórico
+     */
+    public LogStore(int capacity) {
+        this.capacity = capacity;
+        this.times = new long[capacity];
+        this.levels = new byte[capacity];
+        this.loggers = new int[capacity];
+        this.messages = new String[capacity];
+    }
+
+    /**
+     * Acrescenta uma entrada, descartando a mais antiga se o histórico estiver cheio.
+     *
+     * @return Sequência da entrada
+     */
+    public long add(LogMessage logMessage) {
+        if (nextSequence - firstSequence == capacity) {
+            messages[index(firstSequence)] = null;
+            firstSequence++;
+        }
+        int index = index(nextSequence);
+        times[index] = logMessage.getTimeMillis();
+        levels[index] = (byte) levelId(logMessage.getLevel());
+        loggers[index] = loggerId(logMessage.getLogger());
+        messages[index] = logMessage.getMessage();
+        return nextSequence++;
+    }
+
+    private int levelId(String level) {
+        Integer id = levelIds.get(level);
+        if (id == null) {
+            if (levelNames.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Níveis de log demais: " + level);
+            }
+            id = levelNames.size();
+            levelNames.add(level);
+            levelIds.put(level, id);
+        }
+        return id;
+    }
+
+    private int loggerId(String logger) {
+        String name = logger == null ? "" : logger;
+        Integer id = loggerIds.get(name);
+        if (id == null) {
+            id = loggerNames.size();
+            loggerNames.add(name);
+            loggerIds.put(name, id);
+        }
+        return id;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    /**
+     * Remove todas as entradas. As sequências continuam a partir da última.
+     */
+    public void clear() {
+        Arrays.fill(messages, null);
+        firstSequence = nextSequence;
+    }
+
+    /**
+     * Sequência da entrada mais antiga ainda no histórico.
+     */
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * Sequência que a próxima entrada vai receber.
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    public int size() {
+        return (int) (nextSequence - firstSequence);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long getTime(long sequence) {
+        return times[index(sequence)];
+    }
+
+    public int getLevelId(long sequence) {
+        return levels[index(sequence)];
+    }
+
+    public String getLevel(long sequence) {
+        return levelNames.get(getLevelId(sequence));
+    }
+
+    public int getLoggerId(long sequence) {
+        return loggers[index(sequence)];
+    }
+
+    public String getLogger(long sequence) {
+        return loggerNames.get(getLoggerId(sequence));
+    }
+
+    public String getMessage(long sequence) {
+        return messages[index(sequence)];
+    }
+
+    /**
+     * Quantidade de níveis distintos já vistos; os ids vão de 0 a este valor (exclusivo).
+     */
+    public int getLevelCount() {
+        return levelNames.size();
+    }
+
+    public String getLevelName(int levelId) {
+        return levelNames.get(levelId);
+    }
+
+    /**
+     * Quantidade de loggers distintos já vistos; os ids vão de 0 a este valor (exclusivo).
+     */
+    public int getLoggerCount() {
+        return loggerNames.size();
+    }
+
+    public String getLoggerName(int loggerId) {
+        return loggerNames.get(loggerId);
+    }
+
+    /**
+     * Gravidade de um nível na ordem do Log4j (TRACE = 0 ... FATAL = 5); níveis
+     * desconhecidos ficam junto com INFO.
+     */
+    public static int severity(String level) {
+        String name = level.toUpperCase();
+        int severity = LEVEL_ORDER.indexOf("WARNING".equals(name) ? "WARN" : name);
+        return severity < 0 ? LEVEL_ORDER.indexOf("INFO") : severity;
+    }
+}
@@ -0,0 +1,243 @@
+package br.eagletecnologia.CamelBridge.gui;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Modelo da tabela de logs: as linhas são as entradas do {@link LogStore} aceitas pelo
+ * {@link LogFilter} atual, guardadas apenas como sequências ({@code long[]}).
+ *
+ * A filtragem é incremental:
+ * <ul>
+ *   <li>entradas novas são testadas uma única vez, ao chegar;</li>
+ *   <li>um filtro mais restrito que o anterior (ex: mais uma letra na busca) é
+ *   aplicado só sobre as linhas já aceitas;</li>
+ *   <li>os demais filtros percorrem o histórico em fatias ({@link #scan(int)}), a cada
+ *   quadro da GUI, de modo que a tela nunca fica travada, mesmo com o histórico cheio.</li>
+ * </ul>
+ *
+ * Usado apenas pela Event Dispatch Thread.
+ */
+public class LogTableModel extends AbstractTableModel {
+
+    public static final int COLUMN_TIME = 0;
+    public static final int COLUMN_LEVEL = 1;
+    public static final int COLUMN_LOGGER = 2;
+    public static final int COLUMN_MESSAGE = 3;
+
+    private static final String[] COLUMN_NAMES = {"Hora", "Nível", "Logger", "Mensagem"};
+    private static final DateTimeFormatter TIME_FORMATTER =
+        DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final LogStore store;
+    private LogFilter filter = LogFilter.ALL;
+
+    /** Sequências das entradas aceitas, em {@code rows[rowStart..rowEnd)}. */
+    private long[] rows = new long[1024];
+    private int rowStart;
+    private int rowEnd;
+
+    /** Próxima sequência do histórico ainda não testada contra o filtro atual. */
+    private long scanned;
+
+    /** Resultado do filtro por id de nível e de logger, calculado uma vez por id. */
+    private boolean[] levelMatches = new boolean[0];
+    private boolean[] loggerMatches = new boolean[0];
+
+    public LogTableModel(LogStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Acrescenta uma entrada ao histórico. As linhas da tabela são atualizadas em
+     * {@link #scan(int)}.
+     */
+    public void add(LogMessage logMessage) {
+        store.add(logMessage);
+    }
+
+    /**
+     * Descarta as linhas de entradas que saíram do histórico e testa até {@code budget}
+     * entradas ainda não avaliadas, notificando a tabela das linhas removidas e
+     * acrescentadas.
+     *
+     * @return true se ainda restam entradas a avaliar
+     */
+    public boolean scan(int budget) {
+        evict();
+
+        long first = store.getFirstSequence();
+        if (scanned < first) {
+            scanned = first;
+        }
+        long end = Math.min(store.getNextSequence(), scanned + budget);
+        int before = getRowCount();
+        for (long sequence = scanned; sequence < end; sequence++) {
+            if (matches(sequence)) {
+                addRow(sequence);
+            }
+        }
+        scanned = end;
+
+        int after = getRowCount();
+        if (after > before) {
+            fireTableRowsInserted(before, after - 1);
+        }
+        return isScanning();
+    }
+
+    /**
+     * Indica se o filtro atual ainda não foi aplicado a todo o histórico.
+     */
+    public boolean isScanning() {
+        return scanned < store.getNextSequence();
+    }
+
+    private void evict() {
+        long first = store.getFirstSequence();
+        int removed = 0;
+        while (rowStart < rowEnd && rows[rowStart] < first) {
+            rowStart++;
+            removed++;
+        }
+        if (removed > 0) {
+            fireTableRowsDeleted(0, removed - 1);
+        }
+    }
+
+    private boolean matches(long sequence) {
+        int levelId = store.getLevelId(sequence);
+        if (levelId >= levelMatches.length) {
+            levelMatches = evaluateLevels();
+        }
+        if (!levelMatches[levelId]) {
+            return false;
+        }
+        int loggerId = store.getLoggerId(sequence);
+        if (loggerId >= loggerMatches.length) {
+            loggerMatches = evaluateLoggers();
+        }
+        return loggerMatches[loggerId] && filter.matchesText(store.getMessage(sequence));
+    }
+
+    private boolean[] evaluateLevels() {
+        boolean[] matches = new boolean[store.getLevelCount()];
+        for (int id = 0; id < matches.length; id++) {
+            matches[id] = filter.matchesLevel(store, id);
+        }
+        return matches;
+    }
+
+    private boolean[] evaluateLoggers() {
+        boolean[] matches = new boolean[store.getLoggerCount()];
+        for (int id = 0; id < matches.length; id++) {
+            matches[id] = filter.matchesLogger(store, id);
+        }
+        return matches;
+    }
+
+    private void addRow(long sequence) {
+        if (rowEnd == rows.length) {
+            int count = rowEnd - rowStart;
+            if (rowStart > rows.length / 2) {
+                // Metade do array é de linhas já descartadas: reaproveita o espaço
+                System.arraycopy(rows, rowStart, rows, 0, count);
+            } else {
+                rows = Arrays.copyOfRange(rows, rowStart, rowStart + Math.max(count * 2, 1024));
+            }
+            rowStart = 0;
+            rowEnd = count;
+        }
+        rows[rowEnd++] = sequence;
+    }
+
+    public LogFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Troca o filtro. Se o novo filtro for mais restrito que o atual e o histórico já
+     * tiver sido todo avaliado, filtra apenas as linhas atuais; senão, recomeça a
+     * avaliação do histórico, que prossegue a cada {@link #scan(int)}.
+     */
+    public void setFilter(LogFilter newFilter) {
+        if (newFilter.equals(filter)) {
+            return;
+        }
+        boolean refine = !isScanning() && newFilter.isNarrowerThan(filter);
+        filter = newFilter;
+        levelMatches = evaluateLevels();
+        loggerMatches = evaluateLoggers();
+
+        if (refine) {
+            evict();
+            int kept = rowStart;
+            for (int i = rowStart; i < rowEnd; i++) {
+                if (matches(rows[i])) {
+                    rows[kept++] = rows[i];
+                }
+            }
+            rowEnd = kept;
+        } else {
+            rowStart = 0;
+            rowEnd = 0;
+            scanned = store.getFirstSequence();
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Remove todas as entradas do histórico.
+     */
+    public void clear() {
+        store.clear();
+        rowStart = 0;
+        rowEnd = 0;
+        scanned = store.getNextSequence();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Sequência, no {@link LogStore}, da entrada exibida na linha.
+     */
+    public long getSequence(int row) {
+        return rows[rowStart + row];
+    }
+
+    public LogStore getStore() {
+        return store;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowEnd - rowStart;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        long sequence = getSequence(row);
+        switch (column) {
+            case COLUMN_TIME:
+                return TIME_FORMATTER.format(Instant.ofEpochMilli(store.getTime(sequence)));
+            case COLUMN_LEVEL:
+                return store.getLevel(sequence);
+            case COLUMN_LOGGER:
+                return store.getLogger(sequence);
+            default:
+                return store.getMessage(sequence);
+        }
+    }
+}
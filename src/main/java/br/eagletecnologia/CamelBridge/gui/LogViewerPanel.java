@@ -1,48 +1,110 @@
 package br.eagletecnologia.CamelBridge.gui;
 
 import javax.swing.*;
-import javax.swing.text.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableColumnModel;
 import java.awt.*;
 import java.awt.event.AdjustmentEvent;
 import java.awt.event.AdjustmentListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Painel para visualização de logs em estilo terminal.
+ *
+ * As mensagens chegam por um {@link LogRingBuffer} e são lidas em lotes por um timer
+ * da própria Event Dispatch Thread (cerca de 30 vezes por segundo), que as guarda no
+ * {@link LogStore}. O histórico é exibido numa tabela que só desenha as linhas
+ * visíveis, de modo que o custo da tela não depende do tamanho do histórico. A barra
+ * superior filtra por nível mínimo, logger e texto (ver {@link LogTableModel}).
  */
 public class LogViewerPanel extends JPanel {
-    
-    private static final int MAX_LINES = 1000;
+
+    /** Entradas mantidas no histórico; as mais antigas são descartadas. */
+    private static final int HISTORY_CAPACITY = 200_000;
+
     private static final Font MONOSPACE_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
     private static final Color BACKGROUND_COLOR = new Color(30, 30, 30);
-    
-    private JTextPane textPane;
+    private static final Color SELECTION_COLOR = new Color(60, 70, 90);
+
+    /** Intervalo entre as leituras do buffer (~30 quadros por segundo). */
+    private static final int REFRESH_INTERVAL_MS = 33;
+
+    /** Máximo de mensagens lidas do buffer por quadro, para não travar a EDT em rajadas. */
+    private static final int MAX_BATCH = 2000;
+
+    /** Máximo de entradas avaliadas pelo filtro por quadro. */
+    private static final int SCAN_BUDGET = 50_000;
+
+    /** Espera após a digitação antes de aplicar o filtro. */
+    private static final int FILTER_DELAY_MS = 150;
+
+    private static final String[] LEVEL_OPTIONS = {"Todos", "DEBUG", "INFO", "WARN", "ERROR"};
+
+    private JTable table;
     private JScrollPane scrollPane;
-    private StyledDocument document;
-    private StyleContext styleContext;
-    private int lineCount = 0;
+    private LogTableModel model;
+    private JComboBox<String> levelCombo;
+    private JTextField loggerField;
+    private JTextField textField;
+    private JLabel countLabel;
+    private LogRingBuffer<LogMessage> buffer = new LogRingBuffer<>(MAX_BATCH);
+    private Timer refreshTimer;
+    private Timer filterTimer;
     private boolean autoScroll = true;
-    
+
     public LogViewerPanel() {
         initializeComponents();
         setupLayout();
     }
-    
+
     private void initializeComponents() {
-        styleContext = new StyleContext();
-        document = new DefaultStyledDocument(styleContext);
-        
-        textPane = new JTextPane(document);
-        textPane.setEditable(false);
-        textPane.setFont(MONOSPACE_FONT);
-        textPane.setBackground(BACKGROUND_COLOR);
-        textPane.setForeground(Color.WHITE);
-        
+        model = new LogTableModel(new LogStore(HISTORY_CAPACITY));
+
+        table = new JTable(model);
+        table.setFont(MONOSPACE_FONT);
+        table.setRowHeight(table.getFontMetrics(MONOSPACE_FONT).getHeight() + 2);
+        table.setBackground(BACKGROUND_COLOR);
+        table.setForeground(Color.WHITE);
+        table.setSelectionBackground(SELECTION_COLOR);
+        table.setSelectionForeground(Color.WHITE);
+        table.setShowGrid(false);
+        table.setIntercellSpacing(new Dimension(0, 0));
+        table.setFillsViewportHeight(true);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_LAST_COLUMN);
+        table.setDefaultRenderer(Object.class, new LogCellRenderer());
+        table.getTableHeader().setReorderingAllowed(false);
+
+        TableColumnModel columns = table.getColumnModel();
+        columns.getColumn(LogTableModel.COLUMN_TIME).setPreferredWidth(70);
+        columns.getColumn(LogTableModel.COLUMN_TIME).setMaxWidth(90);
+        columns.getColumn(LogTableModel.COLUMN_LEVEL).setPreferredWidth(55);
+        columns.getColumn(LogTableModel.COLUMN_LEVEL).setMaxWidth(70);
+        columns.getColumn(LogTableModel.COLUMN_LOGGER).setPreferredWidth(180);
+        columns.getColumn(LogTableModel.COLUMN_MESSAGE).setPreferredWidth(800);
+
+        // Duplo clique exibe a mensagem completa (ex: stack traces)
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = table.rowAtPoint(e.getPoint());
+                if (e.getClickCount() == 2 && row >= 0) {
+                    showMessage(row);
+                }
+            }
+        });
+
         // Configurar scroll
-        scrollPane = new JScrollPane(textPane);
+        scrollPane = new JScrollPane(table);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
-        
+        scrollPane.getViewport().setBackground(BACKGROUND_COLOR);
+
         // Detectar quando usuário rola manualmente
         JScrollBar verticalScrollBar = scrollPane.getVerticalScrollBar();
         verticalScrollBar.addAdjustmentListener(new AdjustmentListener() {
@@ -57,75 +119,170 @@ public class LogViewerPanel extends JPanel {
                 }
             }
         });
+
+        // Filtros
+        levelCombo = new JComboBox<>(LEVEL_OPTIONS);
+        levelCombo.addActionListener(e -> applyFilter());
+        loggerField = new JTextField(14);
+        textField = new JTextField(24);
+        filterTimer = new Timer(FILTER_DELAY_MS, e -> applyFilter());
+        filterTimer.setRepeats(false);
+        DocumentListener filterListener = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+        };
+        loggerField.getDocument().addDocumentListener(filterListener);
+        textField.getDocument().addDocumentListener(filterListener);
+        countLabel = new JLabel();
+
+        refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refresh());
+        refreshTimer.start();
     }
-    
+
     private void setupLayout() {
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 4));
+        filterPanel.add(new JLabel("Nível:"));
+        filterPanel.add(levelCombo);
+        filterPanel.add(new JLabel("Logger:"));
+        filterPanel.add(loggerField);
+        filterPanel.add(new JLabel("Buscar:"));
+        filterPanel.add(textField);
+        filterPanel.add(countLabel);
+
         setLayout(new BorderLayout());
+        add(filterPanel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
     }
-    
+
+    /**
+     * Passa a ler as mensagens do buffer informado (normalmente o do {@link LogAppender}).
+     */
+    public void attach(LogRingBuffer<LogMessage> buffer) {
+        this.buffer = buffer;
+    }
+
     /**
-     * Adiciona uma mensagem de log ao painel.
-     * Thread-safe: deve ser chamado via SwingUtilities.invokeLater()
+     * Adiciona uma mensagem de log ao painel. Pode ser chamado de qualquer thread: a
+     * mensagem é exibida no próximo quadro.
      */
     public void appendLog(LogMessage logMessage) {
-        if (SwingUtilities.isEventDispatchThread()) {
-            doAppendLog(logMessage);
-        } else {
-            SwingUtilities.invokeLater(() -> doAppendLog(logMessage));
+        buffer.offer(logMessage);
+    }
+
+    /**
+     * Lê um lote do buffer para o histórico e avança o filtro. Executado na EDT.
+     */
+    private void refresh() {
+        int drained = buffer.drain(model::add, MAX_BATCH);
+        if (drained == 0 && !model.isScanning()) {
+            return;
+        }
+        int before = model.getRowCount();
+        model.scan(SCAN_BUDGET);
+
+        // Scroll automático se estiver no final
+        if (autoScroll && model.getRowCount() != before && model.getRowCount() > 0) {
+            table.scrollRectToVisible(table.getCellRect(model.getRowCount() - 1, 0, true));
         }
+        updateCountLabel();
     }
-    
-    private void doAppendLog(LogMessage logMessage) {
-        try {
-            // Criar estilo com cor baseada no nível do log
-            Style style = styleContext.addStyle("logStyle", null);
-            StyleConstants.setForeground(style, Color.decode(logMessage.getColor()));
-            
-            // Adicionar mensagem
-            String formattedMessage = logMessage.getFormattedMessage() + "\n";
-            document.insertString(document.getLength(), formattedMessage, style);
-            
-            lineCount++;
-            
-            // Remover linhas antigas se exceder o limite
-            if (lineCount > MAX_LINES) {
-                int removeLength = document.getText(0, Math.min(500, document.getLength())).length();
-                document.remove(0, removeLength);
-                lineCount -= MAX_LINES / 2; // Aproximação
-            }
-            
-            // Scroll automático se estiver no final
-            if (autoScroll) {
-                textPane.setCaretPosition(document.getLength());
-            }
-            
-        } catch (BadLocationException e) {
-            // Ignorar erros de inserção
-            e.printStackTrace();
+
+    private void applyFilter() {
+        int level = levelCombo.getSelectedIndex();
+        int minSeverity = level <= 0 ? 0 : LogStore.severity(LEVEL_OPTIONS[level]);
+        model.setFilter(new LogFilter(minSeverity, loggerField.getText(), textField.getText()));
+        model.scan(SCAN_BUDGET);
+        autoScroll = true;
+        if (model.getRowCount() > 0) {
+            table.scrollRectToVisible(table.getCellRect(model.getRowCount() - 1, 0, true));
         }
+        updateCountLabel();
     }
-    
+
+    private void updateCountLabel() {
+        if (model.getFilter().isEmpty()) {
+            countLabel.setText("");
+        } else {
+            countLabel.setText(model.getRowCount() + " de " + model.getStore().size()
+                + (model.isScanning() ? " (filtrando...)" : ""));
+        }
+    }
+
+    private void showMessage(int row) {
+        LogStore store = model.getStore();
+        long sequence = model.getSequence(row);
+        JTextArea area = new JTextArea(store.getMessage(sequence), 15, 80);
+        area.setFont(MONOSPACE_FONT);
+        area.setEditable(false);
+        area.setCaretPosition(0);
+        JOptionPane.showMessageDialog(this, new JScrollPane(area),
+            model.getValueAt(row, LogTableModel.COLUMN_TIME) + " " + store.getLevel(sequence)
+                + " " + store.getLogger(sequence),
+            JOptionPane.PLAIN_MESSAGE);
+    }
+
     /**
      * Limpa todos os logs do painel.
      */
     public void clearLogs() {
         SwingUtilities.invokeLater(() -> {
-            try {
-                document.remove(0, document.getLength());
-                lineCount = 0;
-                textPane.setCaretPosition(0);
-            } catch (BadLocationException e) {
-                e.printStackTrace();
-            }
+            model.clear();
+            updateCountLabel();
         });
     }
-    
+
     /**
-     * Retorna o número de linhas de log.
+     * Retorna o número de entradas no histórico de logs.
      */
     public int getLineCount() {
-        return lineCount;
+        return model.getStore().size();
     }
-}
 
+    /**
+     * Retorna quantas mensagens foram descartadas por a GUI não acompanhar o volume de logs.
+     */
+    public long getDroppedCount() {
+        return buffer.getDropped();
+    }
+
+    /**
+     * Desenha as células com a cor do nível da linha e apenas a primeira linha de
+     * mensagens com várias linhas.
+     */
+    private final class LogCellRenderer extends DefaultTableCellRenderer {
+
+        private final Map<String, Color> colors = new HashMap<>();
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            Object text = value;
+            if (column == LogTableModel.COLUMN_MESSAGE && value instanceof String) {
+                String message = (String) value;
+                int newline = message.indexOf('\n');
+                if (newline >= 0) {
+                    text = message.substring(0, newline) + " …";
+                }
+            }
+            super.getTableCellRendererComponent(table, text, isSelected, false, row, column);
+            String level = model.getStore().getLevel(model.getSequence(row));
+            setForeground(colors.computeIfAbsent(level, l -> Color.decode(LogMessage.colorOf(l))));
+            if (!isSelected) {
+                setBackground(BACKGROUND_COLOR);
+            }
+            return this;
+        }
+    }
+}
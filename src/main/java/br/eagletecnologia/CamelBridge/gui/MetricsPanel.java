@@ -0,0 +1,196 @@
+package br.eagletecnologia.CamelBridge.gui;
+
+import br.eagletecnologia.CamelBridge.metrics.HistogramSnapshot;
+import br.eagletecnologia.CamelBridge.metrics.MetricsSnapshot;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Painel com a vazão e a latência de cada rota e de cada etapa das rotas.
+ *
+ * Recebe a cada segundo a leitura acumulada das métricas ({@link #update(List)}) e
+ * exibe os valores da janela dos últimos {@value #WINDOW_SECONDS} segundos: mensagens e
+ * registros por segundo, percentis de latência e taxa de erros. As execuções em
+ * andamento e os registros da última execução são os atuais.
+ */
+public class MetricsPanel extends JPanel {
+
+    /** Duração da janela usada para taxas e percentis. */
+    static final int WINDOW_SECONDS = 10;
+
+    private static final Font ROUTE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 12);
+    private static final Font STEP_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+
+    private final MetricsTableModel model = new MetricsTableModel();
+
+    /** Leituras anteriores, da mais antiga para a mais recente. */
+    private final Deque<Reading> history = new ArrayDeque<>();
+
+    public MetricsPanel() {
+        initializeComponents();
+    }
+
+    private void initializeComponents() {
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.setRowHeight(22);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.getColumnModel().getColumn(0).setPreferredWidth(340);
+        DefaultTableCellRenderer renderer = new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                           boolean hasFocus, int row, int column) {
+                super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                setFont(model.isRoute(row) ? ROUTE_FONT : STEP_FONT);
+                setHorizontalAlignment(column == 0 ? LEFT : RIGHT);
+                return this;
+            }
+        };
+        table.setDefaultRenderer(Object.class, renderer);
+
+        JLabel hint = new JLabel("Valores dos últimos " + WINDOW_SECONDS
+            + " segundos. Nas rotas, a latência é a duração de cada execução; nas etapas, de cada mensagem.");
+        hint.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+        hint.setBorder(BorderFactory.createEmptyBorder(4, 6, 4, 6));
+
+        setLayout(new BorderLayout());
+        add(hint, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+    }
+
+    /**
+     * Atualiza o painel com uma nova leitura acumulada das métricas. Executado na EDT.
+     */
+    public void update(List<MetricsSnapshot> snapshots) {
+        long now = System.nanoTime();
+        Reading current = new Reading(now, snapshots);
+        history.addLast(current);
+        while (history.size() > 1 && now - history.peekFirst().nanos > WINDOW_SECONDS * 1_000_000_000L) {
+            history.removeFirst();
+        }
+        Reading oldest = history.peekFirst();
+
+        List<Row> rows = new ArrayList<>(snapshots.size());
+        for (MetricsSnapshot snapshot : snapshots) {
+            MetricsSnapshot earlier = oldest == current ? null : oldest.byKey.get(snapshot.getKey());
+            double seconds = (now - oldest.nanos) / 1e9;
+            rows.add(new Row(earlier == null ? snapshot : snapshot.minus(earlier), earlier == null ? 0 : seconds));
+        }
+        model.setRows(rows);
+    }
+
+    private static final class Reading {
+        final long nanos;
+        final Map<String, MetricsSnapshot> byKey = new HashMap<>();
+
+        Reading(long nanos, List<MetricsSnapshot> snapshots) {
+            this.nanos = nanos;
+            for (MetricsSnapshot snapshot : snapshots) {
+                byKey.put(snapshot.getKey(), snapshot);
+            }
+        }
+    }
+
+    /**
+     * Valores da janela de uma rota ou etapa.
+     */
+    private static final class Row {
+        final MetricsSnapshot window;
+        final double seconds;
+
+        Row(MetricsSnapshot window, double seconds) {
+            this.window = window;
+            this.seconds = seconds;
+        }
+    }
+
+    private static final class MetricsTableModel extends AbstractTableModel {
+
+        private static final String[] COLUMNS = {
+            "Rota / Etapa", "Mensagens/s", "Registros/s", "Registros/execução",
+            "p50 (ms)", "p95 (ms)", "p99 (ms)", "Em andamento", "Erros (%)"
+        };
+
+        private List<Row> rows = new ArrayList<>();
+
+        void setRows(List<Row> rows) {
+            boolean sameShape = !rows.isEmpty() && rows.size() == this.rows.size();
+            this.rows = rows;
+            if (sameShape) {
+                fireTableRowsUpdated(0, rows.size() - 1);
+            } else {
+                fireTableDataChanged();
+            }
+        }
+
+        boolean isRoute(int row) {
+            return rows.get(row).window.isRoute();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int column) {
+            Row row = rows.get(rowIndex);
+            MetricsSnapshot window = row.window;
+            HistogramSnapshot latency = window.getLatency();
+            long executions = window.getCompleted() + window.getFailed();
+            switch (column) {
+                case 0:
+                    return window.isRoute() ? window.getRouteId() : "    " + window.getLabel();
+                case 1:
+                    return rate(executions, row.seconds);
+                case 2:
+                    return window.isRoute() ? rate(window.getRecords(), row.seconds) : "";
+                case 3:
+                    // Média da janela; sem execuções na janela, a última execução
+                    if (!window.isRoute() || window.getLastRunRecords() < 0) {
+                        return "";
+                    }
+                    return executions > 0 && row.seconds > 0
+                        ? String.format("%.1f", (double) window.getRecords() / executions)
+                        : String.valueOf(window.getLastRunRecords());
+                case 4:
+                    return millis(latency, 50);
+                case 5:
+                    return millis(latency, 95);
+                case 6:
+                    return millis(latency, 99);
+                case 7:
+                    return String.valueOf(window.getInflight());
+                default:
+                    return executions == 0 ? "--" : String.format("%.1f", 100.0 * window.getFailed() / executions);
+            }
+        }
+
+        private static String rate(long count, double seconds) {
+            return seconds <= 0 ? "--" : String.format("%.1f", count / seconds);
+        }
+
+        private static String millis(HistogramSnapshot latency, double percentile) {
+            return latency.getCount() == 0 ? "--" : String.format("%.1f", latency.getPercentile(percentile) / 1e6);
+        }
+    }
+}
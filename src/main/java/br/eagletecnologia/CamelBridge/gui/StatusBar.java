@@ -11,6 +11,9 @@ public class StatusBar extends JPanel {
     private JLabel lastSyncLabel;
     private JLabel statusLabel;
     private JLabel logCountLabel;
+    private JLabel deliveryLabel;
+    private JLabel executionLabel;
+    private JLabel deadLetterLabel;
     
     private static final Color BACKGROUND_COLOR = new Color(240, 240, 240);
     private static final Color BORDER_COLOR = new Color(200, 200, 200);
@@ -24,12 +27,18 @@ public class StatusBar extends JPanel {
         lastSyncLabel = new JLabel("Última sincronização: --");
         statusLabel = new JLabel("Status: Iniciando...");
         logCountLabel = new JLabel("Logs: 0");
+        deliveryLabel = new JLabel("Envio: --");
+        executionLabel = new JLabel("Execuções: --");
+        deadLetterLabel = new JLabel("Dead letters: --");
         
         // Estilizar labels
         Font labelFont = new Font(Font.SANS_SERIF, Font.PLAIN, 11);
         lastSyncLabel.setFont(labelFont);
         statusLabel.setFont(labelFont);
         logCountLabel.setFont(labelFont);
+        deliveryLabel.setFont(labelFont);
+        executionLabel.setFont(labelFont);
+        deadLetterLabel.setFont(labelFont);
     }
     
     private void setupLayout() {
@@ -50,6 +59,12 @@ public class StatusBar extends JPanel {
         // Painel direito com informações secundárias
         JPanel rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         rightPanel.setBackground(BACKGROUND_COLOR);
+        rightPanel.add(executionLabel);
+        rightPanel.add(Box.createHorizontalStrut(20));
+        rightPanel.add(deliveryLabel);
+        rightPanel.add(Box.createHorizontalStrut(20));
+        rightPanel.add(deadLetterLabel);
+        rightPanel.add(Box.createHorizontalStrut(20));
         rightPanel.add(logCountLabel);
         
         add(leftPanel, BorderLayout.WEST);
@@ -74,12 +89,50 @@ public class StatusBar extends JPanel {
         });
     }
     
+    /**
+     * Atualiza o limite de envio, requisições em andamento e fila por host de destino.
+     */
+    public void updateDelivery(String delivery) {
+        SwingUtilities.invokeLater(() -> {
+            deliveryLabel.setText("Envio: " + delivery);
+        });
+    }
+    
+    /**
+     * Atualiza a quantidade de registros pendentes no dead letter (destacada em
+     * vermelho quando há pendências).
+     */
+    public void updateDeadLetters(long pending) {
+        SwingUtilities.invokeLater(() -> {
+            deadLetterLabel.setText("Dead letters: " + (pending < 0 ? "--" : pending));
+            deadLetterLabel.setForeground(pending > 0 ? new Color(180, 0, 0) : statusLabel.getForeground());
+        });
+    }
+    
+    /**
+     * Atualiza a duração das execuções e os disparos ignorados das rotas agendadas.
+     */
+    public void updateExecution(String execution) {
+        SwingUtilities.invokeLater(() -> {
+            executionLabel.setText("Execuções: " + execution);
+        });
+    }
+    
     /**
      * Atualiza o contador de logs.
      */
     public void updateLogCount(int count) {
+        updateLogCount(count, 0);
+    }
+    
+    /**
+     * Atualiza o contador de logs, indicando também os logs descartados pela GUI.
+     */
+    public void updateLogCount(int count, long dropped) {
         SwingUtilities.invokeLater(() -> {
-            logCountLabel.setText("Logs: " + count);
+            logCountLabel.setText(dropped > 0
+                ? "Logs: " + count + " (descartados: " + dropped + ")"
+                : "Logs: " + count);
         });
     }
 }
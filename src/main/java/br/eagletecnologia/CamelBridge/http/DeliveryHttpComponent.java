@@ -0,0 +1,38 @@
+package br.eagletecnologia.CamelBridge.http;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.support.DefaultComponent;
+import org.apache.camel.util.URISupport;
+
+import java.util.Map;
+
+/**
+ * Componente Camel de envio HTTP pelos transportes compartilhados por host
+ * ({@link HttpTransportRegistry}).
+ *
+ * Registrado em AppConfiguration com o nome "delivery" e usado nas rotas no lugar da URL
+ * http(s) do componente http do Camel:
+ * <pre>
+ * delivery:https://api.exemplo.com/usuarios?httpMethod=POST
+ * </pre>
+ *
+ * Os parâmetros que não são opções do endpoint continuam na query string da URL de destino.
+ *
+ * @see DeliveryHttpEndpoint
+ */
+public class DeliveryHttpComponent extends DefaultComponent {
+
+    @Override
+    protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
+        DeliveryHttpEndpoint endpoint = new DeliveryHttpEndpoint(uri, this);
+        setProperties(endpoint, parameters);
+
+        String target = remaining;
+        if (!parameters.isEmpty()) {
+            target = target + (target.contains("?") ? "&" : "?") + URISupport.createQueryString(parameters);
+            parameters.clear();
+        }
+        endpoint.setTargetUrl(target);
+        return endpoint;
+    }
+}
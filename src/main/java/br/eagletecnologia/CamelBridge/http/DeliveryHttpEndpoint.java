@@ -0,0 +1,115 @@
+package br.eagletecnologia.CamelBridge.http;
+
+import org.apache.camel.Consumer;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.support.DefaultEndpoint;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Endpoint de envio HTTP para uma URL de destino.
+ *
+ * O producer envia o corpo da mensagem pelo transporte do host da URL
+ * ({@link HttpTransportRegistry}), com o mesmo contrato do componente http do Camel usado
+ * antes pelas rotas de envio: os cabeçalhos da mensagem (exceto os Camel* e os de
+ * protocolo) vão como cabeçalhos HTTP, o Content-Type vem do cabeçalho Content-Type, a
+ * resposta vira o corpo da mensagem com o status em CamelHttpResponseCode, e uma resposta
+ * fora da faixa 2xx lança HttpOperationFailedException (com os cabeçalhos da resposta,
+ * incluindo o Retry-After usado pelo bulk).
+ *
+ * Opções:
+ * <ul>
+ *   <li>URL de destino (caminho da URI): http:// ou https://</li>
+ *   <li>httpMethod: método HTTP (padrão: POST); o cabeçalho CamelHttpMethod tem prioridade</li>
+ *   <li>throwExceptionOnFailure: lança exceção nas respostas fora da faixa 2xx (padrão: true)</li>
+ *   <li>transports: {@link HttpTransportRegistry} usado (padrão: o registrado no contexto,
+ *       #httpTransports)</li>
+ * </ul>
+ *
+ * As opções de conexão (pool, keep-alive, HTTP/2, gzip, timeouts) são do host, e não do
+ * endpoint: ficam em delivery.http.* ({@link HttpTransportOptions}), para que todas as rotas
+ * que enviam ao mesmo host usem o mesmo pool.
+ */
+public class DeliveryHttpEndpoint extends DefaultEndpoint {
+
+    private String targetUrl;
+    private URI targetUri;
+    private String httpMethod = "POST";
+    private boolean throwExceptionOnFailure = true;
+    private HttpTransportRegistry transports;
+
+    public DeliveryHttpEndpoint(String endpointUri, DeliveryHttpComponent component) {
+        super(endpointUri, component);
+    }
+
+    @Override
+    public Producer createProducer() throws Exception {
+        return new DeliveryHttpProducer(this);
+    }
+
+    @Override
+    public Consumer createConsumer(Processor processor) throws Exception {
+        throw new UnsupportedOperationException("O endpoint delivery suporta apenas producer: " + getEndpointUri());
+    }
+
+    @Override
+    protected void doInit() throws Exception {
+        super.doInit();
+        if (targetUrl == null || targetUrl.isBlank()) {
+            throw new IllegalArgumentException("A URL de destino é obrigatória: " + getEndpointUri());
+        }
+        targetUri = URI.create(targetUrl.trim());
+        String scheme = targetUri.getScheme() == null ? "" : targetUri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            throw new IllegalArgumentException("A URL de destino deve ser http:// ou https://: " + getEndpointUri());
+        }
+        HttpTransportRegistry.host(targetUri);
+        if (transports == null) {
+            transports = getCamelContext().getRegistry().findSingleByType(HttpTransportRegistry.class);
+            if (transports == null) {
+                throw new IllegalStateException("Transportes HTTP (HttpTransportRegistry) não registrados");
+            }
+        }
+    }
+
+    /**
+     * URL de destino já validada.
+     */
+    URI getTargetUri() {
+        return targetUri;
+    }
+
+    public String getTargetUrl() {
+        return targetUrl;
+    }
+
+    public void setTargetUrl(String targetUrl) {
+        this.targetUrl = targetUrl;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public void setHttpMethod(String httpMethod) {
+        this.httpMethod = httpMethod;
+    }
+
+    public boolean isThrowExceptionOnFailure() {
+        return throwExceptionOnFailure;
+    }
+
+    public void setThrowExceptionOnFailure(boolean throwExceptionOnFailure) {
+        this.throwExceptionOnFailure = throwExceptionOnFailure;
+    }
+
+    public HttpTransportRegistry getTransports() {
+        return transports;
+    }
+
+    public void setTransports(HttpTransportRegistry transports) {
+        this.transports = transports;
+    }
+}
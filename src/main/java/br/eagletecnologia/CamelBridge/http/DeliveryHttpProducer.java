@@ -0,0 +1,83 @@
+package br.eagletecnologia.CamelBridge.http;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.http.common.HttpHeaderFilterStrategy;
+import org.apache.camel.spi.HeaderFilterStrategy;
+import org.apache.camel.support.DefaultProducer;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Producer do componente delivery: envia o corpo da mensagem para a URL do endpoint pelo
+ * transporte compartilhado do host.
+ *
+ * @see DeliveryHttpEndpoint
+ */
+public class DeliveryHttpProducer extends DefaultProducer {
+
+    /**
+     * Mesmo filtro de cabeçalhos do componente http do Camel.
+     */
+    private static final HeaderFilterStrategy HEADER_FILTER = new HttpHeaderFilterStrategy();
+
+    public DeliveryHttpProducer(DeliveryHttpEndpoint endpoint) {
+        super(endpoint);
+    }
+
+    @Override
+    public DeliveryHttpEndpoint getEndpoint() {
+        return (DeliveryHttpEndpoint) super.getEndpoint();
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        DeliveryHttpEndpoint endpoint = getEndpoint();
+        URI uri = endpoint.getTargetUri();
+        Message in = exchange.getIn();
+        String method = in.getHeader(Exchange.HTTP_METHOD, endpoint.getHttpMethod(), String.class)
+            .toUpperCase(Locale.ROOT);
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> header : in.getHeaders().entrySet()) {
+            Object value = header.getValue();
+            if (value != null && !HEADER_FILTER.applyFilterToCamelHeaders(header.getKey(), value, exchange)) {
+                String text = exchange.getContext().getTypeConverter().tryConvertTo(String.class, exchange, value);
+                if (text != null) {
+                    headers.put(header.getKey(), text);
+                }
+            }
+        }
+        String contentType = in.getHeader(Exchange.CONTENT_TYPE, String.class);
+        if (contentType != null) {
+            headers.put(Exchange.CONTENT_TYPE, contentType);
+        }
+        byte[] body = in.getBody(byte[].class);
+
+        HttpTransport.Response response = endpoint.getTransports().get(uri).send(method, uri, headers, body);
+
+        int status = response.getStatus();
+        if ((status < 200 || status > 299) && endpoint.isThrowExceptionOnFailure()) {
+            throw new HttpOperationFailedException(uri.toString(), status, response.getReason(),
+                response.getHeader("Location"), response.getHeaders(), response.getBodyAsString());
+        }
+
+        Message out = exchange.getMessage();
+        response.getHeaders().forEach((name, value) -> {
+            if (!HEADER_FILTER.applyFilterToExternalHeaders(name, value, exchange)) {
+                out.setHeader(name, value);
+            }
+        });
+        out.setHeader(Exchange.HTTP_RESPONSE_CODE, status);
+        out.setHeader(Exchange.HTTP_RESPONSE_TEXT, response.getReason());
+        String responseType = response.getHeader(Exchange.CONTENT_TYPE);
+        if (responseType != null) {
+            out.setHeader(Exchange.CONTENT_TYPE, responseType);
+        }
+        out.setBody(response.getBody());
+    }
+}
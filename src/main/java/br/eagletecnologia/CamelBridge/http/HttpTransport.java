@@ -0,0 +1,238 @@
+package br.eagletecnologia.CamelBridge.http;
+
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Transporte HTTP de um host de destino, compartilhado por todas as rotas que enviam para
+ * ele ({@link HttpTransportRegistry}).
+ *
+ * Comprime os corpos a partir de gzipThreshold bytes e conta as requisições, as respostas
+ * por protocolo e os bytes enviados. As implementações mantêm as conexões do host:
+ * {@link PooledHttpTransport} (HTTP/1.1, pool de conexões) e
+ * {@link MultiplexedHttpTransport} (HTTP/2, uma conexão multiplexada).
+ */
+public abstract class HttpTransport implements Closeable {
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    private final String host;
+    private final HttpTransportOptions options;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder gzipped = new LongAdder();
+    private final LongAdder bodyBytes = new LongAdder();
+    private final LongAdder sentBytes = new LongAdder();
+    private final Map<String, LongAdder> responses = new ConcurrentHashMap<>();
+
+    protected HttpTransport(String host, HttpTransportOptions options) {
+        this.host = host;
+        this.options = options;
+    }
+
+    /**
+     * Envia uma requisição e lê a resposta inteira.
+     *
+     * @param method Método HTTP (ex: POST)
+     * @param uri URL de destino, deste host
+     * @param headers Cabeçalhos da requisição (sem Content-Length, Host e Connection)
+     * @param body Corpo da requisição (vazio para nenhum)
+     * @return resposta recebida, com qualquer código de status
+     * @throws IOException se a conexão falhar ou a resposta não chegar no readTimeout
+     */
+    public final Response send(String method, URI uri, Map<String, String> headers, byte[] body) throws IOException {
+        byte[] payload = body == null ? new byte[0] : body;
+        Map<String, String> requestHeaders = headers;
+        bodyBytes.add(payload.length);
+        if (options.isGzip() && payload.length > 0 && payload.length >= options.getGzipThreshold()
+                && !containsHeader(headers, CONTENT_ENCODING)) {
+            requestHeaders = new LinkedHashMap<>(headers);
+            requestHeaders.put(CONTENT_ENCODING, "gzip");
+            payload = gzip(payload);
+            gzipped.increment();
+        }
+        sentBytes.add(payload.length);
+        requests.increment();
+        try {
+            Response response = execute(method, uri, requestHeaders, payload);
+            responses.computeIfAbsent(response.getProtocol(), protocol -> new LongAdder()).increment();
+            return response;
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Envia a requisição, com o corpo já comprimido quando for o caso.
+     */
+    protected abstract Response execute(String method, URI uri, Map<String, String> headers, byte[] body)
+        throws IOException;
+
+    private static boolean containsHeader(Map<String, String> headers, String name) {
+        return headers.keySet().stream().anyMatch(name::equalsIgnoreCase);
+    }
+
+    static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed, 8192)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Host (ou host:porta) atendido por este transporte.
+     */
+    public String getHost() {
+        return host;
+    }
+
+    public HttpTransportOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Requisições enviadas, com ou sem resposta.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Requisições sem resposta (falha de conexão, timeout).
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Requisições cujo corpo foi comprimido com gzip.
+     */
+    public long getGzipped() {
+        return gzipped.sum();
+    }
+
+    /**
+     * Bytes dos corpos das requisições antes da compressão.
+     */
+    public long getBodyBytes() {
+        return bodyBytes.sum();
+    }
+
+    /**
+     * Bytes dos corpos efetivamente enviados (depois da compressão).
+     */
+    public long getSentBytes() {
+        return sentBytes.sum();
+    }
+
+    /**
+     * Respostas recebidas por protocolo (HTTP/1.1, HTTP/2).
+     */
+    public Map<String, Long> getResponses() {
+        Map<String, Long> counts = new TreeMap<>();
+        responses.forEach((protocol, count) -> counts.put(protocol, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Conexões abertas com o host desde o início, ou -1 quando o transporte não as expõe.
+     * Comparado com {@link #getRequests()}, indica o reaproveitamento das conexões.
+     */
+    public abstract long getConnectionsOpened();
+
+    /**
+     * Conexões (HTTP/1.1) ou requisições multiplexadas (HTTP/2) em uso.
+     */
+    public abstract int getLeased();
+
+    /**
+     * Conexões abertas e ociosas no pool, ou -1 quando o transporte não as expõe.
+     */
+    public abstract int getAvailable();
+
+    /**
+     * Requisições aguardando uma conexão (ou um fluxo HTTP/2) livre.
+     */
+    public abstract int getPending();
+
+    @Override
+    public String toString() {
+        return host + " (" + options + ")";
+    }
+
+    /**
+     * Resposta HTTP lida por inteiro.
+     */
+    public static final class Response {
+
+        private final int status;
+        private final String reason;
+        private final Map<String, String> headers;
+        private final byte[] body;
+        private final String protocol;
+
+        public Response(int status, String reason, Map<String, String> headers, byte[] body, String protocol) {
+            this.status = status;
+            // Sem o texto do status (HTTP/2 não o transmite), usa o padrão do código
+            this.reason = reason == null || reason.isBlank()
+                ? Objects.requireNonNullElse(EnglishReasonPhraseCatalog.INSTANCE.getReason(status, null), "")
+                : reason;
+            Map<String, String> sorted = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            sorted.putAll(headers);
+            this.headers = Collections.unmodifiableMap(sorted);
+            this.body = body == null ? new byte[0] : body;
+            this.protocol = protocol;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Cabeçalhos da resposta, sem distinção de maiúsculas nos nomes; um cabeçalho
+         * repetido tem os valores separados por vírgula.
+         */
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public String getHeader(String name) {
+            return headers.get(name);
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getBodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Protocolo usado na resposta (HTTP/1.1 ou HTTP/2).
+         */
+        public String getProtocol() {
+            return protocol;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package br.eagletecnologia.CamelBridge.http;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Configuração do transporte HTTP de um host de destino.
+ *
+ * Os valores padrão vêm das propriedades {@code delivery.http.<opção>} e podem ser
+ * substituídos para um host com {@code delivery.http.host.<host>.<opção>}, onde o host é
+ * o da URL de destino, com a porta quando ela for informada na URL (ex:
+ * {@code delivery.http.host.api.exemplo.com.http2 = true}; no application.properties o
+ * ':' da porta deve ser escrito como '\:'). Uma opção definida para {@code host:porta}
+ * vale sobre a definida apenas para o host.
+ *
+ * Opções:
+ * <ul>
+ *   <li>maxConnections: conexões abertas com o host (HTTP/1.1) ou requisições simultâneas
+ *       na conexão multiplexada (HTTP/2)</li>
+ *   <li>keepAlive: reaproveita as conexões entre requisições</li>
+ *   <li>idleTimeout: tempo (ms) que uma conexão pode ficar ociosa antes de ser fechada; é
+ *       também o keep-alive usado quando a resposta não traz o cabeçalho Keep-Alive</li>
+ *   <li>http2: usa HTTP/2, com todas as requisições multiplexadas em uma conexão</li>
+ *   <li>gzip / gzipThreshold: comprime com gzip os corpos com gzipThreshold bytes ou mais
+ *       (Content-Encoding: gzip)</li>
+ *   <li>connectTimeout / readTimeout: tempo máximo (ms) para conectar e para esperar a
+ *       resposta (0 = sem limite)</li>
+ * </ul>
+ */
+public final class HttpTransportOptions {
+
+    /**
+     * Prefixo das propriedades do transporte.
+     */
+    public static final String PREFIX = "delivery.http.";
+
+    /**
+     * Prefixo das propriedades específicas de um host.
+     */
+    public static final String HOST_PREFIX = PREFIX + "host.";
+
+    private static final Set<String> OPTIONS = Set.of(
+        "maxConnections", "keepAlive", "idleTimeout", "http2", "gzip", "gzipThreshold", "connectTimeout", "readTimeout");
+
+    private final int maxConnections;
+    private final boolean keepAlive;
+    private final long idleTimeout;
+    private final boolean http2;
+    private final boolean gzip;
+    private final int gzipThreshold;
+    private final long connectTimeout;
+    private final long readTimeout;
+
+    /**
+     * @throws IllegalArgumentException se um valor for inválido
+     */
+    public HttpTransportOptions(int maxConnections, boolean keepAlive, long idleTimeout, boolean http2,
+                                boolean gzip, int gzipThreshold, long connectTimeout, long readTimeout) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections deve ser maior que zero: " + maxConnections);
+        }
+        if (idleTimeout <= 0) {
+            throw new IllegalArgumentException("idleTimeout deve ser maior que zero: " + idleTimeout);
+        }
+        if (gzipThreshold < 0 || connectTimeout < 0 || readTimeout < 0) {
+            throw new IllegalArgumentException("gzipThreshold, connectTimeout e readTimeout não podem ser negativos");
+        }
+        this.maxConnections = maxConnections;
+        this.keepAlive = keepAlive;
+        this.idleTimeout = idleTimeout;
+        this.http2 = http2;
+        this.gzip = gzip;
+        this.gzipThreshold = gzipThreshold;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Lê as opções por host das propriedades {@code delivery.http.host.<host>.<opção>}.
+     *
+     * @param properties Propriedades da aplicação (apenas as com o prefixo são usadas)
+     * @return opções de cada host, pelo host (ou host:porta)
+     * @throws IllegalArgumentException se uma opção for desconhecida
+     */
+    public static Map<String, Map<String, String>> parseHosts(Properties properties) {
+        Map<String, Map<String, String>> hosts = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(HOST_PREFIX)) {
+                continue;
+            }
+            // O host pode conter pontos: a opção é o último segmento
+            String rest = key.substring(HOST_PREFIX.length());
+            int dot = rest.lastIndexOf('.');
+            if (dot <= 0 || !OPTIONS.contains(rest.substring(dot + 1))) {
+                throw new IllegalArgumentException("Propriedade de transporte HTTP desconhecida: " + key
+                    + " (opções: " + OPTIONS.stream().sorted().collect(Collectors.joining(", ")) + ")");
+            }
+            String value = properties.getProperty(key).trim();
+            if (!value.isEmpty()) {
+                hosts.computeIfAbsent(rest.substring(0, dot).toLowerCase(Locale.ROOT), host -> new TreeMap<>())
+                    .put(rest.substring(dot + 1), value);
+            }
+        }
+        return hosts;
+    }
+
+    /**
+     * Cópia destas opções com as substituições informadas (opção -> valor).
+     *
+     * @param overrides Opções a substituir (pode ser null)
+     * @param source Origem das opções, usada nas mensagens de erro
+     * @throws IllegalArgumentException se um valor for inválido
+     */
+    public HttpTransportOptions with(Map<String, String> overrides, String source) {
+        if (overrides == null || overrides.isEmpty()) {
+            return this;
+        }
+        try {
+            return new HttpTransportOptions(
+                (int) number(overrides, "maxConnections", maxConnections),
+                bool(overrides, "keepAlive", keepAlive),
+                number(overrides, "idleTimeout", idleTimeout),
+                bool(overrides, "http2", http2),
+                bool(overrides, "gzip", gzip),
+                (int) number(overrides, "gzipThreshold", gzipThreshold),
+                number(overrides, "connectTimeout", connectTimeout),
+                number(overrides, "readTimeout", readTimeout));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(source + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static long number(Map<String, String> values, String option, long defaultValue) {
+        String value = values.get(option);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " deve ser um número: " + value, e);
+        }
+    }
+
+    private static boolean bool(Map<String, String> values, String option, boolean defaultValue) {
+        String value = values.get(option);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public int getGzipThreshold() {
+        return gzipThreshold;
+    }
+
+    public long getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public long getReadTimeout() {
+        return readTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return (http2 ? "HTTP/2" : "HTTP/1.1")
+            + ", maxConnections=" + maxConnections
+            + ", keepAlive=" + (keepAlive ? idleTimeout + " ms" : "não")
+            + ", gzip=" + (gzip ? "a partir de " + gzipThreshold + " bytes" : "não")
+            + ", connectTimeout=" + connectTimeout + " ms"
+            + ", readTimeout=" + readTimeout + " ms";
+    }
+}
@@ -0,0 +1,130 @@
+package br.eagletecnologia.CamelBridge.http;
+
+import org.apache.camel.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Transportes HTTP de entrega, um por host de destino, compartilhados por todas as rotas
+ * (componente delivery: das rotas YAML e rotas geradas de sync.table.*).
+ *
+ * O transporte de um host é criado no primeiro envio para ele, com as opções padrão
+ * (delivery.http.*) mais as do host (delivery.http.host.&lt;host&gt;.*), e fechado junto
+ * com o CamelContext. A chave é o host da URL, com a porta quando ela for informada, no
+ * mesmo formato do limite por host do deliveryExecutor.
+ */
+public class HttpTransportRegistry implements Service {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpTransportRegistry.class);
+
+    private final HttpTransportOptions defaults;
+    private final Map<String, Map<String, String>> hostOptions;
+    private final ConcurrentMap<String, HttpTransport> transports = new ConcurrentHashMap<>();
+
+    private volatile boolean stopped;
+
+    /**
+     * @param defaults Opções dos hosts sem configuração própria
+     * @param hostOptions Opções por host ({@link HttpTransportOptions#parseHosts})
+     * @throws IllegalArgumentException se as opções de um host forem inválidas
+     */
+    public HttpTransportRegistry(HttpTransportOptions defaults, Map<String, Map<String, String>> hostOptions) {
+        this.defaults = defaults;
+        this.hostOptions = hostOptions;
+        // Valida as opções de todos os hosts já na inicialização
+        hostOptions.keySet().forEach(this::options);
+    }
+
+    /**
+     * Chave do host de uma URL: host ou host:porta, em minúsculas.
+     *
+     * @throws IllegalArgumentException se a URL não tiver host
+     */
+    public static String host(URI uri) {
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("URL de entrega sem host: " + uri);
+        }
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        return uri.getPort() > 0 ? host + ":" + uri.getPort() : host;
+    }
+
+    /**
+     * Transporte do host da URL, criado no primeiro uso.
+     *
+     * @throws IllegalStateException se o registro já foi parado
+     */
+    public HttpTransport get(URI uri) {
+        String host = host(uri);
+        HttpTransport transport = transports.get(host);
+        if (transport != null) {
+            return transport;
+        }
+        if (stopped) {
+            throw new IllegalStateException("Transportes HTTP finalizados; envio para " + host + " recusado");
+        }
+        return transports.computeIfAbsent(host, this::create);
+    }
+
+    private HttpTransport create(String host) {
+        HttpTransportOptions options = options(host);
+        HttpTransport transport = options.isHttp2()
+            ? new MultiplexedHttpTransport(host, options)
+            : new PooledHttpTransport(host, options);
+        LOG.info("Transporte HTTP para {} criado: {}", host, options);
+        return transport;
+    }
+
+    /**
+     * Opções de um host: as padrão, as do host sem porta e as de host:porta, nesta ordem.
+     */
+    HttpTransportOptions options(String host) {
+        HttpTransportOptions options = defaults;
+        int colon = host.lastIndexOf(':');
+        if (colon > 0) {
+            options = options.with(hostOptions.get(host.substring(0, colon)),
+                HttpTransportOptions.HOST_PREFIX + host.substring(0, colon));
+        }
+        return options.with(hostOptions.get(host), HttpTransportOptions.HOST_PREFIX + host);
+    }
+
+    /**
+     * Transportes criados até o momento, ordenados pelo host.
+     */
+    public List<HttpTransport> getTransports() {
+        List<HttpTransport> list = new ArrayList<>(transports.values());
+        list.sort(Comparator.comparing(HttpTransport::getHost));
+        return list;
+    }
+
+    public HttpTransportOptions getDefaults() {
+        return defaults;
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        for (HttpTransport transport : getTransports()) {
+            try {
+                transport.close();
+            } catch (IOException e) {
+                LOG.warn("Erro ao fechar o transporte HTTP de {}: {}", transport.getHost(), e.getMessage());
+            }
+        }
+        transports.clear();
+    }
+}
@@ -0,0 +1,148 @@
+package br.eagletecnologia.CamelBridge.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Transporte HTTP/2 com as requisições ao host multiplexadas em uma única conexão
+ * (cliente HTTP da JDK, java.net.http). Um servidor sem suporte a HTTP/2 é atendido em
+ * HTTP/1.1 pelo mesmo cliente, e a métrica de respostas por protocolo mostra o que foi
+ * negociado.
+ *
+ * No máximo maxConnections requisições ficam em andamento ao mesmo tempo na conexão; as
+ * demais esperam até connectTimeout ms por um fluxo livre. A conexão é mantida pelo
+ * cliente da JDK, que não expõe as conexões abertas nem permite ajustar o keep-alive por
+ * host (propriedade de sistema jdk.httpclient.keepalive.timeout): keepAlive e idleTimeout
+ * valem apenas para o transporte HTTP/1.1 ({@link PooledHttpTransport}).
+ */
+public class MultiplexedHttpTransport extends HttpTransport {
+
+    /**
+     * Cabeçalhos que o cliente da JDK define e não aceita nas requisições.
+     */
+    private static final Set<String> RESTRICTED = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient client;
+    private final Semaphore streams;
+
+    public MultiplexedHttpTransport(String host, HttpTransportOptions options) {
+        super(host, options);
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NEVER);
+        if (options.getConnectTimeout() > 0) {
+            builder.connectTimeout(Duration.ofMillis(options.getConnectTimeout()));
+        }
+        client = builder.build();
+        streams = new Semaphore(options.getMaxConnections(), true);
+    }
+
+    @Override
+    protected Response execute(String method, URI uri, Map<String, String> headers, byte[] body) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+            .method(method, body.length > 0
+                ? HttpRequest.BodyPublishers.ofByteArray(body) : HttpRequest.BodyPublishers.noBody());
+        if (getOptions().getReadTimeout() > 0) {
+            request.timeout(Duration.ofMillis(getOptions().getReadTimeout()));
+        }
+        headers.forEach((name, value) -> {
+            if (!RESTRICTED.contains(name.toLowerCase(Locale.ROOT))) {
+                request.header(name, value);
+            }
+        });
+        request.header("Accept-Encoding", "gzip");
+
+        try {
+            long wait = getOptions().getConnectTimeout() > 0 ? getOptions().getConnectTimeout() : Long.MAX_VALUE;
+            if (!streams.tryAcquire(wait, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Tempo esgotado aguardando um fluxo HTTP/2 livre para " + getHost()
+                    + " (maxConnections=" + getOptions().getMaxConnections() + ")");
+            }
+            HttpResponse<byte[]> response;
+            try {
+                response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            } finally {
+                streams.release();
+            }
+
+            Map<String, String> responseHeaders = new LinkedHashMap<>();
+            response.headers().map().forEach((name, values) -> {
+                if (!name.startsWith(":")) {
+                    responseHeaders.put(name, String.join(", ", values));
+                }
+            });
+            byte[] content = response.body();
+            if (response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent()) {
+                content = gunzip(content);
+                responseHeaders.keySet().removeIf(name ->
+                    name.equalsIgnoreCase("Content-Encoding") || name.equalsIgnoreCase("Content-Length"));
+            }
+            String protocol = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+            return new Response(response.statusCode(), null, responseHeaders, content, protocol);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Envio para " + uri + " interrompido");
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+    }
+
+    private static byte[] gunzip(byte[] content) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Não exposto pelo cliente HTTP da JDK.
+     */
+    @Override
+    public long getConnectionsOpened() {
+        return -1;
+    }
+
+    @Override
+    public int getLeased() {
+        return getOptions().getMaxConnections() - streams.availablePermits();
+    }
+
+    /**
+     * Não exposto pelo cliente HTTP da JDK.
+     */
+    @Override
+    public int getAvailable() {
+        return -1;
+    }
+
+    @Override
+    public int getPending() {
+        return streams.getQueueLength();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // O cliente da JDK só pode ser fechado a partir do Java 21; antes disso as conexões
+        // são fechadas quando ele é descartado
+        if (client instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) client).close();
+            } catch (Exception e) {
+                throw new IOException("Erro ao fechar o cliente HTTP/2 de " + getHost(), e);
+            }
+        }
+    }
+}
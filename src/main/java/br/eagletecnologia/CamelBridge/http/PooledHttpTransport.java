@@ -0,0 +1,187 @@
+package br.eagletecnologia.CamelBridge.http;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transporte HTTP/1.1 com um pool de conexões persistentes para o host (Apache
+ * HttpClient, a mesma biblioteca do componente http do Camel).
+ *
+ * Até maxConnections conexões ficam abertas com o host; uma requisição sem conexão livre
+ * espera no máximo connectTimeout ms por uma. Com keepAlive, as conexões são
+ * reaproveitadas pelo tempo pedido no cabeçalho Keep-Alive da resposta (limitado a
+ * idleTimeout) e uma thread do pool fecha as que ficam ociosas por mais de idleTimeout
+ * ms. Sem keepAlive, cada requisição abre e fecha a sua conexão.
+ *
+ * As conexões abertas são contadas na criação do socket, para a métrica de
+ * reaproveitamento.
+ */
+public class PooledHttpTransport extends HttpTransport {
+
+    /**
+     * Tempo (ms) ocioso a partir do qual uma conexão é validada antes de ser reaproveitada.
+     */
+    private static final int VALIDATE_AFTER_INACTIVITY = 2000;
+
+    private final LongAdder opened = new LongAdder();
+    private final PoolingHttpClientConnectionManager connections;
+    private final CloseableHttpClient client;
+
+    public PooledHttpTransport(String host, HttpTransportOptions options) {
+        super(host, options);
+        Registry<ConnectionSocketFactory> sockets = RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", new CountingSocketFactory(PlainConnectionSocketFactory.getSocketFactory(), opened))
+            .register("https", new CountingLayeredSocketFactory(SSLConnectionSocketFactory.getSystemSocketFactory(), opened))
+            .build();
+        connections = new PoolingHttpClientConnectionManager(sockets);
+        connections.setMaxTotal(options.getMaxConnections());
+        connections.setDefaultMaxPerRoute(options.getMaxConnections());
+        connections.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY);
+        connections.setDefaultSocketConfig(SocketConfig.custom()
+            .setSoTimeout((int) options.getReadTimeout())
+            .setTcpNoDelay(true)
+            .setSoKeepAlive(options.isKeepAlive())
+            .build());
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+            .setConnectionManager(connections)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectTimeout((int) options.getConnectTimeout())
+                .setConnectionRequestTimeout((int) options.getConnectTimeout())
+                .setSocketTimeout((int) options.getReadTimeout())
+                .build())
+            .disableCookieManagement()
+            .disableRedirectHandling()
+            .setUserAgent("CamelBridge");
+        if (options.isKeepAlive()) {
+            long idleTimeout = options.getIdleTimeout();
+            builder.setKeepAliveStrategy((response, context) -> {
+                long requested = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return requested > 0 ? Math.min(requested, idleTimeout) : idleTimeout;
+            });
+            builder.evictExpiredConnections();
+            builder.evictIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        } else {
+            builder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
+        }
+        client = builder.build();
+    }
+
+    @Override
+    protected Response execute(String method, URI uri, Map<String, String> headers, byte[] body) throws IOException {
+        RequestBuilder request = RequestBuilder.create(method).setUri(uri);
+        headers.forEach(request::addHeader);
+        if (body.length > 0) {
+            request.setEntity(new ByteArrayEntity(body));
+        }
+        try (CloseableHttpResponse response = client.execute(request.build())) {
+            // A resposta é lida por inteiro para que a conexão volte ao pool
+            byte[] content = response.getEntity() == null ? new byte[0] : EntityUtils.toByteArray(response.getEntity());
+            Map<String, String> responseHeaders = new LinkedHashMap<>();
+            for (Header header : response.getAllHeaders()) {
+                responseHeaders.merge(header.getName(), header.getValue(), (first, next) -> first + ", " + next);
+            }
+            return new Response(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase(),
+                responseHeaders, content, response.getProtocolVersion().toString());
+        }
+    }
+
+    @Override
+    public long getConnectionsOpened() {
+        return opened.sum();
+    }
+
+    @Override
+    public int getLeased() {
+        return connections.getTotalStats().getLeased();
+    }
+
+    @Override
+    public int getAvailable() {
+        return connections.getTotalStats().getAvailable();
+    }
+
+    @Override
+    public int getPending() {
+        return connections.getTotalStats().getPending();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Fecha também o pool de conexões e a thread que remove as conexões ociosas
+        client.close();
+    }
+
+    /**
+     * Fábrica de sockets que conta as conexões abertas.
+     */
+    private static class CountingSocketFactory implements ConnectionSocketFactory {
+
+        private final ConnectionSocketFactory delegate;
+        private final LongAdder opened;
+
+        private CountingSocketFactory(ConnectionSocketFactory delegate, LongAdder opened) {
+            this.delegate = delegate;
+            this.opened = opened;
+        }
+
+        @Override
+        public Socket createSocket(HttpContext context) throws IOException {
+            return delegate.createSocket(context);
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            Socket connected = delegate.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            opened.increment();
+            return connected;
+        }
+    }
+
+    /**
+     * Fábrica de sockets TLS que conta as conexões abertas.
+     */
+    private static final class CountingLayeredSocketFactory extends CountingSocketFactory
+            implements LayeredConnectionSocketFactory {
+
+        private final LayeredConnectionSocketFactory layered;
+
+        private CountingLayeredSocketFactory(LayeredConnectionSocketFactory delegate, LongAdder opened) {
+            super(delegate, opened);
+            this.layered = delegate;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            return layered.createLayeredSocket(socket, target, port, context);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package br.eagletecnologia.CamelBridge.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Índice persistente de hashes de conteúdo de uma tabela: chave do registro → hash
+ * de 64 bits das colunas sincronizadas na última entrega bem-sucedida.
+ *
+ * O índice é uma tabela hash de endereçamento aberto (sondagem linear) gravada em um
+ * arquivo mapeado em memória, fora do heap: cada posição ocupa 16 bytes (chave + hash),
+ * de modo que milhões de chaves custam dezenas de MB de arquivo e nenhum objeto Java.
+ * Quando a ocupação passa de 70%, um novo arquivo com o dobro de posições é criado.
+ *
+ * Os arquivos ficam em {@code <diretório>/<nome>.<capacidade>.idx}. O arquivo ampliado é
+ * gravado por completo antes de receber a assinatura no cabeçalho, e só então o anterior
+ * é removido: ao abrir, vale o maior arquivo com assinatura válida. Assim uma queda no
+ * meio da ampliação nunca perde o índice, e o arquivo mapeado nunca precisa ser
+ * substituído enquanto está em uso (o que falha no Windows).
+ *
+ * Formato do arquivo: cabeçalho de {@value #HEADER_SIZE} bytes (assinatura, versão,
+ * capacidade, quantidade) seguido das posições. O hash 0 marca uma posição vazia;
+ * hashes calculados como 0 são gravados como 1.
+ */
+public class RowHashIndex implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RowHashIndex.class);
+
+    private static final long MAGIC = 0x4342524F57484153L; // "CBROWHAS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 16;
+    private static final int MIN_CAPACITY = 1 << 16;
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final double MAX_LOAD = 0.7;
+
+    private final Path directory;
+    private final String name;
+    private Path file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int size;
+
+    /**
+     * Abre (ou cria) o índice {@code name} no diretório informado.
+     */
+    public RowHashIndex(Path directory, String name) throws IOException {
+        this.directory = directory;
+        this.name = name;
+        Files.createDirectories(directory);
+
+        List<Path> candidates = files(directory, name);
+        for (Path candidate : candidates) {
+            try {
+                open(candidate);
+                break;
+            } catch (IOException e) {
+                LOG.warn("Ignorando arquivo de índice inválido {}: {}", candidate, e.getMessage());
+            }
+        }
+        if (channel == null) {
+            Path created = path(MIN_CAPACITY);
+            try (FileChannel createdChannel = create(created, MIN_CAPACITY)) {
+                sign(createdChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE), 0);
+            }
+            open(created);
+        }
+
+        // Remove arquivos de ampliações anteriores ou interrompidas
+        for (Path candidate : candidates) {
+            if (!candidate.equals(file)) {
+                Files.deleteIfExists(candidate);
+            }
+        }
+    }
+
+    /**
+     * Arquivos do índice no diretório, do maior para o menor.
+     */
+    static List<Path> files(Path directory, String name) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        Pattern pattern = Pattern.compile(Pattern.quote(name) + "\\.(\\d+)\\.idx");
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream
+                .filter(path -> pattern.matcher(path.getFileName().toString()).matches())
+                .sorted(Comparator.comparingLong((Path path) -> {
+                    Matcher matcher = pattern.matcher(path.getFileName().toString());
+                    matcher.matches();
+                    return Long.parseLong(matcher.group(1));
+                }).reversed())
+                .collect(Collectors.toList());
+        }
+    }
+
+    private Path path(int capacity) {
+        return directory.resolve(name + "." + capacity + ".idx");
+    }
+
+    private void open(Path path) throws IOException {
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (opened.size() < HEADER_SIZE) {
+                throw new IOException("arquivo truncado");
+            }
+            MappedByteBuffer mapped = opened.map(FileChannel.MapMode.READ_WRITE, 0, opened.size());
+            if (mapped.getLong(0) != MAGIC || mapped.getInt(8) != VERSION) {
+                throw new IOException("assinatura inválida");
+            }
+            int mappedCapacity = mapped.getInt(12);
+            if ((long) HEADER_SIZE + (long) mappedCapacity * SLOT_SIZE > opened.size()) {
+                throw new IOException("arquivo truncado");
+            }
+            channel = opened;
+            buffer = mapped;
+            capacity = mappedCapacity;
+            size = mapped.getInt(16);
+            file = path;
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Cria um arquivo vazio, ainda sem assinatura, com a capacidade informada. A
+     * assinatura é gravada por {@link #sign(MappedByteBuffer, int)} depois que o
+     * conteúdo estiver completo.
+     */
+    private static FileChannel create(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+            HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        mapped.putInt(12, capacity);
+        return channel;
+    }
+
+    /**
+     * Grava a quantidade de chaves e, depois do conteúdo estar em disco, a assinatura
+     * que torna o arquivo válido.
+     */
+    private static void sign(MappedByteBuffer mapped, int size) {
+        mapped.putInt(16, size);
+        mapped.force();
+        mapped.putInt(8, VERSION);
+        mapped.putLong(0, MAGIC);
+        mapped.force();
+    }
+
+    /**
+     * Retorna o hash gravado para a chave, ou 0 se a chave não está no índice.
+     */
+    public synchronized long get(long key) {
+        int slot = find(key);
+        return slot >= 0 ? hashAt(slot) : 0;
+    }
+
+    /**
+     * Indica se o hash informado é igual ao gravado para a chave (registro inalterado).
+     */
+    public synchronized boolean matches(long key, long hash) {
+        return get(key) == nonZero(hash);
+    }
+
+    /**
+     * Grava o hash da chave, crescendo o arquivo se necessário.
+     */
+    public synchronized void put(long key, long hash) throws IOException {
+        if (size + 1 > capacity * MAX_LOAD) {
+            grow();
+        }
+        insert(key, nonZero(hash));
+    }
+
+    /**
+     * Remove as chaves aceitas pelo filtro (ex: as de uma partição assumida de outro nó),
+     * mantendo as demais localizáveis pela sondagem linear.
+     *
+     * @return Quantidade de chaves removidas
+     */
+    public synchronized int removeIf(LongPredicate filter) {
+        long[] keys = new long[16];
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (hashAt(slot) != 0 && filter.test(keyAt(slot))) {
+                if (count == keys.length) {
+                    keys = Arrays.copyOf(keys, count * 2);
+                }
+                keys[count++] = keyAt(slot);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            remove(find(keys[i]));
+        }
+        if (count > 0) {
+            buffer.putInt(16, size);
+            buffer.force();
+        }
+        return count;
+    }
+
+    /**
+     * Grava as alterações do arquivo mapeado em disco.
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    private int find(long key) {
+        int mask = capacity - 1;
+        int slot = mix(key) & mask;
+        while (true) {
+            long hash = hashAt(slot);
+            if (hash == 0) {
+                return -1;
+            }
+            if (keyAt(slot) == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void insert(long key, long hash) {
+        int mask = capacity - 1;
+        int slot = mix(key) & mask;
+        while (true) {
+            long current = hashAt(slot);
+            if (current == 0) {
+                buffer.putLong(offset(slot), key);
+                buffer.putLong(offset(slot) + 8, hash);
+                size++;
+                buffer.putInt(16, size);
+                return;
+            }
+            if (keyAt(slot) == key) {
+                buffer.putLong(offset(slot) + 8, hash);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Esvazia a posição e puxa para trás as chaves seguintes da mesma sequência de
+     * sondagem que não ficariam mais alcançáveis, sem deixar marcas de remoção.
+     */
+    private void remove(int slot) {
+        int mask = capacity - 1;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            long hash = hashAt(next);
+            if (hash == 0) {
+                break;
+            }
+            long key = keyAt(next);
+            int home = mix(key) & mask;
+            // A chave pode ficar onde está se a posição inicial dela está entre slot e next
+            boolean reachable = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+            if (reachable) {
+                continue;
+            }
+            buffer.putLong(offset(slot), key);
+            buffer.putLong(offset(slot) + 8, hash);
+            slot = next;
+        }
+        buffer.putLong(offset(slot), 0);
+        buffer.putLong(offset(slot) + 8, 0);
+        size--;
+    }
+
+    /**
+     * Copia o índice para um novo arquivo com o dobro de posições e passa a usá-lo.
+     */
+    private void grow() throws IOException {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IOException("Índice " + name + " atingiu a capacidade máxima de " + MAX_CAPACITY + " posições");
+        }
+        int newCapacity = capacity * 2;
+        Path target = path(newCapacity);
+        Files.deleteIfExists(target);
+        try (FileChannel targetChannel = create(target, newCapacity)) {
+            MappedByteBuffer newBuffer = targetChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) newCapacity * SLOT_SIZE);
+            int mask = newCapacity - 1;
+            for (int slot = 0; slot < capacity; slot++) {
+                long hash = hashAt(slot);
+                if (hash == 0) {
+                    continue;
+                }
+                long key = keyAt(slot);
+                int position = mix(key) & mask;
+                while (newBuffer.getLong(offset(position) + 8) != 0) {
+                    position = (position + 1) & mask;
+                }
+                newBuffer.putLong(offset(position), key);
+                newBuffer.putLong(offset(position) + 8, hash);
+            }
+            sign(newBuffer, size);
+        }
+
+        Path previous = file;
+        buffer.force();
+        channel.close();
+        open(target);
+        try {
+            Files.deleteIfExists(previous);
+        } catch (IOException e) {
+            // No Windows o arquivo ainda mapeado pode não ser removido agora; será na próxima abertura
+            LOG.debug("Arquivo de índice anterior {} será removido na próxima abertura: {}", previous, e.getMessage());
+        }
+        LOG.info("Índice {} ampliado para {} posições ({} chaves)", name, capacity, size);
+    }
+
+    private long keyAt(int slot) {
+        return buffer.getLong(offset(slot));
+    }
+
+    private long hashAt(int slot) {
+        return buffer.getLong(offset(slot) + 8);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static long nonZero(long hash) {
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Espalha os bits da chave (finalizador do MurmurHash3), para que chaves
+     * sequenciais não se agrupem em posições vizinhas.
+     */
+    private static int mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
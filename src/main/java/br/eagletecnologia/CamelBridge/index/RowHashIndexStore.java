@@ -0,0 +1,191 @@
+package br.eagletecnologia.CamelBridge.index;
+
+import org.apache.camel.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Conjunto dos índices de hash de conteúdo ({@link RowHashIndex}), um por tabela,
+ * gravados no mesmo diretório.
+ *
+ * Usado pelo componente bulk para descartar registros cujo conteúdo sincronizado não
+ * mudou desde a última entrega bem-sucedida (ex: alterações em colunas que não são
+ * enviadas, que mesmo assim atualizam MODIFICADO). Também calcula as chaves e os
+ * hashes dos registros: chaves numéricas inteiras são usadas diretamente; as demais
+ * (texto, chaves compostas) são reduzidas a um hash de 64 bits.
+ */
+public class RowHashIndexStore implements Service {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RowHashIndexStore.class);
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Path directory;
+    private final Map<String, RowHashIndex> indexes = new HashMap<>();
+
+    /**
+     * @param directory Diretório onde os arquivos dos índices são gravados
+     */
+    public RowHashIndexStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Retorna o índice da tabela, abrindo ou criando o arquivo no primeiro uso.
+     */
+    public synchronized RowHashIndex get(String table) throws IOException {
+        String name = table.toUpperCase();
+        RowHashIndex index = indexes.get(name);
+        if (index == null) {
+            index = new RowHashIndex(directory, name);
+            indexes.put(name, index);
+            LOG.info("Índice de hash da tabela {} aberto: {} chave(s) em {}", name, index.size(), index.getFile());
+        }
+        return index;
+    }
+
+    /**
+     * Apaga o índice da tabela (ou de todas as tabelas, se {@code table} for null), de
+     * modo que ele seja reconstruído do zero a partir das próximas entregas: até lá,
+     * todos os registros lidos são considerados alterados e enviados.
+     *
+     * @return Quantidade de arquivos removidos
+     */
+    public synchronized int rebuild(String table) throws IOException {
+        Collection<String> names;
+        if (table != null) {
+            names = List.of(table.toUpperCase());
+        } else if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                names = files.map(path -> path.getFileName().toString())
+                    .filter(file -> file.matches(".+\\.\\d+\\.idx"))
+                    .map(file -> file.replaceFirst("\\.\\d+\\.idx$", ""))
+                    .collect(Collectors.toSet());
+            }
+        } else {
+            names = List.of();
+        }
+
+        int removed = 0;
+        for (String name : names) {
+            RowHashIndex index = indexes.remove(name);
+            if (index != null) {
+                index.close();
+            }
+            for (Path file : RowHashIndex.files(directory, name)) {
+                Files.deleteIfExists(file);
+                removed++;
+            }
+            LOG.info("Índice de hash da tabela {} apagado; será reconstruído nas próximas entregas", name);
+        }
+        return removed;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void start() {
+        // Os índices são abertos sob demanda
+    }
+
+    @Override
+    public synchronized void stop() {
+        for (RowHashIndex index : indexes.values()) {
+            try {
+                index.close();
+            } catch (IOException e) {
+                LOG.warn("Erro ao fechar índice {}: {}", index.getName(), e.getMessage());
+            }
+        }
+        indexes.clear();
+    }
+
+    /**
+     * Chave do registro no índice: o próprio valor para chaves inteiras (ex: USUARIOS_ID),
+     * ou um hash de 64 bits do texto da chave para os demais tipos.
+     */
+    public static long keyOf(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigInteger && ((BigInteger) value).bitLength() < 64) {
+            return ((BigInteger) value).longValue();
+        }
+        if (value instanceof BigDecimal) {
+            try {
+                return ((BigDecimal) value).longValueExact();
+            } catch (ArithmeticException e) {
+                // não é inteiro: usa o hash do texto
+            }
+        }
+        return fmix(fnv(FNV_OFFSET, String.valueOf(value)));
+    }
+
+    /**
+     * Hash de 64 bits do conteúdo do registro, ignorando as colunas em {@code exclude}
+     * (ex: MODIFICADO, que muda a cada alteração). O resultado não depende da ordem
+     * das colunas no mapa.
+     */
+    public static long hashRow(Map<?, ?> row, Collection<String> exclude) {
+        long hash = 0;
+        for (Map.Entry<?, ?> entry : row.entrySet()) {
+            String column = String.valueOf(entry.getKey());
+            if (exclude.contains(column)) {
+                continue;
+            }
+            long h = fnv(FNV_OFFSET, column);
+            h = (h ^ '=') * FNV_PRIME;
+            Object value = entry.getValue();
+            if (value == null) {
+                h = (h ^ 0xFF) * FNV_PRIME;
+            } else if (value instanceof byte[]) {
+                for (byte b : (byte[]) value) {
+                    h = (h ^ (b & 0xFF)) * FNV_PRIME;
+                }
+            } else {
+                h = fnv(h, value.toString());
+            }
+            hash += fmix(h);
+        }
+        return hash;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os caracteres do texto.
+     */
+    private static long fnv(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizador do MurmurHash3, para espalhar os bits do FNV.
+     */
+    private static long fmix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
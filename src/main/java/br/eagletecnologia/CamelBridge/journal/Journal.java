@@ -0,0 +1,370 @@
+package br.eagletecnologia.CamelBridge.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal local de registros (write-ahead log), em segmentos append-only gravados com
+ * {@link FileChannel}.
+ *
+ * Cada registro é gravado como {@code [tamanho][crc32][conteúdo]} e identificado pelo seu
+ * offset lógico (posição desde o início do journal). Os segmentos ficam em
+ * {@code <diretório>/<offset inicial>.seg} e um novo segmento é aberto quando o atual
+ * atinge {@code segmentSize} bytes.
+ *
+ * Quem grava chama {@link #append(byte[])} para cada registro e {@link #flush()} ao final
+ * de cada grupo: só então os registros ficam visíveis para a leitura, já gravados em
+ * disco. Quem lê usa {@link #read(long, int)} a partir do offset confirmado
+ * ({@link #getAckedOffset()}) e, depois de processar os registros, confirma com
+ * {@link #ack(long)}; os segmentos totalmente confirmados são removidos. Após uma queda,
+ * a leitura recomeça exatamente do último offset confirmado, e um registro parcialmente
+ * gravado no fim do último segmento é descartado. Quem precisa saber quando registros já
+ * gravados foram entregues (ex: o watermark do cluster) se registra com
+ * {@link #addAckListener(LongConsumer)}.
+ */
+public class Journal implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Journal.class);
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String ACK_FILE = "ack.offset";
+
+    private final String name;
+    private final Path directory;
+    private final long segmentSize;
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final List<LongConsumer> ackListeners = new CopyOnWriteArrayList<>();
+
+    private FileChannel writeChannel;
+    private long writeBase;
+    private long writeOffset;
+    private volatile long durableOffset;
+    private volatile long ackedOffset;
+
+    private FileChannel readChannel;
+    private long readBase = -1;
+
+    /**
+     * Abre (ou cria) o journal no diretório informado.
+     *
+     * @param name Nome do journal, usado nos logs
+     * @param directory Diretório dos segmentos e do offset confirmado
+     * @param segmentSize Tamanho máximo de cada segmento em bytes
+     */
+    public Journal(String name, Path directory, long segmentSize) throws IOException {
+        this.name = name;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .forEach(path -> segments.put(baseOf(path), path));
+        }
+        ackedOffset = readAck();
+        openForAppend();
+        durableOffset = writeOffset;
+        if (ackedOffset > writeOffset) {
+            ackedOffset = writeOffset;
+        }
+        LOG.info("Journal {} aberto em {}: {} byte(s) pendentes de entrega (offsets {} a {})",
+            name, directory, writeOffset - ackedOffset, ackedOffset, writeOffset);
+    }
+
+    /**
+     * Abre o último segmento para gravação, descartando um registro incompleto no final.
+     */
+    private void openForAppend() throws IOException {
+        if (segments.isEmpty()) {
+            long base = ackedOffset;
+            segments.put(base, segmentPath(base));
+        }
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        writeBase = last.getKey();
+        writeChannel = FileChannel.open(last.getValue(), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long valid = scanValid(writeChannel);
+        if (valid < writeChannel.size()) {
+            LOG.warn("Journal {}: descartando {} byte(s) incompletos no final de {}",
+                name, writeChannel.size() - valid, last.getValue());
+            writeChannel.truncate(valid);
+            writeChannel.force(true);
+        }
+        writeChannel.position(valid);
+        writeOffset = writeBase + valid;
+    }
+
+    /**
+     * Percorre os registros do segmento e retorna a posição do fim do último registro íntegro.
+     */
+    private static long scanValid(FileChannel channel) throws IOException {
+        long position = 0;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length < 0 || position + HEADER_SIZE + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            channel.read(payload, position + HEADER_SIZE);
+            if (crc(payload.array()) != crc) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    /**
+     * Acrescenta um registro ao journal. O registro só fica visível para a leitura
+     * depois de {@link #flush()}.
+     *
+     * @return Offset do registro
+     */
+    public synchronized long append(byte[] payload) throws IOException {
+        long position = writeOffset - writeBase;
+        if (position > 0 && position + HEADER_SIZE + payload.length > segmentSize) {
+            roll();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buffer.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            writeChannel.write(buffer);
+        }
+        long offset = writeOffset;
+        writeOffset += HEADER_SIZE + payload.length;
+        return offset;
+    }
+
+    /**
+     * Grava em disco os registros acrescentados e os torna visíveis para a leitura.
+     */
+    public synchronized void flush() throws IOException {
+        if (durableOffset != writeOffset) {
+            writeChannel.force(false);
+            durableOffset = writeOffset;
+        }
+    }
+
+    private void roll() throws IOException {
+        writeChannel.force(false);
+        writeChannel.close();
+        writeBase = writeOffset;
+        Path path = segmentPath(writeBase);
+        writeChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        segments.put(writeBase, path);
+        LOG.debug("Journal {}: novo segmento {}", name, path);
+    }
+
+    /**
+     * Lê até {@code maxRecords} registros a partir do offset informado, sem passar dos
+     * registros já gravados em disco.
+     */
+    public synchronized List<JournalRecord> read(long offset, int maxRecords) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        long end = durableOffset;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (records.size() < maxRecords && offset < end) {
+            Map.Entry<Long, Path> segment = segments.floorEntry(offset);
+            if (segment == null) {
+                throw new IOException("Journal " + name + ": offset " + offset + " não pertence a nenhum segmento");
+            }
+            FileChannel channel = readChannel(segment.getKey(), segment.getValue());
+            long position = offset - segment.getKey();
+            if (position >= channel.size()) {
+                // Fim do segmento: continua no próximo
+                Long next = segments.higherKey(segment.getKey());
+                if (next == null) {
+                    break;
+                }
+                offset = next;
+                continue;
+            }
+
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            while (payload.hasRemaining() && channel.read(payload, position + HEADER_SIZE + payload.position()) >= 0) {
+                // lê até completar o registro
+            }
+            if (crc(payload.array()) != crc) {
+                throw new IOException("Journal " + name + ": registro corrompido no offset " + offset);
+            }
+            long next = offset + HEADER_SIZE + length;
+            records.add(new JournalRecord(offset, next, payload.array()));
+            offset = next;
+        }
+        return records;
+    }
+
+    private FileChannel readChannel(long base, Path path) throws IOException {
+        if (readChannel == null || readBase != base) {
+            if (readChannel != null) {
+                readChannel.close();
+            }
+            readChannel = FileChannel.open(path, StandardOpenOption.READ);
+            readBase = base;
+        }
+        return readChannel;
+    }
+
+    /**
+     * Confirma que todos os registros antes de {@code offset} foram entregues: grava o
+     * offset de forma atômica, remove os segmentos que ficaram totalmente confirmados e
+     * avisa os ouvintes de {@link #addAckListener(LongConsumer)}.
+     */
+    public void ack(long offset) throws IOException {
+        if (!advanceAck(offset)) {
+            return;
+        }
+        for (LongConsumer listener : ackListeners) {
+            try {
+                listener.accept(offset);
+            } catch (RuntimeException e) {
+                LOG.warn("Journal {}: erro ao avisar a confirmação do offset {}: {}", name, offset, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Registra um ouvinte chamado com o novo offset confirmado a cada {@link #ack(long)},
+     * fora do bloqueio do journal.
+     */
+    public void addAckListener(LongConsumer listener) {
+        ackListeners.add(listener);
+    }
+
+    private synchronized boolean advanceAck(long offset) throws IOException {
+        if (offset <= ackedOffset) {
+            return false;
+        }
+        writeAck(offset);
+        ackedOffset = offset;
+
+        // Remove os segmentos anteriores ao que contém o offset confirmado (nunca o de gravação)
+        Long current = segments.floorKey(offset);
+        if (current == null) {
+            return true;
+        }
+        for (Long base : List.copyOf(segments.headMap(current, false).keySet())) {
+            Path path = segments.remove(base);
+            if (readBase == base && readChannel != null) {
+                readChannel.close();
+                readChannel = null;
+                readBase = -1;
+            }
+            Files.deleteIfExists(path);
+            LOG.debug("Journal {}: segmento {} removido", name, path);
+        }
+        return true;
+    }
+
+    private long readAck() throws IOException {
+        Path file = directory.resolve(ACK_FILE);
+        if (!Files.exists(file)) {
+            return segments.isEmpty() ? 0 : segments.firstKey();
+        }
+        return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+    }
+
+    private void writeAck(long offset) throws IOException {
+        Path file = directory.resolve(ACK_FILE);
+        Path temp = Files.createTempFile(directory, ACK_FILE, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(Long.toString(offset).getBytes(StandardCharsets.US_ASCII)));
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Offset até o qual os registros já foram entregues e confirmados.
+     */
+    public long getAckedOffset() {
+        return ackedOffset;
+    }
+
+    /**
+     * Offset do fim dos registros gravados em disco.
+     */
+    public long getDurableOffset() {
+        return durableOffset;
+    }
+
+    /**
+     * Bytes gravados e ainda não confirmados pela entrega.
+     */
+    public long getPendingBytes() {
+        return durableOffset - ackedOffset;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writeChannel != null && writeChannel.isOpen()) {
+            writeChannel.force(false);
+            writeChannel.close();
+        }
+        if (readChannel != null) {
+            readChannel.close();
+            readChannel = null;
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+    private static long baseOf(Path path) {
+        String file = path.getFileName().toString();
+        return Long.parseLong(file.substring(0, file.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
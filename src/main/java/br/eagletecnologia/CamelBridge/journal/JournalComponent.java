@@ -0,0 +1,94 @@
+package br.eagletecnologia.CamelBridge.journal;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.support.DefaultComponent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Componente Camel do journal local entre a extração e a entrega.
+ *
+ * Registrado em AppConfiguration com o nome "journal". O mesmo nome de journal é usado
+ * pela rota de extração (producer, grava os registros) e pela rota de entrega
+ * (consumer, lê e confirma os registros):
+ * <pre>
+ * to:   journal:usuarios?watermarkColumn=MODIFICADO
+ * from: journal:usuarios?maxRecords=1000&amp;delay=1000
+ * </pre>
+ *
+ * Cada journal fica em {@code <directory>/<nome>}.
+ *
+ * @see JournalEndpoint
+ * @see Journal
+ */
+public class JournalComponent extends DefaultComponent {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournalComponent.class);
+
+    private String directory = "data/journal";
+    private long segmentSize = 64L * 1024 * 1024;
+    private final Map<String, Journal> journals = new HashMap<>();
+
+    @Override
+    protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
+        JournalEndpoint endpoint = new JournalEndpoint(uri, this);
+        endpoint.setName(remaining);
+        setProperties(endpoint, parameters);
+        return endpoint;
+    }
+
+    /**
+     * Retorna o journal com o nome informado, abrindo-o no primeiro uso.
+     */
+    synchronized Journal getJournal(String name) throws IOException {
+        Journal journal = journals.get(name);
+        if (journal == null) {
+            Path path = Paths.get(directory).resolve(name);
+            journal = new Journal(name, path, segmentSize);
+            journals.put(name, journal);
+        }
+        return journal;
+    }
+
+    /**
+     * Journals abertos, indexados pelo nome.
+     */
+    public synchronized Map<String, Journal> getJournals() {
+        return Map.copyOf(journals);
+    }
+
+    @Override
+    protected synchronized void doStop() throws Exception {
+        for (Journal journal : journals.values()) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOG.warn("Erro ao fechar journal {}: {}", journal.getName(), e.getMessage());
+            }
+        }
+        journals.clear();
+        super.doStop();
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(long segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+}
@@ -0,0 +1,87 @@
+package br.eagletecnologia.CamelBridge.journal;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.support.ScheduledPollConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumer que entrega os registros pendentes do journal para a rota.
+ *
+ * A cada leitura, envia grupos de até {@code maxRecords} registros a partir do último
+ * offset confirmado, enquanto houver registros e a rota terminar sem erro. O offset só
+ * avança depois que a rota processa o grupo com sucesso; em caso de erro, o grupo é
+ * reenviado na próxima leitura.
+ */
+public class JournalConsumer extends ScheduledPollConsumer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournalConsumer.class);
+
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public JournalConsumer(JournalEndpoint endpoint, Processor processor) {
+        super(endpoint, processor);
+    }
+
+    @Override
+    public JournalEndpoint getEndpoint() {
+        return (JournalEndpoint) super.getEndpoint();
+    }
+
+    @Override
+    protected int poll() throws Exception {
+        Journal journal = getEndpoint().getJournal();
+        int maxRecords = getEndpoint().getMaxRecords();
+        int delivered = 0;
+
+        while (isRunAllowed()) {
+            List<JournalRecord> records = journal.read(journal.getAckedOffset(), maxRecords);
+            if (records.isEmpty()) {
+                break;
+            }
+
+            List<Map<String, Object>> rows = new ArrayList<>(records.size());
+            for (JournalRecord record : records) {
+                rows.add(objectMapper.readValue(record.getPayload(), ROW_TYPE));
+            }
+
+            Exchange exchange = createExchange(true);
+            exchange.getIn().setBody(rows);
+            exchange.getIn().setHeader(JournalProducer.RECORDS_HEADER, records.size());
+            exchange.getIn().setHeader(JournalProducer.OFFSET_HEADER, records.get(0).getOffset());
+            try {
+                getProcessor().process(exchange);
+            } catch (Exception e) {
+                exchange.setException(e);
+            }
+
+            if (exchange.getException() != null) {
+                LOG.warn("Journal {}: entrega de {} registro(s) a partir do offset {} falhou; será repetida na próxima leitura",
+                    journal.getName(), records.size(), records.get(0).getOffset());
+                getExceptionHandler().handleException("Erro ao entregar registros do journal " + journal.getName(),
+                    exchange, exchange.getException());
+                releaseExchange(exchange, false);
+                break;
+            }
+            releaseExchange(exchange, false);
+
+            journal.ack(records.get(records.size() - 1).getNextOffset());
+            delivered += records.size();
+            if (records.size() < maxRecords) {
+                break;
+            }
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,97 @@
+package br.eagletecnologia.CamelBridge.journal;
+
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import org.apache.camel.Consumer;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.support.ScheduledPollEndpoint;
+
+/**
+ * Endpoint do journal local.
+ *
+ * Como producer, grava no journal cada registro do corpo da mensagem (uma lista, um
+ * iterador de páginas como o do componente keyset, ou um único registro) em JSON e
+ * grava tudo em disco antes de continuar a rota. O cabeçalho
+ * {@value CheckpointStore#RECORD_WATERMARK_HEADER} recebe o maior valor de
+ * {@code watermarkColumn} gravado, para que o watermark da extração avance assim que os
+ * registros estiverem seguros no journal.
+ *
+ * Como consumer, lê periodicamente os registros pendentes em grupos de até
+ * {@code maxRecords} (corpo: lista de mapas) e confirma o offset do grupo quando a rota
+ * termina sem erro. Se a rota falhar, o mesmo grupo é lido novamente na próxima leitura.
+ *
+ * Opções:
+ * <ul>
+ *   <li>name (caminho da URI): nome do journal</li>
+ *   <li>watermarkColumn: coluna cujo maior valor gravado vai para o cabeçalho
+ *       {@value CheckpointStore#RECORD_WATERMARK_HEADER} (producer)</li>
+ *   <li>maxRecords: quantidade máxima de registros por mensagem (consumer)</li>
+ *   <li>delay / initialDelay: intervalo de leitura em milissegundos (consumer)</li>
+ * </ul>
+ */
+public class JournalEndpoint extends ScheduledPollEndpoint {
+
+    private String name;
+    private String watermarkColumn;
+    private int maxRecords = 1000;
+
+    public JournalEndpoint(String endpointUri, JournalComponent component) {
+        super(endpointUri, component);
+    }
+
+    @Override
+    public JournalComponent getComponent() {
+        return (JournalComponent) super.getComponent();
+    }
+
+    @Override
+    public Producer createProducer() throws Exception {
+        return new JournalProducer(this);
+    }
+
+    @Override
+    public Consumer createConsumer(Processor processor) throws Exception {
+        JournalConsumer consumer = new JournalConsumer(this, processor);
+        configureConsumer(consumer);
+        return consumer;
+    }
+
+    @Override
+    protected void doInit() throws Exception {
+        super.doInit();
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("O nome do journal é obrigatório: " + getEndpointUri());
+        }
+        if (maxRecords <= 0) {
+            throw new IllegalArgumentException("A opção maxRecords deve ser maior que zero: " + getEndpointUri());
+        }
+    }
+
+    Journal getJournal() throws Exception {
+        return getComponent().getJournal(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getWatermarkColumn() {
+        return watermarkColumn;
+    }
+
+    public void setWatermarkColumn(String watermarkColumn) {
+        this.watermarkColumn = watermarkColumn;
+    }
+
+    public int getMaxRecords() {
+        return maxRecords;
+    }
+
+    public void setMaxRecords(int maxRecords) {
+        this.maxRecords = maxRecords;
+    }
+}
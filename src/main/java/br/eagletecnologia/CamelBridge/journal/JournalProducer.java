@@ -0,0 +1,168 @@
+package br.eagletecnologia.CamelBridge.journal;
+
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import br.eagletecnologia.CamelBridge.codec.EncodedRow;
+import br.eagletecnologia.CamelBridge.extraction.KeysetPage;
+import br.eagletecnologia.CamelBridge.extraction.PartitionedPageIterator;
+import br.eagletecnologia.CamelBridge.extraction.Rows;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.Exchange;
+import org.apache.camel.support.DefaultProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Producer que grava os registros do corpo da mensagem no journal.
+ *
+ * Os registros são acrescentados um a um e gravados em disco uma única vez ao final
+ * (mesmo em caso de erro na leitura, para não perder o que já foi extraído). O corpo da
+ * mensagem não é alterado; a quantidade gravada fica no cabeçalho
+ * {@value #RECORDS_HEADER}, e o journal e o offset do fim dos registros ficam nas
+ * propriedades {@value #JOURNAL_PROPERTY} e {@value #END_OFFSET_PROPERTY}, para quem
+ * precisa esperar a entrega deles (ex: o watermark do cluster).
+ *
+ * Registros já codificados ({@link EncodedRow}, ex: keyset com outputType=json) são
+ * gravados como estão, sem passar pelo Jackson; neste caso a coluna do watermark deve
+ * ser uma das colunas de chave do keyset.
+ *
+ * Com uma extração particionada ({@link PartitionedPageIterator}) o journal também é
+ * gravado em disco a cada {@code checkpointInterval} ms do keyset, e só então a posição
+ * de cada partição é registrada no checkpoint; assim, uma execução interrompida no meio
+ * de uma carga grande não precisa reler as páginas que já estavam no journal.
+ */
+public class JournalProducer extends DefaultProducer {
+
+    /**
+     * Cabeçalho com a quantidade de registros gravados (producer) ou lidos (consumer).
+     */
+    public static final String RECORDS_HEADER = "JOURNAL_REGISTROS";
+
+    /**
+     * Cabeçalho com o offset do primeiro registro gravado (producer) ou lido (consumer).
+     */
+    public static final String OFFSET_HEADER = "JOURNAL_OFFSET";
+
+    /**
+     * Propriedade da mensagem com o {@link Journal} gravado pelo producer.
+     */
+    public static final String JOURNAL_PROPERTY = "CamelBridgeJournal";
+
+    /**
+     * Propriedade da mensagem com o offset do fim dos registros gravados: eles estão
+     * entregues quando {@link Journal#getAckedOffset()} chega a este valor.
+     */
+    public static final String END_OFFSET_PROPERTY = "CamelBridgeJournalFim";
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournalProducer.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public JournalProducer(JournalEndpoint endpoint) {
+        super(endpoint);
+    }
+
+    @Override
+    public JournalEndpoint getEndpoint() {
+        return (JournalEndpoint) super.getEndpoint();
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        Journal journal = getEndpoint().getJournal();
+        Object body = exchange.getIn().getBody();
+
+        Appender appender = new Appender(journal, getEndpoint().getWatermarkColumn());
+        try {
+            if (body instanceof PartitionedPageIterator) {
+                appendPartitioned(journal, (PartitionedPageIterator) body, appender);
+            } else {
+                Iterator<Object> rows = Rows.of(body);
+                while (rows.hasNext()) {
+                    appender.append(rows.next());
+                }
+            }
+        } finally {
+            journal.flush();
+        }
+        if (body instanceof PartitionedPageIterator) {
+            ((PartitionedPageIterator) body).checkpoint();
+        }
+
+        LOG.debug("Journal {}: {} registro(s) gravado(s)", journal.getName(), appender.count);
+        exchange.getIn().setHeader(RECORDS_HEADER, appender.count);
+        if (appender.firstOffset >= 0) {
+            exchange.getIn().setHeader(OFFSET_HEADER, appender.firstOffset);
+        }
+        if (appender.watermark != null) {
+            exchange.getIn().setHeader(CheckpointStore.RECORD_WATERMARK_HEADER, appender.watermark);
+        }
+        exchange.setProperty(JOURNAL_PROPERTY, journal);
+        exchange.setProperty(END_OFFSET_PROPERTY, journal.getDurableOffset());
+    }
+
+    /**
+     * Grava as páginas de uma extração particionada, registrando no checkpoint a posição
+     * de cada partição sempre que o journal é gravado em disco.
+     */
+    private void appendPartitioned(Journal journal, PartitionedPageIterator pages, Appender appender)
+        throws Exception {
+        try {
+            while (pages.hasNext()) {
+                KeysetPage page = pages.next();
+                for (Object row : page) {
+                    appender.append(row);
+                }
+                pages.markWritten(page);
+                if (pages.isCheckpointDue()) {
+                    journal.flush();
+                    pages.checkpoint();
+                }
+            }
+        } catch (Exception e) {
+            // As páginas já marcadas estão completas no journal: o progresso delas é mantido
+            journal.flush();
+            pages.checkpoint();
+            pages.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Acrescenta registros ao journal acumulando a quantidade, o primeiro offset e o
+     * maior watermark gravados.
+     */
+    private final class Appender {
+
+        private final Journal journal;
+        private final String watermarkColumn;
+        private long count;
+        private long firstOffset = -1;
+        private Comparable<Object> watermark;
+
+        Appender(Journal journal, String watermarkColumn) {
+            this.journal = journal;
+            this.watermarkColumn = watermarkColumn;
+        }
+
+        @SuppressWarnings("unchecked")
+        void append(Object row) throws Exception {
+            long offset = journal.append(row instanceof EncodedRow
+                ? ((EncodedRow) row).getJson() : objectMapper.writeValueAsBytes(row));
+            if (firstOffset < 0) {
+                firstOffset = offset;
+            }
+            count++;
+
+            if (watermarkColumn != null) {
+                Object value = row instanceof EncodedRow ? ((EncodedRow) row).get(watermarkColumn)
+                    : row instanceof Map ? ((Map<?, ?>) row).get(watermarkColumn) : null;
+                if (value instanceof Comparable && (watermark == null || watermark.compareTo(value) < 0)) {
+                    watermark = (Comparable<Object>) value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package br.eagletecnologia.CamelBridge.journal;
+
+/**
+ * Registro lido do journal: o conteúdo gravado, o seu offset e o offset do próximo
+ * registro (usado na confirmação da entrega).
+ */
+public final class JournalRecord {
+
+    private final long offset;
+    private final long nextOffset;
+    private final byte[] payload;
+
+    JournalRecord(long offset, long nextOffset, byte[] payload) {
+        this.offset = offset;
+        this.nextOffset = nextOffset;
+        this.payload = payload;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,96 @@
+package br.eagletecnologia.CamelBridge.metrics;
+
+/**
+ * Cópia imutável dos contadores de um {@link LatencyHistogram}.
+ *
+ * A diferença entre duas cópias ({@link #minus(HistogramSnapshot)}) é o histograma do
+ * intervalo entre elas, usado para mostrar percentis recentes em vez de acumulados
+ * desde o início da aplicação.
+ */
+public final class HistogramSnapshot {
+
+    public static final HistogramSnapshot EMPTY =
+        new HistogramSnapshot(new long[LatencyHistogram.BUCKET_COUNT], 0, 0, 0);
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Quantidade de valores registrados.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Soma dos valores registrados, em nanossegundos.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Maior valor registrado desde o início (não é reduzido por {@link #minus}).
+     */
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Valor abaixo do qual estão {@code percentile}% dos registros, com a precisão do
+     * bucket (cerca de 3%), ou 0 se o histograma estiver vazio.
+     *
+     * @param percentile Percentil entre 0 e 100 (ex: 99.0)
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(LatencyHistogram.midpoint(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Quantidade de registros com valor menor ou igual a {@code value}, usada para exportar
+     * o histograma em faixas fixas. Um bucket que contém {@code value} conta inteiro, de
+     * modo que o resultado tem a mesma precisão dos percentis (cerca de 3%).
+     */
+    public long getCountAtOrBelow(long value) {
+        long total = 0;
+        for (int i = 0; i < counts.length && LatencyHistogram.lowerBound(i) <= value; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Histograma dos valores registrados depois de {@code earlier}.
+     */
+    public HistogramSnapshot minus(HistogramSnapshot earlier) {
+        long[] delta = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            delta[i] = Math.max(0, counts[i] - earlier.counts[i]);
+        }
+        return new HistogramSnapshot(delta, Math.max(0, count - earlier.count), Math.max(0, sum - earlier.sum), max);
+    }
+}
@@ -0,0 +1,84 @@
+package br.eagletecnologia.CamelBridge.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com buckets log-lineares, no estilo do HdrHistogram.
+ *
+ * Os valores (em nanossegundos) até 63 têm um bucket cada; acima disso, cada potência
+ * de 2 é dividida em 32 buckets iguais, o que limita o erro relativo dos percentis a
+ * cerca de 3% em qualquer escala (de microssegundos a minutos) com um array fixo de
+ * menos de 2 mil contadores.
+ *
+ * Registrar um valor custa o cálculo do bucket (alguns deslocamentos de bits) e um
+ * incremento atômico, sem alocação e sem locks, e pode ser feito por várias threads ao
+ * mesmo tempo. Os percentis são calculados sobre um {@link HistogramSnapshot}.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int LINEAR_LIMIT = SUB_BUCKET_COUNT * 2;
+    static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Registra uma latência em nanossegundos. Valores negativos contam como zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketOf(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Cópia dos contadores no momento da chamada. Registros feitos durante a cópia
+     * podem ou não entrar nela.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new HistogramSnapshot(copy, total, sum.sum(), max.get());
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    /**
+     * Menor valor que cai no bucket.
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int offset = bucket - LINEAR_LIMIT;
+        int shift = offset / SUB_BUCKET_COUNT + 1;
+        return (long) (offset % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+    }
+
+    /**
+     * Valor representativo do bucket (meio do intervalo).
+     */
+    static long midpoint(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKET_COUNT + 1;
+        return lowerBound(bucket) + ((1L << shift) >>> 1);
+    }
+}
@@ -0,0 +1,155 @@
+package br.eagletecnologia.CamelBridge.metrics;
+
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import br.eagletecnologia.CamelBridge.delivery.DeadLetterStore;
+import br.eagletecnologia.CamelBridge.http.HttpTransportRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor HTTP que expõe as métricas no formato OpenMetrics ({@link OpenMetricsWriter})
+ * em {@code /metrics}, para coleta pelo Prometheus no modo sem interface.
+ *
+ * Usa o servidor HTTP embutido no JDK, com uma única thread: cada coleta apenas lê
+ * contadores e monta o texto, sem acessar o banco. As métricas das rotas, o pool de
+ * conexões e os watermarks são buscados no registro do Camel a cada coleta
+ * ("metrics", "dataSource" e "checkpointStore"); os que não existirem são omitidos.
+ */
+public class MetricsHttpServer implements Service {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    static final String PATH = "/metrics";
+
+    private final CamelContext camelContext;
+    private final String host;
+    private final int port;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param camelContext Contexto de onde as métricas são lidas
+     * @param host Endereço em que o servidor escuta (ex: 0.0.0.0 para todas as interfaces)
+     * @param port Porta do servidor (0 para uma porta livre)
+     */
+    public MetricsHttpServer(CamelContext camelContext, String host, int port) {
+        this.camelContext = camelContext;
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível abrir o servidor de métricas em " + host + ":" + port, e);
+        }
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "CamelBridge-metricas-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(PATH, this::handle);
+        server.start();
+        LOG.info("Métricas disponíveis em http://{}:{}{}", host, getPort(), PATH);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            executor = null;
+        }
+    }
+
+    /**
+     * Porta em que o servidor está escutando (útil quando configurado com a porta 0).
+     */
+    public synchronized int getPort() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    /**
+     * Monta o texto das métricas atuais.
+     */
+    public String scrape() {
+        MetricsRegistry metrics = camelContext.getRegistry().lookupByNameAndType("metrics", MetricsRegistry.class);
+        List<MetricsSnapshot> snapshots = metrics == null ? Collections.emptyList() : metrics.snapshot();
+
+        PoolMetrics pool = null;
+        Object dataSource = camelContext.getRegistry().lookupByName("dataSource");
+        if (dataSource instanceof HikariDataSource
+                && ((HikariDataSource) dataSource).getMetricsTrackerFactory() instanceof PoolMetrics) {
+            pool = (PoolMetrics) ((HikariDataSource) dataSource).getMetricsTrackerFactory();
+        }
+
+        CheckpointStore checkpoints = camelContext.getRegistry()
+            .lookupByNameAndType("checkpointStore", CheckpointStore.class);
+        Map<String, String> watermarks = checkpoints == null ? null : checkpoints.getWatermarks();
+
+        DeadLetterStore deadLetters = camelContext.getRegistry()
+            .lookupByNameAndType("deadLetterStore", DeadLetterStore.class);
+
+        HttpTransportRegistry transports = camelContext.getRegistry()
+            .lookupByNameAndType("httpTransports", HttpTransportRegistry.class);
+
+        return new OpenMetricsWriter()
+            .routes(snapshots)
+            .pool(pool)
+            .watermarks(watermarks, System.currentTimeMillis())
+            .deadLetters(deadLetters)
+            .transports(transports == null ? null : transports.getTransports())
+            .finish();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body;
+            try {
+                body = scrape().getBytes(StandardCharsets.UTF_8);
+            } catch (RuntimeException e) {
+                LOG.warn("Erro ao gerar as métricas: {}", e.getMessage());
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", OpenMetricsWriter.CONTENT_TYPE);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package br.eagletecnologia.CamelBridge.metrics;
+
+import br.eagletecnologia.CamelBridge.delivery.BulkProducer;
+import br.eagletecnologia.CamelBridge.execution.ExecutionGuard;
+import br.eagletecnologia.CamelBridge.journal.JournalProducer;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.NamedNode;
+import org.apache.camel.Processor;
+import org.apache.camel.Route;
+import org.apache.camel.spi.InterceptStrategy;
+import org.apache.camel.spi.RoutePolicy;
+import org.apache.camel.spi.RoutePolicyFactory;
+import org.apache.camel.support.RoutePolicySupport;
+import org.apache.camel.support.processor.DelegateAsyncProcessor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Métricas de vazão e latência de cada rota e de cada etapa das rotas.
+ *
+ * Ao ser instalado no CamelContext ({@link #install(CamelContext)}), registra:
+ * <ul>
+ *   <li>uma política em todas as rotas, que mede cada execução da rota (duração,
+ *   execuções em andamento, falhas e registros processados);</li>
+ *   <li>um interceptador em todos os processadores das rotas (to, marshal, log etc.),
+ *   que mede cada etapa da mesma forma.</li>
+ * </ul>
+ *
+ * As medições são feitas com {@code LongAdder}s e {@link LatencyHistogram}s: no caminho
+ * das mensagens há apenas duas leituras do relógio e alguns incrementos sem locks. As
+ * métricas são lidas com {@link #snapshot()}, na ordem das rotas e das etapas.
+ *
+ * Os registros de uma execução da rota são lidos dos cabeçalhos preenchidos pelos
+ * componentes da aplicação ({@link #RECORD_HEADERS}) ou, na falta deles, do tamanho do
+ * corpo quando for uma coleção.
+ */
+public class MetricsRegistry {
+
+    /**
+     * Cabeçalhos com a quantidade de registros de uma mensagem, na ordem de preferência:
+     * registros gravados/lidos do journal e registros de um lote do bulk.
+     */
+    public static final List<String> RECORD_HEADERS =
+        List.of(JournalProducer.RECORDS_HEADER, BulkProducer.BATCH_SIZE_HEADER);
+
+    private static final String START_PROPERTY = "CamelBridgeMetricasInicio";
+
+    private final Map<String, StepMetrics> routes = new ConcurrentHashMap<>();
+    private final Map<String, StepMetrics> steps = new ConcurrentHashMap<>();
+    private final List<StepMetrics> ordered = new CopyOnWriteArrayList<>();
+
+    /**
+     * Instala a política de rotas e o interceptador de etapas no contexto. Deve ser
+     * chamado antes de as rotas serem criadas.
+     */
+    public void install(CamelContext camelContext) {
+        camelContext.adapt(ExtendedCamelContext.class).addInterceptStrategy(new StepInterceptor());
+        camelContext.addRoutePolicyFactory(new RouteMetricsPolicyFactory());
+    }
+
+    /**
+     * Métricas da rota inteira, criadas no primeiro acesso.
+     */
+    public StepMetrics route(String routeId) {
+        return routes.computeIfAbsent(routeId, id -> register(new StepMetrics(id, null, "route", id)));
+    }
+
+    /**
+     * Métricas de uma etapa da rota, criadas no primeiro acesso.
+     */
+    public StepMetrics step(String routeId, String stepId, String type, String label) {
+        route(routeId);
+        return steps.computeIfAbsent(routeId + "/" + stepId,
+            key -> register(new StepMetrics(routeId, stepId, type, label)));
+    }
+
+    private StepMetrics register(StepMetrics metrics) {
+        ordered.add(metrics);
+        return metrics;
+    }
+
+    /**
+     * Leitura de todas as métricas, agrupadas por rota: cada rota seguida das suas etapas
+     * na ordem em que aparecem na rota.
+     */
+    public List<MetricsSnapshot> snapshot() {
+        List<MetricsSnapshot> result = new ArrayList<>(ordered.size());
+        for (StepMetrics route : ordered) {
+            if (route.getStepId() != null) {
+                continue;
+            }
+            result.add(route.snapshot());
+            for (StepMetrics step : ordered) {
+                if (step.getStepId() != null && step.getRouteId().equals(route.getRouteId())) {
+                    result.add(step.snapshot());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Quantidade de registros de uma mensagem, ou -1 se não for possível determinar.
+     */
+    static long recordsOf(Exchange exchange) {
+        for (String header : RECORD_HEADERS) {
+            Number count = exchange.getMessage().getHeader(header, Number.class);
+            if (count != null) {
+                return count.longValue();
+            }
+        }
+        Object body = exchange.getMessage().getBody();
+        if (body instanceof Collection) {
+            return ((Collection<?>) body).size();
+        }
+        return -1;
+    }
+
+    /**
+     * Id da rota de um processador, procurando o nó da rota entre os seus pais.
+     */
+    private static String routeIdOf(NamedNode node) {
+        for (NamedNode current = node; current != null; current = current.getParent()) {
+            if ("route".equals(current.getShortName())) {
+                return current.getId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Envolve cada processador das rotas com a medição da etapa.
+     */
+    private final class StepInterceptor implements InterceptStrategy {
+
+        @Override
+        public Processor wrapProcessorInInterceptors(CamelContext context, NamedNode definition,
+                                                     Processor target, Processor nextTarget) {
+            String routeId = routeIdOf(definition);
+            if (routeId == null || definition.getId() == null) {
+                return target;
+            }
+            StepMetrics metrics = step(routeId, definition.getId(), definition.getShortName(),
+                definition.getShortName() + ": " + definition.getLabel());
+            return new DelegateAsyncProcessor(target) {
+                @Override
+                public boolean process(Exchange exchange, AsyncCallback callback) {
+                    long start = metrics.begin();
+                    return processor.process(exchange, doneSync -> {
+                        metrics.done(start, exchange.getException() == null);
+                        callback.done(doneSync);
+                    });
+                }
+
+                @Override
+                public String toString() {
+                    return "Metrics[" + processor + "]";
+                }
+            };
+        }
+    }
+
+    /**
+     * Cria para cada rota a política que mede as suas execuções.
+     */
+    private final class RouteMetricsPolicyFactory implements RoutePolicyFactory {
+
+        @Override
+        public RoutePolicy createRoutePolicy(CamelContext camelContext, String routeId, NamedNode route) {
+            return new RouteMetricsPolicy(route(routeId));
+        }
+    }
+
+    private static final class RouteMetricsPolicy extends RoutePolicySupport {
+
+        private final StepMetrics metrics;
+
+        RouteMetricsPolicy(StepMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void onExchangeBegin(Route route, Exchange exchange) {
+            // Disparos descartados pelo executionGuard não são execuções da rota
+            if (!exchange.getProperty(ExecutionGuard.SKIPPED_PROPERTY, false, Boolean.class)) {
+                exchange.setProperty(START_PROPERTY, metrics.begin());
+            }
+        }
+
+        @Override
+        public void onExchangeDone(Route route, Exchange exchange) {
+            Long start = exchange.getProperty(START_PROPERTY, Long.class);
+            if (start == null) {
+                return;
+            }
+            exchange.removeProperty(START_PROPERTY);
+            metrics.done(start, exchange.getException() == null);
+            long records = recordsOf(exchange);
+            if (records >= 0) {
+                metrics.addRecords(records);
+            }
+        }
+    }
+}
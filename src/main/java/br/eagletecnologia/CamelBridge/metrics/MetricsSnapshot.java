@@ -0,0 +1,118 @@
+package br.eagletecnologia.CamelBridge.metrics;
+
+/**
+ * Valores de uma rota ou etapa ({@link StepMetrics}) em um instante. Os contadores são
+ * acumulados desde o início da aplicação; a diferença entre duas leituras
+ * ({@link #minus(MetricsSnapshot)}) dá os valores do intervalo.
+ */
+public final class MetricsSnapshot {
+
+    private final String routeId;
+    private final String stepId;
+    private final String type;
+    private final String label;
+    private final long completed;
+    private final long failed;
+    private final long inflight;
+    private final long records;
+    private final long lastRunRecords;
+    private final HistogramSnapshot latency;
+
+    MetricsSnapshot(String routeId, String stepId, String type, String label, long completed, long failed, long inflight,
+                    long records, long lastRunRecords, HistogramSnapshot latency) {
+        this.routeId = routeId;
+        this.stepId = stepId;
+        this.type = type;
+        this.label = label;
+        this.completed = completed;
+        this.failed = failed;
+        this.inflight = inflight;
+        this.records = records;
+        this.lastRunRecords = lastRunRecords;
+        this.latency = latency;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    /**
+     * Id do processador na rota, ou null para a rota inteira.
+     */
+    public String getStepId() {
+        return stepId;
+    }
+
+    public boolean isRoute() {
+        return stepId == null;
+    }
+
+    /**
+     * Tipo do processador (ex: to, marshal, log), ou "route" para a rota inteira.
+     */
+    public String getType() {
+        return type;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Chave única da rota ou etapa (ex: "enviar-lote-usuarios" ou "enviar-lote-usuarios/to3").
+     */
+    public String getKey() {
+        return stepId == null ? routeId : routeId + "/" + stepId;
+    }
+
+    /**
+     * Execuções concluídas com sucesso.
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Execuções que terminaram com exceção.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Execuções em andamento no momento da leitura.
+     */
+    public long getInflight() {
+        return inflight;
+    }
+
+    /**
+     * Registros processados (apenas rotas).
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Registros processados na última execução da rota, ou -1 se ainda não houve.
+     */
+    public long getLastRunRecords() {
+        return lastRunRecords;
+    }
+
+    /**
+     * Histograma das durações, em nanossegundos.
+     */
+    public HistogramSnapshot getLatency() {
+        return latency;
+    }
+
+    /**
+     * Valores do intervalo entre {@code earlier} e esta leitura. As execuções em
+     * andamento e os registros da última execução continuam sendo os atuais.
+     */
+    public MetricsSnapshot minus(MetricsSnapshot earlier) {
+        return new MetricsSnapshot(routeId, stepId, type, label, completed - earlier.completed, failed - earlier.failed,
+            inflight, records - earlier.records, lastRunRecords, latency.minus(earlier.latency));
+    }
+}
@@ -0,0 +1,312 @@
+package br.eagletecnologia.CamelBridge.metrics;
+
+import br.eagletecnologia.CamelBridge.delivery.DeadLetterStore;
+import br.eagletecnologia.CamelBridge.http.HttpTransport;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escreve as métricas da aplicação no formato texto do OpenMetrics (aceito pelo
+ * Prometheus), terminando com {@code # EOF}.
+ *
+ * Métricas exportadas (prefixo {@code camelbridge_}):
+ * <ul>
+ *   <li>rotas: execuções por resultado, registros, execuções em andamento, registros da
+ *   última execução e histograma da duração;</li>
+ *   <li>etapas: execuções por resultado, em andamento e histograma da duração, com os
+ *   rótulos {@code route}, {@code step} (id do processador) e {@code type}
+ *   (to, marshal, log...);</li>
+ *   <li>pool de conexões: conexões ativas, ociosas, totais e máximas, threads aguardando
+ *   conexão, timeouts e histogramas do tempo de espera e de uso das conexões;</li>
+ *   <li>watermark: instante do último MODIFICADO sincronizado por rota e o atraso em
+ *   relação ao horário atual;</li>
+ *   <li>dead letters: registros pendentes de reenvio, gravados e reenviados;</li>
+ *   <li>transportes HTTP de entrega, por host: requisições, respostas por protocolo,
+ *   falhas, conexões abertas e a fração de requisições que reaproveitaram uma conexão,
+ *   conexões em uso e ociosas, requisições aguardando conexão e bytes enviados antes e
+ *   depois do gzip.</li>
+ * </ul>
+ *
+ * Os histogramas usam faixas fixas em segundos ({@link #BUCKETS}), calculadas a partir
+ * dos {@link LatencyHistogram}s com a precisão deles (cerca de 3%).
+ */
+public final class OpenMetricsWriter {
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    /** Limites superiores (segundos) das faixas dos histogramas. */
+    static final double[] BUCKETS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 300};
+
+    private static final String PREFIX = "camelbridge_";
+
+    private final StringBuilder out = new StringBuilder(8192);
+
+    /**
+     * Métricas das rotas e etapas ({@link MetricsRegistry#snapshot()}).
+     */
+    public OpenMetricsWriter routes(List<MetricsSnapshot> snapshots) {
+        family("route_executions", "counter", "Execuções das rotas por resultado.");
+        for (MetricsSnapshot s : snapshots) {
+            if (s.isRoute()) {
+                executions("route_executions", routeLabels(s), s);
+            }
+        }
+        family("route_records", "counter", "Registros processados pelas rotas.");
+        for (MetricsSnapshot s : snapshots) {
+            if (s.isRoute()) {
+                sample("route_records_total", routeLabels(s), s.getRecords());
+            }
+        }
+        family("route_last_run_records", "gauge", "Registros processados na última execução da rota.");
+        for (MetricsSnapshot s : snapshots) {
+            if (s.isRoute() && s.getLastRunRecords() >= 0) {
+                sample("route_last_run_records", routeLabels(s), s.getLastRunRecords());
+            }
+        }
+        family("route_inflight", "gauge", "Execuções das rotas em andamento.");
+        for (MetricsSnapshot s : snapshots) {
+            if (s.isRoute()) {
+                sample("route_inflight", routeLabels(s), s.getInflight());
+            }
+        }
+        family("route_duration_seconds", "histogram", "Duração das execuções das rotas.");
+        for (MetricsSnapshot s : snapshots) {
+            if (s.isRoute()) {
+                histogram("route_duration_seconds", routeLabels(s), s.getLatency());
+            }
+        }
+
+        family("step_executions", "counter", "Execuções das etapas das rotas por resultado.");
+        for (MetricsSnapshot s : snapshots) {
+            if (!s.isRoute()) {
+                executions("step_executions", stepLabels(s), s);
+            }
+        }
+        family("step_inflight", "gauge", "Mensagens em andamento nas etapas das rotas.");
+        for (MetricsSnapshot s : snapshots) {
+            if (!s.isRoute()) {
+                sample("step_inflight", stepLabels(s), s.getInflight());
+            }
+        }
+        family("step_duration_seconds", "histogram", "Duração de cada mensagem nas etapas das rotas.");
+        for (MetricsSnapshot s : snapshots) {
+            if (!s.isRoute()) {
+                histogram("step_duration_seconds", stepLabels(s), s.getLatency());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Métricas do pool de conexões. Sem pool iniciado, nada é escrito.
+     */
+    public OpenMetricsWriter pool(PoolMetrics pool) {
+        if (pool == null || !pool.isStarted()) {
+            return this;
+        }
+        String labels = label("pool", pool.getPoolName());
+        PoolStats stats = pool.getPoolStats();
+        gauge("pool_active_connections", "Conexões em uso.", labels, stats.getActiveConnections());
+        gauge("pool_idle_connections", "Conexões ociosas no pool.", labels, stats.getIdleConnections());
+        gauge("pool_total_connections", "Conexões abertas no pool.", labels, stats.getTotalConnections());
+        gauge("pool_max_connections", "Tamanho máximo do pool.", labels, stats.getMaxConnections());
+        gauge("pool_pending_threads", "Threads aguardando uma conexão.", labels, stats.getPendingThreads());
+
+        family("pool_timeouts", "counter", "Esperas por conexão que excederam o connectionTimeout.");
+        sample("pool_timeouts_total", labels, pool.getTimeouts());
+        family("pool_acquire_seconds", "histogram", "Tempo de espera para obter uma conexão.");
+        histogram("pool_acquire_seconds", labels, pool.getAcquireTime());
+        family("pool_usage_seconds", "histogram", "Tempo de uso das conexões.");
+        histogram("pool_usage_seconds", labels, pool.getUsageTime());
+        return this;
+    }
+
+    /**
+     * Watermark de cada rota ({@code CheckpointStore.getWatermarks()}) e o atraso em
+     * relação a {@code nowMillis}. Watermarks em formato desconhecido são ignorados.
+     */
+    public OpenMetricsWriter watermarks(Map<String, String> watermarks, long nowMillis) {
+        if (watermarks == null || watermarks.isEmpty()) {
+            return this;
+        }
+        StringBuilder timestamps = new StringBuilder();
+        StringBuilder lags = new StringBuilder();
+        for (Map.Entry<String, String> entry : watermarks.entrySet()) {
+            long millis;
+            try {
+                millis = Timestamp.valueOf(entry.getValue().trim()).getTime();
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            String labels = label("route", entry.getKey());
+            appendSample(timestamps, "watermark_timestamp_seconds", labels, format(millis / 1000.0));
+            appendSample(lags, "watermark_lag_seconds", labels, format(Math.max(0, nowMillis - millis) / 1000.0));
+        }
+        family("watermark_timestamp_seconds", "gauge", "Último MODIFICADO sincronizado pela rota (epoch).");
+        out.append(timestamps);
+        family("watermark_lag_seconds", "gauge", "Tempo entre o último MODIFICADO sincronizado e agora.");
+        out.append(lags);
+        return this;
+    }
+
+    /**
+     * Contadores do dead letter da entrega. Sem armazenamento, nada é escrito.
+     */
+    public OpenMetricsWriter deadLetters(DeadLetterStore store) {
+        if (store == null) {
+            return this;
+        }
+        gauge("dead_letter_pending_records", "Registros no dead letter aguardando reenvio.", "", store.getPending());
+        family("dead_letter_added_records", "counter", "Registros gravados no dead letter.");
+        sample("dead_letter_added_records_total", "", store.getAdded());
+        family("dead_letter_replayed_records", "counter", "Registros retirados do dead letter por reenvios.");
+        sample("dead_letter_replayed_records_total", "", store.getReplayed());
+        return this;
+    }
+
+    /**
+     * Métricas dos transportes HTTP de entrega ({@code HttpTransportRegistry.getTransports()}).
+     * Conexões que o transporte não expõe (HTTP/2) não são escritas.
+     */
+    public OpenMetricsWriter transports(List<HttpTransport> transports) {
+        if (transports == null || transports.isEmpty()) {
+            return this;
+        }
+        family("http_requests", "counter", "Requisições enviadas pelo transporte HTTP do host.");
+        for (HttpTransport t : transports) {
+            sample("http_requests_total", label("host", t.getHost()), t.getRequests());
+        }
+        family("http_responses", "counter", "Respostas recebidas por protocolo negociado.");
+        for (HttpTransport t : transports) {
+            t.getResponses().forEach((protocol, count) ->
+                sample("http_responses_total", label("host", t.getHost()) + "," + label("protocol", protocol), count));
+        }
+        family("http_request_failures", "counter", "Requisições sem resposta (falha de conexão ou timeout).");
+        for (HttpTransport t : transports) {
+            sample("http_request_failures_total", label("host", t.getHost()), t.getFailures());
+        }
+        family("http_connections_opened", "counter", "Conexões abertas com o host.");
+        for (HttpTransport t : transports) {
+            if (t.getConnectionsOpened() >= 0) {
+                sample("http_connections_opened_total", label("host", t.getHost()), t.getConnectionsOpened());
+            }
+        }
+        family("http_connection_reuse_ratio", "gauge", "Fração das requisições que reaproveitaram uma conexão aberta.");
+        for (HttpTransport t : transports) {
+            if (t.getConnectionsOpened() >= 0 && t.getRequests() > 0) {
+                double reused = Math.max(0, t.getRequests() - t.getConnectionsOpened()) / (double) t.getRequests();
+                appendSample(out, "http_connection_reuse_ratio", label("host", t.getHost()), format(reused));
+            }
+        }
+        family("http_leased_connections", "gauge", "Conexões (ou fluxos HTTP/2) em uso.");
+        for (HttpTransport t : transports) {
+            sample("http_leased_connections", label("host", t.getHost()), t.getLeased());
+        }
+        family("http_available_connections", "gauge", "Conexões abertas e ociosas no pool.");
+        for (HttpTransport t : transports) {
+            if (t.getAvailable() >= 0) {
+                sample("http_available_connections", label("host", t.getHost()), t.getAvailable());
+            }
+        }
+        family("http_pending_requests", "gauge", "Requisições aguardando uma conexão livre.");
+        for (HttpTransport t : transports) {
+            sample("http_pending_requests", label("host", t.getHost()), t.getPending());
+        }
+        family("http_max_connections", "gauge", "Conexões (ou fluxos HTTP/2) permitidos por host.");
+        for (HttpTransport t : transports) {
+            sample("http_max_connections", label("host", t.getHost()), t.getOptions().getMaxConnections());
+        }
+        family("http_gzip_requests", "counter", "Requisições enviadas com o corpo comprimido.");
+        for (HttpTransport t : transports) {
+            sample("http_gzip_requests_total", label("host", t.getHost()), t.getGzipped());
+        }
+        family("http_request_body_bytes", "counter", "Bytes dos corpos das requisições antes da compressão.");
+        for (HttpTransport t : transports) {
+            sample("http_request_body_bytes_total", label("host", t.getHost()), t.getBodyBytes());
+        }
+        family("http_request_sent_bytes", "counter", "Bytes dos corpos enviados, depois da compressão.");
+        for (HttpTransport t : transports) {
+            sample("http_request_sent_bytes_total", label("host", t.getHost()), t.getSentBytes());
+        }
+        return this;
+    }
+
+    /**
+     * Texto final, com o marcador de fim exigido pelo OpenMetrics.
+     */
+    public String finish() {
+        out.append("# EOF\n");
+        return out.toString();
+    }
+
+    private void executions(String name, String labels, MetricsSnapshot s) {
+        sample(name + "_total", labels + ",outcome=\"success\"", s.getCompleted());
+        sample(name + "_total", labels + ",outcome=\"failure\"", s.getFailed());
+    }
+
+    private void histogram(String name, String labels, HistogramSnapshot latency) {
+        for (double bound : BUCKETS) {
+            long count = latency.getCountAtOrBelow((long) (bound * 1e9));
+            sample(name + "_bucket", labels + ",le=\"" + format(bound) + "\"", count);
+        }
+        sample(name + "_bucket", labels + ",le=\"+Inf\"", latency.getCount());
+        sample(name + "_count", labels, latency.getCount());
+        appendSample(out, name + "_sum", labels, format(latency.getSum() / 1e9));
+    }
+
+    private void gauge(String name, String help, String labels, long value) {
+        family(name, "gauge", help);
+        sample(name, labels, value);
+    }
+
+    private void family(String name, String type, String help) {
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    }
+
+    private void sample(String name, String labels, long value) {
+        appendSample(out, name, labels, Long.toString(value));
+    }
+
+    private static void appendSample(StringBuilder target, String name, String labels, String value) {
+        target.append(PREFIX).append(name);
+        if (!labels.isEmpty()) {
+            target.append('{').append(labels).append('}');
+        }
+        target.append(' ').append(value).append('\n');
+    }
+
+    private static String routeLabels(MetricsSnapshot s) {
+        return label("route", s.getRouteId());
+    }
+
+    private static String stepLabels(MetricsSnapshot s) {
+        return label("route", s.getRouteId()) + "," + label("step", s.getStepId()) + "," + label("type", s.getType());
+    }
+
+    private static String label(String name, String value) {
+        StringBuilder label = new StringBuilder(name).append("=\"");
+        String text = value == null ? "" : value;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == '"') {
+                label.append('\\').append(c);
+            } else if (c == '\n') {
+                label.append("\\n");
+            } else {
+                label.append(c);
+            }
+        }
+        return label.append('"').toString();
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value) + ".0";
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,88 @@
+package br.eagletecnologia.CamelBridge.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas do pool de conexões HikariCP, registradas pelo próprio pool.
+ *
+ * Configurado em {@code HikariConfig.setMetricsTrackerFactory}: o Hikari chama
+ * {@link #create(String, PoolStats)} ao iniciar o pool e, a cada conexão obtida, informa
+ * o tempo de espera ({@link #recordConnectionAcquiredNanos(long)}) e, a cada devolução,
+ * o tempo de uso. As conexões ativas, ociosas e as threads aguardando são lidas do
+ * {@link PoolStats} do pool.
+ */
+public class PoolMetrics implements MetricsTrackerFactory, IMetricsTracker {
+
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final LatencyHistogram usage = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquire.record(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * Indica se o pool já foi iniciado e registrou as suas estatísticas.
+     */
+    public boolean isStarted() {
+        return poolStats != null;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    /**
+     * Estatísticas de conexões do pool, ou null se o pool ainda não foi iniciado.
+     */
+    public PoolStats getPoolStats() {
+        return poolStats;
+    }
+
+    /**
+     * Tempo de espera para obter uma conexão, em nanossegundos.
+     */
+    public HistogramSnapshot getAcquireTime() {
+        return acquire.snapshot();
+    }
+
+    /**
+     * Tempo de uso das conexões (de obtida até devolvida), em nanossegundos.
+     */
+    public HistogramSnapshot getUsageTime() {
+        return usage.snapshot();
+    }
+
+    /**
+     * Vezes em que não foi possível obter uma conexão dentro do connectionTimeout.
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+}
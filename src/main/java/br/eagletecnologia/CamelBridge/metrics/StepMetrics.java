@@ -0,0 +1,94 @@
+package br.eagletecnologia.CamelBridge.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de uma rota ou de uma etapa (processador) de uma rota.
+ *
+ * Para a rota inteira, cada execução é uma mensagem recebida pelo consumidor da rota
+ * (ex: um disparo do cron) e os registros são os lidos, gravados ou enviados nela. Para
+ * uma etapa, cada execução é uma mensagem que passou pelo processador (ex: um lote
+ * enviado pelo http, ou uma linha dentro de um split).
+ *
+ * Todos os contadores são {@link LongAdder}, atualizados sem locks e sem disputa entre
+ * as threads das rotas; apenas a leitura ({@link #snapshot()}) soma as células.
+ */
+public final class StepMetrics {
+
+    private final String routeId;
+    private final String stepId;
+    private final String type;
+    private final String label;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder inflight = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private volatile long lastRunRecords = -1;
+
+    /**
+     * @param routeId Id da rota
+     * @param stepId Id do processador na rota, ou null para a rota inteira
+     * @param type Tipo do processador (ex: to, marshal, log), ou "route" para a rota inteira
+     * @param label Descrição exibida (ex: endpoint de um to)
+     */
+    StepMetrics(String routeId, String stepId, String type, String label) {
+        this.routeId = routeId;
+        this.stepId = stepId;
+        this.type = type;
+        this.label = label;
+    }
+
+    /**
+     * Marca o início de uma execução.
+     *
+     * @return Instante de início (System.nanoTime), a ser repassado para {@link #done}
+     */
+    public long begin() {
+        inflight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * Marca o fim de uma execução iniciada em {@link #begin()}.
+     */
+    public void done(long startNanos, boolean success) {
+        latency.record(System.nanoTime() - startNanos);
+        inflight.decrement();
+        if (success) {
+            completed.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    /**
+     * Soma os registros processados em uma execução.
+     */
+    public void addRecords(long count) {
+        records.add(count);
+        lastRunRecords = count;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public String getStepId() {
+        return stepId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(routeId, stepId, type, label, completed.sum(), failed.sum(), inflight.sum(),
+            records.sum(), lastRunRecords, latency.snapshot());
+    }
+}
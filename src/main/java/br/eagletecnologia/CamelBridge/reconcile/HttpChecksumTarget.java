@@ -0,0 +1,123 @@
+package br.eagletecnologia.CamelBridge.reconcile;
+
+import br.eagletecnologia.CamelBridge.http.HttpTransport;
+import br.eagletecnologia.CamelBridge.http.HttpTransportRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.camel.http.base.HttpOperationFailedException;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Alvo da reconciliação no modo TARGET: o destino calcula os checksums sobre os seus
+ * próprios dados, em uma URL consultada por POST (JSON) pelo transporte compartilhado do
+ * host ({@link HttpTransportRegistry}).
+ *
+ * Checksums de faixas:
+ * <pre>
+ * {"table": "USUARIOS", "keyColumn": "USUARIOS_ID", "ranges": [{"from": 0, "to": 4095}, ...]}
+ * =&gt; {"ranges": [{"from": 0, "to": 4095, "count": 3981, "checksum": 8573311093}, ...]}
+ * </pre>
+ *
+ * Registros de uma faixa folha:
+ * <pre>
+ * {"table": "USUARIOS", "keyColumn": "USUARIOS_ID", "rows": {"from": 4096, "to": 4351}}
+ * =&gt; {"rows": [{"key": 4096, "fingerprint": 127105}, ...]}
+ * </pre>
+ *
+ * O checksum de uma faixa é a quantidade de registros e a soma dos fingerprints, e o
+ * fingerprint de um registro deve ser calculado pelo destino da mesma forma que a
+ * expressão SQL da origem. Com o fingerprint padrão:
+ * (chave * 31 + segundos desde 1970-01-01 00:00:00 do MODIFICADO recebido) mod 2147483647.
+ * Uma faixa ausente da resposta é tratada como diferente.
+ *
+ * Registros que existem só no destino são contados como extras, mas não são apagados.
+ */
+public class HttpChecksumTarget implements ReconcileTarget {
+
+    private final HttpTransportRegistry transports;
+    private final URI uri;
+    private final String table;
+    private final String keyColumn;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public HttpChecksumTarget(HttpTransportRegistry transports, URI uri, String table, String keyColumn) {
+        this.transports = transports;
+        this.uri = uri;
+        this.table = table;
+        this.keyColumn = keyColumn;
+    }
+
+    @Override
+    public Map<Long, RangeChecksum> checksums(long width, long firstBucket, long lastBucket) throws Exception {
+        ObjectNode request = request();
+        ArrayNode ranges = request.putArray("ranges");
+        for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+            ranges.addObject()
+                .put("from", bucket * width)
+                .put("to", bucket * width + width - 1);
+        }
+
+        Map<Long, RangeChecksum> checksums = new HashMap<>();
+        for (JsonNode range : post(request).path("ranges")) {
+            long from = range.path("from").asLong();
+            if (from % width != 0) {
+                throw new IllegalStateException("Faixa não solicitada na resposta de " + uri + ": " + range);
+            }
+            long bucket = from / width;
+            checksums.put(bucket, new RangeChecksum(width, bucket,
+                range.path("count").asLong(), range.path("checksum").asLong()));
+        }
+        return checksums;
+    }
+
+    @Override
+    public LeafResult compare(Leaf leaf) throws Exception {
+        ObjectNode request = request();
+        request.putObject("rows")
+            .put("from", leaf.getChecksum().getFrom())
+            .put("to", leaf.getChecksum().getTo());
+
+        Map<Long, Long> targetFingerprints = new HashMap<>();
+        for (JsonNode row : post(request).path("rows")) {
+            targetFingerprints.put(row.path("key").asLong(), row.path("fingerprint").asLong());
+        }
+
+        Map<Long, Long> sourceFingerprints = leaf.fingerprints();
+        Set<Long> different = new HashSet<>();
+        sourceFingerprints.forEach((key, fingerprint) -> {
+            if (!fingerprint.equals(targetFingerprints.get(key))) {
+                different.add(key);
+            }
+        });
+        long extra = targetFingerprints.keySet().stream()
+            .filter(key -> !sourceFingerprints.containsKey(key))
+            .count();
+        return new LeafResult(different, extra);
+    }
+
+    private ObjectNode request() {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("table", table);
+        request.put("keyColumn", keyColumn);
+        return request;
+    }
+
+    private JsonNode post(ObjectNode request) throws Exception {
+        HttpTransport.Response response = transports.get(uri).send("POST", uri,
+            Map.of("Content-Type", "application/json", "Accept", "application/json"),
+            objectMapper.writeValueAsBytes(request));
+        int status = response.getStatus();
+        if (status < 200 || status > 299) {
+            throw new HttpOperationFailedException(uri.toString(), status, response.getReason(),
+                response.getHeader("Location"), response.getHeaders(), response.getBodyAsString());
+        }
+        return objectMapper.readTree(response.getBody());
+    }
+}
@@ -0,0 +1,157 @@
+package br.eagletecnologia.CamelBridge.reconcile;
+
+import br.eagletecnologia.CamelBridge.index.RowHashIndex;
+import br.eagletecnologia.CamelBridge.index.RowHashIndexStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Alvo da reconciliação no modo LOCAL: compara os registros da origem com os hashes das
+ * entregas gravados no índice de hash ({@link RowHashIndex}), sem consultar o destino.
+ *
+ * O índice não pode ser percorrido por faixas, então os checksums de faixa do alvo são
+ * os da própria origem na última vez em que cada faixa foi verificada, gravados em
+ * {@code <diretório>/<nome>.properties} ("largura:faixa" = "quantidade:checksum"). Uma
+ * faixa cujo checksum na origem não mudou desde a verificação é descartada; as demais
+ * descem até as folhas, onde o hash de cada registro é comparado com o do índice.
+ *
+ * Na primeira execução (ou depois de mudar as colunas, o fingerprint ou o fanout, que
+ * invalidam as faixas gravadas) todas as folhas são comparadas, o que lê a tabela uma
+ * vez; as execuções seguintes só leem as faixas alteradas desde então.
+ *
+ * Registros apagados na origem não aparecem no índice por faixa e não são contados como
+ * extras.
+ */
+public class LocalHashTarget implements ReconcileTarget {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalHashTarget.class);
+
+    private static final String CONFIG = "config";
+
+    private final Path file;
+    private final String config;
+    private final RowHashIndex index;
+    private final Collection<String> hashExclude;
+    private final Map<String, String> signatures = new HashMap<>();
+
+    private boolean dirty;
+
+    /**
+     * @param file Arquivo das faixas verificadas
+     * @param config Configuração que gerou as faixas gravadas; se for diferente da
+     *               gravada, as faixas são descartadas
+     * @param index Índice de hash das entregas da tabela
+     * @param hashExclude Colunas ignoradas no hash (as mesmas do bulk)
+     */
+    public LocalHashTarget(Path file, String config, RowHashIndex index, Collection<String> hashExclude)
+            throws IOException {
+        this.file = file;
+        this.config = config;
+        this.index = index;
+        this.hashExclude = new HashSet<>(hashExclude);
+
+        if (Files.exists(file)) {
+            Properties properties = new Properties();
+            try (InputStream is = Files.newInputStream(file)) {
+                properties.load(is);
+            }
+            if (config.equals(properties.getProperty(CONFIG))) {
+                properties.stringPropertyNames().stream()
+                    .filter(name -> !name.equals(CONFIG))
+                    .forEach(name -> signatures.put(name, properties.getProperty(name)));
+            } else {
+                LOG.info("Configuração da reconciliação alterada; faixas verificadas em {} descartadas", file);
+                dirty = true;
+            }
+        }
+    }
+
+    @Override
+    public Map<Long, RangeChecksum> checksums(long width, long firstBucket, long lastBucket) {
+        Map<Long, RangeChecksum> checksums = new HashMap<>();
+        for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+            String signature = signatures.get(width + ":" + bucket);
+            if (signature != null) {
+                int colon = signature.indexOf(':');
+                checksums.put(bucket, new RangeChecksum(width, bucket,
+                    Long.parseLong(signature.substring(0, colon)), Long.parseLong(signature.substring(colon + 1))));
+            }
+        }
+        return checksums;
+    }
+
+    @Override
+    public LeafResult compare(Leaf leaf) throws Exception {
+        Set<Long> different = new HashSet<>();
+        for (Map<String, Object> row : leaf.rows()) {
+            long key = leaf.keyOf(row);
+            if (!index.matches(key, RowHashIndexStore.hashRow(row, hashExclude))) {
+                different.add(key);
+            }
+        }
+        return new LeafResult(different, 0);
+    }
+
+    @Override
+    public void verified(RangeChecksum checksum) {
+        String name = checksum.getWidth() + ":" + checksum.getBucket();
+        if (checksum.getCount() == 0) {
+            dirty |= signatures.remove(name) != null;
+        } else {
+            String signature = checksum.getCount() + ":" + checksum.getChecksum();
+            dirty |= !signature.equals(signatures.put(name, signature));
+        }
+    }
+
+    /**
+     * Grava as faixas verificadas de forma atômica (arquivo temporário + move).
+     */
+    @Override
+    public void finish() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+
+        Properties properties = new Properties();
+        properties.putAll(signatures);
+        properties.setProperty(CONFIG, config);
+
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 OutputStream os = Channels.newOutputStream(channel)) {
+                properties.store(os, "Faixas verificadas pela reconciliação do CamelBridge (largura:faixa = quantidade:checksum)");
+                os.flush();
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        dirty = false;
+    }
+}
@@ -0,0 +1,75 @@
+package br.eagletecnologia.CamelBridge.reconcile;
+
+/**
+ * Checksum de uma faixa alinhada de chaves: a faixa {@code bucket} de largura
+ * {@code width} cobre as chaves de {@code bucket * width} até
+ * {@code (bucket + 1) * width - 1}.
+ *
+ * O checksum é a quantidade de registros da faixa e a soma das impressões digitais
+ * (fingerprint) desses registros. A soma não depende da ordem dos registros, de modo
+ * que a origem a calcula com um único GROUP BY e o destino com o mesmo cálculo sobre os
+ * seus dados.
+ */
+public final class RangeChecksum {
+
+    private final long width;
+    private final long bucket;
+    private final long count;
+    private final long checksum;
+
+    public RangeChecksum(long width, long bucket, long count, long checksum) {
+        this.width = width;
+        this.bucket = bucket;
+        this.count = count;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Faixa vazia (sem registros) na origem ou no destino.
+     */
+    public static RangeChecksum empty(long width, long bucket) {
+        return new RangeChecksum(width, bucket, 0, 0);
+    }
+
+    public long getWidth() {
+        return width;
+    }
+
+    public long getBucket() {
+        return bucket;
+    }
+
+    /**
+     * Primeira chave da faixa (inclusiva).
+     */
+    public long getFrom() {
+        return bucket * width;
+    }
+
+    /**
+     * Última chave da faixa (inclusiva).
+     */
+    public long getTo() {
+        return getFrom() + width - 1;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Indica se as duas faixas têm a mesma quantidade de registros e a mesma soma.
+     */
+    public boolean matches(RangeChecksum other) {
+        return other != null && count == other.count && checksum == other.checksum;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + getFrom() + ".." + getTo() + "] count=" + count + " checksum=" + checksum;
+    }
+}
@@ -0,0 +1,250 @@
+package br.eagletecnologia.CamelBridge.reconcile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reconciliação da origem com um alvo por faixas de chave, no estilo de uma árvore de
+ * Merkle.
+ *
+ * As faixas são alinhadas em potências de {@code fanout}: a faixa de largura w é
+ * dividida em {@code fanout} faixas de largura w / fanout. A comparação começa pelas
+ * faixas do nível mais alto (no máximo {@code fanout} faixas cobrindo de 0 até a maior
+ * chave) e desce apenas nas faixas cujo checksum difere do alvo; faixas iguais são
+ * descartadas inteiras. Uma faixa com até {@code leafSize} registros (ou de largura 1)
+ * é uma folha, comparada registro a registro pelo alvo, e só os registros diferentes
+ * são lidos por completo e devolvidos para reenvio.
+ *
+ * Cada faixa divergente custa uma consulta agrupada na origem (os checksums das suas
+ * faixas filhas), e cada folha divergente uma ou duas consultas de no máximo
+ * {@code leafSize} registros, de modo que as consultas e as linhas transferidas crescem
+ * com a quantidade de diferenças, e não com o tamanho da tabela.
+ *
+ * Uma instância é usada em uma única reconciliação.
+ */
+public class RangeReconciler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RangeReconciler.class);
+
+    private final SourceChecksums source;
+    private final ReconcileTarget target;
+    private final int fanout;
+    private final int leafSize;
+    private final int maxRows;
+    private final boolean full;
+
+    private final List<Map<String, Object>> rows = new ArrayList<>();
+    private long extra;
+    private long ranges;
+    private long leaves;
+    private boolean truncated;
+
+    /**
+     * @param fanout Quantidade de faixas filhas de cada faixa (mínimo 2)
+     * @param leafSize Quantidade máxima de registros de uma faixa comparada registro a registro
+     * @param maxRows Quantidade máxima de registros devolvidos para reenvio; ao atingi-la,
+     *                a reconciliação para e as faixas restantes ficam para a próxima execução
+     * @param full Ignora os checksums do alvo e compara todas as folhas da origem
+     */
+    RangeReconciler(SourceChecksums source, ReconcileTarget target, int fanout, int leafSize, int maxRows, boolean full) {
+        this.source = source;
+        this.target = target;
+        this.fanout = fanout;
+        this.leafSize = leafSize;
+        this.maxRows = maxRows;
+        this.full = full;
+    }
+
+    /**
+     * Executa a reconciliação.
+     *
+     * @return Registros da origem ausentes ou diferentes no alvo, ordenados pela chave
+     *         dentro de cada faixa
+     */
+    public List<Map<String, Object>> run() throws Exception {
+        long[] bounds = source.bounds();
+        if (bounds == null) {
+            LOG.info("Reconciliação de {}: tabela vazia na origem", source.getTable());
+            target.finish();
+            return rows;
+        }
+
+        long width = 1;
+        while (bounds[1] / width >= fanout) {
+            width *= fanout;
+        }
+        compare(width, 0, bounds[1] / width);
+        target.finish();
+        return rows;
+    }
+
+    /**
+     * Compara as faixas {@code firstBucket..lastBucket} de largura {@code width}.
+     *
+     * @return true se todas as faixas foram consideradas iguais ao alvo
+     */
+    private boolean compare(long width, long firstBucket, long lastBucket) throws Exception {
+        Map<Long, RangeChecksum> sourceChecksums = source.checksums(width, firstBucket, lastBucket);
+        Map<Long, RangeChecksum> targetChecksums = full ? Map.of() : target.checksums(width, firstBucket, lastBucket);
+
+        Set<Long> buckets = new TreeSet<>(sourceChecksums.keySet());
+        buckets.addAll(targetChecksums.keySet());
+
+        boolean clean = true;
+        for (long bucket : buckets) {
+            if (bucket < firstBucket || bucket > lastBucket) {
+                continue;
+            }
+            if (rows.size() >= maxRows) {
+                truncated = true;
+                return false;
+            }
+            ranges++;
+            RangeChecksum sourceChecksum = sourceChecksums.getOrDefault(bucket, RangeChecksum.empty(width, bucket));
+            RangeChecksum targetChecksum = targetChecksums.get(bucket);
+            if (!full && sourceChecksum.matches(targetChecksum)) {
+                continue;
+            }
+
+            // Faixa só no alvo: nada a reenviar, os registros dele são contados como extras
+            if (sourceChecksum.getCount() == 0) {
+                extra += targetChecksum.getCount();
+                target.verified(sourceChecksum);
+                continue;
+            }
+
+            long count = Math.max(sourceChecksum.getCount(), targetChecksum != null ? targetChecksum.getCount() : 0);
+            boolean rangeClean;
+            if (width == 1 || count <= leafSize) {
+                rangeClean = leaf(sourceChecksum);
+            } else {
+                long childWidth = width / fanout;
+                rangeClean = compare(childWidth, sourceChecksum.getFrom() / childWidth, sourceChecksum.getTo() / childWidth);
+            }
+            if (rangeClean) {
+                target.verified(sourceChecksum);
+            } else {
+                clean = false;
+            }
+        }
+        return clean;
+    }
+
+    /**
+     * Compara uma faixa folha e acumula os registros diferentes.
+     *
+     * @return true se nenhum registro da faixa difere do alvo
+     */
+    private boolean leaf(RangeChecksum checksum) throws Exception {
+        leaves++;
+        SourceLeaf leaf = new SourceLeaf(checksum);
+        ReconcileTarget.LeafResult result = target.compare(leaf);
+        extra += result.getExtra();
+        if (result.getDifferent().isEmpty()) {
+            return true;
+        }
+        LOG.debug("Reconciliação de {}: {} registro(s) diferente(s) em {}",
+            source.getTable(), result.getDifferent().size(), checksum);
+        for (Map<String, Object> row : leaf.rows()) {
+            if (result.getDifferent().contains(source.keyOf(row))) {
+                rows.add(row);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registros diferentes encontrados até o momento.
+     */
+    public int getDifferences() {
+        return rows.size();
+    }
+
+    /**
+     * Registros do alvo sem correspondente na origem (não são apagados).
+     */
+    public long getExtra() {
+        return extra;
+    }
+
+    /**
+     * Faixas comparadas, em todos os níveis.
+     */
+    public long getRanges() {
+        return ranges;
+    }
+
+    /**
+     * Faixas comparadas registro a registro.
+     */
+    public long getLeaves() {
+        return leaves;
+    }
+
+    /**
+     * Consultas executadas na origem.
+     */
+    public long getQueries() {
+        return source.getQueries();
+    }
+
+    /**
+     * Linhas lidas da origem nas faixas folha.
+     */
+    public long getRowsRead() {
+        return source.getRowsRead();
+    }
+
+    /**
+     * Indica se a reconciliação parou em maxRows antes de comparar todas as faixas.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Folha da origem com os registros lidos sob demanda, no máximo uma vez.
+     */
+    private final class SourceLeaf implements ReconcileTarget.Leaf {
+
+        private final RangeChecksum checksum;
+        private Map<Long, Long> fingerprints;
+        private List<Map<String, Object>> rows;
+
+        SourceLeaf(RangeChecksum checksum) {
+            this.checksum = checksum;
+        }
+
+        @Override
+        public RangeChecksum getChecksum() {
+            return checksum;
+        }
+
+        @Override
+        public Map<Long, Long> fingerprints() throws Exception {
+            if (fingerprints == null) {
+                fingerprints = source.fingerprints(checksum);
+            }
+            return fingerprints;
+        }
+
+        @Override
+        public List<Map<String, Object>> rows() throws Exception {
+            if (rows == null) {
+                rows = source.rows(checksum);
+            }
+            return rows;
+        }
+
+        @Override
+        public long keyOf(Map<String, Object> row) {
+            return source.keyOf(row);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.eagletecnologia.CamelBridge.reconcile;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.support.DefaultComponent;
+
+import java.util.Map;
+
+/**
+ * Componente Camel de reconciliação por faixas de chave entre a origem e o destino.
+ *
+ * Registrado em AppConfiguration com o nome "reconcile" e usado nas rotas como:
+ * <pre>
+ * reconcile:USUARIOS?keyColumn=USUARIOS_ID&amp;mode=local&amp;hashIndex=#rowHashIndex
+ * reconcile:USUARIOS?keyColumn=USUARIOS_ID&amp;mode=target&amp;checksumUrl=https://api.exemplo.com/checksums
+ * </pre>
+ *
+ * No modo LOCAL, as faixas verificadas de cada endpoint ficam em
+ * {@code <directory>/<nome>.properties}.
+ *
+ * @see ReconcileEndpoint
+ */
+public class ReconcileComponent extends DefaultComponent {
+
+    private String directory = "data/reconcile";
+
+    @Override
+    protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
+        ReconcileEndpoint endpoint = new ReconcileEndpoint(uri, this);
+        endpoint.setTable(remaining);
+        setProperties(endpoint, parameters);
+        return endpoint;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+}
@@ -0,0 +1,311 @@
+package br.eagletecnologia.CamelBridge.reconcile;
+
+import br.eagletecnologia.CamelBridge.http.HttpTransportRegistry;
+import br.eagletecnologia.CamelBridge.index.RowHashIndexStore;
+import org.apache.camel.Consumer;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.support.CamelContextHelper;
+import org.apache.camel.support.DefaultEndpoint;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoint de reconciliação por faixas de chave.
+ *
+ * O producer compara a tabela da origem com o destino por checksums de faixas de
+ * {@code keyColumn} ({@link RangeReconciler}) e substitui o corpo da mensagem pela lista
+ * dos registros ausentes ou diferentes no destino (um Map por registro, como os lidos do
+ * journal), para reenvio pelo bulk. Só as faixas divergentes são consultadas em detalhe,
+ * de modo que uma tabela sem diferenças custa poucas consultas agrupadas e nenhum
+ * registro lido.
+ *
+ * Opções:
+ * <ul>
+ *   <li>table (caminho da URI): tabela da origem</li>
+ *   <li>keyColumn: coluna de chave, inteira e não negativa (ex: USUARIOS_ID); obrigatória</li>
+ *   <li>columns: colunas projetadas nos registros reenviados (padrão: *); devem ser as
+ *       mesmas da extração, para que os hashes coincidam com os do índice</li>
+ *   <li>watermarkColumn: coluna de data de alteração usada no fingerprint padrão
+ *       (padrão: MODIFICADO)</li>
+ *   <li>fingerprint: expressão SQL do fingerprint de cada registro (padrão: a chave
+ *       combinada com os segundos do watermark); ex: HASH(USUARIO_LOGIN || PERFIS_ID) no
+ *       Firebird, para detectar alterações feitas sem atualizar o MODIFICADO</li>
+ *   <li>mode: local (compara com os hashes das entregas do índice de hash) ou target
+ *       (compara com os checksums calculados pelo destino em checksumUrl)</li>
+ *   <li>hashIndex: {@link RowHashIndexStore} das entregas (ex: #rowHashIndex); obrigatório no modo local</li>
+ *   <li>hashTable: tabela no índice de hash (padrão: table)</li>
+ *   <li>hashExclude: colunas ignoradas no hash (padrão: watermarkColumn), as mesmas do bulk</li>
+ *   <li>checksumUrl: URL http(s) de checksums do destino; obrigatória no modo target</li>
+ *   <li>transports: {@link HttpTransportRegistry} usado no modo target (padrão: o
+ *       registrado no contexto, #httpTransports)</li>
+ *   <li>name: nome do arquivo das faixas verificadas no modo local (padrão: table)</li>
+ *   <li>fanout: quantidade de faixas filhas de cada faixa (padrão: 16)</li>
+ *   <li>leafSize: quantidade máxima de registros de uma faixa comparada registro a
+ *       registro (padrão: 256)</li>
+ *   <li>maxRows: quantidade máxima de registros devolvidos em uma execução (padrão:
+ *       100000); as faixas restantes ficam para a próxima execução</li>
+ *   <li>dataSource: DataSource usado; se omitido, o único DataSource do registro</li>
+ * </ul>
+ *
+ * No modo target, o bulk que reenvia os registros não deve usar o índice de hash: os
+ * registros divergentes no destino podem ter o mesmo hash da última entrega e seriam
+ * descartados.
+ */
+public class ReconcileEndpoint extends DefaultEndpoint {
+
+    private String table;
+    private String keyColumn;
+    private String columns = "*";
+    private String watermarkColumn = "MODIFICADO";
+    private String fingerprint;
+    private ReconcileMode mode = ReconcileMode.LOCAL;
+    private RowHashIndexStore hashIndex;
+    private String hashTable;
+    private String hashExclude;
+    private String checksumUrl;
+    private URI checksumUri;
+    private HttpTransportRegistry transports;
+    private String name;
+    private int fanout = 16;
+    private int leafSize = 256;
+    private int maxRows = 100000;
+    private DataSource dataSource;
+
+    public ReconcileEndpoint(String endpointUri, ReconcileComponent component) {
+        super(endpointUri, component);
+    }
+
+    @Override
+    public ReconcileComponent getComponent() {
+        return (ReconcileComponent) super.getComponent();
+    }
+
+    @Override
+    public Producer createProducer() throws Exception {
+        return new ReconcileProducer(this);
+    }
+
+    @Override
+    public Consumer createConsumer(Processor processor) throws Exception {
+        throw new UnsupportedOperationException("O endpoint reconcile suporta apenas producer: " + getEndpointUri());
+    }
+
+    @Override
+    protected void doInit() throws Exception {
+        super.doInit();
+        if (keyColumn == null || keyColumn.isBlank()) {
+            throw new IllegalArgumentException("A opção keyColumn é obrigatória: " + getEndpointUri());
+        }
+        if (fanout < 2) {
+            throw new IllegalArgumentException("A opção fanout deve ser pelo menos 2: " + getEndpointUri());
+        }
+        if (leafSize <= 0 || maxRows <= 0) {
+            throw new IllegalArgumentException("leafSize e maxRows devem ser maiores que zero: " + getEndpointUri());
+        }
+        if (fingerprint == null || fingerprint.isBlank()) {
+            if (watermarkColumn == null || watermarkColumn.isBlank()) {
+                throw new IllegalArgumentException("Informe fingerprint ou watermarkColumn: " + getEndpointUri());
+            }
+            fingerprint = SourceChecksums.defaultFingerprint(keyColumn, watermarkColumn);
+        }
+        if (dataSource == null) {
+            dataSource = CamelContextHelper.findSingleByType(getCamelContext(), DataSource.class);
+        }
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Nenhum DataSource configurado para " + getEndpointUri());
+        }
+        if (name == null || name.isBlank()) {
+            name = table;
+        }
+
+        if (mode == ReconcileMode.LOCAL) {
+            if (hashIndex == null) {
+                throw new IllegalArgumentException("O modo local exige hashIndex: " + getEndpointUri());
+            }
+            if (hashTable == null || hashTable.isBlank()) {
+                hashTable = table;
+            }
+            if (hashExclude == null) {
+                hashExclude = watermarkColumn != null ? watermarkColumn : "";
+            }
+        } else {
+            if (checksumUrl == null || checksumUrl.isBlank()) {
+                throw new IllegalArgumentException("O modo target exige checksumUrl: " + getEndpointUri());
+            }
+            checksumUri = URI.create(checksumUrl.trim());
+            String scheme = checksumUri.getScheme() == null ? "" : checksumUri.getScheme().toLowerCase(Locale.ROOT);
+            if (!scheme.equals("http") && !scheme.equals("https")) {
+                throw new IllegalArgumentException("A checksumUrl deve ser http:// ou https://: " + getEndpointUri());
+            }
+            HttpTransportRegistry.host(checksumUri);
+            if (transports == null) {
+                transports = getCamelContext().getRegistry().findSingleByType(HttpTransportRegistry.class);
+                if (transports == null) {
+                    throw new IllegalStateException("Transportes HTTP (HttpTransportRegistry) não registrados");
+                }
+            }
+        }
+    }
+
+    /**
+     * Arquivo das faixas verificadas no modo local.
+     */
+    Path getSignatureFile() {
+        return Paths.get(getComponent().getDirectory()).resolve(name + ".properties");
+    }
+
+    /**
+     * Configuração que invalida as faixas verificadas quando alterada.
+     */
+    String getSignatureConfig() {
+        return "columns=" + columns + ";fingerprint=" + fingerprint + ";fanout=" + fanout
+            + ";hashTable=" + hashTable + ";hashExclude=" + hashExclude;
+    }
+
+    Set<String> getHashExcludeSet() {
+        return Arrays.stream(hashExclude == null ? new String[0] : hashExclude.split(","))
+            .map(String::trim)
+            .filter(column -> !column.isEmpty())
+            .collect(Collectors.toSet());
+    }
+
+    URI getChecksumUri() {
+        return checksumUri;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    public void setKeyColumn(String keyColumn) {
+        this.keyColumn = keyColumn;
+    }
+
+    public String getColumns() {
+        return columns;
+    }
+
+    public void setColumns(String columns) {
+        this.columns = columns;
+    }
+
+    public String getWatermarkColumn() {
+        return watermarkColumn;
+    }
+
+    public void setWatermarkColumn(String watermarkColumn) {
+        this.watermarkColumn = watermarkColumn;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public ReconcileMode getMode() {
+        return mode;
+    }
+
+    public void setMode(ReconcileMode mode) {
+        this.mode = mode;
+    }
+
+    public RowHashIndexStore getHashIndex() {
+        return hashIndex;
+    }
+
+    public void setHashIndex(RowHashIndexStore hashIndex) {
+        this.hashIndex = hashIndex;
+    }
+
+    public String getHashTable() {
+        return hashTable;
+    }
+
+    public void setHashTable(String hashTable) {
+        this.hashTable = hashTable;
+    }
+
+    public String getHashExclude() {
+        return hashExclude;
+    }
+
+    public void setHashExclude(String hashExclude) {
+        this.hashExclude = hashExclude;
+    }
+
+    public String getChecksumUrl() {
+        return checksumUrl;
+    }
+
+    public void setChecksumUrl(String checksumUrl) {
+        this.checksumUrl = checksumUrl;
+    }
+
+    public HttpTransportRegistry getTransports() {
+        return transports;
+    }
+
+    public void setTransports(HttpTransportRegistry transports) {
+        this.transports = transports;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getFanout() {
+        return fanout;
+    }
+
+    public void setFanout(int fanout) {
+        this.fanout = fanout;
+    }
+
+    public int getLeafSize() {
+        return leafSize;
+    }
+
+    public void setLeafSize(int leafSize) {
+        this.leafSize = leafSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+}
@@ -0,0 +1,20 @@
+package br.eagletecnologia.CamelBridge.reconcile;
+
+/**
+ * Com o que a origem é comparada na reconciliação.
+ */
+public enum ReconcileMode {
+
+    /**
+     * Com os hashes das entregas gravados no índice de hash local (rowHashIndex), sem
+     * consultar o destino. As faixas verificadas ficam gravadas em disco e, nas próximas
+     * execuções, só as faixas cujo checksum na origem mudou são comparadas de novo.
+     */
+    LOCAL,
+
+    /**
+     * Com os checksums calculados pelo próprio destino, em uma URL que responde às
+     * consultas de faixa ({@link HttpChecksumTarget}).
+     */
+    TARGET
+}
@@ -0,0 +1,105 @@
+package br.eagletecnologia.CamelBridge.reconcile;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.support.DefaultProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Producer que executa uma reconciliação por faixas e substitui o corpo da mensagem
+ * pelos registros a reenviar.
+ *
+ * Com o cabeçalho RECONCILIACAO_COMPLETA = true, os checksums do alvo (ou as faixas
+ * verificadas no modo local) são ignorados e todas as folhas da origem são comparadas.
+ *
+ * @see ReconcileEndpoint
+ */
+public class ReconcileProducer extends DefaultProducer {
+
+    /**
+     * Cabeçalho de entrada que força a comparação de todas as faixas.
+     */
+    public static final String FULL_HEADER = "RECONCILIACAO_COMPLETA";
+
+    /**
+     * Cabeçalho com a quantidade de registros diferentes devolvidos para reenvio.
+     */
+    public static final String DIFFERENCES_HEADER = "RECONCILIACAO_DIFERENCAS";
+
+    /**
+     * Cabeçalho com a quantidade de registros do destino sem correspondente na origem.
+     */
+    public static final String EXTRA_HEADER = "RECONCILIACAO_EXTRAS";
+
+    /**
+     * Cabeçalho com a quantidade de consultas executadas na origem.
+     */
+    public static final String QUERIES_HEADER = "RECONCILIACAO_CONSULTAS";
+
+    /**
+     * Cabeçalho com a quantidade de linhas lidas da origem nas faixas folha.
+     */
+    public static final String ROWS_READ_HEADER = "RECONCILIACAO_LINHAS_LIDAS";
+
+    /**
+     * Cabeçalho que indica que a execução parou em maxRows e há faixas a comparar.
+     */
+    public static final String TRUNCATED_HEADER = "RECONCILIACAO_INCOMPLETA";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReconcileProducer.class);
+
+    public ReconcileProducer(ReconcileEndpoint endpoint) {
+        super(endpoint);
+    }
+
+    @Override
+    public ReconcileEndpoint getEndpoint() {
+        return (ReconcileEndpoint) super.getEndpoint();
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        ReconcileEndpoint endpoint = getEndpoint();
+        Message in = exchange.getIn();
+        boolean full = in.getHeader(FULL_HEADER, false, Boolean.class);
+
+        long started = System.nanoTime();
+        RangeReconciler reconciler;
+        List<Map<String, Object>> rows;
+        // Execuções simultâneas do mesmo endpoint sobrescreveriam as faixas verificadas
+        synchronized (endpoint) {
+            SourceChecksums source = new SourceChecksums(endpoint.getDataSource(), endpoint.getTable(),
+                endpoint.getKeyColumn(), endpoint.getColumns(), endpoint.getFingerprint());
+            reconciler = new RangeReconciler(source, target(endpoint), endpoint.getFanout(), endpoint.getLeafSize(),
+                endpoint.getMaxRows(), full);
+            rows = reconciler.run();
+        }
+
+        LOG.info("Reconciliação de {} ({}{}) concluída em {} ms: {} registro(s) diferente(s), {} extra(s) no destino, "
+                + "{} faixa(s) comparada(s) ({} folha(s)), {} consulta(s), {} linha(s) lidas{}",
+            endpoint.getTable(), endpoint.getMode(), full ? ", completa" : "", (System.nanoTime() - started) / 1_000_000,
+            reconciler.getDifferences(), reconciler.getExtra(), reconciler.getRanges(), reconciler.getLeaves(),
+            reconciler.getQueries(), reconciler.getRowsRead(),
+            reconciler.isTruncated() ? "; limite maxRows atingido, restante na próxima execução" : "");
+
+        in.setHeader(DIFFERENCES_HEADER, reconciler.getDifferences());
+        in.setHeader(EXTRA_HEADER, reconciler.getExtra());
+        in.setHeader(QUERIES_HEADER, reconciler.getQueries());
+        in.setHeader(ROWS_READ_HEADER, reconciler.getRowsRead());
+        in.setHeader(TRUNCATED_HEADER, reconciler.isTruncated());
+        in.setBody(rows);
+    }
+
+    private static ReconcileTarget target(ReconcileEndpoint endpoint) throws Exception {
+        if (endpoint.getMode() == ReconcileMode.TARGET) {
+            return new HttpChecksumTarget(endpoint.getTransports(), endpoint.getChecksumUri(),
+                endpoint.getTable(), endpoint.getKeyColumn());
+        }
+        return new LocalHashTarget(endpoint.getSignatureFile(), endpoint.getSignatureConfig(),
+            endpoint.getHashIndex().get(endpoint.getHashTable()), endpoint.getHashExcludeSet());
+    }
+}
@@ -0,0 +1,97 @@
+package br.eagletecnologia.CamelBridge.reconcile;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lado comparado com a origem na reconciliação por faixas ({@link RangeReconciler}).
+ *
+ * O reconciliador pede ao alvo os checksums das faixas filhas de cada faixa divergente
+ * e, nas faixas pequenas o suficiente (folhas), pede a comparação registro a registro.
+ */
+public interface ReconcileTarget {
+
+    /**
+     * Checksums das faixas {@code firstBucket..lastBucket} de largura {@code width}.
+     * Uma faixa ausente do mapa é tratada como diferente da origem (ex: o alvo não sabe
+     * nada sobre ela); uma faixa sem registros pode vir com quantidade 0.
+     *
+     * @return Checksums por número da faixa
+     */
+    Map<Long, RangeChecksum> checksums(long width, long firstBucket, long lastBucket) throws Exception;
+
+    /**
+     * Compara os registros de uma faixa folha com os da origem.
+     */
+    LeafResult compare(Leaf leaf) throws Exception;
+
+    /**
+     * Informa uma faixa em que a origem e o alvo foram considerados iguais, com o
+     * checksum da origem.
+     */
+    default void verified(RangeChecksum checksum) throws Exception {
+        // nada a gravar
+    }
+
+    /**
+     * Chamado ao final de uma reconciliação concluída sem erros.
+     */
+    default void finish() throws Exception {
+        // nada a gravar
+    }
+
+    /**
+     * Registros de uma faixa folha da origem, lidos sob demanda e no máximo uma vez.
+     */
+    interface Leaf {
+
+        /**
+         * Checksum da faixa na origem.
+         */
+        RangeChecksum getChecksum();
+
+        /**
+         * Impressão digital de cada registro da faixa, por chave (consulta só da chave e
+         * do fingerprint, sem as demais colunas).
+         */
+        Map<Long, Long> fingerprints() throws Exception;
+
+        /**
+         * Registros completos da faixa (colunas projetadas), ordenados pela chave, no
+         * mesmo formato dos registros entregues pelo journal.
+         */
+        List<Map<String, Object>> rows() throws Exception;
+
+        /**
+         * Chave de um registro devolvido por {@link #rows()}.
+         */
+        long keyOf(Map<String, Object> row);
+    }
+
+    /**
+     * Resultado da comparação de uma faixa folha.
+     */
+    final class LeafResult {
+
+        private final Set<Long> different;
+        private final long extra;
+
+        /**
+         * @param different Chaves da origem ausentes ou diferentes no alvo
+         * @param extra Registros do alvo sem correspondente na origem
+         */
+        public LeafResult(Set<Long> different, long extra) {
+            this.different = different;
+            this.extra = extra;
+        }
+
+        public Set<Long> getDifferent() {
+            return different;
+        }
+
+        public long getExtra() {
+            return extra;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package br.eagletecnologia.CamelBridge.reconcile;
+
+import br.eagletecnologia.CamelBridge.codec.EncodedRow;
+import br.eagletecnologia.CamelBridge.codec.RowJsonCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas da reconciliação na origem: limites da chave, checksums das faixas por
+ * agregação (um GROUP BY por faixa divergente) e os registros das faixas folha.
+ *
+ * O fingerprint de cada registro é a expressão SQL informada, reduzida a um valor de
+ * 31 bits (MOD 2147483647) para que a soma de uma faixa não estoure um BIGINT. Sem
+ * expressão própria, é usada a chave combinada com os segundos da coluna de watermark
+ * (MODIFICADO), que o destino consegue reproduzir com os dados que recebeu.
+ *
+ * A coluna de chave deve ser inteira e não negativa (ex: USUARIOS_ID).
+ */
+final class SourceChecksums {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW = new TypeReference<>() { };
+
+    private final DataSource dataSource;
+    private final String table;
+    private final String keyColumn;
+    private final String columns;
+    private final String fingerprint;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private long queries;
+    private long rowsRead;
+
+    /**
+     * @param fingerprint Expressão SQL do fingerprint de um registro (sem o MOD)
+     */
+    SourceChecksums(DataSource dataSource, String table, String keyColumn, String columns, String fingerprint) {
+        this.dataSource = dataSource;
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.columns = columns;
+        this.fingerprint = "MOD(" + fingerprint + ", 2147483647)";
+    }
+
+    /**
+     * Fingerprint padrão: a chave combinada com os segundos desde 1970 do watermark.
+     */
+    static String defaultFingerprint(String keyColumn, String watermarkColumn) {
+        return "CAST(" + keyColumn + " AS BIGINT) * 31 + COALESCE(DATEDIFF(SECOND FROM TIMESTAMP '1970-01-01 00:00:00' TO "
+            + watermarkColumn + "), 0)";
+    }
+
+    /**
+     * Menor e maior chave da tabela, ou null se a tabela estiver vazia.
+     *
+     * @throws IllegalStateException se houver chaves negativas
+     */
+    long[] bounds() throws SQLException {
+        String sql = "SELECT MIN(" + keyColumn + "), MAX(" + keyColumn + ") FROM " + table;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            queries++;
+            if (!resultSet.next() || resultSet.getObject(1) == null) {
+                return null;
+            }
+            long min = resultSet.getLong(1);
+            if (min < 0) {
+                throw new IllegalStateException("A reconciliação por faixas exige chaves não negativas em "
+                    + table + "." + keyColumn + " (menor chave: " + min + ")");
+            }
+            return new long[] {min, resultSet.getLong(2)};
+        }
+    }
+
+    /**
+     * Checksums das faixas de largura {@code width} entre as faixas {@code firstBucket} e
+     * {@code lastBucket}, em uma única consulta agrupada. Faixas sem registros não
+     * aparecem no resultado.
+     */
+    Map<Long, RangeChecksum> checksums(long width, long firstBucket, long lastBucket) throws SQLException {
+        String bucket = keyColumn + " / " + width;
+        String sql = "SELECT " + bucket + ", COUNT(*), SUM(" + fingerprint + ") FROM " + table
+            + " WHERE " + keyColumn + " BETWEEN ? AND ? GROUP BY " + bucket;
+        Map<Long, RangeChecksum> checksums = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, firstBucket * width);
+            statement.setLong(2, lastBucket * width + width - 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                queries++;
+                while (resultSet.next()) {
+                    long b = resultSet.getLong(1);
+                    checksums.put(b, new RangeChecksum(width, b, resultSet.getLong(2), resultSet.getLong(3)));
+                }
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * Fingerprint de cada registro da faixa, por chave.
+     */
+    Map<Long, Long> fingerprints(RangeChecksum range) throws SQLException {
+        String sql = "SELECT " + keyColumn + ", " + fingerprint + " FROM " + table
+            + " WHERE " + keyColumn + " BETWEEN ? AND ?";
+        Map<Long, Long> fingerprints = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, range.getFrom());
+            statement.setLong(2, range.getTo());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                queries++;
+                while (resultSet.next()) {
+                    fingerprints.put(resultSet.getLong(1), resultSet.getLong(2));
+                    rowsRead++;
+                }
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Registros da faixa com as colunas projetadas, ordenados pela chave. Cada linha é
+     * escrita em JSON pelo {@link RowJsonCodec} e lida de volta pelo Jackson, como faz o
+     * journal entre a extração e a entrega, para que os valores (e os hashes do índice
+     * calculados sobre eles) sejam os mesmos de uma entrega normal.
+     */
+    List<Map<String, Object>> rows(RangeChecksum range) throws Exception {
+        String sql = "SELECT " + columns + " FROM " + table
+            + " WHERE " + keyColumn + " BETWEEN ? AND ? ORDER BY " + keyColumn;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, range.getFrom());
+            statement.setLong(2, range.getTo());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                queries++;
+                RowJsonCodec codec = RowJsonCodec.of(resultSet.getMetaData(), List.of(keyColumn));
+                while (resultSet.next()) {
+                    EncodedRow row = codec.encode(resultSet);
+                    rows.add(objectMapper.readValue(row.getJson(), ROW));
+                    rowsRead++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Chave de um registro devolvido por {@link #rows}.
+     */
+    long keyOf(Map<String, Object> row) {
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(keyColumn)) {
+                if (!(entry.getValue() instanceof Number)) {
+                    throw new IllegalStateException("Chave não inteira em " + table + "." + keyColumn + ": "
+                        + entry.getValue());
+                }
+                return ((Number) entry.getValue()).longValue();
+            }
+        }
+        throw new IllegalStateException("A coluna de chave " + keyColumn + " não está entre as colunas projetadas");
+    }
+
+    String getTable() {
+        return table;
+    }
+
+    String getKeyColumn() {
+        return keyColumn;
+    }
+
+    long getQueries() {
+        return queries;
+    }
+
+    long getRowsRead() {
+        return rowsRead;
+    }
+}
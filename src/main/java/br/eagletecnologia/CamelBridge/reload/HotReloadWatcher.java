@@ -0,0 +1,420 @@
+package br.eagletecnologia.CamelBridge.reload;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.Service;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.ModelCamelContext;
+import org.apache.camel.model.RouteDefinition;
+import org.apache.camel.spi.PropertiesComponent;
+import org.apache.camel.spi.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recarrega rotas YAML e propriedades alteradas em disco sem reiniciar a JVM.
+ *
+ * Observa (WatchService) o diretório de rotas e os arquivos de propriedades externos do
+ * PropertiesComponent (locais {@code file:}). As alterações são agrupadas por
+ * {@code debounce} ms, pois os editores costumam gravar um arquivo em vários passos, e
+ * aplicadas assim:
+ * <ul>
+ *   <li>Arquivo de rotas alterado: o arquivo é lido e validado primeiro; se estiver
+ *       correto, apenas as rotas que vieram dele são paradas e substituídas pelas novas.
+ *       Um arquivo removido remove as suas rotas; um arquivo novo adiciona as dele.</li>
+ *   <li>Propriedades alteradas: as propriedades são recarregadas e apenas as rotas que
+ *       usam alguma chave alterada ({@code {{chave}}}) são reiniciadas. Chaves que nenhuma
+ *       rota usa (ex: pool de conexões, beans do AppConfiguration, sync.table.*) só valem
+ *       após reiniciar a aplicação, o que é avisado no log.</li>
+ * </ul>
+ *
+ * Cada rota é parada de forma graciosa: novas mensagens deixam de ser consumidas e as que
+ * estão em andamento terminam (até {@code drainTimeout} s) antes da substituição. Os beans
+ * do registro (pool Hikari, executor de entrega, componente HTTP e as suas conexões,
+ * journals) não são recriados e continuam aquecidos. Se as novas rotas não puderem ser
+ * criadas, as anteriores são restauradas.
+ */
+public class HotReloadWatcher implements Service {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HotReloadWatcher.class);
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\??([^}:]+)[^}]*}}");
+
+    private final CamelContext camelContext;
+    private final Path routesDirectory;
+    private final long debounce;
+    private final long drainTimeout;
+
+    private final List<Path> propertiesFiles = new ArrayList<>();
+    private final Object reloadLock = new Object();
+
+    private WatchService watchService;
+    private ExecutorService executor;
+
+    /**
+     * @param camelContext Contexto cujas rotas são recarregadas
+     * @param routesDirectory Diretório dos arquivos YAML de rotas
+     * @param debounce Tempo (ms) sem novas alterações antes de aplicá-las
+     * @param drainTimeout Tempo máximo (s) de espera pelas mensagens em andamento de cada rota
+     */
+    public HotReloadWatcher(CamelContext camelContext, Path routesDirectory, long debounce, long drainTimeout) {
+        this.camelContext = camelContext;
+        this.routesDirectory = routesDirectory.toAbsolutePath().normalize();
+        this.debounce = debounce;
+        this.drainTimeout = drainTimeout;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (watchService != null) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Set<Path> directories = new LinkedHashSet<>();
+            if (Files.isDirectory(routesDirectory)) {
+                directories.add(routesDirectory);
+            }
+            for (String location : camelContext.getPropertiesComponent().getLocations()) {
+                Path file = propertiesFile(location);
+                if (file != null && Files.isDirectory(file.getParent())) {
+                    propertiesFiles.add(file);
+                    directories.add(file.getParent());
+                }
+            }
+            for (Path directory : directories) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+            if (directories.isEmpty()) {
+                LOG.info("Recarga automática: nenhum diretório de rotas ou arquivo de propriedades externo encontrado");
+            } else {
+                LOG.info("Recarga automática observando {}", directories);
+            }
+        } catch (IOException e) {
+            LOG.warn("Recarga automática desativada: {}", e.getMessage());
+            return;
+        }
+        executor = camelContext.getExecutorServiceManager().newSingleThreadExecutor(this, "HotReload");
+        WatchService watcher = watchService;
+        executor.execute(() -> watch(watcher));
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOG.debug("Erro ao fechar o WatchService: {}", e.getMessage());
+            }
+            watchService = null;
+        }
+        if (executor != null) {
+            camelContext.getExecutorServiceManager().shutdownNow(executor);
+            executor = null;
+        }
+        propertiesFiles.clear();
+    }
+
+    /**
+     * Arquivo local de um local do PropertiesComponent, ou null se não for {@code file:}.
+     */
+    private static Path propertiesFile(String location) {
+        if (!location.startsWith("file:")) {
+            return null;
+        }
+        String path = location.substring("file:".length());
+        int options = path.indexOf(';');
+        if (options >= 0) {
+            path = path.substring(0, options);
+        }
+        return Paths.get(path).toAbsolutePath().normalize();
+    }
+
+    private void watch(WatchService watcher) {
+        Set<Path> changed = new LinkedHashSet<>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = changed.isEmpty() ? watcher.take() : watcher.poll(debounce, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    apply(changed);
+                    changed.clear();
+                    continue;
+                }
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        changed.addAll(propertiesFiles);
+                        changed.addAll(routeFiles());
+                    } else {
+                        Path file = directory.resolve((Path) event.context());
+                        if (propertiesFiles.contains(file) || isRouteFile(file)) {
+                            changed.add(file);
+                        }
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Parado
+        }
+    }
+
+    private boolean isRouteFile(Path file) {
+        String name = file.getFileName().toString();
+        return routesDirectory.equals(file.getParent()) && (name.endsWith(".yaml") || name.endsWith(".yml"));
+    }
+
+    private List<Path> routeFiles() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(routesDirectory, "*.{yaml,yml}")) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            LOG.warn("Erro ao listar {}: {}", routesDirectory, e.getMessage());
+        }
+        return files;
+    }
+
+    /**
+     * Aplica as alterações agrupadas: propriedades primeiro, para que as rotas recarregadas
+     * já usem os novos valores.
+     */
+    private void apply(Set<Path> changed) {
+        if (!camelContext.getStatus().isStarted()) {
+            return;
+        }
+        Set<String> reloaded = new HashSet<>();
+        List<Path> routeFiles = new ArrayList<>();
+        boolean properties = false;
+        for (Path file : changed) {
+            if (propertiesFiles.contains(file)) {
+                properties = true;
+            } else {
+                routeFiles.add(file);
+            }
+        }
+        try {
+            Set<String> skip = new HashSet<>();
+            for (Path file : routeFiles) {
+                routesFrom(file.getFileName().toString()).forEach(route -> skip.add(route.getRouteId()));
+            }
+            if (properties) {
+                reloaded.addAll(reloadProperties(skip));
+            }
+            for (Path file : routeFiles) {
+                reloaded.addAll(reloadRoutes(file));
+            }
+        } catch (Exception e) {
+            LOG.error("Erro na recarga automática: {}", e.getMessage(), e);
+        }
+        if (!reloaded.isEmpty()) {
+            LOG.info("Recarga automática concluída: {} rota(s) substituída(s) {}", reloaded.size(), new TreeSet<>(reloaded));
+        }
+    }
+
+    /**
+     * Recarrega as propriedades e reinicia as rotas que usam alguma chave alterada.
+     *
+     * @return Ids das rotas reiniciadas
+     */
+    public Set<String> reloadProperties() throws Exception {
+        return reloadProperties(Set.of());
+    }
+
+    private Set<String> reloadProperties(Set<String> skip) throws Exception {
+        synchronized (reloadLock) {
+            PropertiesComponent propertiesComponent = camelContext.getPropertiesComponent();
+            Properties before = propertiesComponent.loadProperties();
+            propertiesComponent.reloadProperties(null);
+            Properties after = propertiesComponent.loadProperties();
+
+            Set<String> changed = new TreeSet<>();
+            Set<Object> all = new HashSet<>(before.keySet());
+            all.addAll(after.keySet());
+            for (Object key : all) {
+                if (!Objects.equals(Objects.toString(before.get(key), null), Objects.toString(after.get(key), null))) {
+                    changed.add(key.toString());
+                }
+            }
+            if (changed.isEmpty()) {
+                LOG.info("Propriedades recarregadas: nenhuma alteração");
+                return Set.of();
+            }
+
+            Set<String> unused = new TreeSet<>(changed);
+            List<RouteDefinition> affected = new ArrayList<>();
+            for (RouteDefinition route : model().getRouteDefinitions()) {
+                Set<String> keys = placeholders(route);
+                unused.removeAll(keys);
+                if (keys.stream().anyMatch(changed::contains) && !skip.contains(route.getRouteId())) {
+                    affected.add(route);
+                }
+            }
+            LOG.info("Propriedades alteradas: {}", changed);
+            if (!unused.isEmpty()) {
+                LOG.warn("Propriedades alteradas que nenhuma rota usa; só valem após reiniciar a aplicação: {}", unused);
+            }
+
+            Set<String> restarted = new LinkedHashSet<>();
+            for (RouteDefinition route : affected) {
+                replace(List.of(route), List.of(route), "propriedades alteradas");
+                restarted.add(route.getRouteId());
+            }
+            return restarted;
+        }
+    }
+
+    /**
+     * Chaves {@code {{chave}}} usadas na definição da rota (origem, passos e opções).
+     */
+    static Set<String> placeholders(RouteDefinition route) {
+        Set<String> keys = new HashSet<>();
+        Matcher matcher = PLACEHOLDER.matcher(route.toString());
+        while (matcher.find()) {
+            keys.add(matcher.group(1).trim());
+        }
+        return keys;
+    }
+
+    /**
+     * Substitui as rotas que vieram do arquivo pelas rotas definidas nele agora.
+     *
+     * @return Ids das rotas adicionadas ou substituídas
+     */
+    public Set<String> reloadRoutes(Path file) throws Exception {
+        synchronized (reloadLock) {
+            String name = file.getFileName().toString();
+            List<RouteDefinition> current = routesFrom(name);
+            List<RouteDefinition> replacement;
+            try {
+                replacement = Files.exists(file) ? load(file) : List.of();
+            } catch (Exception e) {
+                LOG.error("Rotas de {} não recarregadas, as atuais continuam em execução: {}", name, e.getMessage());
+                return Set.of();
+            }
+
+            Set<String> currentIds = new HashSet<>();
+            current.forEach(route -> currentIds.add(route.getRouteId()));
+            for (RouteDefinition route : replacement) {
+                if (route.getRouteId() != null && !currentIds.contains(route.getRouteId())
+                        && model().getRouteDefinition(route.getRouteId()) != null) {
+                    LOG.error("Rotas de {} não recarregadas: a rota {} já existe em outro arquivo", name, route.getRouteId());
+                    return Set.of();
+                }
+            }
+
+            replace(current, replacement, "arquivo " + name + " alterado");
+            Set<String> ids = new LinkedHashSet<>();
+            replacement.forEach(route -> ids.add(route.getRouteId()));
+            return ids;
+        }
+    }
+
+    private List<RouteDefinition> routesFrom(String fileName) {
+        List<RouteDefinition> routes = new ArrayList<>();
+        for (RouteDefinition route : model().getRouteDefinitions()) {
+            Resource resource = route.getResource();
+            if (resource != null && fileName.equals(fileName(resource.getLocation()))) {
+                routes.add(route);
+            }
+        }
+        return routes;
+    }
+
+    private static String fileName(String location) {
+        int separator = Math.max(location.lastIndexOf('/'), Math.max(location.lastIndexOf('\\'), location.indexOf(':')));
+        return location.substring(separator + 1);
+    }
+
+    /**
+     * Lê e valida as rotas do arquivo, sem adicioná-las ao contexto.
+     */
+    private List<RouteDefinition> load(Path file) throws Exception {
+        ExtendedCamelContext extended = camelContext.adapt(ExtendedCamelContext.class);
+        Resource resource = extended.getResourceLoader().resolveResource("file:" + file.toAbsolutePath());
+        List<RouteDefinition> routes = new ArrayList<>();
+        for (RoutesBuilder builder : extended.getRoutesLoader().findRoutesBuilders(resource)) {
+            if (builder instanceof RouteBuilder) {
+                routes.addAll(((RouteBuilder) builder).configureRoutes(camelContext).getRoutes());
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Para as rotas atuais esperando as mensagens em andamento e adiciona as novas; se as
+     * novas não puderem ser criadas, restaura as atuais.
+     */
+    private void replace(List<RouteDefinition> current, List<RouteDefinition> replacement, String reason)
+            throws Exception {
+        for (RouteDefinition route : current) {
+            LOG.info("Rota {}: {}; aguardando as mensagens em andamento (até {} s)", route.getRouteId(), reason,
+                drainTimeout);
+            if (!camelContext.getRouteController().stopRoute(route.getRouteId(), drainTimeout, TimeUnit.SECONDS, false)) {
+                LOG.warn("Rota {}: mensagens ainda em andamento após {} s; rota parada mesmo assim",
+                    route.getRouteId(), drainTimeout);
+            }
+        }
+        model().removeRouteDefinitions(current);
+        try {
+            model().addRouteDefinitions(replacement);
+        } catch (Exception e) {
+            LOG.error("Erro ao iniciar as novas rotas ({}); restaurando as anteriores: {}", reason, e.getMessage());
+            List<RouteDefinition> added = new ArrayList<>();
+            for (RouteDefinition route : replacement) {
+                if (route.getRouteId() != null && model().getRouteDefinition(route.getRouteId()) == route) {
+                    added.add(route);
+                }
+            }
+            model().removeRouteDefinitions(added);
+            model().addRouteDefinitions(current);
+            throw e;
+        }
+    }
+
+    private ModelCamelContext model() {
+        return camelContext.adapt(ModelCamelContext.class);
+    }
+
+    /**
+     * Arquivos de propriedades externos observados.
+     */
+    public List<Path> getPropertiesFiles() {
+        return List.copyOf(propertiesFiles);
+    }
+
+    /**
+     * Diretório de rotas observado.
+     */
+    public Path getRoutesDirectory() {
+        return routesDirectory;
+    }
+}
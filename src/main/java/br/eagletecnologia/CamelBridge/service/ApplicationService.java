@@ -1,15 +1,40 @@
 package br.eagletecnologia.CamelBridge.service;
 
+import br.eagletecnologia.CamelBridge.checkpoint.CheckpointStore;
+import br.eagletecnologia.CamelBridge.delivery.DeadLetterReplayResult;
+import br.eagletecnologia.CamelBridge.delivery.DeadLetterStore;
+import br.eagletecnologia.CamelBridge.delivery.DeliveryExecutor;
+import br.eagletecnologia.CamelBridge.delivery.HostLimiter;
+import br.eagletecnologia.CamelBridge.execution.ExecutionGuard;
+import br.eagletecnologia.CamelBridge.execution.ExecutionStats;
+import br.eagletecnologia.CamelBridge.metrics.MetricsRegistry;
+import br.eagletecnologia.CamelBridge.metrics.MetricsSnapshot;
+import br.eagletecnologia.CamelBridge.reload.HotReloadWatcher;
+import org.apache.camel.CamelContext;
 import org.apache.camel.main.Main;
 
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Serviço para gerenciar a aplicação e acessar configurações.
  */
 public class ApplicationService {
     
+    /**
+     * Arquivo de propriedades externo, opcional, cujas propriedades têm prioridade sobre
+     * as do application.properties do classpath (padrão config/application.properties,
+     * ou a propriedade de sistema app.config).
+     */
+    public static final String EXTERNAL_PROPERTIES_FILE = System.getProperty("app.config", "config/application.properties");
+    
     private static final String PROPERTIES_FILE = "/application.properties";
     private Properties properties;
     private Main camelMain;
@@ -20,30 +45,48 @@ public class ApplicationService {
     }
     
     /**
-     * Carrega as propriedades do arquivo application.properties.
+     * Carrega as propriedades do arquivo application.properties, sobrepostas pelas do
+     * arquivo externo, se existir.
      */
     private void loadProperties() {
         properties = new Properties();
         try (InputStream is = getClass().getResourceAsStream(PROPERTIES_FILE)) {
             if (is != null) {
                 properties.load(is);
-                lastSearch = properties.getProperty("lastSearch", "N/A");
-            } else {
-                lastSearch = "N/A";
+            }
+            Path external = Paths.get(EXTERNAL_PROPERTIES_FILE);
+            if (Files.isRegularFile(external)) {
+                try (InputStream externalStream = Files.newInputStream(external)) {
+                    properties.load(externalStream);
+                }
             }
         } catch (Exception e) {
             System.err.println("Erro ao carregar propriedades: " + e.getMessage());
-            lastSearch = "N/A";
         }
+        lastSearch = properties.getProperty("lastSearch", "N/A");
     }
     
     /**
-     * Retorna a data da última sincronização (lastSearch).
+     * Retorna a data da última sincronização.
+     * 
+     * Com o Camel iniciado, retorna o watermark mais atrasado entre as rotas
+     * (checkpointStore). Antes disso, retorna o lastSearch configurado.
      */
     public String getLastSearch() {
+        CheckpointStore checkpointStore = lookup("checkpointStore", CheckpointStore.class);
+        if (checkpointStore != null) {
+            return checkpointStore.getOldestWatermark();
+        }
         return lastSearch;
     }
     
+    /**
+     * Retorna uma propriedade do application.properties, ou o valor padrão se ausente.
+     */
+    public String getProperty(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue).trim();
+    }
+    
     /**
      * Atualiza a data da última sincronização.
      */
@@ -77,6 +120,81 @@ public class ApplicationService {
         return "Iniciando...";
     }
     
+    /**
+     * Retorna o estado do limite de envio de cada host de destino (limite atual,
+     * requisições em andamento e fila), ou "--" se nenhum envio foi feito ainda.
+     */
+    public String getDeliveryStatus() {
+        DeliveryExecutor deliveryExecutor = lookup("deliveryExecutor", DeliveryExecutor.class);
+        if (deliveryExecutor == null || deliveryExecutor.getLimiters().isEmpty()) {
+            return "--";
+        }
+        return deliveryExecutor.getLimiters().stream()
+            .map(HostLimiter::toString)
+            .collect(Collectors.joining(" | "));
+    }
+    
+    /**
+     * Retorna a duração das execuções e os disparos ignorados de cada rota agendada
+     * (executionGuard), ou "--" se nenhuma rota executou ainda.
+     */
+    public String getExecutionStatus() {
+        ExecutionGuard executionGuard = lookup("executionGuard", ExecutionGuard.class);
+        if (executionGuard == null || executionGuard.getStats().isEmpty()) {
+            return "--";
+        }
+        return executionGuard.getStats().stream()
+            .map(ExecutionStats::toString)
+            .collect(Collectors.joining(" | "));
+    }
+    
+    /**
+     * Retorna a quantidade de registros pendentes no dead letter (deadLetterStore), ou
+     * -1 se o Camel ainda não iniciou.
+     */
+    public long getDeadLetterCount() {
+        DeadLetterStore deadLetterStore = lookup("deadLetterStore", DeadLetterStore.class);
+        return deadLetterStore == null ? -1 : deadLetterStore.getPending();
+    }
+    
+    /**
+     * Reenvia os registros pendentes no dead letter. Bloqueia até o fim do reenvio;
+     * retorna null se o Camel ainda não iniciou.
+     */
+    public DeadLetterReplayResult replayDeadLetters() {
+        DeadLetterStore deadLetterStore = lookup("deadLetterStore", DeadLetterStore.class);
+        return deadLetterStore == null ? null : deadLetterStore.replay();
+    }
+    
+    /**
+     * Retorna a leitura atual das métricas de vazão e latência das rotas e etapas
+     * (metrics), ou uma lista vazia se o Camel ainda não iniciou.
+     */
+    public List<MetricsSnapshot> getMetrics() {
+        MetricsRegistry metrics = lookup("metrics", MetricsRegistry.class);
+        return metrics == null ? Collections.emptyList() : metrics.snapshot();
+    }
+    
+    /**
+     * Busca um bean no registro do Camel, retornando null se o Camel ainda não iniciou.
+     */
+    private <T> T lookup(String name, Class<T> type) {
+        if (camelMain == null) {
+            return null;
+        }
+        
+        try {
+            CamelContext context = camelMain.getCamelContext();
+            if (context != null) {
+                return context.getRegistry().lookupByNameAndType(name, type);
+            }
+        } catch (Exception e) {
+            // Ignorar
+        }
+        
+        return null;
+    }
+    
     /**
      * Para a aplicação Camel de forma segura.
      */
@@ -91,10 +209,15 @@ public class ApplicationService {
     }
     
     /**
-     * Recarrega as propriedades do arquivo.
+     * Recarrega as propriedades do arquivo e, com o Camel iniciado, aplica as alterações
+     * às rotas que as usam (hotReload), sem reiniciar a aplicação.
+     * 
+     * @return Ids das rotas reiniciadas (vazio se o Camel ainda não iniciou)
      */
-    public void reloadProperties() {
+    public Set<String> reloadProperties() throws Exception {
         loadProperties();
+        HotReloadWatcher hotReload = lookup("hotReload", HotReloadWatcher.class);
+        return hotReload == null ? Set.of() : hotReload.reloadProperties();
     }
 }
 
@@ -0,0 +1,142 @@
+package br.eagletecnologia.CamelBridge.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+
+/**
+ * DataSource que abre as conexões diretamente pelo driver JDBC indicado em db.driver,
+ * usado como origem das conexões do pool Hikari.
+ *
+ * Com apenas a URL e o nome do driver, o Hikari procura o driver pelo DriverManager, que
+ * na primeira chamada carrega e inicializa todos os drivers JDBC presentes no classpath
+ * (ServiceLoader), mesmo os que a aplicação nunca usa. Aqui somente a classe configurada
+ * é carregada e instanciada, e o DriverManager não é consultado.
+ *
+ * O tempo de carga do driver e o da primeira conexão aberta vão para o log, para compor
+ * o relatório de inicialização ({@link StartupReport}).
+ */
+public class JdbcDriverDataSource implements DataSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JdbcDriverDataSource.class);
+
+    private final Driver driver;
+    private final String url;
+    private final AtomicBoolean connected = new AtomicBoolean();
+
+    private volatile int loginTimeout;
+    private volatile PrintWriter logWriter;
+
+    /**
+     * @param driverClassName Classe do driver JDBC (ex: org.firebirdsql.jdbc.FBDriver)
+     * @param url URL de conexão JDBC
+     * @throws IllegalArgumentException se o driver não puder ser carregado ou não aceitar a URL
+     */
+    public JdbcDriverDataSource(String driverClassName, String url) {
+        this.url = url;
+        long start = System.nanoTime();
+        try {
+            Class<?> driverClass = Class.forName(driverClassName.trim(), true, JdbcDriverDataSource.class.getClassLoader());
+            this.driver = (Driver) driverClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+            throw new IllegalArgumentException("Driver JDBC " + driverClassName + " não pôde ser carregado: " + e, e);
+        }
+        try {
+            if (!driver.acceptsURL(url)) {
+                throw new IllegalArgumentException("O driver JDBC " + driverClassName + " não aceita a URL " + url);
+            }
+        } catch (SQLException e) {
+            throw new IllegalArgumentException("URL JDBC inválida para o driver " + driverClassName + ": " + url, e);
+        }
+        LOG.info("Driver JDBC {} {}.{} carregado em {} ms", driverClassName, driver.getMajorVersion(),
+            driver.getMinorVersion(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(new Properties());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Properties info = new Properties();
+        if (username != null) {
+            info.setProperty("user", username);
+        }
+        if (password != null) {
+            info.setProperty("password", password);
+        }
+        return connect(info);
+    }
+
+    private Connection connect(Properties info) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = driver.connect(url, info);
+        if (connection == null) {
+            throw new SQLException("O driver JDBC " + driver.getClass().getName() + " não aceita a URL " + url, "08001");
+        }
+        if (connected.compareAndSet(false, true)) {
+            LOG.info("Primeira conexão com o banco aberta em {} ms",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return connection;
+    }
+
+    /**
+     * Driver JDBC carregado.
+     */
+    public Driver getDriver() {
+        return driver;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return driver.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Não é um wrapper de " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,25 @@
+package br.eagletecnologia.CamelBridge.startup;
+
+/**
+ * Quando o pool de conexões abre as suas primeiras conexões (db.pool.warmup).
+ */
+public enum PoolWarmup {
+
+    /**
+     * Cria o pool na inicialização e abre uma conexão antes de continuar: a aplicação só
+     * inicia com o banco acessível e espera a conexão (até db.pool.connectionTimeout).
+     */
+    EAGER,
+
+    /**
+     * Cria o pool na inicialização sem esperar nenhuma conexão; as db.pool.minimumIdle
+     * conexões são abertas pelas threads do Hikari em segundo plano, enquanto as rotas
+     * iniciam. Com o banco inacessível a aplicação inicia e o erro vai para o log.
+     */
+    BACKGROUND,
+
+    /**
+     * Cria o pool apenas no primeiro uso de uma conexão pelas rotas.
+     */
+    LAZY
+}
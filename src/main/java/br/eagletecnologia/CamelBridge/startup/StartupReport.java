@@ -0,0 +1,222 @@
+package br.eagletecnologia.CamelBridge.startup;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.StartupStep;
+import org.apache.camel.main.BaseMainSupport;
+import org.apache.camel.main.MainListenerSupport;
+import org.apache.camel.support.startup.DefaultStartupStepRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relatório de tempo da inicialização, gravado no log quando o Camel termina de iniciar.
+ *
+ * Registrado no Camel Main ({@code Main#newCamelMain()}), marca o fim de cada fase da
+ * inicialização e, para detalhá-las, registra as etapas do próprio Camel (criação dos beans
+ * da AppConfiguration, leitura dos arquivos de rotas, criação e início de cada rota,
+ * resolução dos componentes). O relatório mostra:
+ * <ul>
+ *   <li>o tempo de cada fase: JVM até a criação do Camel Main, propriedades e contexto,
+ *       beans e coleta das rotas, início do contexto e das rotas</li>
+ *   <li>as rotas que mais demoraram para ser criadas e iniciadas</li>
+ *   <li>as etapas mais demoradas do Camel</li>
+ *   <li>as classes carregadas e se a JVM usou um arquivo de class-data sharing (perfil
+ *       appcds do pom.xml)</li>
+ * </ul>
+ *
+ * Desabilitado com app.startup.report = false. Com camel.main.startup-recorder definido,
+ * o registro de etapas configurado é mantido e o relatório mostra apenas as fases.
+ */
+public class StartupReport extends MainListenerSupport {
+
+    /**
+     * Propriedade que habilita o relatório (padrão: true).
+     */
+    public static final String ENABLED_PROPERTY = "app.startup.report";
+
+    private static final Logger LOG = LoggerFactory.getLogger(StartupReport.class);
+
+    private static final int TOP = 8;
+
+    private final long created = System.nanoTime();
+    private final long jvmUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    private boolean enabled;
+    private Recorder recorder;
+    private long mark;
+
+    @Override
+    public void beforeInitialize(BaseMainSupport main) {
+        enabled = main.getCamelContext().getPropertiesComponent().resolveProperty(ENABLED_PROPERTY)
+            .map(value -> Boolean.parseBoolean(value.trim()))
+            .orElse(true);
+        if (!enabled) {
+            return;
+        }
+        mark = created;
+        phase("Propriedades e criação do contexto");
+
+        ExtendedCamelContext context = main.getCamelContext().adapt(ExtendedCamelContext.class);
+        if (!context.getStartupStepRecorder().isEnabled()) {
+            recorder = new Recorder();
+            recorder.setEnabled(true);
+            recorder.setMaxDepth(-1);
+            context.setStartupStepRecorder(recorder);
+        }
+    }
+
+    @Override
+    public void afterConfigure(BaseMainSupport main) {
+        phase("Beans (AppConfiguration), componentes e coleta das rotas");
+    }
+
+    @Override
+    public void afterStart(BaseMainSupport main) {
+        if (!enabled) {
+            return;
+        }
+        phase("Início do contexto e das rotas");
+        if (recorder != null) {
+            // As etapas de rotas recarregadas depois da inicialização não entram no relatório
+            recorder.setEnabled(false);
+        }
+        LOG.info(report());
+    }
+
+    private void phase(String name) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        phases.merge(name, now - mark, Long::sum);
+        mark = now;
+    }
+
+    /**
+     * Texto do relatório, com as fases registradas até o momento.
+     */
+    public String report() {
+        long camel = phases.values().stream().mapToLong(Long::longValue).sum();
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Inicialização concluída em %s (JVM até o Camel Main: %s, Camel: %s)",
+            millis(TimeUnit.MILLISECONDS.toNanos(jvmUptime) + camel), millis(TimeUnit.MILLISECONDS.toNanos(jvmUptime)),
+            millis(camel)));
+
+        text.append("\n  Fases:");
+        line(text, "JVM e aplicação até o Camel Main", TimeUnit.MILLISECONDS.toNanos(jvmUptime));
+        phases.forEach((name, nanos) -> line(text, name, nanos));
+
+        if (recorder != null) {
+            List<Step> steps = recorder.steps();
+            Map<String, Long> routes = new LinkedHashMap<>();
+            for (Step step : steps) {
+                if ("Route".equals(step.type)) {
+                    routes.merge(step.name, step.millis, Long::sum);
+                }
+            }
+            if (!routes.isEmpty()) {
+                text.append("\n  Rotas mais lentas para criar e iniciar (de ").append(routes.size()).append("):");
+                routes.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(TOP)
+                    .forEach(route -> line(text, route.getKey(), TimeUnit.MILLISECONDS.toNanos(route.getValue())));
+            }
+
+            // Apenas as etapas sem subetapas: o tempo de uma etapa pai já inclui o das filhas
+            Set<Integer> parents = new HashSet<>();
+            steps.forEach(step -> parents.add(step.parentId));
+            List<Step> leaves = new ArrayList<>();
+            for (Step step : steps) {
+                if (!parents.contains(step.id)) {
+                    leaves.add(step);
+                }
+            }
+            leaves.sort(Comparator.comparingLong((Step step) -> step.millis).reversed());
+            text.append("\n  Etapas mais lentas do Camel:");
+            leaves.stream().limit(TOP).forEach(step ->
+                line(text, step.description + " [" + step.type + " " + step.name + "]",
+                    TimeUnit.MILLISECONDS.toNanos(step.millis)));
+        }
+
+        text.append("\n  Classes carregadas: ")
+            .append(ManagementFactory.getClassLoadingMXBean().getLoadedClassCount())
+            .append(", class-data sharing: ").append(classDataSharing());
+        return text.toString();
+    }
+
+    private static void line(StringBuilder text, String name, long nanos) {
+        text.append(String.format("%n    %-60s %10s", name, millis(nanos)));
+    }
+
+    private static String millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos) + " ms";
+    }
+
+    /**
+     * Se a JVM está usando class-data sharing e com qual arquivo (o da própria JDK ou o
+     * gerado pelo perfil appcds).
+     */
+    static String classDataSharing() {
+        if (!System.getProperty("java.vm.info", "").contains("sharing")) {
+            return "desativado";
+        }
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            String archive = hotSpot != null ? hotSpot.getVMOption("SharedArchiveFile").getValue() : "";
+            return archive.isEmpty() ? "ativo (arquivo padrão da JDK)" : "ativo (" + archive + ")";
+        } catch (IllegalArgumentException e) {
+            return "ativo";
+        }
+    }
+
+    /**
+     * Etapa concluída do Camel, com a duração em ms.
+     */
+    private static final class Step {
+        private final int id;
+        private final int parentId;
+        private final String type;
+        private final String name;
+        private final String description;
+        private final long millis;
+
+        private Step(StartupStep step, long millis) {
+            this.id = step.getId();
+            this.parentId = step.getParentId();
+            this.type = step.getType();
+            this.name = step.getName();
+            this.description = step.getDescription();
+            this.millis = millis;
+        }
+    }
+
+    /**
+     * Registro das etapas do Camel concluídas durante a inicialização.
+     */
+    private static final class Recorder extends DefaultStartupStepRecorder {
+
+        private final List<Step> steps = new ArrayList<>();
+
+        @Override
+        protected synchronized void onEndStep(StartupStep step) {
+            steps.add(new Step(step, System.currentTimeMillis() - step.getBeginTime()));
+        }
+
+        private synchronized List<Step> steps() {
+            return new ArrayList<>(steps);
+        }
+    }
+}
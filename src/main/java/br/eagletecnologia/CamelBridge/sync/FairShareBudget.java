@@ -0,0 +1,247 @@
+package br.eagletecnologia.CamelBridge.sync;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Orçamento de recursos (ex: conexões do pool, requisições HTTP) dividido entre as
+ * tabelas sincronizadas.
+ *
+ * Cada tabela pede uma quantidade de vagas e só continua quando há vagas livres no
+ * orçamento, que nunca é ultrapassado. Quando várias tabelas aguardam, a próxima a ser
+ * atendida é a que menos usou o orçamento recentemente (vagas &times; segundos de uso,
+ * com meia-vida de {@value #HALF_LIFE_SECONDS} s); em caso de empate, a que chegou
+ * primeiro. Assim uma tabela grande, que acabou de ocupar o orçamento por muito tempo,
+ * dá a vez às tabelas pequenas, e uma tabela pequena nunca fica esperando atrás de uma
+ * fila de execuções da grande.
+ *
+ * Quem está na vez e ainda não cabe nas vagas livres segura as vagas que forem sendo
+ * liberadas: um pedido grande nunca é ultrapassado indefinidamente pelos pequenos.
+ */
+public class FairShareBudget {
+
+    static final long HALF_LIFE_SECONDS = 300;
+
+    private static final double HALF_LIFE_NANOS = TimeUnit.SECONDS.toNanos(HALF_LIFE_SECONDS);
+
+    private final String name;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Map<String, Account> accounts = new HashMap<>();
+    private final List<Waiter> waiters = new ArrayList<>();
+
+    private int inUse;
+    private long sequence;
+
+    /**
+     * @param name Nome do recurso, usado nos logs (ex: "conexões")
+     * @param capacity Quantidade total de vagas
+     */
+    public FairShareBudget(String name, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("O orçamento de " + name + " deve ser maior que zero");
+        }
+        this.name = name;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Ocupa {@code permits} vagas para a tabela se estiverem livres e ninguém estiver
+     * aguardando; caso contrário, devolve null sem esperar. Pedidos maiores que o
+     * orçamento são reduzidos ao orçamento inteiro.
+     */
+    public Lease tryAcquire(String table, int permits) {
+        int requested = clamp(permits);
+        lock.lock();
+        try {
+            if (!waiters.isEmpty() || capacity - inUse < requested) {
+                return null;
+            }
+            inUse += requested;
+            return new Lease(table, requested);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aguarda a vez da tabela e vagas livres e ocupa {@code permits} vagas. Pedidos
+     * maiores que o orçamento são reduzidos ao orçamento inteiro.
+     */
+    public Lease acquire(String table, int permits) throws InterruptedException {
+        int requested = clamp(permits);
+        lock.lockInterruptibly();
+        try {
+            Waiter waiter = new Waiter(table, sequence++);
+            waiters.add(waiter);
+            try {
+                while (next() != waiter || capacity - inUse < requested) {
+                    released.await();
+                }
+            } finally {
+                waiters.remove(waiter);
+                // Com a saída deste, outro pode ter passado a ser o próximo
+                released.signalAll();
+            }
+            inUse += requested;
+            return new Lease(table, requested);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int clamp(int permits) {
+        return Math.max(1, Math.min(permits, capacity));
+    }
+
+    /**
+     * O próximo a ser atendido: menor uso recente, depois ordem de chegada.
+     */
+    private Waiter next() {
+        long now = System.nanoTime();
+        Waiter next = null;
+        double nextUsage = 0;
+        for (Waiter waiter : waiters) {
+            double usage = usage(waiter.table, now);
+            if (next == null || usage < nextUsage || (usage == nextUsage && waiter.sequence < next.sequence)) {
+                next = waiter;
+                nextUsage = usage;
+            }
+        }
+        return next;
+    }
+
+    private double usage(String table, long now) {
+        Account account = accounts.get(table);
+        return account != null ? account.usage(now) : 0;
+    }
+
+    private void release(Lease lease) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            inUse -= lease.permits;
+            double seconds = (now - lease.acquiredAt) / 1e9;
+            accounts.computeIfAbsent(lease.table, table -> new Account(now)).add(lease.permits * seconds, now);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Uso recente da tabela (vagas &times; segundos, com decaimento), usado para decidir
+     * a vez entre as tabelas.
+     */
+    public double getUsage(String table) {
+        lock.lock();
+        try {
+            return usage(table, System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Vagas ocupadas no momento.
+     */
+    public int getInUse() {
+        lock.lock();
+        try {
+            return inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pedidos aguardando vaga no momento.
+     */
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d/%d em uso, %d aguardando", name, getInUse(), capacity, getWaiting());
+    }
+
+    /**
+     * Vagas ocupadas por uma tabela; devolvidas ao orçamento no {@link #close()}.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String table;
+        private final int permits;
+        private final long acquiredAt = System.nanoTime();
+        private boolean closed;
+
+        private Lease(String table, int permits) {
+            this.table = table;
+            this.permits = permits;
+        }
+
+        public int getPermits() {
+            return permits;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                release(this);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final String table;
+        private final long sequence;
+
+        private Waiter(String table, long sequence) {
+            this.table = table;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Uso acumulado de uma tabela, com decaimento exponencial.
+     */
+    private static final class Account {
+        private double usage;
+        private long updatedAt;
+
+        private Account(long now) {
+            this.updatedAt = now;
+        }
+
+        private double usage(long now) {
+            return usage * Math.pow(0.5, (now - updatedAt) / HALF_LIFE_NANOS);
+        }
+
+        private void add(double amount, long now) {
+            usage = usage(now) + amount;
+            updatedAt = now;
+        }
+    }
+}
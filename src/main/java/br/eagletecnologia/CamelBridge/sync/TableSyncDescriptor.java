@@ -0,0 +1,266 @@
+package br.eagletecnologia.CamelBridge.sync;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Descrição compacta da sincronização de uma tabela, lida das propriedades
+ * {@code sync.table.<nome>.<opção>} do application.properties.
+ *
+ * Cada descritor vira as mesmas três rotas escritas à mão em routes/usuarios.yaml
+ * (extração por keyset para o journal, entrega do journal em lotes e envio HTTP), geradas
+ * por {@link TableSyncRoutes} e disparadas pelo {@link TableSyncScheduler}.
+ *
+ * Opções:
+ * <ul>
+ *   <li>table: nome da tabela no banco (padrão: o nome do descritor em maiúsculas)</li>
+ *   <li>keyColumns: colunas que identificam o registro (obrigatório); a primeira define a
+ *       fila de entrega e a coluna de partição. Com uma única coluna, o índice de hash
+ *       descarta os registros sem alteração real</li>
+ *   <li>watermarkColumn: coluna de data de alteração (padrão: MODIFICADO)</li>
+ *   <li>columns: colunas enviadas (padrão: *); devem incluir as colunas de chave e a de watermark</li>
+ *   <li>targetUrl: URL da API que recebe os lotes via POST (obrigatório)</li>
+ *   <li>batchSize: registros por requisição HTTP (padrão: 500)</li>
+ *   <li>pageSize: registros por página na extração (padrão: 500)</li>
+ *   <li>interval: intervalo (ms) entre o fim de uma extração e o início da próxima
+ *       (padrão: sync.scheduler.interval)</li>
+ *   <li>partitions / partitionThreshold: extração particionada (padrão: 1 / 50000)</li>
+ *   <li>parallelism: filas de lotes enviadas em paralelo (padrão: 2)</li>
+ *   <li>maxBytes, encoding, deadLetterOn: como no componente bulk</li>
+ *   <li>maxRecords / delay: registros lidos do journal por vez e intervalo (ms) entre
+ *       as leituras da entrega (padrão: 5000 / 1000)</li>
+ * </ul>
+ */
+public final class TableSyncDescriptor {
+
+    /**
+     * Prefixo das propriedades dos descritores.
+     */
+    public static final String PREFIX = "sync.table.";
+
+    private static final Set<String> OPTIONS = Set.of(
+        "table", "keyColumns", "watermarkColumn", "columns", "targetUrl", "batchSize", "pageSize", "interval",
+        "partitions", "partitionThreshold", "parallelism", "maxBytes", "encoding", "deadLetterOn",
+        "maxRecords", "delay");
+
+    private final String name;
+    private final String table;
+    private final List<String> keyColumns;
+    private final String watermarkColumn;
+    private final String columns;
+    private final String targetUrl;
+    private final int batchSize;
+    private final int pageSize;
+    private final long interval;
+    private final int partitions;
+    private final long partitionThreshold;
+    private final int parallelism;
+    private final long maxBytes;
+    private final String encoding;
+    private final String deadLetterOn;
+    private final int maxRecords;
+    private final long delay;
+
+    private TableSyncDescriptor(String name, Map<String, String> options, long defaultInterval) {
+        this.name = name;
+        this.table = options.getOrDefault("table", name.toUpperCase(Locale.ROOT));
+        this.keyColumns = split(required(name, options, "keyColumns"));
+        this.watermarkColumn = options.getOrDefault("watermarkColumn", "MODIFICADO");
+        this.columns = options.getOrDefault("columns", "*");
+        this.targetUrl = required(name, options, "targetUrl");
+        this.batchSize = (int) number(name, options, "batchSize", 500);
+        this.pageSize = (int) number(name, options, "pageSize", 500);
+        this.interval = number(name, options, "interval", defaultInterval);
+        this.partitions = (int) number(name, options, "partitions", 1);
+        this.partitionThreshold = number(name, options, "partitionThreshold", 50000);
+        this.parallelism = (int) number(name, options, "parallelism", 2);
+        this.maxBytes = number(name, options, "maxBytes", 1024 * 1024);
+        this.encoding = options.getOrDefault("encoding", "JSON");
+        this.deadLetterOn = options.getOrDefault("deadLetterOn", "REJECTED");
+        this.maxRecords = (int) number(name, options, "maxRecords", 5000);
+        this.delay = number(name, options, "delay", 1000);
+
+        if (keyColumns.isEmpty()) {
+            throw new IllegalArgumentException(PREFIX + name + ".keyColumns não pode ser vazio");
+        }
+        if (!columns.trim().equals("*")) {
+            List<String> projected = split(columns);
+            List<String> missing = new ArrayList<>();
+            for (String column : getKeysetColumns()) {
+                if (projected.stream().noneMatch(column::equalsIgnoreCase)) {
+                    missing.add(column);
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException(PREFIX + name + ".columns deve incluir " + String.join(",", missing));
+            }
+        }
+        if (batchSize <= 0 || pageSize <= 0 || partitions <= 0 || parallelism <= 0 || maxRecords <= 0) {
+            throw new IllegalArgumentException(
+                PREFIX + name + ": batchSize, pageSize, partitions, parallelism e maxRecords devem ser maiores que zero");
+        }
+        if (interval < 0) {
+            throw new IllegalArgumentException(PREFIX + name + ".interval não pode ser negativo");
+        }
+    }
+
+    /**
+     * Lê os descritores das propriedades {@code sync.table.<nome>.<opção>}, ordenados pelo
+     * nome.
+     *
+     * @param properties Propriedades da aplicação (apenas as com o prefixo são usadas)
+     * @param defaultInterval Intervalo (ms) das tabelas sem a opção interval
+     * @throws IllegalArgumentException se uma opção for desconhecida, obrigatória e
+     *         ausente, ou inválida
+     */
+    public static List<TableSyncDescriptor> parse(Properties properties, long defaultInterval) {
+        Map<String, Map<String, String>> tables = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(PREFIX)) {
+                continue;
+            }
+            String rest = key.substring(PREFIX.length());
+            int dot = rest.indexOf('.');
+            if (dot <= 0 || !OPTIONS.contains(rest.substring(dot + 1))) {
+                throw new IllegalArgumentException("Propriedade de sincronização de tabela desconhecida: " + key
+                    + " (opções: " + OPTIONS.stream().sorted().collect(Collectors.joining(", ")) + ")");
+            }
+            String value = properties.getProperty(key).trim();
+            if (!value.isEmpty()) {
+                tables.computeIfAbsent(rest.substring(0, dot), name -> new TreeMap<>())
+                    .put(rest.substring(dot + 1), value);
+            }
+        }
+
+        List<TableSyncDescriptor> descriptors = new ArrayList<>(tables.size());
+        tables.forEach((name, options) -> descriptors.add(new TableSyncDescriptor(name, options, defaultInterval)));
+        return descriptors;
+    }
+
+    private static String required(String name, Map<String, String> options, String option) {
+        String value = options.get(option);
+        if (value == null) {
+            throw new IllegalArgumentException(PREFIX + name + "." + option + " é obrigatório");
+        }
+        return value;
+    }
+
+    private static long number(String name, Map<String, String> options, String option, long defaultValue) {
+        String value = options.get(option);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(PREFIX + name + "." + option + " deve ser um número: " + value, e);
+        }
+    }
+
+    private static List<String> split(String columns) {
+        return Arrays.stream(columns.split(","))
+            .map(String::trim)
+            .filter(column -> !column.isEmpty())
+            .toList();
+    }
+
+    /**
+     * Nome do descritor: usado nos ids das rotas, no journal e no checkpoint.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    /**
+     * Colunas de ordenação do keyset: a de watermark seguida das colunas de chave.
+     */
+    public List<String> getKeysetColumns() {
+        List<String> keyset = new ArrayList<>();
+        keyset.add(watermarkColumn);
+        keyColumns.stream().filter(column -> !column.equalsIgnoreCase(watermarkColumn)).forEach(keyset::add);
+        return keyset;
+    }
+
+    public String getWatermarkColumn() {
+        return watermarkColumn;
+    }
+
+    public String getColumns() {
+        return columns;
+    }
+
+    public String getTargetUrl() {
+        return targetUrl;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public long getPartitionThreshold() {
+        return partitionThreshold;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public String getDeadLetterOn() {
+        return deadLetterOn;
+    }
+
+    public int getMaxRecords() {
+        return maxRecords;
+    }
+
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * Conexões do pool que uma extração da tabela pode ocupar ao mesmo tempo.
+     */
+    public int getConnections() {
+        return partitions;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + table + " -> " + targetUrl + ")";
+    }
+}
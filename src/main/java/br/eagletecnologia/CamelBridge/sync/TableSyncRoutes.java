@@ -0,0 +1,154 @@
+package br.eagletecnologia.CamelBridge.sync;
+
+import br.eagletecnologia.CamelBridge.cluster.ClusterRoutePolicy;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.RouteDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Gera, na inicialização, as rotas de cada tabela descrita nas propriedades
+ * {@code sync.table.<nome>.*} ({@link TableSyncDescriptor}).
+ *
+ * Para cada tabela são criadas as mesmas três rotas de routes/usuarios.yaml:
+ * <ul>
+ *   <li>sincronizar-&lt;nome&gt;: watermark do checkpointStore, extração por keyset (JSON)
+ *       e gravação no journal:&lt;nome&gt;; disparada pelo {@link TableSyncScheduler}
+ *       (direct:sincronizar-&lt;nome&gt;) em vez de um cron próprio, e com o
+ *       clusterPolicy, como sincronizar-usuarios</li>
+ *   <li>entregar-&lt;nome&gt;: leitura do journal e entrega em lotes pelo bulk, com o
+ *       deliveryExecutor, o índice de hash e o dead letter</li>
+ *   <li>enviar-lote-&lt;nome&gt;: POST de cada lote para a targetUrl, pelo transporte HTTP
+ *       compartilhado do host (componente delivery:)</li>
+ * </ul>
+ *
+ * Em cluster, a extração de cada tabela é um lease (ou N partições, com
+ * {@code cluster.route.sincronizar-<nome>.partitions}, pela primeira coluna de chave),
+ * e o índice de hash da tabela é informado ao {@link ClusterRoutePolicy}.
+ *
+ * Os ids das rotas não podem repetir os das rotas YAML (ex: não descreva a tabela
+ * usuarios enquanto routes/usuarios.yaml existir).
+ */
+public class TableSyncRoutes extends RouteBuilder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TableSyncRoutes.class);
+
+    private final long defaultInterval;
+
+    /**
+     * @param defaultInterval Intervalo (ms) entre extrações das tabelas sem a opção interval
+     */
+    public TableSyncRoutes(long defaultInterval) {
+        this.defaultInterval = defaultInterval;
+    }
+
+    /**
+     * Endpoint pelo qual o agendador dispara a extração da tabela.
+     */
+    static String extractionUri(String name) {
+        return "direct:sincronizar-" + name;
+    }
+
+    @Override
+    public void configure() {
+        Properties properties = getContext().getPropertiesComponent()
+            .loadProperties(key -> key.startsWith(TableSyncDescriptor.PREFIX));
+        List<TableSyncDescriptor> descriptors = TableSyncDescriptor.parse(properties, defaultInterval);
+        if (descriptors.isEmpty()) {
+            return;
+        }
+
+        TableSyncScheduler scheduler = getContext().getRegistry().findSingleByType(TableSyncScheduler.class);
+        if (scheduler == null) {
+            throw new IllegalStateException("Agendador de tabelas (TableSyncScheduler) não registrado");
+        }
+        ClusterRoutePolicy clusterPolicy = getContext().getRegistry().findSingleByType(ClusterRoutePolicy.class);
+        for (TableSyncDescriptor table : descriptors) {
+            extraction(table, clusterPolicy);
+            delivery(table, scheduler);
+            scheduler.register(table);
+            LOG.info("Sincronização da tabela {} gerada: {}", table.getName(), table);
+        }
+    }
+
+    private void extraction(TableSyncDescriptor table, ClusterRoutePolicy clusterPolicy) {
+        String name = table.getName();
+        String routeId = "sincronizar-" + name;
+        RouteDefinition route = from(extractionUri(name)).routeId(routeId);
+        if (clusterPolicy != null) {
+            route.routePolicy(clusterPolicy);
+            if (table.getKeyColumns().size() == 1) {
+                clusterPolicy.setHashTable(routeId, table.getTable());
+            }
+        }
+        route
+            .log("Iniciando sincronização de " + name)
+            .to("bean:checkpointStore?method=begin")
+            .log("Buscando registros de " + table.getTable() + " modificados após: ${header.ULTIMA_SINCRONIZACAO}")
+            .to(keysetUri(table))
+            .to("journal:" + name + "?watermarkColumn=" + table.getWatermarkColumn())
+            .log("Registros encontrados: ${body.rowCount} registro(s) de " + table.getTable()
+                + " em ${body.pageCount} página(s), ${header.JOURNAL_REGISTROS} gravado(s) no journal")
+            .to("bean:checkpointStore?method=track")
+            .to("bean:checkpointStore?method=commit")
+            .log("Extração de " + name + " concluída");
+    }
+
+    private void delivery(TableSyncDescriptor table, TableSyncScheduler scheduler) {
+        String name = table.getName();
+        from("journal:" + name + "?maxRecords=" + table.getMaxRecords() + "&delay=" + table.getDelay())
+            .routeId("entregar-" + name)
+            .routePolicy(scheduler.deliveryPolicy(table))
+            .log("Entregando ${header.JOURNAL_REGISTROS} registro(s) de " + name
+                + " do journal (offset ${header.JOURNAL_OFFSET})")
+            .to(bulkUri(table))
+            .log("Envio de " + name + " concluído: ${header.RESULTADO_ENVIO}");
+
+        String targetUrl = table.getTargetUrl();
+        from("direct:enviar-lote-" + name)
+            .routeId("enviar-lote-" + name)
+            .log("Enviando lote ${header.LOTE_NUMERO} com ${header.LOTE_REGISTROS} registro(s) de " + name)
+            .to("delivery:" + targetUrl + (targetUrl.contains("?") ? "&" : "?") + "httpMethod=POST")
+            .log("Lote ${header.LOTE_NUMERO} de " + name
+                + " enviado com sucesso. Status HTTP: ${header.CamelHttpResponseCode}");
+    }
+
+    static String keysetUri(TableSyncDescriptor table) {
+        StringBuilder uri = new StringBuilder("keyset:").append(table.getTable())
+            .append("?columns=").append(table.getColumns())
+            .append("&keyColumns=").append(String.join(",", table.getKeysetColumns()))
+            .append("&pageSize=").append(table.getPageSize())
+            .append("&outputType=json&dataSource=#dataSource")
+            .append("&clusterPartitionColumn=").append(table.getKeyColumns().get(0));
+        if (table.getPartitions() > 1) {
+            uri.append("&partitions=").append(table.getPartitions())
+                .append("&partitionColumn=").append(table.getKeyColumns().get(0))
+                .append("&partitionThreshold=").append(table.getPartitionThreshold());
+        }
+        return uri.toString();
+    }
+
+    static String bulkUri(TableSyncDescriptor table) {
+        String name = table.getName();
+        StringBuilder uri = new StringBuilder("bulk:").append(name)
+            .append("?deliverTo=direct:enviar-lote-").append(name)
+            .append("&batchSize=").append(table.getBatchSize())
+            .append("&maxBytes=").append(table.getMaxBytes())
+            .append("&encoding=").append(table.getEncoding())
+            .append("&executor=#deliveryExecutor")
+            .append("&parallelism=").append(table.getParallelism())
+            .append("&keyColumn=").append(table.getKeyColumns().get(0))
+            .append("&destination=RAW(").append(table.getTargetUrl()).append(')')
+            .append("&deadLetter=#deadLetterStore")
+            .append("&deadLetterOn=").append(table.getDeadLetterOn());
+        if (table.getKeyColumns().size() == 1) {
+            // O índice de hash identifica o registro por uma única coluna
+            uri.append("&hashIndex=#rowHashIndex&hashTable=").append(table.getTable())
+                .append("&hashExclude=").append(table.getWatermarkColumn());
+        }
+        return uri.toString();
+    }
+}
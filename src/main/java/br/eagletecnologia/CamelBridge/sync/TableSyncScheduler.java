@@ -0,0 +1,266 @@
+package br.eagletecnologia.CamelBridge.sync;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.Route;
+import org.apache.camel.Service;
+import org.apache.camel.spi.RoutePolicy;
+import org.apache.camel.support.RoutePolicySupport;
+import org.apache.camel.support.service.ServiceHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agendador único das tabelas descritas por {@link TableSyncDescriptor}.
+ *
+ * Em vez de um cron por tabela, uma única thread verifica a cada {@code tick} ms quais
+ * tabelas estão na hora de extrair e as dispara pela rota {@code direct:sincronizar-<nome>},
+ * desde que caibam no orçamento de conexões do banco ({@code dbConnections}, nunca maior
+ * que o pool). Cada extração ocupa uma conexão por partição até terminar. Quando o
+ * orçamento não comporta todas as tabelas atrasadas, a vez é de quem menos usou conexões
+ * recentemente ({@link FairShareBudget}): uma tabela grande não impede as pequenas de
+ * rodar, e a grande volta a ser atendida assim que as vagas que pediu forem liberadas.
+ * Uma tabela nunca tem duas extrações ao mesmo tempo; o intervalo de cada uma conta a
+ * partir do fim da extração anterior.
+ *
+ * A entrega de cada tabela (rota {@code entregar-<nome>}) usa {@link #deliveryPolicy}: cada
+ * grupo lido do journal só é enviado depois de ocupar, no orçamento de requisições HTTP
+ * ({@code httpConcurrency}), as vagas das suas filas paralelas, também com a vez dividida
+ * entre as tabelas pelo uso recente.
+ */
+public class TableSyncScheduler implements Service {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TableSyncScheduler.class);
+
+    private final CamelContext camelContext;
+    private final FairShareBudget connections;
+    private final FairShareBudget requests;
+    private final long tick;
+
+    private final Map<String, TableState> tables = new ConcurrentHashMap<>();
+
+    private boolean started;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService workers;
+    private ProducerTemplate producerTemplate;
+
+    /**
+     * @param camelContext Contexto onde as rotas das tabelas são executadas
+     * @param dbConnections Conexões do pool que as extrações podem ocupar ao mesmo tempo
+     * @param httpConcurrency Requisições HTTP simultâneas somando as entregas de todas as tabelas
+     * @param tick Intervalo (ms) entre as verificações de tabelas na hora de extrair
+     */
+    public TableSyncScheduler(CamelContext camelContext, int dbConnections, int httpConcurrency, long tick) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("O intervalo de verificação do agendador deve ser maior que zero");
+        }
+        this.camelContext = camelContext;
+        this.connections = new FairShareBudget("conexões", dbConnections);
+        this.requests = new FairShareBudget("requisições HTTP", httpConcurrency);
+        this.tick = tick;
+    }
+
+    /**
+     * Inclui uma tabela no agendamento; a primeira extração é disparada logo após o início.
+     */
+    public synchronized void register(TableSyncDescriptor descriptor) {
+        if (tables.putIfAbsent(descriptor.getName(), new TableState(descriptor)) != null) {
+            throw new IllegalArgumentException("Tabela já registrada no agendador: " + descriptor.getName());
+        }
+        if (descriptor.getConnections() > connections.getCapacity()) {
+            LOG.warn("Tabela {}: {} partições, mas o orçamento é de {} conexões; a extração usará todo o orçamento",
+                descriptor.getName(), descriptor.getConnections(), connections.getCapacity());
+        }
+        if (started) {
+            schedule();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        started = true;
+        schedule();
+    }
+
+    /**
+     * Cria as threads do agendador na primeira tabela registrada com o contexto iniciado.
+     */
+    private void schedule() {
+        if (scheduler != null || tables.isEmpty()) {
+            return;
+        }
+        producerTemplate = camelContext.createProducerTemplate();
+        workers = camelContext.getExecutorServiceManager().newCachedThreadPool(this, "TableSync");
+        scheduler = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "TableSyncScheduler");
+        scheduler.scheduleWithFixedDelay(this::dispatch, tick, tick, TimeUnit.MILLISECONDS);
+        LOG.info("Agendador de tabelas iniciado: {} tabela(s), orçamento de {} conexões e {} requisições HTTP",
+            tables.size(), connections.getCapacity(), requests.getCapacity());
+    }
+
+    @Override
+    public synchronized void stop() {
+        started = false;
+        if (scheduler != null) {
+            camelContext.getExecutorServiceManager().shutdownNow(scheduler);
+            scheduler = null;
+        }
+        if (workers != null) {
+            camelContext.getExecutorServiceManager().shutdownGraceful(workers);
+            workers = null;
+        }
+        ServiceHelper.stopService(producerTemplate);
+        producerTemplate = null;
+    }
+
+    /**
+     * Dispara as tabelas na hora de extrair, da que menos usou conexões para a que mais
+     * usou, enquanto couberem no orçamento.
+     */
+    void dispatch() {
+        try {
+            if (!camelContext.getStatus().isStarted()) {
+                return;
+            }
+            long now = System.nanoTime();
+            List<TableState> due = new ArrayList<>();
+            for (TableState state : tables.values()) {
+                if (!state.running && now - state.nextRun >= 0) {
+                    due.add(state);
+                }
+            }
+            due.sort(Comparator.comparingDouble((TableState state) -> connections.getUsage(state.name()))
+                .thenComparingLong(state -> state.nextRun));
+
+            for (TableState state : due) {
+                FairShareBudget.Lease lease = connections.tryAcquire(state.name(), state.descriptor.getConnections());
+                if (lease == null) {
+                    // A próxima da fila aguarda as vagas que pediu; as seguintes não passam à frente
+                    break;
+                }
+                state.running = true;
+                try {
+                    workers.execute(() -> extract(state, lease));
+                } catch (RejectedExecutionException e) {
+                    state.running = false;
+                    lease.close();
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Erro no agendador de tabelas: {}", e.getMessage(), e);
+        }
+    }
+
+    private void extract(TableState state, FairShareBudget.Lease lease) {
+        long begin = System.nanoTime();
+        try {
+            Exchange exchange = producerTemplate.send(TableSyncRoutes.extractionUri(state.name()), e -> { });
+            if (exchange.getException() != null) {
+                LOG.error("Tabela {}: erro na extração: {}", state.name(), exchange.getException().getMessage(),
+                    exchange.getException());
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Tabela {}: erro na extração: {}", state.name(), e.getMessage(), e);
+        } finally {
+            lease.close();
+            long finished = System.nanoTime();
+            state.nextRun = finished + TimeUnit.MILLISECONDS.toNanos(state.descriptor.getInterval());
+            state.running = false;
+            LOG.debug("Tabela {}: extração concluída em {} ms", state.name(),
+                TimeUnit.NANOSECONDS.toMillis(finished - begin));
+        }
+    }
+
+    /**
+     * Política da rota de entrega da tabela: cada exchange ocupa, enquanto é processado,
+     * uma vaga do orçamento de requisições HTTP por fila paralela da tabela.
+     */
+    public RoutePolicy deliveryPolicy(TableSyncDescriptor descriptor) {
+        return new DeliveryPolicy(descriptor.getName(), descriptor.getParallelism());
+    }
+
+    /**
+     * Orçamento de conexões do banco dividido entre as extrações.
+     */
+    public FairShareBudget getConnections() {
+        return connections;
+    }
+
+    /**
+     * Orçamento de requisições HTTP dividido entre as entregas.
+     */
+    public FairShareBudget getRequests() {
+        return requests;
+    }
+
+    /**
+     * Tabelas registradas, ordenadas pelo nome.
+     */
+    public List<TableSyncDescriptor> getTables() {
+        return tables.values().stream()
+            .map(state -> state.descriptor)
+            .sorted(Comparator.comparing(TableSyncDescriptor::getName))
+            .toList();
+    }
+
+    private final class DeliveryPolicy extends RoutePolicySupport {
+
+        private static final String LEASE_PROPERTY = "CamelBridgeOrcamentoEntrega";
+
+        private final String table;
+        private final int permits;
+
+        private DeliveryPolicy(String table, int permits) {
+            this.table = table;
+            this.permits = permits;
+        }
+
+        @Override
+        public void onExchangeBegin(Route route, Exchange exchange) {
+            try {
+                exchange.setProperty(LEASE_PROPERTY, requests.acquire(table, permits));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.setException(e);
+                exchange.setRouteStop(true);
+            }
+        }
+
+        @Override
+        public void onExchangeDone(Route route, Exchange exchange) {
+            FairShareBudget.Lease lease = exchange.getProperty(LEASE_PROPERTY, FairShareBudget.Lease.class);
+            if (lease != null) {
+                exchange.removeProperty(LEASE_PROPERTY);
+                lease.close();
+            }
+        }
+    }
+
+    /**
+     * Estado de agendamento de uma tabela.
+     */
+    private static final class TableState {
+        private final TableSyncDescriptor descriptor;
+        private volatile boolean running;
+        private volatile long nextRun = System.nanoTime();
+
+        private TableState(TableSyncDescriptor descriptor) {
+            this.descriptor = descriptor;
+        }
+
+        private String name() {
+            return descriptor.getName();
+        }
+    }
+}
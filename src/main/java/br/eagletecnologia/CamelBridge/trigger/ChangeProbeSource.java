@@ -0,0 +1,117 @@
+package br.eagletecnologia.CamelBridge.trigger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Origem que repete uma consulta barata e dispara quando o resultado muda.
+ *
+ * A consulta deve devolver uma linha que muda a cada alteração da tabela, e custar muito
+ * menos que a extração: por exemplo {@code SELECT MAX(MODIFICADO) FROM USUARIOS} (com
+ * índice descendente em MODIFICADO, no Firebird) ou o valor de um generator incrementado
+ * por trigger ({@code SELECT GEN_ID(GEN_USUARIOS_ALTERACAO, 0) FROM RDB$DATABASE}). As
+ * colunas da primeira linha são comparadas como texto com as da consulta anterior.
+ *
+ * A primeira consulta sempre dispara, já que as alterações feitas com a aplicação parada
+ * não são conhecidas. Uma consulta com erro (ex: banco fora do ar) não dispara; o
+ * resultado seguinte é comparado com o último lido com sucesso.
+ */
+public class ChangeProbeSource implements TriggerSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeProbeSource.class);
+
+    private final DataSource dataSource;
+    private final String query;
+    private final long interval;
+
+    private TriggerListener listener;
+    private ScheduledFuture<?> task;
+    private String lastValue;
+    private boolean failing;
+
+    /**
+     * @param dataSource Banco consultado
+     * @param query Consulta de alteração
+     * @param interval Intervalo (ms) entre as consultas
+     */
+    public ChangeProbeSource(DataSource dataSource, String query, long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("O intervalo da consulta de alteração deve ser maior que zero");
+        }
+        this.dataSource = dataSource;
+        this.query = query;
+        this.interval = interval;
+    }
+
+    @Override
+    public synchronized void start(TriggerListener listener, ScheduledExecutorService scheduler) {
+        this.listener = listener;
+        task = scheduler.scheduleWithFixedDelay(this::probe, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void probe() {
+        String value;
+        try {
+            value = read();
+        } catch (SQLException e) {
+            if (!failing) {
+                LOG.warn("Consulta de alteração falhou ({}): {}", query, e.getMessage());
+                failing = true;
+            }
+            return;
+        }
+        if (failing) {
+            LOG.info("Consulta de alteração voltou a responder ({})", query);
+            failing = false;
+        }
+        if (!value.equals(lastValue)) {
+            String reason = lastValue == null ? "início" : "alteração";
+            LOG.debug("Consulta de alteração: {} -> {}", lastValue, value);
+            lastValue = value;
+            listener.fire(reason);
+        }
+    }
+
+    private String read() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            if (!resultSet.next()) {
+                return "";
+            }
+            int columns = resultSet.getMetaData().getColumnCount();
+            StringBuilder value = new StringBuilder();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    value.append('|');
+                }
+                value.append(resultSet.getString(i));
+            }
+            return value.toString();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * Último resultado lido com sucesso, ou null antes da primeira consulta.
+     */
+    public synchronized String getLastValue() {
+        return lastValue;
+    }
+}
@@ -0,0 +1,160 @@
+package br.eagletecnologia.CamelBridge.trigger;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.firebirdsql.event.EventManager;
+import org.firebirdsql.event.FBEventManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Origem que dispara com os eventos POST_EVENT do Firebird, pelo gerenciador de eventos
+ * do Jaybird. Nenhuma consulta é feita enquanto não há alterações: o servidor avisa a
+ * aplicação quando a transação que postou o evento é confirmada.
+ *
+ * Os eventos são postados por triggers da tabela, por exemplo:
+ * <pre>
+ * CREATE TRIGGER USUARIOS_ALTERADO FOR USUARIOS AFTER INSERT OR UPDATE OR DELETE AS
+ * BEGIN
+ *   POST_EVENT 'USUARIOS_ALTERADO';
+ * END
+ * </pre>
+ *
+ * A origem mantém uma conexão própria, aberta direto pelo driver e fora do pool (uma
+ * conexão emprestada por tempo indeterminado seria acusada pela detecção de vazamentos
+ * e reduziria o pool). A cada reconnectDelay ms a conexão é verificada; se caiu, é
+ * reaberta, e a reconexão dispara uma vez, pois os eventos postados sem a conexão se
+ * perderam.
+ */
+public class FirebirdEventSource implements TriggerSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FirebirdEventSource.class);
+
+    /**
+     * Tempo máximo (s) da verificação da conexão.
+     */
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    private final DataSource dataSource;
+    private final List<String> events;
+    private final long reconnectDelay;
+
+    private TriggerListener listener;
+    private ScheduledFuture<?> task;
+    private Connection connection;
+    private EventManager eventManager;
+    private boolean failing;
+
+    /**
+     * @param dataSource Banco Firebird; com o pool Hikari, a conexão é aberta pelo
+     *                   DataSource de origem do pool
+     * @param events Nomes dos eventos observados
+     * @param reconnectDelay Intervalo (ms) entre as verificações da conexão
+     */
+    public FirebirdEventSource(DataSource dataSource, List<String> events, long reconnectDelay) {
+        if (events.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um evento do Firebird");
+        }
+        if (reconnectDelay <= 0) {
+            throw new IllegalArgumentException("O intervalo de reconexão deve ser maior que zero");
+        }
+        this.dataSource = dataSource;
+        this.events = List.copyOf(events);
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public synchronized void start(TriggerListener listener, ScheduledExecutorService scheduler) {
+        this.listener = listener;
+        task = scheduler.scheduleWithFixedDelay(this::check, 0, reconnectDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Conecta, ou reconecta se a conexão caiu.
+     */
+    private synchronized void check() {
+        if (task == null) {
+            return;
+        }
+        try {
+            if (connection != null && connection.isValid(VALIDATION_TIMEOUT)) {
+                return;
+            }
+        } catch (SQLException e) {
+            // Tratada como conexão perdida
+        }
+        if (connection != null) {
+            LOG.warn("Conexão de eventos do Firebird perdida; reconectando");
+            close();
+        }
+
+        try {
+            connection = openConnection();
+            eventManager = FBEventManager.createFor(connection);
+            if (!eventManager.isConnected()) {
+                eventManager.connect();
+            }
+            for (String event : events) {
+                eventManager.addEventListener(event,
+                    databaseEvent -> listener.fire("evento " + databaseEvent.getEventName()));
+            }
+        } catch (SQLException e) {
+            if (!failing) {
+                LOG.warn("Não foi possível registrar os eventos {} do Firebird: {}", events, e.getMessage());
+                failing = true;
+            }
+            close();
+            return;
+        }
+        failing = false;
+        LOG.info("Aguardando os eventos {} do Firebird", events);
+        listener.fire("conexão");
+    }
+
+    private Connection openConnection() throws SQLException {
+        if (dataSource instanceof HikariDataSource) {
+            HikariDataSource pool = (HikariDataSource) dataSource;
+            if (pool.getDataSource() != null) {
+                return pool.getUsername() != null
+                    ? pool.getDataSource().getConnection(pool.getUsername(), pool.getPassword())
+                    : pool.getDataSource().getConnection();
+            }
+        }
+        return dataSource.getConnection();
+    }
+
+    private void close() {
+        if (eventManager != null) {
+            try {
+                eventManager.close();
+            } catch (SQLException e) {
+                LOG.debug("Erro ao fechar o gerenciador de eventos: {}", e.getMessage());
+            }
+            eventManager = null;
+        }
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOG.debug("Erro ao fechar a conexão de eventos: {}", e.getMessage());
+            }
+            connection = null;
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+        close();
+    }
+}
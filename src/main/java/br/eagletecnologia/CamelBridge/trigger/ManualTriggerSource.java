@@ -0,0 +1,49 @@
+package br.eagletecnologia.CamelBridge.trigger;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Origem disparada pelo próprio processo, sem banco: substitui a consulta de alteração
+ * ou os eventos do Firebird nos testes, e permite disparar a rota a partir de outra rota
+ * ou da interface (ex: bean:gatilhoUsuarios?method=fire).
+ *
+ * Registrada como bean e usada com {@code trigger:nome?triggerSource=#bean}. Os disparos
+ * feitos antes de a rota iniciar são descartados.
+ */
+public class ManualTriggerSource implements TriggerSource {
+
+    private volatile TriggerListener listener;
+
+    @Override
+    public void start(TriggerListener listener, ScheduledExecutorService scheduler) {
+        this.listener = listener;
+    }
+
+    /**
+     * Pede uma execução da rota.
+     *
+     * @return false se a rota não está iniciada
+     */
+    public boolean fire() {
+        return fire("manual");
+    }
+
+    /**
+     * Pede uma execução da rota com o motivo informado.
+     *
+     * @return false se a rota não está iniciada
+     */
+    public boolean fire(String reason) {
+        TriggerListener current = listener;
+        if (current == null) {
+            return false;
+        }
+        current.fire(reason);
+        return true;
+    }
+
+    @Override
+    public void stop() {
+        listener = null;
+    }
+}
@@ -0,0 +1,30 @@
+package br.eagletecnologia.CamelBridge.trigger;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.support.DefaultComponent;
+
+import java.util.Map;
+
+/**
+ * Componente Camel de disparo das rotas por alteração no banco.
+ *
+ * Registrado em AppConfiguration com o nome "trigger" e usado no from das rotas no lugar
+ * do cron:
+ * <pre>
+ * trigger:usuarios?probe=SELECT MAX(MODIFICADO) FROM USUARIOS&amp;probeInterval=2000
+ * trigger:usuarios?source=event&amp;events=USUARIOS_ALTERADO&amp;maxInterval=300000
+ * trigger:usuarios?triggerSource=#gatilhoUsuarios
+ * </pre>
+ *
+ * @see TriggerEndpoint
+ */
+public class TriggerComponent extends DefaultComponent {
+
+    @Override
+    protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
+        TriggerEndpoint endpoint = new TriggerEndpoint(uri, this);
+        endpoint.setName(remaining);
+        setProperties(endpoint, parameters);
+        return endpoint;
+    }
+}
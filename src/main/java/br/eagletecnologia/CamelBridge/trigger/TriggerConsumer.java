@@ -0,0 +1,166 @@
+package br.eagletecnologia.CamelBridge.trigger;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.support.DefaultConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer que executa a rota a cada disparo da {@link TriggerSource} do endpoint.
+ *
+ * Os disparos são agrupados: no máximo uma execução fica pendente. Um disparo recebido
+ * com a rota parada inicia uma execução; os recebidos durante uma execução marcam uma
+ * única execução seguinte, iniciada assim que a atual termina. Assim, uma rajada de
+ * alterações vira no máximo duas execuções, e nenhuma alteração fica sem uma execução
+ * iniciada depois dela.
+ *
+ * As execuções rodam em uma thread própria, separada da thread da origem, para que a
+ * origem continue observando (e agrupando disparos) durante uma extração longa. Com
+ * maxInterval &gt; 0, a rota também é executada quando passa esse tempo sem nenhuma
+ * execução, como garantia contra eventos perdidos.
+ */
+public class TriggerConsumer extends DefaultConsumer {
+
+    /**
+     * Cabeçalho com o motivo do primeiro disparo agrupado na execução (ex: alteração,
+     * evento USUARIOS_ALTERADO, intervalo).
+     */
+    public static final String REASON_HEADER = "TRIGGER_MOTIVO";
+
+    /**
+     * Cabeçalho com a quantidade de disparos agrupados na execução.
+     */
+    public static final String COUNT_HEADER = "TRIGGER_DISPAROS";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TriggerConsumer.class);
+
+    private final Object lock = new Object();
+    private boolean pending;
+    private String pendingReason;
+    private int pendingCount;
+
+    private TriggerSource source;
+    private ExecutorService worker;
+    private ScheduledExecutorService scheduler;
+
+    public TriggerConsumer(TriggerEndpoint endpoint, Processor processor) {
+        super(endpoint, processor);
+    }
+
+    @Override
+    public TriggerEndpoint getEndpoint() {
+        return (TriggerEndpoint) super.getEndpoint();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        TriggerEndpoint endpoint = getEndpoint();
+        synchronized (lock) {
+            pending = false;
+            pendingCount = 0;
+        }
+        worker = endpoint.getCamelContext().getExecutorServiceManager()
+            .newSingleThreadExecutor(this, "Trigger[" + endpoint.getName() + "]");
+        scheduler = endpoint.getCamelContext().getExecutorServiceManager()
+            .newSingleThreadScheduledExecutor(this, "TriggerSource[" + endpoint.getName() + "]");
+        worker.execute(this::runLoop);
+        source = endpoint.createSource();
+        source.start(this::fire, scheduler);
+    }
+
+    /**
+     * Registra um disparo; chamado pela origem, de qualquer thread.
+     */
+    void fire(String reason) {
+        synchronized (lock) {
+            if (!pending) {
+                pending = true;
+                pendingReason = reason;
+            }
+            pendingCount++;
+            lock.notifyAll();
+        }
+    }
+
+    private void runLoop() {
+        long maxInterval = getEndpoint().getMaxInterval();
+        long lastRun = System.nanoTime();
+        try {
+            while (isRunAllowed()) {
+                String reason;
+                int count;
+                synchronized (lock) {
+                    while (!pending && isRunAllowed()) {
+                        if (maxInterval <= 0) {
+                            lock.wait();
+                            continue;
+                        }
+                        long remaining = maxInterval - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastRun);
+                        if (remaining <= 0) {
+                            pending = true;
+                            pendingReason = "intervalo";
+                            pendingCount = 1;
+                        } else {
+                            lock.wait(remaining);
+                        }
+                    }
+                    if (!isRunAllowed()) {
+                        return;
+                    }
+                    reason = pendingReason;
+                    count = pendingCount;
+                    pending = false;
+                    pendingCount = 0;
+                }
+                run(reason, count);
+                lastRun = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(String reason, int count) {
+        LOG.debug("Trigger {}: executando ({}, {} disparo(s) agrupado(s))", getEndpoint().getName(), reason, count);
+        Exchange exchange = createExchange(false);
+        exchange.getIn().setHeader(REASON_HEADER, reason);
+        exchange.getIn().setHeader(COUNT_HEADER, count);
+        try {
+            getProcessor().process(exchange);
+        } catch (Exception e) {
+            exchange.setException(e);
+        }
+        if (exchange.getException() != null) {
+            getExceptionHandler().handleException("Erro na execução disparada por " + getEndpoint().getName(),
+                exchange, exchange.getException());
+        }
+        releaseExchange(exchange, false);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (source != null) {
+            source.stop();
+            source = null;
+        }
+        if (scheduler != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(scheduler);
+            scheduler = null;
+        }
+        if (worker != null) {
+            // Encerra a espera por disparos; uma execução em andamento termina normalmente
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdown(worker);
+            worker = null;
+        }
+        super.doStop();
+    }
+}
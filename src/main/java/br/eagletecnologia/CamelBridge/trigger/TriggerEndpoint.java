@@ -0,0 +1,189 @@
+package br.eagletecnologia.CamelBridge.trigger;
+
+import org.apache.camel.Consumer;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.support.CamelContextHelper;
+import org.apache.camel.support.DefaultEndpoint;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoint de disparo das rotas por alteração, no lugar do cron.
+ *
+ * O consumer executa a rota a cada disparo da origem configurada, com os disparos
+ * agrupados em no máximo uma execução pendente ({@link TriggerConsumer}). Com a tabela
+ * parada, nenhuma extração é feita; uma alteração é sincronizada em segundos, sem esperar
+ * o próximo horário do cron.
+ *
+ * Opções:
+ * <ul>
+ *   <li>name (caminho da URI): nome do gatilho, usado nos logs e nas threads</li>
+ *   <li>source: probe (consulta de alteração, {@link ChangeProbeSource}) ou event (eventos
+ *       POST_EVENT do Firebird, {@link FirebirdEventSource}); padrão: probe</li>
+ *   <li>probe: consulta de alteração (ex: SELECT MAX(MODIFICADO) FROM USUARIOS); obrigatória
+ *       com source=probe</li>
+ *   <li>probeInterval: intervalo (ms) entre as consultas de alteração (padrão: 2000)</li>
+ *   <li>events: nomes dos eventos do Firebird, separados por vírgula; obrigatório com
+ *       source=event</li>
+ *   <li>reconnectDelay: intervalo (ms) entre as verificações da conexão de eventos
+ *       (padrão: 5000)</li>
+ *   <li>maxInterval: executa a rota quando passa esse tempo (ms) sem nenhuma execução,
+ *       como garantia contra alterações não percebidas (padrão: 0, desligado)</li>
+ *   <li>triggerSource: {@link TriggerSource} registrada como bean (ex: #gatilhoUsuarios),
+ *       no lugar de source</li>
+ *   <li>dataSource: DataSource usado; se omitido, o único DataSource do registro</li>
+ * </ul>
+ */
+public class TriggerEndpoint extends DefaultEndpoint {
+
+    private String name;
+    private TriggerSourceType source = TriggerSourceType.PROBE;
+    private String probe;
+    private long probeInterval = 2000;
+    private String events;
+    private long reconnectDelay = 5000;
+    private long maxInterval;
+    private TriggerSource triggerSource;
+    private DataSource dataSource;
+
+    public TriggerEndpoint(String endpointUri, TriggerComponent component) {
+        super(endpointUri, component);
+    }
+
+    @Override
+    public Producer createProducer() throws Exception {
+        throw new UnsupportedOperationException("O endpoint trigger suporta apenas consumer: " + getEndpointUri());
+    }
+
+    @Override
+    public Consumer createConsumer(Processor processor) throws Exception {
+        TriggerConsumer consumer = new TriggerConsumer(this, processor);
+        configureConsumer(consumer);
+        return consumer;
+    }
+
+    @Override
+    protected void doInit() throws Exception {
+        super.doInit();
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("O nome do gatilho é obrigatório: " + getEndpointUri());
+        }
+        if (maxInterval < 0) {
+            throw new IllegalArgumentException("A opção maxInterval não pode ser negativa: " + getEndpointUri());
+        }
+        if (triggerSource != null) {
+            return;
+        }
+        if (source == TriggerSourceType.PROBE && (probe == null || probe.isBlank())) {
+            throw new IllegalArgumentException("A opção probe é obrigatória com source=probe: " + getEndpointUri());
+        }
+        if (source == TriggerSourceType.EVENT && getEventList().isEmpty()) {
+            throw new IllegalArgumentException("A opção events é obrigatória com source=event: " + getEndpointUri());
+        }
+        if (dataSource == null) {
+            dataSource = CamelContextHelper.findSingleByType(getCamelContext(), DataSource.class);
+        }
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Nenhum DataSource configurado para " + getEndpointUri());
+        }
+    }
+
+    /**
+     * Origem dos disparos de um consumer; uma nova a cada início da rota.
+     */
+    TriggerSource createSource() {
+        if (triggerSource != null) {
+            return triggerSource;
+        }
+        if (source == TriggerSourceType.EVENT) {
+            return new FirebirdEventSource(dataSource, getEventList(), reconnectDelay);
+        }
+        return new ChangeProbeSource(dataSource, probe, probeInterval);
+    }
+
+    List<String> getEventList() {
+        if (events == null) {
+            return List.of();
+        }
+        return Arrays.stream(events.split(","))
+            .map(String::trim)
+            .filter(event -> !event.isEmpty())
+            .collect(Collectors.toList());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public TriggerSourceType getSource() {
+        return source;
+    }
+
+    public void setSource(TriggerSourceType source) {
+        this.source = source;
+    }
+
+    public String getProbe() {
+        return probe;
+    }
+
+    public void setProbe(String probe) {
+        this.probe = probe;
+    }
+
+    public long getProbeInterval() {
+        return probeInterval;
+    }
+
+    public void setProbeInterval(long probeInterval) {
+        this.probeInterval = probeInterval;
+    }
+
+    public String getEvents() {
+        return events;
+    }
+
+    public void setEvents(String events) {
+        this.events = events;
+    }
+
+    public long getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    public void setReconnectDelay(long reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    public long getMaxInterval() {
+        return maxInterval;
+    }
+
+    public void setMaxInterval(long maxInterval) {
+        this.maxInterval = maxInterval;
+    }
+
+    public TriggerSource getTriggerSource() {
+        return triggerSource;
+    }
+
+    public void setTriggerSource(TriggerSource triggerSource) {
+        this.triggerSource = triggerSource;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+}
@@ -0,0 +1,16 @@
+package br.eagletecnologia.CamelBridge.trigger;
+
+/**
+ * Recebe os disparos de uma {@link TriggerSource}.
+ */
+@FunctionalInterface
+public interface TriggerListener {
+
+    /**
+     * Pede uma execução da rota. Pode ser chamado de qualquer thread e quantas vezes for
+     * preciso: os disparos recebidos durante uma execução viram uma única execução seguinte.
+     *
+     * @param reason Motivo do disparo, levado ao cabeçalho {@value TriggerConsumer#REASON_HEADER}
+     */
+    void fire(String reason);
+}
@@ -0,0 +1,38 @@
+package br.eagletecnologia.CamelBridge.trigger;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Origem dos disparos de uma rota com o componente trigger.
+ *
+ * Implementações disponíveis:
+ * <ul>
+ *   <li>{@link ChangeProbeSource}: consulta barata (ex: MAX(MODIFICADO)) repetida em
+ *       intervalo curto, que dispara quando o resultado muda</li>
+ *   <li>{@link FirebirdEventSource}: eventos POST_EVENT do Firebird, recebidos sem consultar
+ *       o banco</li>
+ *   <li>{@link ManualTriggerSource}: disparos feitos pelo próprio processo (testes, botões,
+ *       outras rotas)</li>
+ * </ul>
+ *
+ * Outras origens podem ser registradas como bean e usadas com
+ * {@code trigger:nome?triggerSource=#bean}.
+ */
+public interface TriggerSource {
+
+    /**
+     * Começa a observar as alterações. Uma origem que não sabe o que mudou enquanto não
+     * observava (ex: na inicialização ou ao reconectar) deve disparar uma vez ao começar.
+     *
+     * @param listener Recebe os disparos
+     * @param scheduler Thread do consumer para tarefas periódicas da origem; as tarefas
+     *                  agendadas não devem bloquear por muito tempo
+     * @throws Exception se a origem não puder ser iniciada
+     */
+    void start(TriggerListener listener, ScheduledExecutorService scheduler) throws Exception;
+
+    /**
+     * Para de observar as alterações e libera os recursos da origem.
+     */
+    void stop();
+}
@@ -0,0 +1,17 @@
+package br.eagletecnologia.CamelBridge.trigger;
+
+/**
+ * Origens de disparo configuráveis pela opção source do endpoint trigger.
+ */
+public enum TriggerSourceType {
+
+    /**
+     * Consulta de alteração repetida a cada probeInterval ms ({@link ChangeProbeSource}).
+     */
+    PROBE,
+
+    /**
+     * Eventos POST_EVENT do Firebird ({@link FirebirdEventSource}).
+     */
+    EVENT
+}
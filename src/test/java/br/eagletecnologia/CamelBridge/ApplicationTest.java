@@ -22,11 +22,11 @@ class ApplicationTest extends CamelMainTestSupport {
     @Test
     void should_start_route_successfully() {
         // Verifica se a rota foi iniciada corretamente
-        // A rota de sincronização de usuários executa via cron a cada minuto
+        // A rota de sincronização de usuários executa quando a tabela muda (trigger)
         // e depende de banco de dados e API externa, então apenas verificamos
         // se a rota está ativa
         assertTrue(
-                context.getRouteController().getRouteStatus("route1").isStarted(),
+                context.getRouteController().getRouteStatus("sincronizar-usuarios").isStarted(),
                 "A rota deve estar iniciada"
         );
     }
@@ -0,0 +1,165 @@
+package br.eagletecnologia.CamelBridge.cluster;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Divisão dos leases entre nós que compartilham a mesma tabela (H2 em memória).
+ *
+ * Os nós usam um relógio falso e o heartbeat é chamado diretamente, sem a thread do
+ * coordenador, para que cada passo (renovação, expiração, rebalanceamento) seja
+ * determinístico.
+ */
+class ClusterCoordinatorTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final long LEASE_DURATION = 10_000;
+    private static final long HEARTBEAT = 2_000;
+    private static final List<String> ROUTES = List.of("route/a", "route/b", "route/c", "route/d");
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private LeaseTable table;
+
+    @BeforeEach
+    void createTable() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:leases-" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        table = new LeaseTable(dataSource, "CB_LEASES");
+    }
+
+    private ClusterCoordinator node(String nodeId) throws SQLException {
+        ClusterCoordinator node = new ClusterCoordinator(null, table, nodeId, LEASE_DURATION, HEARTBEAT, clock::get);
+        node.register(ClusterRoutePolicy.ROUTES_GROUP, ROUTES);
+        node.join();
+        return node;
+    }
+
+    /**
+     * Dois nós: o primeiro toma tudo, devolve a metade no heartbeat seguinte à entrada do
+     * segundo, que a toma depois do seu próprio heartbeat; nenhum lease fica com os dois ao
+     * mesmo tempo.
+     */
+    @Test
+    void should_split_leases_between_nodes() throws SQLException {
+        ClusterCoordinator first = node("n1");
+        assertEquals(4, first.claim(ClusterRoutePolicy.ROUTES_GROUP).size());
+
+        ClusterCoordinator second = node("n2");
+        assertTrue(second.claim(ClusterRoutePolicy.ROUTES_GROUP).isEmpty(), "Leases válidos não podem ser tomados");
+
+        first.heartbeat();
+        second.heartbeat();
+        Set<String> mine = first.claim(ClusterRoutePolicy.ROUTES_GROUP);
+        Set<String> theirs = second.claim(ClusterRoutePolicy.ROUTES_GROUP);
+        assertEquals(2, mine.size());
+        assertEquals(2, theirs.size());
+        Set<String> all = new HashSet<>(mine);
+        all.addAll(theirs);
+        assertEquals(Set.copyOf(ROUTES), all);
+    }
+
+    /**
+     * Leases em uso não são devolvidos no rebalanceamento.
+     */
+    @Test
+    void should_keep_busy_leases() throws SQLException {
+        ClusterCoordinator first = node("n1");
+        Set<String> mine = first.claim(ClusterRoutePolicy.ROUTES_GROUP);
+        first.busy(mine, true);
+
+        node("n2");
+        first.heartbeat();
+        assertEquals(4, first.claim(ClusterRoutePolicy.ROUTES_GROUP).size());
+
+        first.busy(mine, false);
+        first.heartbeat();
+        assertEquals(2, first.claim(ClusterRoutePolicy.ROUTES_GROUP).size());
+    }
+
+    /**
+     * Um nó que para de renovar perde a validade dos leases antes de outro nó poder
+     * assumi-los, e os leases são assumidos após leaseDuration sem alteração.
+     */
+    @Test
+    void should_take_over_leases_of_stopped_node() throws SQLException {
+        ClusterCoordinator first = node("n1");
+        ClusterCoordinator second = node("n2");
+        first.heartbeat();
+        Set<String> lost = first.claim(ClusterRoutePolicy.ROUTES_GROUP);
+        second.claim(ClusterRoutePolicy.ROUTES_GROUP);
+
+        // n1 para; n2 continua renovando
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(HEARTBEAT);
+            second.heartbeat();
+            assertEquals(2, second.claim(ClusterRoutePolicy.ROUTES_GROUP).size(),
+                "Leases de n1 assumidos antes de expirar");
+        }
+        for (String name : lost) {
+            assertFalse(first.holds(name), "n1 não pode executar com o lease prestes a expirar");
+        }
+
+        clock.addAndGet(HEARTBEAT);
+        second.heartbeat();
+        assertEquals(1, second.getLiveNodes());
+        assertEquals(4, second.claim(ClusterRoutePolicy.ROUTES_GROUP).size());
+
+        // Ao voltar, n1 descobre que perdeu os leases
+        first.heartbeat();
+        assertTrue(first.claim(ClusterRoutePolicy.ROUTES_GROUP).isEmpty());
+    }
+
+    /**
+     * Um nó encerrado normalmente libera os leases, assumidos na hora.
+     */
+    @Test
+    void should_release_leases_on_leave() throws SQLException {
+        ClusterCoordinator first = node("n1");
+        ClusterCoordinator second = node("n2");
+        first.heartbeat();
+        first.claim(ClusterRoutePolicy.ROUTES_GROUP);
+        second.claim(ClusterRoutePolicy.ROUTES_GROUP);
+
+        first.leave();
+        second.heartbeat();
+        assertEquals(1, second.getLiveNodes());
+        assertEquals(4, second.claim(ClusterRoutePolicy.ROUTES_GROUP).size());
+    }
+
+    /**
+     * O estado só é gravado pelo dono atual: o dono anterior não sobrescreve o watermark
+     * gravado depois que o lease foi assumido.
+     */
+    @Test
+    void should_fence_state_of_lost_lease() throws SQLException {
+        ClusterCoordinator first = node("n1");
+        first.claim(ClusterRoutePolicy.ROUTES_GROUP);
+        assertNull(first.readState("route/a"));
+        assertTrue(first.writeState("route/a", "2025-01-01 00:00:00"));
+
+        ClusterCoordinator second = node("n2");
+        for (int i = 0; i < 6; i++) {
+            clock.addAndGet(HEARTBEAT);
+            second.heartbeat();
+        }
+        assertTrue(second.claim(ClusterRoutePolicy.ROUTES_GROUP).contains("route/a"));
+        assertEquals("2025-01-01 00:00:00", second.readState("route/a"));
+        assertTrue(second.writeState("route/a", "2025-01-02 00:00:00"));
+
+        assertFalse(first.writeState("route/a", "2025-01-01 12:00:00"));
+        assertEquals("2025-01-02 00:00:00", second.readState("route/a"));
+    }
+}
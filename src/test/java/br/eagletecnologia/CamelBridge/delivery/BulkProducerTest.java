@@ -0,0 +1,215 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import br.eagletecnologia.CamelBridge.index.RowHashIndexStore;
+import br.eagletecnologia.CamelBridge.journal.Journal;
+import br.eagletecnologia.CamelBridge.journal.JournalRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Entrega dos lotes do componente bulk, com um bean no lugar da API de destino que
+ * responde a cada lote com o status definido pelo teste (e o Retry-After, se houver).
+ */
+class BulkProducerTest {
+
+    private static final List<String> EXCLUDE = List.of();
+
+    @TempDir
+    Path directory;
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private Function<String, Integer> status = body -> 200;
+    private String retryAfter;
+    private RowHashIndexStore hashIndex;
+    private DeadLetterStore deadLetter;
+    private CamelContext context;
+    private ProducerTemplate template;
+
+    @BeforeEach
+    void startContext() {
+        hashIndex = new RowHashIndexStore(directory.resolve("hash"));
+        context = new DefaultCamelContext();
+        deadLetter = new DeadLetterStore(context, directory.resolve("dead-letter"), 1024 * 1024, 100, 0);
+        context.getRegistry().bind("bulk", new BulkComponent());
+        context.getRegistry().bind("indice", hashIndex);
+        context.getRegistry().bind("deadLetter", deadLetter);
+        context.getRegistry().bind("api", (org.apache.camel.Processor) exchange -> {
+            String body = exchange.getIn().getBody(String.class);
+            requests.add(body);
+            int code = status.apply(body);
+            if (code >= 400) {
+                Map<String, String> headers = retryAfter != null ? Map.of("Retry-After", retryAfter) : Map.of();
+                throw new HttpOperationFailedException("http://api/lote", code, "Erro", null, headers, "");
+            }
+        });
+        context.start();
+        deadLetter.start();
+        template = context.createProducerTemplate();
+    }
+
+    @AfterEach
+    void stopContext() {
+        deadLetter.stop();
+        context.stop();
+        hashIndex.stop();
+    }
+
+    private Exchange send(String options, List<Map<String, Object>> rows) {
+        return template.send("bulk:usuarios?deliverTo=bean:api" + options, exchange -> exchange.getIn().setBody(rows));
+    }
+
+    private static Map<String, Object> row(int id, String nome) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("ID", id);
+        row.put("NOME", nome);
+        return row;
+    }
+
+    private static List<Map<String, Object>> rows(int count, int rejected) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int id = 0; id < count; id++) {
+            rows.add(row(id, id == rejected ? "recusado" : "usuario-" + id));
+        }
+        return rows;
+    }
+
+    private static BulkResult result(Exchange exchange) {
+        return exchange.getIn().getHeader(BulkProducer.RESULT_HEADER, BulkResult.class);
+    }
+
+    @Test
+    void should_split_rejected_batch_until_the_rejected_record() {
+        status = body -> body.contains("recusado") ? 400 : 200;
+
+        Exchange exchange = send("&batchSize=8", rows(8, 5));
+
+        // 8 → 4 + 4 → 2 + 2 → 1 + 1: um envio inteiro e dois por nível até o registro recusado
+        assertEquals(7, requests.size());
+        assertTrue(exchange.getException() instanceof BulkDeliveryException);
+        assertEquals(7L, result(exchange).getRecords());
+        assertEquals(1L, result(exchange).getFailedRecords());
+        assertTrue(requests.get(5).contains("recusado"));
+        assertFalse(requests.get(5).contains("usuario-"));
+    }
+
+    @Test
+    void should_dead_letter_only_the_rejected_record() throws Exception {
+        status = body -> body.contains("recusado") ? 422 : 200;
+
+        Exchange exchange = send("&batchSize=8&deadLetter=#deadLetter", rows(8, 2));
+
+        assertNull(exchange.getException());
+        assertEquals(7, requests.size());
+        assertEquals(7L, result(exchange).getRecords());
+        assertEquals(1L, result(exchange).getDeadLetteredRecords());
+        assertEquals(1L, deadLetter.getPending());
+
+        deadLetter.stop();
+        try (Journal journal = new Journal("dead-letter", directory.resolve("dead-letter"), 1024 * 1024)) {
+            List<JournalRecord> letters = journal.read(journal.getAckedOffset(), 10);
+            assertEquals(1, letters.size());
+            DeadLetter letter = new ObjectMapper().readValue(letters.get(0).getPayload(), DeadLetter.class);
+            assertEquals(new String(new ObjectMapper().writeValueAsBytes(row(2, "recusado")), StandardCharsets.UTF_8),
+                letter.getPayload());
+            assertEquals(422, letter.getStatusCode());
+        }
+    }
+
+    @Test
+    void should_not_split_on_timeout_or_throttling() {
+        for (int code : new int[] {408, 429, 500}) {
+            requests.clear();
+            status = body -> code;
+
+            Exchange exchange = send("&batchSize=8&throttleRetries=0&deadLetter=#deadLetter", rows(8, -1));
+
+            // O lote inteiro falha de uma vez e não vai para o dead letter (deadLetterOn=rejected)
+            assertEquals(1, requests.size(), "HTTP " + code);
+            assertTrue(exchange.getException() instanceof BulkDeliveryException);
+            assertEquals(8L, result(exchange).getFailedRecords(), "HTTP " + code);
+        }
+        assertEquals(0L, deadLetter.getPending());
+    }
+
+    @Test
+    void should_resend_throttled_batch_after_retry_after() {
+        retryAfter = "1";
+        status = body -> requests.size() == 1 ? 429 : 200;
+
+        long started = System.nanoTime();
+        Exchange exchange = send("&batchSize=8&throttleRetries=1", rows(8, -1));
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+
+        assertNull(exchange.getException());
+        assertEquals(2, requests.size());
+        assertEquals(requests.get(0), requests.get(1));
+        assertTrue(elapsed >= 1000, "Retry-After de 1 s ignorado: " + elapsed + " ms");
+    }
+
+    @Test
+    void should_parse_retry_after_in_seconds_or_http_date() {
+        assertEquals(120_000L, BulkProducer.parseRetryAfter(" 120 "));
+        assertEquals(0L, BulkProducer.parseRetryAfter("-5"));
+        assertEquals(0L, BulkProducer.parseRetryAfter("amanhã"));
+        assertEquals(0L, BulkProducer.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(30));
+        long millis = BulkProducer.parseRetryAfter(date);
+        assertTrue(millis > 25_000 && millis <= 30_000, "Retry-After em data HTTP: " + millis);
+    }
+
+    @Test
+    void should_not_remember_hashes_when_a_batch_of_the_message_fails() throws Exception {
+        String options = "&batchSize=1&keyColumn=ID&hashIndex=#indice&hashTable=USUARIOS";
+        List<Map<String, Object>> rows = List.of(row(1, "v1"), row(1, "v2"));
+        status = body -> requests.size() == 1 ? 500 : 200;
+
+        // A primeira versão falha e a segunda é aceita: nenhum hash da mensagem é gravado
+        Exchange failed = send(options, rows);
+        assertTrue(failed.getException() instanceof BulkDeliveryException);
+        assertEquals(2, requests.size());
+        assertEquals(0L, hashIndex.get("USUARIOS").get(RowHashIndexStore.keyOf(1)));
+
+        // O reenvio pelo journal repete as duas versões, na ordem, e a mais nova fica por último
+        Exchange retried = send(options, rows);
+        assertNull(retried.getException());
+        assertEquals(4, requests.size());
+        assertTrue(requests.get(2).contains("v1"));
+        assertTrue(requests.get(3).contains("v2"));
+        assertEquals(RowHashIndexStore.hashRow(row(1, "v2"), EXCLUDE),
+            hashIndex.get("USUARIOS").get(RowHashIndexStore.keyOf(1)));
+
+        // Um novo reenvio não descarta a versão mais nova depois de enviar a antiga
+        send(options, rows);
+        assertEquals(6, requests.size());
+        assertTrue(requests.get(5).contains("v2"));
+
+        // Só a versão mais nova, igual à última entregue, é descartada
+        send(options, List.of(row(1, "v2")));
+        assertEquals(6, requests.size());
+    }
+}
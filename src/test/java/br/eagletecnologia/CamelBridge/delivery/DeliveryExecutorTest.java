@@ -0,0 +1,78 @@
+package br.eagletecnologia.CamelBridge.delivery;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ciclo de vida do {@link DeliveryExecutor} como {@link java.util.concurrent.ExecutorService}:
+ * parado não é o mesmo que terminado enquanto houver tarefas em andamento.
+ */
+class DeliveryExecutorTest {
+
+    private CamelContext context;
+    private DeliveryExecutor executor;
+
+    @BeforeEach
+    void startExecutor() {
+        context = new DefaultCamelContext();
+        context.start();
+        executor = new DeliveryExecutor(context, false, 2, 2);
+        executor.start();
+    }
+
+    @AfterEach
+    void stopExecutor() {
+        executor.shutdownNow();
+        context.stop();
+    }
+
+    @Test
+    void should_not_be_terminated_while_a_task_is_running() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // O shutdown gracioso bloqueia até a tarefa terminar, por isso roda em outra thread
+        Thread stopping = new Thread(executor::shutdown);
+        stopping.start();
+        while (!executor.isShutdown()) {
+            Thread.sleep(10);
+        }
+
+        assertFalse(executor.isTerminated());
+        assertFalse(executor.awaitTermination(100, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+        stopping.join();
+    }
+
+    @Test
+    void should_wait_the_timeout_while_not_stopped() throws Exception {
+        assertFalse(executor.isShutdown());
+        assertFalse(executor.isTerminated());
+        assertFalse(executor.awaitTermination(50, TimeUnit.MILLISECONDS));
+
+        executor.stop();
+        assertTrue(executor.isTerminated());
+        assertTrue(executor.awaitTermination(0, TimeUnit.MILLISECONDS));
+    }
+}
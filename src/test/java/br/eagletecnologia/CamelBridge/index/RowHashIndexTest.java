@@ -0,0 +1,123 @@
+package br.eagletecnologia.CamelBridge.index;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ampliação, reabertura e remoção dos arquivos mapeados do {@link RowHashIndex}, e a
+ * reconstrução dos índices pelo {@link RowHashIndexStore} (--rebuild-hash-index).
+ */
+class RowHashIndexTest {
+
+    /** Chaves suficientes para passar de 70% das 65536 posições iniciais. */
+    private static final int KEYS = 50_000;
+
+    @TempDir
+    Path directory;
+
+    private static long hash(long key) {
+        return key * 31 + 7;
+    }
+
+    @Test
+    void should_keep_every_key_after_growing() throws Exception {
+        try (RowHashIndex index = new RowHashIndex(directory, "USUARIOS")) {
+            assertEquals(directory.resolve("USUARIOS.65536.idx"), index.getFile());
+            for (long key = 0; key < KEYS; key++) {
+                index.put(key, hash(key));
+            }
+
+            assertEquals(KEYS, index.size());
+            assertEquals(directory.resolve("USUARIOS.131072.idx"), index.getFile());
+            assertFalse(Files.exists(directory.resolve("USUARIOS.65536.idx")));
+            for (long key = 0; key < KEYS; key++) {
+                assertEquals(hash(key), index.get(key));
+            }
+            assertEquals(0L, index.get(KEYS));
+        }
+    }
+
+    @Test
+    void should_reopen_mapped_file_with_the_same_keys() throws Exception {
+        try (RowHashIndex index = new RowHashIndex(directory, "USUARIOS")) {
+            for (long key = 0; key < KEYS; key++) {
+                index.put(key, hash(key));
+            }
+            // Hash calculado como 0 é gravado como 1, já que 0 marca posição vazia
+            index.put(-1, 0);
+        }
+
+        try (RowHashIndex index = new RowHashIndex(directory, "USUARIOS")) {
+            assertEquals(KEYS + 1, index.size());
+            assertEquals(directory.resolve("USUARIOS.131072.idx"), index.getFile());
+            for (long key = 0; key < KEYS; key++) {
+                assertTrue(index.matches(key, hash(key)));
+            }
+            assertTrue(index.matches(-1, 0));
+            assertEquals(1L, index.get(-1));
+        }
+    }
+
+    @Test
+    void should_prefer_the_largest_signed_file_on_reopen() throws Exception {
+        try (RowHashIndex index = new RowHashIndex(directory, "USUARIOS")) {
+            index.put(1, hash(1));
+        }
+        // Ampliação interrompida antes da assinatura: arquivo maior, mas ainda inválido
+        Files.write(directory.resolve("USUARIOS.131072.idx"), new byte[128]);
+
+        try (RowHashIndex index = new RowHashIndex(directory, "USUARIOS")) {
+            assertEquals(directory.resolve("USUARIOS.65536.idx"), index.getFile());
+            assertEquals(hash(1), index.get(1));
+        }
+        assertEquals(List.of(directory.resolve("USUARIOS.65536.idx")), RowHashIndex.files(directory, "USUARIOS"));
+    }
+
+    @Test
+    void should_find_remaining_keys_after_remove() throws Exception {
+        try (RowHashIndex index = new RowHashIndex(directory, "USUARIOS")) {
+            for (long key = 0; key < KEYS; key++) {
+                index.put(key, hash(key));
+            }
+
+            assertEquals(KEYS / 2, index.removeIf(key -> key % 2 == 1));
+            assertEquals(KEYS / 2, index.size());
+        }
+
+        try (RowHashIndex index = new RowHashIndex(directory, "USUARIOS")) {
+            assertEquals(KEYS / 2, index.size());
+            for (long key = 0; key < KEYS; key++) {
+                assertEquals(key % 2 == 1 ? 0L : hash(key), index.get(key));
+            }
+        }
+    }
+
+    @Test
+    void should_rebuild_one_table_or_all_tables() throws Exception {
+        RowHashIndexStore store = new RowHashIndexStore(directory);
+        try {
+            store.get("usuarios").put(1, hash(1));
+            store.get("FUNCIONARIOS").put(1, hash(1));
+
+            // O índice aberto é fechado e o próximo acesso começa vazio
+            assertEquals(1, store.rebuild("Usuarios"));
+            assertEquals(0, store.get("USUARIOS").size());
+            assertEquals(hash(1), store.get("FUNCIONARIOS").get(1));
+
+            assertEquals(2, store.rebuild(null));
+            assertEquals(List.of(), RowHashIndex.files(directory, "USUARIOS"));
+            assertEquals(List.of(), RowHashIndex.files(directory, "FUNCIONARIOS"));
+            assertEquals(0L, store.get("FUNCIONARIOS").get(1));
+        } finally {
+            store.stop();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package br.eagletecnologia.CamelBridge.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Gravação, confirmação e recuperação do {@link Journal} após quedas, com os arquivos
+ * dos segmentos alterados diretamente em disco.
+ */
+class JournalTest {
+
+    private static final long SEGMENT_SIZE = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private static void append(Journal journal, String... payloads) throws IOException {
+        for (String payload : payloads) {
+            journal.append(payload.getBytes(StandardCharsets.UTF_8));
+        }
+        journal.flush();
+    }
+
+    private static List<String> payloads(List<JournalRecord> records) {
+        return records.stream()
+            .map(record -> new String(record.getPayload(), StandardCharsets.UTF_8))
+            .collect(Collectors.toList());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void should_resume_from_acked_offset_after_reopen() throws Exception {
+        long acked;
+        try (Journal journal = new Journal("teste", directory, SEGMENT_SIZE)) {
+            append(journal, "a", "b", "c");
+            List<JournalRecord> records = journal.read(journal.getAckedOffset(), 10);
+            assertEquals(List.of("a", "b", "c"), payloads(records));
+            acked = records.get(1).getNextOffset();
+            journal.ack(acked);
+        }
+
+        try (Journal journal = new Journal("teste", directory, SEGMENT_SIZE)) {
+            assertEquals(acked, journal.getAckedOffset());
+            assertEquals(List.of("c"), payloads(journal.read(journal.getAckedOffset(), 10)));
+        }
+    }
+
+    @Test
+    void should_discard_torn_tail_on_reopen() throws Exception {
+        long durable;
+        try (Journal journal = new Journal("teste", directory, SEGMENT_SIZE)) {
+            append(journal, "a", "b");
+            durable = journal.getDurableOffset();
+        }
+
+        // Queda no meio da gravação: cabeçalho de 100 bytes com apenas 3 gravados
+        Path segment = segments().get(0);
+        ByteBuffer torn = ByteBuffer.allocate(11).putInt(100).putInt(0).put(new byte[3]);
+        torn.flip();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(torn);
+        }
+
+        try (Journal journal = new Journal("teste", directory, SEGMENT_SIZE)) {
+            assertEquals(durable, journal.getDurableOffset());
+            assertEquals(durable, Files.size(segment));
+            append(journal, "c");
+            assertEquals(List.of("a", "b", "c"), payloads(journal.read(0, 10)));
+        }
+    }
+
+    @Test
+    void should_discard_corrupt_record_at_the_end_on_reopen() throws Exception {
+        long second;
+        try (Journal journal = new Journal("teste", directory, SEGMENT_SIZE)) {
+            append(journal, "a", "b");
+            second = journal.read(0, 10).get(1).getOffset();
+        }
+
+        // Conteúdo do segundo registro diferente do CRC gravado no cabeçalho
+        corrupt(segments().get(0), second);
+
+        try (Journal journal = new Journal("teste", directory, SEGMENT_SIZE)) {
+            assertEquals(second, journal.getDurableOffset());
+            assertEquals(List.of("a"), payloads(journal.read(0, 10)));
+        }
+    }
+
+    @Test
+    void should_fail_reading_corrupt_record_in_a_full_segment() throws Exception {
+        try (Journal journal = new Journal("teste", directory, 32)) {
+            append(journal, "registro-1", "registro-2", "registro-3");
+            assertEquals(3, segments().size());
+        }
+
+        // Só o último segmento é verificado na abertura; os anteriores são verificados na leitura
+        corrupt(segments().get(0), 0);
+
+        try (Journal journal = new Journal("teste", directory, 32)) {
+            IOException error = assertThrows(IOException.class, () -> journal.read(0, 10));
+            assertTrue(error.getMessage().contains("corrompido"));
+        }
+    }
+
+    @Test
+    void should_delete_acked_segments_across_rollover() throws Exception {
+        try (Journal journal = new Journal("teste", directory, 32)) {
+            append(journal, "registro-1", "registro-2", "registro-3", "registro-4");
+            List<JournalRecord> records = journal.read(0, 10);
+            assertEquals(4, records.size());
+            assertEquals(4, segments().size());
+
+            // Confirmar até o meio da fila remove apenas os segmentos anteriores ao do offset
+            journal.ack(records.get(1).getNextOffset());
+            assertEquals(2, segments().size());
+            assertEquals(List.of("registro-3", "registro-4"), payloads(journal.read(journal.getAckedOffset(), 10)));
+
+            // O segmento de gravação nunca é removido, mesmo totalmente confirmado
+            journal.ack(records.get(3).getNextOffset());
+            assertEquals(1, segments().size());
+            assertEquals(0, journal.getPendingBytes());
+
+            append(journal, "registro-5");
+            assertEquals(List.of("registro-5"), payloads(journal.read(journal.getAckedOffset(), 10)));
+        }
+
+        try (Journal journal = new Journal("teste", directory, 32)) {
+            assertEquals(List.of("registro-5"), payloads(journal.read(journal.getAckedOffset(), 10)));
+        }
+    }
+
+    /**
+     * Inverte o primeiro byte do conteúdo do registro gravado na posição informada.
+     */
+    private static void corrupt(Path segment, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer first = ByteBuffer.allocate(1);
+            channel.read(first, position + 8);
+            first.flip();
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) ~first.get()}), position + 8);
+        }
+    }
+}
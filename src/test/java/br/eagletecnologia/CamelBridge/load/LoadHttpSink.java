@@ -0,0 +1,189 @@
+package br.eagletecnologia.CamelBridge.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * API de destino local para o teste de carga, no mesmo processo e sem rede externa.
+ *
+ * Recebe os lotes enviados pela rota enviar-lote-usuarios (comprimidos ou não com gzip),
+ * extrai o USUARIOS_ID de cada registro e marca quais usuários já chegaram. Pode atrasar cada resposta
+ * ({@code latencyMillis}) e recusar uma fração das requisições com HTTP 503
+ * ({@code failureRate}), para medir a sincronização com uma API lenta ou instável.
+ */
+class LoadHttpSink implements AutoCloseable {
+
+    static {
+        // Sem TCP_NODELAY, cada resposta espera o ACK atrasado do cliente (~40 ms)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private static final Pattern ID = Pattern.compile("\"USUARIOS_ID\"\\s*:\\s*(\\d+)");
+    private static final byte[] OK = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final double failureRate;
+
+    private final BitSet delivered = new BitSet();
+    private int distinct;
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile long lastDeliveryNanos;
+
+    /** Usuários acompanhados individualmente: USUARIOS_ID → instante de chegada (nanoTime). */
+    private final Map<Long, Long> watched = new ConcurrentHashMap<>();
+    private volatile Set<Long> watching = Set.of();
+
+    /**
+     * @param threads Requisições atendidas em paralelo
+     * @param latencyMillis Atraso de cada resposta
+     * @param failureRate Fração das requisições recusadas com HTTP 503 (0 a 1)
+     */
+    LoadHttpSink(int threads, long latencyMillis, double failureRate) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "load-http-sink");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            InputStream in = exchange.getRequestBody();
+            if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                in = new GZIPInputStream(in);
+            }
+            byte[] body = readBody(in);
+            requests.incrementAndGet();
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                rejected.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            receive(new String(body, StandardCharsets.UTF_8));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, OK.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(OK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void receive(String body) {
+        long now = System.nanoTime();
+        Set<Long> currentlyWatching = watching;
+        Matcher matcher = ID.matcher(body);
+        int count = 0;
+        synchronized (delivered) {
+            while (matcher.find()) {
+                int id = Integer.parseInt(matcher.group(1));
+                count++;
+                if (!delivered.get(id)) {
+                    delivered.set(id);
+                    distinct++;
+                }
+                if (currentlyWatching.contains((long) id)) {
+                    watched.putIfAbsent((long) id, now);
+                }
+            }
+        }
+        records.addAndGet(count);
+        lastDeliveryNanos = now;
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        try (in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+            in.transferTo(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Passa a registrar o instante de chegada dos usuários informados.
+     */
+    void watch(Set<Long> ids) {
+        watched.clear();
+        watching = Set.copyOf(ids);
+    }
+
+    /**
+     * Instante de chegada (System.nanoTime) de cada usuário acompanhado já recebido.
+     */
+    Map<Long, Long> getWatched() {
+        return watched;
+    }
+
+    /**
+     * Quantidade de usuários diferentes recebidos.
+     */
+    int getDistinct() {
+        synchronized (delivered) {
+            return distinct;
+        }
+    }
+
+    /**
+     * Registros recebidos, incluindo os reenviados.
+     */
+    long getRecords() {
+        return records.get();
+    }
+
+    long getRequests() {
+        return requests.get();
+    }
+
+    long getRejected() {
+        return rejected.get();
+    }
+
+    long getLastDeliveryNanos() {
+        return lastDeliveryNanos;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,398 @@
+package br.eagletecnologia.CamelBridge.load;
+
+import br.eagletecnologia.CamelBridge.Main;
+import br.eagletecnologia.CamelBridge.metrics.HistogramSnapshot;
+import br.eagletecnologia.CamelBridge.metrics.MetricsRegistry;
+import br.eagletecnologia.CamelBridge.metrics.MetricsSnapshot;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.test.main.junit5.CamelMainTestSupport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Teste de carga da sincronização de usuários, de ponta a ponta e sem rede externa.
+ *
+ * Executa as rotas reais de routes/usuarios.yaml (keyset → journal → bulk → http) com
+ * a configuração de application.properties, trocando apenas o banco por um H2 em
+ * memória e a API de destino por uma {@link LoadHttpSink} local. O teste tem duas fases:
+ * <ol>
+ *   <li>carga: {@code load.rows} usuários são gravados em uma única transação e o
+ *   tempo até o último deles chegar à API dá a vazão (registros/s);</li>
+ *   <li>alterações: {@code load.trickle.rows} usuários são alterados um a um, e o tempo
+ *   entre a gravação de cada alteração e a sua chegada à API dá a latência de ponta a
+ *   ponta (inclui a espera pelo gatilho e pelo journal).</li>
+ * </ol>
+ * Durante o teste, o uso de heap e de conexões do pool é amostrado. O relatório é
+ * impresso e gravado em target/load-report.properties.
+ *
+ * A vazão é comparada com a de referência em load-baseline.properties para o mesmo
+ * cenário: abaixo dela menos {@code load.baseline.tolerance}, o teste falha. Com
+ * {@code -Dload.baseline.update=true}, a vazão medida passa a ser a referência.
+ *
+ * Marcado com a tag "load": não roda no build padrão, apenas com {@code mvn test -Pload}.
+ */
+@Tag("load")
+class UsuariosLoadTest extends CamelMainTestSupport {
+
+    private static final int ROWS = Integer.getInteger("load.rows", 10_000);
+    private static final int TRICKLE_ROWS = Integer.getInteger("load.trickle.rows", 100);
+    private static final long SINK_LATENCY_MS = Long.getLong("load.sink.latencyMs", 0);
+    private static final double SINK_FAILURE_RATE = Double.parseDouble(System.getProperty("load.sink.failureRate", "0"));
+    private static final long TIMEOUT_SECONDS = Long.getLong("load.timeoutSeconds", 900);
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("load.baseline.tolerance", "0.15"));
+
+    private static final String DB_URL = "jdbc:h2:mem:camelbridge-load;DB_CLOSE_DELAY=-1";
+    private static final String BASELINE_RESOURCE = "/load-baseline.properties";
+    private static final Path BASELINE_FILE = Paths.get("src/test/resources/load-baseline.properties");
+    private static final Path REPORT_FILE = Paths.get("target/load-report.properties");
+
+    /** MODIFICADO do primeiro usuário carregado; os demais seguem em intervalos de 10 ms. */
+    private static final long BASE_MODIFICADO = Timestamp.valueOf("2025-01-01 00:00:00").getTime();
+
+    private static LoadHttpSink sink;
+    private static Path dataDir;
+
+    @BeforeAll
+    static void startEnvironment() throws Exception {
+        sink = new LoadHttpSink(16, SINK_LATENCY_MS, SINK_FAILURE_RATE);
+        dataDir = Files.createTempDirectory("camelbridge-load");
+        try (Connection connection = DriverManager.getConnection(DB_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE USUARIOS ("
+                + "USUARIOS_ID INTEGER PRIMARY KEY, "
+                + "FUNCIONARIOS_ID INTEGER, "
+                + "USUARIO_LOGIN VARCHAR(60), "
+                + "USUARIO_SENHA VARCHAR(60), "
+                + "PERFIS_ID INTEGER, "
+                + "USUARIO_INATIVO CHAR(1), "
+                + "MODIFICADO TIMESTAMP(3))");
+            statement.execute("CREATE INDEX IDX_USUARIOS_MODIFICADO ON USUARIOS (MODIFICADO, USUARIOS_ID)");
+        }
+    }
+
+    @AfterAll
+    static void stopEnvironment() throws Exception {
+        if (sink != null) {
+            sink.close();
+        }
+        try (Connection connection = DriverManager.getConnection(DB_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Override
+    protected Class<?> getMainClass() {
+        return Main.class;
+    }
+
+    @Override
+    protected Properties useOverridePropertiesWithPropertiesComponent() {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", DB_URL);
+        properties.setProperty("db.username", "sa");
+        properties.setProperty("db.password", "");
+        properties.setProperty("db.driver", "org.h2.Driver");
+        properties.setProperty("db.pool.connectionTestQuery", "SELECT 1");
+        properties.setProperty("usuarios.trigger.probeInterval", "200");
+        properties.setProperty("lastSearch", "2000-01-01 00:00:00");
+        properties.setProperty("sync.checkpoint.file", dataDir.resolve("checkpoints.properties").toString());
+        properties.setProperty("sync.hashIndex.dir", dataDir.resolve("hash-index").toString());
+        properties.setProperty("sync.journal.dir", dataDir.resolve("journal").toString());
+        properties.setProperty("usuarios.targetUrl", sink.getUrl() + "/usuarios");
+        properties.setProperty("metrics.http.enabled", "false");
+        return properties;
+    }
+
+    @Test
+    void should_sync_usuarios_within_baseline_throughput() throws Exception {
+        ResourceSampler sampler = new ResourceSampler(
+            context.getRegistry().lookupByNameAndType("dataSource", HikariDataSource.class).getHikariPoolMXBean());
+        sampler.start();
+        try {
+            // Fase 1: carga
+            long start = loadRows();
+            awaitDelivery();
+            double seconds = (sink.getLastDeliveryNanos() - start) / 1e9;
+            double rowsPerSecond = ROWS / seconds;
+
+            // Fase 2: alterações
+            long[] latencies = trickle();
+
+            sampler.stop();
+            Map<String, String> report = report(seconds, rowsPerSecond, latencies, sampler);
+            checkBaseline(rowsPerSecond, report);
+        } finally {
+            sampler.stop();
+        }
+    }
+
+    /**
+     * Grava os usuários em uma única transação e retorna o instante do commit: antes
+     * dele, as execuções da extração não enxergam nenhum usuário.
+     */
+    private long loadRows() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(DB_URL, "sa", "")) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO USUARIOS VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int id = 1; id <= ROWS; id++) {
+                    insert.setInt(1, id);
+                    insert.setInt(2, 1000 + id);
+                    insert.setString(3, "usuario" + id);
+                    insert.setString(4, "5f4dcc3b5aa765d61d8327deb882cf99");
+                    insert.setInt(5, id % 7);
+                    insert.setString(6, id % 10 == 0 ? "S" : "N");
+                    insert.setTimestamp(7, new Timestamp(BASE_MODIFICADO + id * 10L));
+                    insert.addBatch();
+                    if (id % 1000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+            return System.nanoTime();
+        }
+    }
+
+    private void awaitDelivery() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (sink.getDistinct() < ROWS) {
+            if (System.nanoTime() > deadline) {
+                fail("Apenas " + sink.getDistinct() + " de " + ROWS + " usuário(s) entregues em "
+                    + TIMEOUT_SECONDS + " s");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Altera usuários espalhados pela tabela, um a um, e retorna a latência (ns) entre
+     * o commit de cada alteração e a sua chegada à API.
+     */
+    private long[] trickle() throws Exception {
+        int count = Math.min(TRICKLE_ROWS, ROWS);
+        if (count <= 0) {
+            return new long[0];
+        }
+        Map<Long, Long> committed = new HashMap<>();
+        long step = Math.max(1, ROWS / count);
+        for (int i = 0; i < count; i++) {
+            committed.put(1 + i * step, 0L);
+        }
+        sink.watch(committed.keySet());
+
+        try (Connection connection = DriverManager.getConnection(DB_URL, "sa", "");
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE USUARIOS SET USUARIO_SENHA = ?, MODIFICADO = ? WHERE USUARIOS_ID = ?")) {
+            for (Long id : committed.keySet()) {
+                update.setString(1, "alterada-" + id);
+                update.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                update.setLong(3, id);
+                update.executeUpdate();
+                committed.put(id, System.nanoTime());
+                Thread.sleep(20);
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (sink.getWatched().size() < committed.size()) {
+            if (System.nanoTime() > deadline) {
+                fail("Apenas " + sink.getWatched().size() + " de " + committed.size()
+                    + " alteração(ões) entregues em " + TIMEOUT_SECONDS + " s");
+            }
+            Thread.sleep(50);
+        }
+
+        long[] latencies = new long[committed.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : committed.entrySet()) {
+            latencies[i++] = sink.getWatched().get(entry.getKey()) - entry.getValue();
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private Map<String, String> report(double seconds, double rowsPerSecond, long[] latencies,
+                                       ResourceSampler sampler) throws IOException {
+        Map<String, String> report = new LinkedHashMap<>();
+        report.put("cenario", scenario());
+        report.put("registros", String.valueOf(ROWS));
+        report.put("duracaoSegundos", format(seconds));
+        report.put("registrosPorSegundo", format(rowsPerSecond));
+        report.put("registrosRecebidos", String.valueOf(sink.getRecords()));
+        report.put("requisicoes", String.valueOf(sink.getRequests()));
+        report.put("requisicoesRecusadas", String.valueOf(sink.getRejected()));
+        if (latencies.length > 0) {
+            report.put("latenciaAlteracaoP50Ms", format(percentile(latencies, 50) / 1e6));
+            report.put("latenciaAlteracaoP95Ms", format(percentile(latencies, 95) / 1e6));
+            report.put("latenciaAlteracaoMaxMs", format(latencies[latencies.length - 1] / 1e6));
+        }
+        MetricsRegistry metrics = context.getRegistry().lookupByNameAndType("metrics", MetricsRegistry.class);
+        if (metrics != null) {
+            for (MetricsSnapshot snapshot : metrics.snapshot()) {
+                if (snapshot.isRoute() && "enviar-lote-usuarios".equals(snapshot.getRouteId())) {
+                    HistogramSnapshot latency = snapshot.getLatency();
+                    report.put("envioLoteP50Ms", format(latency.getPercentile(50) / 1e6));
+                    report.put("envioLoteP99Ms", format(latency.getPercentile(99) / 1e6));
+                }
+            }
+        }
+        report.put("heapPicoMb", format(sampler.getPeakHeapBytes() / (1024.0 * 1024.0)));
+        report.put("conexoesAtivasPico", String.valueOf(sampler.getPeakActiveConnections()));
+        report.put("threadsAguardandoConexaoPico", String.valueOf(sampler.getPeakPendingThreads()));
+
+        StringBuilder text = new StringBuilder("\n===== Teste de carga: sincronização de usuários =====\n");
+        Properties properties = new Properties();
+        for (Map.Entry<String, String> entry : report.entrySet()) {
+            text.append(String.format("%-30s %s%n", entry.getKey(), entry.getValue()));
+            properties.setProperty(entry.getKey(), entry.getValue());
+        }
+        System.out.println(text);
+
+        Files.createDirectories(REPORT_FILE.getParent());
+        try (OutputStream out = Files.newOutputStream(REPORT_FILE)) {
+            properties.store(out, "Resultado do teste de carga (UsuariosLoadTest)");
+        }
+        return report;
+    }
+
+    private void checkBaseline(double rowsPerSecond, Map<String, String> report) throws IOException {
+        String key = "registrosPorSegundo." + scenario();
+        Properties baseline = new Properties();
+        try (InputStream in = UsuariosLoadTest.class.getResourceAsStream(BASELINE_RESOURCE)) {
+            if (in != null) {
+                baseline.load(in);
+            }
+        }
+
+        if (Boolean.getBoolean("load.baseline.update")) {
+            baseline.setProperty(key, format(rowsPerSecond));
+            try (OutputStream out = Files.newOutputStream(BASELINE_FILE)) {
+                baseline.store(out, "Vazão de referência do teste de carga (registros/s por cenário)");
+            }
+            System.out.println("Referência atualizada em " + BASELINE_FILE + ": " + key + " = " + format(rowsPerSecond));
+            return;
+        }
+
+        String reference = baseline.getProperty(key);
+        if (reference == null) {
+            System.out.println("Sem vazão de referência para " + key
+                + "; execute com -Dload.baseline.update=true para gravá-la");
+            return;
+        }
+        double minimum = Double.parseDouble(reference) * (1 - TOLERANCE);
+        assertTrue(rowsPerSecond >= minimum, String.format(
+            "Vazão de %.1f registros/s abaixo da referência de %s registros/s (mínimo %.1f com tolerância de %.0f%%): %s",
+            rowsPerSecond, reference, minimum, TOLERANCE * 100, report));
+    }
+
+    /**
+     * Identifica o cenário na referência: a quantidade de registros e, quando usados,
+     * o atraso e a taxa de falhas da API.
+     */
+    private static String scenario() {
+        StringBuilder scenario = new StringBuilder().append(ROWS);
+        if (SINK_LATENCY_MS > 0) {
+            scenario.append(".latencia").append(SINK_LATENCY_MS).append("ms");
+        }
+        if (SINK_FAILURE_RATE > 0) {
+            scenario.append(".falhas").append(SINK_FAILURE_RATE);
+        }
+        return scenario.toString();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    /**
+     * Amostra o heap usado e as conexões do pool a cada 20 ms, guardando os picos.
+     */
+    private static final class ResourceSampler implements Runnable {
+
+        private final HikariPoolMXBean pool;
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final Thread thread = new Thread(this, "load-sampler");
+        private volatile boolean running = true;
+
+        private volatile long peakHeapBytes;
+        private volatile int peakActiveConnections;
+        private volatile int peakPendingThreads;
+
+        ResourceSampler(HikariPoolMXBean pool) {
+            this.pool = pool;
+            thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+                peakActiveConnections = Math.max(peakActiveConnections, pool.getActiveConnections());
+                peakPendingThreads = Math.max(peakPendingThreads, pool.getThreadsAwaitingConnection());
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        long getPeakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        int getPeakActiveConnections() {
+            return peakActiveConnections;
+        }
+
+        int getPeakPendingThreads() {
+            return peakPendingThreads;
+        }
+    }
+}
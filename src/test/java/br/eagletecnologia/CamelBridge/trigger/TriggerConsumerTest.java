@@ -0,0 +1,118 @@
+package br.eagletecnologia.CamelBridge.trigger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Execução e agrupamento dos disparos do componente trigger, com a
+ * {@link ManualTriggerSource} no lugar da consulta de alteração e dos eventos do banco.
+ */
+class TriggerConsumerTest {
+
+    private final ManualTriggerSource source = new ManualTriggerSource();
+    private final List<Exchange> runs = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstRunStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstRun = new CountDownLatch(1);
+    private CamelContext context;
+
+    @BeforeEach
+    void startContext() {
+        context = new DefaultCamelContext();
+        context.getRegistry().bind("trigger", new TriggerComponent());
+        context.getRegistry().bind("gatilho", source);
+    }
+
+    @AfterEach
+    void stopContext() {
+        releaseFirstRun.countDown();
+        context.stop();
+    }
+
+    private void start(String options) throws Exception {
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("trigger:teste?triggerSource=#gatilho" + options)
+                    .routeId("teste")
+                    .process(exchange -> {
+                        runs.add(exchange.copy());
+                        if (runs.size() == 1) {
+                            firstRunStarted.countDown();
+                            releaseFirstRun.await(10, TimeUnit.SECONDS);
+                        }
+                    });
+            }
+        });
+        context.start();
+    }
+
+    private void awaitRuns(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (runs.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void should_run_route_on_fire() throws Exception {
+        start("");
+        releaseFirstRun.countDown();
+        assertTrue(source.fire("alteração"));
+
+        awaitRuns(1);
+        assertEquals(1, runs.size());
+        assertEquals("alteração", runs.get(0).getIn().getHeader(TriggerConsumer.REASON_HEADER));
+        assertEquals(1, runs.get(0).getIn().getHeader(TriggerConsumer.COUNT_HEADER));
+    }
+
+    /**
+     * Os disparos recebidos durante uma execução viram uma única execução seguinte.
+     */
+    @Test
+    void should_coalesce_fires_during_run() throws Exception {
+        start("");
+        source.fire();
+        assertTrue(firstRunStarted.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            source.fire();
+        }
+        releaseFirstRun.countDown();
+
+        awaitRuns(2);
+        Thread.sleep(200);
+        assertEquals(2, runs.size());
+        assertEquals(5, runs.get(1).getIn().getHeader(TriggerConsumer.COUNT_HEADER));
+    }
+
+    @Test
+    void should_run_after_max_interval_without_fires() throws Exception {
+        start("&maxInterval=100");
+        releaseFirstRun.countDown();
+
+        awaitRuns(1);
+        assertEquals("intervalo", runs.get(0).getIn().getHeader(TriggerConsumer.REASON_HEADER));
+    }
+
+    @Test
+    void should_ignore_fires_after_route_stops() throws Exception {
+        start("");
+        releaseFirstRun.countDown();
+        context.getRouteController().stopRoute("teste");
+
+        assertFalse(source.fire());
+    }
+}